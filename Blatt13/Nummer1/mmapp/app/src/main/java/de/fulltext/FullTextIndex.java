@@ -0,0 +1,313 @@
+package de.fulltext;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import de.util.Pair;
+import de.util.TopKSelector;
+
+import static de.util.Pair.paired;
+
+/**
+ * Thread safe inverted index from the terms of texts to the ids of the documents containing
+ * them, ranked with Okapi BM25. Every document is one text, e.g. the description, languages and
+ * locations of a movie joined together. Documents are added, replaced and removed one by one,
+ * so the index can follow the changes of the indexed elements.
+ * <p>
+ *     The index can be saved to a file and loaded again. A fingerprint of every indexed text
+ *     is saved too, so after loading only the documents whose text changed in the meantime
+ *     have to be indexed again, see {@link #synchronize(Map)}.
+ * </p>
+ */
+public class FullTextIndex {
+    /**
+     * BM25 parameter controlling how fast the score saturates with the frequency of a term.
+     */
+    public static final double K1 = 1.2;
+    /**
+     * BM25 parameter controlling how much the score is normalized by the document length.
+     */
+    public static final double B = 0.75;
+
+    private static final int MAGIC = 0x4d4d4654;
+    private static final int VERSION = 1;
+
+    private final Map<String, PostingList> postings;
+    private final Map<Integer, Document> documents;
+    private long totalLength;
+    private boolean modified;
+
+    private static final class Document {
+        private final List<String> terms;
+        private final int length;
+        private final long fingerprint;
+
+        private Document(final List<String> terms, final int length, final long fingerprint) {
+            this.terms = terms;
+            this.length = length;
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    public FullTextIndex() {
+        this.postings = new HashMap<>();
+        this.documents = new HashMap<>();
+    }
+
+    /**
+     * Indexes the text of a document, replacing the text indexed earlier for the same id.
+     *
+     * @param id id of the document
+     * @param text current text of the document
+     */
+    public synchronized void put(final int id, final String text) {
+        remove(id);
+
+        final List<String> tokens = Tokenizer.tokenize(text);
+        final Map<String, Integer> frequencies = new HashMap<>();
+        for (final String token : tokens) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        for (final Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), t -> new PostingList()).put(id, entry.getValue());
+        }
+
+        documents.put(id, new Document(new ArrayList<>(frequencies.keySet()), tokens.size(), fingerprintOf(text)));
+        totalLength += tokens.size();
+        modified = true;
+    }
+
+    /**
+     * Removes a document from the index.
+     *
+     * @param id id of the document
+     * @return <i>true</i> if the document was indexed
+     */
+    public synchronized boolean remove(final int id) {
+        final Document document = documents.remove(id);
+        if (document == null) {
+            return false;
+        }
+
+        for (final String term : document.terms) {
+            final PostingList list = postings.get(term);
+            list.remove(id);
+            if (list.size() == 0) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= document.length;
+        modified = true;
+        return true;
+    }
+
+    /**
+     * @param id id of a document
+     * @param text a text
+     * @return <i>true</i> if the given text is indexed for the document
+     */
+    public synchronized boolean isIndexed(final int id, final String text) {
+        final Document document = documents.get(id);
+        return document != null && document.fingerprint == fingerprintOf(text);
+    }
+
+    /**
+     * Brings the index up to date with the current texts of all documents: documents missing
+     * in the map are removed and documents whose text changed are indexed again.
+     *
+     * @param texts the current text of every document by its id
+     */
+    public synchronized void synchronize(final Map<Integer, String> texts) {
+        for (final Integer id : new ArrayList<>(documents.keySet())) {
+            if (!texts.containsKey(id)) {
+                remove(id);
+            }
+        }
+        for (final Map.Entry<Integer, String> entry : texts.entrySet()) {
+            if (!isIndexed(entry.getKey(), entry.getValue())) {
+                put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Finds the documents containing at least one term of the query, ranked by BM25.
+     *
+     * @param query the search query
+     * @param limit maximum number of results, must be positive
+     * @return pairs of document id and score, the best document first; of equally scored
+     * documents the one with the lower id comes first
+     */
+    public synchronized List<Pair<Integer, Double>> search(final String query, final int limit) {
+        final Map<Integer, Double> scores = new HashMap<>();
+        final double averageLength = documents.isEmpty() ? 0.0 : totalLength / (double) documents.size();
+        for (final String term : new LinkedHashSet<>(Tokenizer.tokenize(query))) {
+            final PostingList list = postings.get(term);
+            if (list == null) {
+                continue;
+            }
+
+            final double idf = inverseDocumentFrequency(list.size());
+            for (int i = 0; i < list.size(); ++i) {
+                final int id = list.idAt(i);
+                final double frequency = list.frequencyAt(i);
+                final double lengthRatio = documents.get(id).length / averageLength;
+                final double weight = frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * lengthRatio));
+                scores.merge(id, idf * weight, Double::sum);
+            }
+        }
+        return best(scores, limit);
+    }
+
+    private double inverseDocumentFrequency(final int documentFrequency) {
+        final int count = documents.size();
+        return Math.log(1 + (count - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private static List<Pair<Integer, Double>> best(final Map<Integer, Double> scores, final int limit) {
+        // later offered elements win ties, so the ids are offered in descending order
+        final List<Integer> ids = new ArrayList<>(scores.keySet());
+        ids.sort((a, b) -> Integer.compare(b, a));
+        final TopKSelector<Integer> selector = new TopKSelector<>(limit);
+        for (final int id : ids) {
+            selector.offer(id, scores.get(id));
+        }
+
+        final List<Pair<Integer, Double>> result = new ArrayList<>(selector.size());
+        for (final int id : selector.toList()) {
+            result.add(paired(id, scores.get(id)));
+        }
+        return result;
+    }
+
+    /**
+     * @return number of indexed documents
+     */
+    public synchronized int size() {
+        return documents.size();
+    }
+
+    /**
+     * @return <i>true</i> if the index changed since it was created, loaded or saved
+     */
+    public synchronized boolean isModified() {
+        return modified;
+    }
+
+    /**
+     * Writes the index to a file. The file is replaced at once, so a failed write keeps
+     * the previous file.
+     *
+     * @param file target file
+     * @throws IOException if the index can't be written
+     */
+    public synchronized void save(final File file) throws IOException {
+        final File temporary = new File(file.getPath() + ".tmp");
+        try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(temporary)))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(documents.size());
+            for (final Map.Entry<Integer, Document> entry : documents.entrySet()) {
+                output.writeInt(entry.getKey());
+                output.writeInt(entry.getValue().length);
+                output.writeLong(entry.getValue().fingerprint);
+            }
+            output.writeInt(postings.size());
+            for (final Map.Entry<String, PostingList> entry : postings.entrySet()) {
+                final PostingList list = entry.getValue();
+                output.writeUTF(entry.getKey());
+                output.writeInt(list.size());
+                for (int i = 0; i < list.size(); ++i) {
+                    output.writeInt(list.idAt(i));
+                    output.writeInt(list.frequencyAt(i));
+                }
+            }
+        }
+        if (file.exists() && !file.delete() || !temporary.renameTo(file)) {
+            temporary.delete();
+            throw new IOException("Couldn't replace " + file);
+        }
+        modified = false;
+    }
+
+    /**
+     * Reads an index written by {@link #save(File)}.
+     *
+     * @param file the index file
+     * @return the loaded index
+     * @throws IOException if the file can't be read or isn't a valid index
+     */
+    public static FullTextIndex load(final File file) throws IOException {
+        final FullTextIndex index = new FullTextIndex();
+        try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                throw new IOException("Not a full-text index: " + file);
+            }
+
+            final Map<Integer, List<String>> termsOfDocuments = new HashMap<>();
+            final Map<Integer, Integer> lengths = new HashMap<>();
+            final Map<Integer, Long> fingerprints = new HashMap<>();
+            final int documentCount = input.readInt();
+            for (int i = 0; i < documentCount; ++i) {
+                final int id = input.readInt();
+                lengths.put(id, input.readInt());
+                fingerprints.put(id, input.readLong());
+                termsOfDocuments.put(id, new ArrayList<>());
+            }
+
+            final int termCount = input.readInt();
+            for (int i = 0; i < termCount; ++i) {
+                final String term = input.readUTF();
+                final int size = input.readInt();
+                final int[] ids = new int[size];
+                final int[] frequencies = new int[size];
+                for (int j = 0; j < size; ++j) {
+                    ids[j] = input.readInt();
+                    frequencies[j] = input.readInt();
+                    final List<String> terms = termsOfDocuments.get(ids[j]);
+                    if (terms == null || j > 0 && ids[j] <= ids[j - 1]) {
+                        throw new IOException("Corrupt posting list of '" + term + "' in " + file);
+                    }
+                    terms.add(term);
+                }
+                index.postings.put(term, new PostingList(ids, frequencies));
+            }
+
+            for (final Map.Entry<Integer, List<String>> entry : termsOfDocuments.entrySet()) {
+                final int length = lengths.get(entry.getKey());
+                index.documents.put(entry.getKey(),
+                        new Document(entry.getValue(), length, fingerprints.get(entry.getKey())));
+                index.totalLength += length;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * 64 bit FNV-1a hash of the text, which identifies the indexed version of a document.
+     */
+    private static long fingerprintOf(final String text) {
+        long hash = 0xcbf29ce484222325L;
+        if (text == null) {
+            return hash;
+        }
+        for (int i = 0; i < text.length(); ++i) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
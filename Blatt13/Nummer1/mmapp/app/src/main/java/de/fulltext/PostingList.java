@@ -0,0 +1,73 @@
+package de.fulltext;
+
+import java.util.Arrays;
+
+/**
+ * Ids of the documents containing a term, sorted ascending, together with the number of
+ * occurrences of the term in each document. Both are kept in primitive arrays, which grow
+ * like an {@link java.util.ArrayList}.
+ */
+final class PostingList {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private int[] ids;
+    private int[] frequencies;
+    private int size;
+
+    PostingList() {
+        this.ids = new int[INITIAL_CAPACITY];
+        this.frequencies = new int[INITIAL_CAPACITY];
+    }
+
+    PostingList(final int[] ids, final int[] frequencies) {
+        this.ids = ids;
+        this.frequencies = frequencies;
+        this.size = ids.length;
+    }
+
+    /**
+     * Adds a document or replaces its frequency.
+     */
+    void put(final int id, final int frequency) {
+        final int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0) {
+            frequencies[position] = frequency;
+            return;
+        }
+
+        final int insertion = -position - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, Math.max(INITIAL_CAPACITY, size * 2));
+            frequencies = Arrays.copyOf(frequencies, Math.max(INITIAL_CAPACITY, size * 2));
+        }
+        System.arraycopy(ids, insertion, ids, insertion + 1, size - insertion);
+        System.arraycopy(frequencies, insertion, frequencies, insertion + 1, size - insertion);
+        ids[insertion] = id;
+        frequencies[insertion] = frequency;
+        ++size;
+    }
+
+    boolean remove(final int id) {
+        final int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return false;
+        }
+
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        System.arraycopy(frequencies, position + 1, frequencies, position, size - position - 1);
+        --size;
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int idAt(final int index) {
+        return ids[index];
+    }
+
+    int frequencyAt(final int index) {
+        return frequencies[index];
+    }
+}
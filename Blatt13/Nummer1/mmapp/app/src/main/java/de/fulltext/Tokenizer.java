@@ -0,0 +1,42 @@
+package de.fulltext;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static java.util.Locale.ROOT;
+
+/**
+ * Splits texts into the terms of the full-text index. Terms are maximal runs of letters and
+ * digits, lower cased and without diacritics, so 'Z&uuml;rich' and 'zurich' are the same term.
+ * Terms shorter than {@value #MIN_TERM_LENGTH} characters are dropped.
+ */
+public enum Tokenizer {
+    ;
+
+    public static final int MIN_TERM_LENGTH = 2;
+
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    /**
+     * @param text the text to split
+     * @return the terms of the text in order of their occurrence, including repetitions
+     */
+    public static List<String> tokenize(final String text) {
+        final List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+
+        final String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        final String folded = COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(ROOT);
+        for (final String term : SEPARATOR.split(folded)) {
+            if (term.length() >= MIN_TERM_LENGTH) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Package containing the full-text index, which finds elements by the words of their texts.
+ */
+package de.fulltext;
@@ -3,12 +3,18 @@ package de.moviemanager.core.json;
 import java.util.Map;
 
 import de.moviemanager.data.ImagePyramid;
+import de.moviemanager.data.ImagePyramid.ImageCodec;
 
 public class ImagePyramidFromJsonObject extends FromJsonObject<ImagePyramid>{
     public ImagePyramidFromJsonObject() {
         super(ImagePyramidFromJsonObject::fromMap);
 
         registerSetter("prefix", ImagePyramid::setPrefix);
+        registerSetter("codec", ImagePyramid::setCodec);
+        registerSetter("hash", ImagePyramid::setHash);
+        registerSetter("references", ImagePyramid::setReferences);
+
+        registerConversion("codec", ImageCodec::fromName);
     }
 
     private static ImagePyramid fromMap(Map<String, Object> map) {
@@ -0,0 +1,53 @@
+package de.moviemanager.core.storage;
+
+import org.json.JSONArray;
+
+import java.util.Arrays;
+
+import static java.lang.Math.max;
+
+class IdTranslation {
+    static final int UNKNOWN = -1;
+
+    private int[] translation;
+
+    IdTranslation() {
+        translation = new int[16];
+        Arrays.fill(translation, UNKNOWN);
+    }
+
+    void put(final int oldId, final int newId) {
+        if (oldId >= translation.length) {
+            final int oldLength = translation.length;
+            translation = Arrays.copyOf(translation, max(oldId + 1, oldLength * 2));
+            Arrays.fill(translation, oldLength, translation.length, UNKNOWN);
+        }
+        translation[oldId] = newId;
+    }
+
+    int get(final int oldId) {
+        if (oldId < 0 || oldId >= translation.length) {
+            return UNKNOWN;
+        }
+        return translation[oldId];
+    }
+
+    JSONArray toJson() {
+        final JSONArray array = new JSONArray();
+        for (final int id : translation) {
+            array.put(id);
+        }
+        return array;
+    }
+
+    static IdTranslation fromJson(final JSONArray array) {
+        final IdTranslation result = new IdTranslation();
+        for (int i = array.length() - 1; i >= 0; --i) {
+            final int newId = array.optInt(i, UNKNOWN);
+            if (newId != UNKNOWN) {
+                result.put(i, newId);
+            }
+        }
+        return result;
+    }
+}
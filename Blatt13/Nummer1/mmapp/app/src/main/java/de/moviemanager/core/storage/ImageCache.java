@@ -0,0 +1,201 @@
+package de.moviemanager.core.storage;
+
+import android.graphics.Bitmap;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import de.moviemanager.data.ImagePyramid.ImageSize;
+import de.util.SizeBoundedCache;
+
+import static java.lang.Math.max;
+import static java.util.Collections.newSetFromMap;
+import static java.util.Optional.ofNullable;
+
+/**
+ * Caches decoded images and hands evicted ones out again for decoding, e.g. as inBitmap.
+ * An evicted bitmap is only reused once no view shows it anymore: bitmaps shown by views are
+ * {@link #hold(Bitmap) held} until the view {@link #release(Bitmap) releases} them, and
+ * bitmaps handed out without such tracking are {@link #share(Bitmap) shared} and never reused.
+ * Bitmaps are tracked by identity with weak references, so a view which is dropped without
+ * releasing its bitmap doesn't keep it alive.
+ */
+public class ImageCache {
+    private static final int MEMORY_FRACTION = 8;
+    static final int REUSABLE_PER_SIZE = 8;
+    private static final int MAX_BYTES_PER_PIXEL = 4;
+
+    private final SizeBoundedCache<Long, Bitmap> bitmaps;
+    private final Map<Bitmap, Integer> holds;
+    private final Set<Bitmap> shared;
+    private final Map<Bitmap, ImageSize> evictedWhileHeld;
+    private final Map<ImageSize, Deque<Bitmap>> reusable;
+    private long invalidations;
+    private long reuseCount;
+
+    ImageCache() {
+        this(max(1, Runtime.getRuntime().maxMemory() / MEMORY_FRACTION));
+    }
+
+    ImageCache(final long maxBytes) {
+        this.bitmaps = new SizeBoundedCache<>(maxBytes, Bitmap::getAllocationByteCount);
+        this.holds = new WeakHashMap<>();
+        this.shared = newSetFromMap(new WeakHashMap<>());
+        this.evictedWhileHeld = new WeakHashMap<>();
+        this.reusable = new EnumMap<>(ImageSize.class);
+        for (final ImageSize size : ImageSize.values()) {
+            reusable.put(size, new ArrayDeque<>(REUSABLE_PER_SIZE));
+        }
+        // evictions only happen in put, which holds the lock of this cache
+        this.bitmaps.setEvictionListener((key, bitmap) -> evicted(sizeOf(key), bitmap));
+    }
+
+    static long keyOf(final int imageId, final ImageSize size) {
+        return ((long) imageId << Integer.SIZE) | size.ordinal();
+    }
+
+    private static ImageSize sizeOf(final long key) {
+        return ImageSize.values()[(int) key];
+    }
+
+    Optional<Bitmap> get(final int imageId, final ImageSize size) {
+        return bitmaps.get(keyOf(imageId, size));
+    }
+
+    /**
+     * Looks up a bitmap for a view and holds it, so it isn't reused while the view shows it.
+     */
+    synchronized Optional<Bitmap> hold(final int imageId, final ImageSize size) {
+        final Optional<Bitmap> bitmap = get(imageId, size);
+        bitmap.ifPresent(this::hold);
+        return bitmap;
+    }
+
+    /**
+     * Looks up a bitmap, which is handed out without tracking its users, and shares it.
+     */
+    synchronized Optional<Bitmap> share(final int imageId, final ImageSize size) {
+        final Optional<Bitmap> bitmap = get(imageId, size);
+        bitmap.ifPresent(this::share);
+        return bitmap;
+    }
+
+    synchronized void hold(final Bitmap bitmap) {
+        holds.merge(bitmap, 1, Integer::sum);
+    }
+
+    synchronized void release(final Bitmap bitmap) {
+        final Integer count = holds.get(bitmap);
+        if (count == null) {
+            return;
+        }
+
+        if (count > 1) {
+            holds.put(bitmap, count - 1);
+            return;
+        }
+        holds.remove(bitmap);
+        final ImageSize size = evictedWhileHeld.remove(bitmap);
+        if (size != null) {
+            offerReusable(size, bitmap);
+        }
+    }
+
+    synchronized void share(final Bitmap bitmap) {
+        shared.add(bitmap);
+    }
+
+    private void evicted(final ImageSize size, final Bitmap bitmap) {
+        if (holds.containsKey(bitmap)) {
+            evictedWhileHeld.put(bitmap, size);
+        } else {
+            offerReusable(size, bitmap);
+        }
+    }
+
+    /**
+     * Keeps a bitmap which isn't cached, held or shared for the next decoding of the size.
+     *
+     * @param size size of the level the bitmap was decoded for
+     * @param bitmap bitmap nobody uses anymore
+     */
+    synchronized void offerReusable(final ImageSize size, final Bitmap bitmap) {
+        final Deque<Bitmap> bitmapsOfSize = reusable.get(size);
+        if (bitmapsOfSize.size() < REUSABLE_PER_SIZE && !shared.contains(bitmap) && isReusableFor(size, bitmap)) {
+            bitmapsOfSize.offerFirst(bitmap);
+        }
+    }
+
+    private static boolean isReusableFor(final ImageSize size, final Bitmap bitmap) {
+        final long required = (long) size.getWidth() * size.getHeight() * MAX_BYTES_PER_PIXEL;
+        return bitmap.isMutable()
+                && !bitmap.isRecycled()
+                && bitmap.getAllocationByteCount() >= required;
+    }
+
+    /**
+     * @param size size of the level, which is decoded next
+     * @return a bitmap, which was evicted and isn't shown anymore, to decode the level into
+     */
+    synchronized Optional<Bitmap> acquireReusable(final ImageSize size) {
+        final Optional<Bitmap> bitmap = ofNullable(reusable.get(size).pollFirst());
+        if (bitmap.isPresent()) {
+            ++reuseCount;
+        }
+        return bitmap;
+    }
+
+    synchronized long stamp() {
+        return invalidations;
+    }
+
+    synchronized void put(final int imageId, final ImageSize size, final Bitmap bitmap, final long stamp) {
+        if (stamp == invalidations) {
+            bitmaps.put(keyOf(imageId, size), bitmap);
+        }
+    }
+
+    synchronized void invalidate(final int imageId) {
+        ++invalidations;
+        for (final ImageSize size : ImageSize.values()) {
+            bitmaps.remove(keyOf(imageId, size));
+        }
+    }
+
+    synchronized void clear() {
+        ++invalidations;
+        bitmaps.clear();
+        reusable.values().forEach(Deque::clear);
+        evictedWhileHeld.clear();
+    }
+
+    public long hitCount() {
+        return bitmaps.hitCount();
+    }
+
+    public long missCount() {
+        return bitmaps.missCount();
+    }
+
+    public synchronized long reuseCount() {
+        return reuseCount;
+    }
+
+    public long sizeInBytes() {
+        return bitmaps.size();
+    }
+
+    public long maxSizeInBytes() {
+        return bitmaps.maxSize();
+    }
+
+    @Override
+    public String toString() {
+        return "ImageCache(" + bitmaps + ")";
+    }
+}
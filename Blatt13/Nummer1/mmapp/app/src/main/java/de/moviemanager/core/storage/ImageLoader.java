@@ -0,0 +1,175 @@
+package de.moviemanager.core.storage;
+
+import android.graphics.Bitmap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+import de.moviemanager.data.ImagePyramid;
+import de.moviemanager.data.ImagePyramid.ImageSize;
+
+import static de.moviemanager.core.storage.ImageCache.keyOf;
+
+class ImageLoader {
+    private static final int DEFAULT_WORKERS = 2;
+
+    private final Executor workers;
+    private final Executor resultExecutor;
+    private final BiFunction<ImagePyramid, ImageSize, Optional<Bitmap>> decoder;
+    private final Consumer<Bitmap> afterDelivery;
+    private final Map<Long, PendingLoad> pending;
+
+    /**
+     * @param decoder decodes a level on the workers
+     * @param afterDelivery receives each decoded bitmap on the result executor, after it was
+     *                      delivered to all requests
+     * @param resultExecutor executor of the deliveries
+     */
+    ImageLoader(final BiFunction<ImagePyramid, ImageSize, Optional<Bitmap>> decoder,
+                final Consumer<Bitmap> afterDelivery,
+                final Executor resultExecutor) {
+        this(Executors.newFixedThreadPool(DEFAULT_WORKERS, ImageLoader::createWorker),
+                resultExecutor,
+                decoder,
+                afterDelivery);
+    }
+
+    ImageLoader(final Executor workers,
+                final Executor resultExecutor,
+                final BiFunction<ImagePyramid, ImageSize, Optional<Bitmap>> decoder) {
+        this(workers, resultExecutor, decoder, bitmap -> {
+        });
+    }
+
+    ImageLoader(final Executor workers,
+                final Executor resultExecutor,
+                final BiFunction<ImagePyramid, ImageSize, Optional<Bitmap>> decoder,
+                final Consumer<Bitmap> afterDelivery) {
+        this.workers = workers;
+        this.resultExecutor = resultExecutor;
+        this.decoder = decoder;
+        this.afterDelivery = afterDelivery;
+        this.pending = new HashMap<>();
+    }
+
+    private static Thread createWorker(final Runnable runnable) {
+        final Thread thread = new Thread(runnable, "image-loader");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    }
+
+    Request load(final ImagePyramid pyramid,
+                 final ImageSize size,
+                 final Consumer<Optional<Bitmap>> callback) {
+        final long key = keyOf(pyramid.id(), size);
+        final PendingLoad load;
+        final boolean isNewLoad;
+        final Request request;
+        synchronized (pending) {
+            final PendingLoad existing = pending.get(key);
+            isNewLoad = existing == null;
+            load = isNewLoad ? new PendingLoad(key) : existing;
+            if (isNewLoad) {
+                pending.put(key, load);
+            }
+            request = new Request(load, callback);
+            load.requests.add(request);
+        }
+
+        if (isNewLoad) {
+            workers.execute(() -> decode(load, pyramid, size));
+        }
+        return request;
+    }
+
+    private void decode(final PendingLoad load, final ImagePyramid pyramid, final ImageSize size) {
+        synchronized (pending) {
+            if (load.requests.isEmpty()) {
+                pending.remove(load.key, load);
+                return;
+            }
+            load.started = true;
+        }
+
+        Optional<Bitmap> bitmap = Optional.empty();
+        try {
+            bitmap = decoder.apply(pyramid, size);
+        } finally {
+            // a failed decoding delivers no image, so the key can be loaded again
+            final List<Request> receivers;
+            synchronized (pending) {
+                pending.remove(load.key, load);
+                receivers = new ArrayList<>(load.requests);
+            }
+            final Optional<Bitmap> result = bitmap;
+            resultExecutor.execute(() -> {
+                receivers.forEach(request -> request.deliver(result));
+                result.ifPresent(afterDelivery);
+            });
+        }
+    }
+
+    void invalidate(final int imageId) {
+        synchronized (pending) {
+            for (final ImageSize size : ImageSize.values()) {
+                pending.remove(keyOf(imageId, size));
+            }
+        }
+    }
+
+    int getNumberOfPendingLoads() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    private static class PendingLoad {
+        private final long key;
+        private final List<Request> requests;
+        private boolean started;
+
+        private PendingLoad(final long key) {
+            this.key = key;
+            this.requests = new ArrayList<>();
+        }
+    }
+
+    class Request {
+        private final PendingLoad load;
+        private final Consumer<Optional<Bitmap>> callback;
+        private volatile boolean cancelled;
+
+        private Request(final PendingLoad load, final Consumer<Optional<Bitmap>> callback) {
+            this.load = load;
+            this.callback = callback;
+        }
+
+        void cancel() {
+            cancelled = true;
+            synchronized (pending) {
+                load.requests.remove(this);
+                if (load.requests.isEmpty() && !load.started) {
+                    pending.remove(load.key, load);
+                }
+            }
+        }
+
+        boolean isCancelled() {
+            return cancelled;
+        }
+
+        private void deliver(final Optional<Bitmap> bitmap) {
+            if (!cancelled) {
+                callback.accept(bitmap);
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package de.moviemanager.core.storage;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.IOException;
+
+import de.moviemanager.util.FileUtils;
+import de.storage.StorageException;
+import de.util.StringUtils;
+
+import static java.util.Collections.singletonList;
+
+class ImportCheckpoint {
+    private static final String KEY_SOURCE = "source";
+    private static final String KEY_SOURCE_LENGTH = "sourceLength";
+    private static final String KEY_PROCESSED_LINES = "processedLines";
+    private static final String KEY_MOVIES = "movies";
+    private static final String KEY_PERFORMERS = "performers";
+    private static final String KEY_IMAGES = "images";
+
+    private final String source;
+    private final long sourceLength;
+    private long processedLines;
+    private final IdTranslation movieIds;
+    private final IdTranslation performerIds;
+    private final IdTranslation imageIds;
+
+    private ImportCheckpoint(final String source,
+                             final long sourceLength,
+                             final long processedLines,
+                             final IdTranslation movieIds,
+                             final IdTranslation performerIds,
+                             final IdTranslation imageIds) {
+        this.source = source;
+        this.sourceLength = sourceLength;
+        this.processedLines = processedLines;
+        this.movieIds = movieIds;
+        this.performerIds = performerIds;
+        this.imageIds = imageIds;
+    }
+
+    static File fileFor(final File source) {
+        return new File(source.getAbsolutePath() + ".checkpoint");
+    }
+
+    static ImportCheckpoint loadOrCreate(final File checkpoint, final File source) throws IOException {
+        final ImportCheckpoint fresh = new ImportCheckpoint(source.getAbsolutePath(),
+                source.length(),
+                0,
+                new IdTranslation(),
+                new IdTranslation(),
+                new IdTranslation());
+        if (!checkpoint.exists()) {
+            return fresh;
+        }
+
+        final ImportCheckpoint loaded = load(checkpoint);
+        return loaded.belongsTo(fresh) ? loaded : fresh;
+    }
+
+    private static ImportCheckpoint load(final File checkpoint) throws IOException {
+        try {
+            final JSONObject json = new JSONObject(StringUtils.join("", FileUtils.readAllLines(checkpoint)));
+            return new ImportCheckpoint(json.getString(KEY_SOURCE),
+                    json.getLong(KEY_SOURCE_LENGTH),
+                    json.getLong(KEY_PROCESSED_LINES),
+                    IdTranslation.fromJson(json.getJSONArray(KEY_MOVIES)),
+                    IdTranslation.fromJson(json.getJSONArray(KEY_PERFORMERS)),
+                    IdTranslation.fromJson(json.getJSONArray(KEY_IMAGES)));
+        } catch (JSONException e) {
+            throw new StorageException(e);
+        }
+    }
+
+    private boolean belongsTo(final ImportCheckpoint other) {
+        return source.equals(other.source) && sourceLength == other.sourceLength;
+    }
+
+    void writeTo(final File checkpoint) throws IOException {
+        final File temporary = new File(checkpoint.getAbsolutePath() + ".tmp");
+        FileUtils.writeLines(temporary, singletonList(toJson().toString()));
+        if (!temporary.renameTo(checkpoint)) {
+            throw new IOException("Couldn't move checkpoint to '" + checkpoint.getAbsolutePath() + "'");
+        }
+    }
+
+    private JSONObject toJson() {
+        try {
+            final JSONObject json = new JSONObject();
+            json.put(KEY_SOURCE, source);
+            json.put(KEY_SOURCE_LENGTH, sourceLength);
+            json.put(KEY_PROCESSED_LINES, processedLines);
+            json.put(KEY_MOVIES, movieIds.toJson());
+            json.put(KEY_PERFORMERS, performerIds.toJson());
+            json.put(KEY_IMAGES, imageIds.toJson());
+            return json;
+        } catch (JSONException e) {
+            throw new StorageException(e);
+        }
+    }
+
+    long getProcessedLines() {
+        return processedLines;
+    }
+
+    void advance(final int lines) {
+        processedLines += lines;
+    }
+
+    IdTranslation getMovieIds() {
+        return movieIds;
+    }
+
+    IdTranslation getPerformerIds() {
+        return performerIds;
+    }
+
+    IdTranslation getImageIds() {
+        return imageIds;
+    }
+}
@@ -0,0 +1,175 @@
+package de.moviemanager.core.storage;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import de.moviemanager.core.json.JsonBridge;
+import de.moviemanager.data.ImagePyramid;
+import de.moviemanager.data.Movie;
+import de.moviemanager.data.Performer;
+import de.moviemanager.data.Portrayable;
+import de.moviemanager.util.FileUtils;
+import de.storage.StorageException;
+
+import static de.moviemanager.core.storage.RecordType.HEADER;
+import static de.moviemanager.core.storage.RecordType.IMAGE;
+import static de.moviemanager.core.storage.RecordType.KEY_DATA;
+import static de.moviemanager.core.storage.RecordType.KEY_TYPE;
+import static de.moviemanager.core.storage.RecordType.LINK;
+import static de.moviemanager.core.storage.RecordType.MOVIE;
+import static de.moviemanager.core.storage.RecordType.PERFORMER;
+import static de.util.Pair.paired;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+class LibraryExporter {
+    static final int FORMAT_VERSION = 1;
+    static final String KEY_VERSION = "version";
+    static final String KEY_IMAGES = "images";
+    static final String KEY_FILE = "file";
+    private static final String IMAGE_FOLDER_SUFFIX = ".images";
+
+    private final RuntimeStorage storage;
+    private File imageFolder;
+    private TransferProgress progress;
+    private long written;
+    private long total;
+
+    LibraryExporter(final RuntimeStorage storage) {
+        this.storage = storage;
+        this.progress = TransferProgress.NONE;
+    }
+
+    void setProgress(final TransferProgress progress) {
+        this.progress = progress;
+    }
+
+    /**
+     * Writes the library into the target file and the image files into a folder next to it,
+     * whose name is written into the header. So the export can be moved to another device
+     * together with its image folder.
+     */
+    void exportTo(final File target) throws IOException {
+        final List<Movie> movies = storage.getMovies();
+        final List<Performer> performers = storage.getPerformers();
+        written = 0;
+        total = 1 + 2L * movies.size() + 2L * performers.size() + countLinks(movies);
+        imageFolder = new File(target.getAbsolutePath() + IMAGE_FOLDER_SUFFIX);
+        FileUtils.delete(imageFolder);
+
+        final File temporary = new File(target.getAbsolutePath() + ".tmp");
+        FileUtils.createDirectory(temporary);
+        try (final FileOutputStream stream = new FileOutputStream(temporary);
+             final BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(stream, UTF_8))) {
+            final Set<Integer> writtenImages = new HashSet<>();
+            writeHeader(writer);
+            writeImages(writer, movies, writtenImages);
+            writeImages(writer, performers, writtenImages);
+            writePortrayables(writer, MOVIE, movies);
+            writePortrayables(writer, PERFORMER, performers);
+            writeLinks(writer, movies);
+        }
+
+        if (!temporary.renameTo(target)) {
+            throw new IOException("Couldn't move export to '" + target.getAbsolutePath() + "'");
+        }
+        progress.onProgress(total, total);
+    }
+
+    private long countLinks(final List<Movie> movies) {
+        long links = 0;
+        for (final Movie movie : movies) {
+            links += storage.getLinkedPerformersOfMovie(movie).size();
+        }
+        return links;
+    }
+
+    private void writeHeader(final BufferedWriter writer) throws IOException {
+        try {
+            final JSONObject header = new JSONObject();
+            header.put(KEY_VERSION, FORMAT_VERSION);
+            header.put(KEY_IMAGES, imageFolder.getName());
+            writeRecord(writer, HEADER, header);
+        } catch (JSONException e) {
+            throw new StorageException(e);
+        }
+    }
+
+    /**
+     * Writes every pyramid once, even if it is shared by several portrayables. The importer
+     * counts the references of the imported portrayables itself.
+     */
+    private void writeImages(final BufferedWriter writer,
+                             final List<? extends Portrayable> portrayables,
+                             final Set<Integer> writtenImages) throws IOException {
+        for (final Portrayable portrayable : portrayables) {
+            final Optional<ImagePyramid> pyramid = storage.getImageById(portrayable.getImageId());
+            if (pyramid.isPresent() && writtenImages.add(pyramid.get().id())) {
+                writeImage(writer, pyramid.get());
+            } else {
+                countRecord();
+            }
+        }
+    }
+
+    private void writeImage(final BufferedWriter writer, final ImagePyramid pyramid) throws IOException {
+        try {
+            final JSONObject data = toJson(pyramid);
+            data.put(KEY_FILE, pyramid.getFileName());
+            pyramid.exportImage(storage.getImagePath(), imageFolder.getPath());
+            writeRecord(writer, IMAGE, data);
+        } catch (JSONException e) {
+            throw new StorageException(e);
+        }
+    }
+
+    private void writePortrayables(final BufferedWriter writer,
+                                   final RecordType type,
+                                   final List<? extends Portrayable> portrayables) throws IOException {
+        for (final Portrayable portrayable : portrayables) {
+            writeRecord(writer, type, toJson(portrayable));
+        }
+    }
+
+    private void writeLinks(final BufferedWriter writer, final List<Movie> movies) throws IOException {
+        for (final Movie movie : movies) {
+            for (final Performer performer : storage.getLinkedPerformersOfMovie(movie)) {
+                writeRecord(writer, LINK, paired(movie.id(), performer.id()).toJsonObject());
+            }
+        }
+    }
+
+    private static JSONObject toJson(final Object obj) {
+        return JsonBridge.toJson(obj)
+                .orElseThrow(() -> new StorageException("Couldn't convert " + obj + " to json"));
+    }
+
+    private void writeRecord(final BufferedWriter writer,
+                             final RecordType type,
+                             final JSONObject data) throws IOException {
+        try {
+            final JSONObject record = new JSONObject();
+            record.put(KEY_TYPE, type.key);
+            record.put(KEY_DATA, data);
+            writer.write(record.toString());
+            writer.newLine();
+        } catch (JSONException e) {
+            throw new StorageException(e);
+        }
+        countRecord();
+    }
+
+    private void countRecord() {
+        ++written;
+        progress.onProgress(written, total);
+    }
+}
@@ -0,0 +1,381 @@
+package de.moviemanager.core.storage;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import de.moviemanager.core.json.FromJsonObject;
+import de.moviemanager.core.json.JsonBridge;
+import de.moviemanager.core.json.MovieFromJsonObject;
+import de.moviemanager.core.json.PerformerFromJsonObject;
+import de.moviemanager.data.ImagePyramid;
+import de.moviemanager.data.ImagePyramid.ImageCodec;
+import de.moviemanager.data.Movie;
+import de.moviemanager.data.Performer;
+import de.moviemanager.data.Portrayable;
+import de.moviemanager.util.FileUtils;
+import de.storage.StorageException;
+import de.util.Pair;
+import de.util.operationflow.ReversibleOperations.ReversibleTransformation;
+import de.util.operationflow.ReversibleTransaction;
+
+import static de.moviemanager.core.storage.IdTranslation.UNKNOWN;
+import static de.moviemanager.core.storage.LibraryExporter.KEY_FILE;
+import static de.moviemanager.core.storage.LibraryExporter.KEY_IMAGES;
+import static de.moviemanager.core.storage.RecordType.HEADER;
+import static de.moviemanager.core.storage.RecordType.KEY_DATA;
+import static de.moviemanager.core.storage.RecordType.KEY_TYPE;
+import static de.util.Pair.MAP_KEY_FIRST;
+import static de.util.Pair.MAP_KEY_SECOND;
+import static de.util.Pair.paired;
+import static de.util.operationflow.ReversibleOperations.reversibleTransformation;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+class LibraryImporter {
+    static final int DEFAULT_BATCH_SIZE = 250;
+    private static final String KEY_ID = "id";
+    private static final String KEY_IMAGE_ID = "imageId";
+    private static final String KEY_PREFIX = "prefix";
+    private static final String KEY_CODEC = "codec";
+    private static final String KEY_HASH = "hash";
+
+    private final RuntimeStorage storage;
+    private final List<ReversibleTransaction<?>> batchTransactions;
+    private final List<Pair<Movie, Performer>> batchLinks;
+    private TransferProgress progress;
+    private int batchSize;
+    private String imageSource;
+    private File sourceDirectory;
+    private ImportCheckpoint checkpoint;
+
+    LibraryImporter(final RuntimeStorage storage) {
+        this.storage = storage;
+        this.batchTransactions = new ArrayList<>();
+        this.batchLinks = new ArrayList<>();
+        this.progress = TransferProgress.NONE;
+        this.batchSize = DEFAULT_BATCH_SIZE;
+    }
+
+    void setProgress(final TransferProgress progress) {
+        this.progress = progress;
+    }
+
+    void setBatchSize(final int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive, but was " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    void setImageSource(final String imageSource) {
+        this.imageSource = imageSource;
+    }
+
+    void importFrom(final File source) throws IOException {
+        final File checkpointFile = ImportCheckpoint.fileFor(source);
+        checkpoint = ImportCheckpoint.loadOrCreate(checkpointFile, source);
+        sourceDirectory = source.getAbsoluteFile().getParentFile();
+        final long total = source.length();
+
+        try (final FileInputStream stream = new FileInputStream(source);
+             final BufferedReader reader = new BufferedReader(new InputStreamReader(stream, UTF_8))) {
+            long processed = skipProcessedLines(reader);
+            List<String> batch = readBatch(reader);
+            while (!batch.isEmpty()) {
+                importBatch(batch, checkpointFile);
+
+                processed += sizeOf(batch);
+                progress.onProgress(processed, total);
+                batch = readBatch(reader);
+            }
+        }
+
+        FileUtils.delete(checkpointFile);
+        progress.onProgress(total, total);
+    }
+
+    private long skipProcessedLines(final BufferedReader reader) throws IOException {
+        long skipped = 0;
+        for (long i = 0; i < checkpoint.getProcessedLines(); ++i) {
+            final String line = reader.readLine();
+            if (line == null) {
+                break;
+            }
+            if (i == 0) {
+                readHeaderIfPresent(line);
+            }
+            skipped += sizeOf(line);
+        }
+        return skipped;
+    }
+
+    private List<String> readBatch(final BufferedReader reader) throws IOException {
+        final List<String> batch = new ArrayList<>(batchSize);
+        String line;
+        while (batch.size() < batchSize && (line = reader.readLine()) != null) {
+            batch.add(line);
+        }
+        return batch;
+    }
+
+    private static long sizeOf(final List<String> lines) {
+        long size = 0;
+        for (final String line : lines) {
+            size += sizeOf(line);
+        }
+        return size;
+    }
+
+    private static long sizeOf(final String line) {
+        return line.getBytes(UTF_8).length + 1;
+    }
+
+    /**
+     * Imports the records of a batch and writes the checkpoint covering them in the same batch,
+     * so the records are never committed without the checkpoint, which would import them again
+     * under new ids after a crash.
+     */
+    private void importBatch(final List<String> batch, final File checkpointFile) {
+        batchTransactions.clear();
+        batchLinks.clear();
+        storage.runBatched(() -> {
+            try {
+                batch.forEach(this::importLine);
+                checkpoint.advance(batch.size());
+                checkpoint.writeTo(checkpointFile);
+            } catch (IOException e) {
+                rollbackBatch();
+                throw new StorageException(e);
+            } catch (RuntimeException e) {
+                rollbackBatch();
+                throw e;
+            }
+            storage.linkAll(batchLinks);
+        });
+    }
+
+    private void rollbackBatch() {
+        final ListIterator<ReversibleTransaction<?>> iterator = batchTransactions
+                .listIterator(batchTransactions.size());
+        while (iterator.hasPrevious()) {
+            iterator.previous().rollback();
+        }
+    }
+
+    private void importLine(final String line) {
+        if (line.trim().isEmpty()) {
+            return;
+        }
+
+        final JSONObject record = parse(line);
+        final JSONObject data = record.optJSONObject(KEY_DATA);
+        if (data == null) {
+            throw new StorageException("Record without data: " + line);
+        }
+
+        switch (RecordType.fromKey(record.optString(KEY_TYPE))) {
+            case HEADER:
+                readHeader(data);
+                break;
+            case IMAGE:
+                importImage(data);
+                break;
+            case MOVIE:
+                importMovie(data);
+                break;
+            case PERFORMER:
+                importPerformer(data);
+                break;
+            case LINK:
+                importLink(data);
+                break;
+        }
+    }
+
+    private static JSONObject parse(final String line) {
+        try {
+            return new JSONObject(line);
+        } catch (JSONException e) {
+            throw new StorageException(e);
+        }
+    }
+
+    private void readHeaderIfPresent(final String line) {
+        final JSONObject record = parse(line);
+        final JSONObject data = record.optJSONObject(KEY_DATA);
+        if (HEADER.key.equals(record.optString(KEY_TYPE)) && data != null) {
+            readHeader(data);
+        }
+    }
+
+    private void readHeader(final JSONObject data) {
+        final int version = data.optInt(LibraryExporter.KEY_VERSION, UNKNOWN);
+        if (version > LibraryExporter.FORMAT_VERSION) {
+            throw new StorageException("Unsupported library version " + version);
+        }
+        final String imageFolder = data.optString(KEY_IMAGES, null);
+        if (imageSource == null && imageFolder != null) {
+            // the folder is named relative to the export, so the export can be moved
+            imageSource = new File(sourceDirectory, imageFolder).getPath();
+        }
+    }
+
+    private void importImage(final JSONObject data) {
+        final int oldId = getId(data);
+        final String prefix = data.optString(KEY_PREFIX, null);
+        final String fileName = data.optString(KEY_FILE, null);
+        final String hash = data.optString(KEY_HASH, null);
+        if (prefix == null) {
+            throw new StorageException("Image record without prefix: " + data);
+        }
+        if (checkpoint.getImageIds().get(oldId) != UNKNOWN) {
+            // every pyramid is exported once, a repeated record was imported already
+            return;
+        }
+
+        final Optional<ImagePyramid> shared = hash == null ? Optional.empty() : storage.getImageByHash(hash);
+        if (shared.isPresent()) {
+            checkpoint.getImageIds().put(oldId, shared.get().id());
+            return;
+        }
+
+        final ReversibleTransaction<ImagePyramid> transaction = storage.newImage();
+        transaction.addOperation(reversibleTransformation(
+                ImagePyramid::getPrefix,
+                ImagePyramid::setPrefix,
+                prefix)
+        );
+        transaction.addOperation(reversibleTransformation(
+                ImagePyramid::getCodec,
+                ImagePyramid::setCodec,
+                ImageCodec.fromName(data.optString(KEY_CODEC)))
+        );
+        transaction.addOperation(reversibleTransformation(
+                ImagePyramid::getHash,
+                ImagePyramid::setHash,
+                hash)
+        );
+        // the references are counted while the portrayables showing the pyramid are imported
+        transaction.addOperation(reversibleTransformation(
+                ImagePyramid::getReferences,
+                ImagePyramid::setReferences,
+                0)
+        );
+        transaction.addOperation(copyImageFiles(fileName));
+        final ImagePyramid pyramid = commit(transaction);
+        checkpoint.getImageIds().put(oldId, pyramid.id());
+    }
+
+    private ReversibleTransformation<ImagePyramid> copyImageFiles(final String fileName) {
+        return new ReversibleTransformation<ImagePyramid>() {
+            @Override
+            public ImagePyramid forward(final ImagePyramid obj) {
+                if (imageSource != null && fileName != null) {
+                    obj.importImage(storage.getImagePath(), imageSource, fileName);
+                }
+                return obj;
+            }
+
+            @Override
+            public ImagePyramid backward(final ImagePyramid obj) {
+                storage.updateImage(obj, null);
+                return obj;
+            }
+        };
+    }
+
+    private void importMovie(final JSONObject data) {
+        final int oldId = getId(data);
+        final ReversibleTransaction<Movie> transaction = storage.newMovie();
+        transaction.addOperation(copyOf(data, MovieFromJsonObject::new));
+        final Movie movie = commit(transaction);
+        checkpoint.getMovieIds().put(oldId, movie.id());
+    }
+
+    private void importPerformer(final JSONObject data) {
+        final int oldId = getId(data);
+        final ReversibleTransaction<Performer> transaction = storage.newUnlinkedPerformer();
+        transaction.addOperation(copyOf(data, PerformerFromJsonObject::new));
+        final Performer performer = commit(transaction);
+        checkpoint.getPerformerIds().put(oldId, performer.id());
+    }
+
+    private <T extends Portrayable> ReversibleTransformation<T> copyOf(final JSONObject data,
+                                                                      final Supplier<FromJsonObject<T>> factory) {
+        translateImageId(data);
+        // parse before the transaction starts, so a broken record can't consume an id
+        build(data, factory);
+        referenceImage(data.optInt(KEY_IMAGE_ID, UNKNOWN));
+
+        return new ReversibleTransformation<T>() {
+            @Override
+            public T forward(final T obj) {
+                try {
+                    data.put(KEY_ID, obj.id());
+                } catch (JSONException e) {
+                    throw new StorageException(e);
+                }
+                return build(data, factory);
+            }
+
+            @Override
+            public T backward(final T obj) {
+                return obj;
+            }
+        };
+    }
+
+    private void translateImageId(final JSONObject data) {
+        try {
+            final int oldImageId = data.optInt(KEY_IMAGE_ID, UNKNOWN);
+            data.put(KEY_IMAGE_ID, checkpoint.getImageIds().get(oldImageId));
+        } catch (JSONException e) {
+            throw new StorageException(e);
+        }
+    }
+
+    private void referenceImage(final int imageId) {
+        storage.getImageById(imageId)
+                .ifPresent(pyramid -> commit(storage.changeReferences(pyramid, 1)));
+    }
+
+    private static <T> T build(final JSONObject data, final Supplier<FromJsonObject<T>> factory) {
+        return JsonBridge.fromJson(data, factory)
+                .orElseThrow(() -> new StorageException("Malformed record: " + data));
+    }
+
+    private <T> T commit(final ReversibleTransaction<T> transaction) {
+        final T obj = transaction.commit()
+                .orElseThrow(() -> new StorageException("Import transaction failed"));
+        batchTransactions.add(transaction);
+        return obj;
+    }
+
+    private void importLink(final JSONObject data) {
+        final int movieId = checkpoint.getMovieIds().get(data.optInt(MAP_KEY_FIRST, UNKNOWN));
+        final int performerId = checkpoint.getPerformerIds().get(data.optInt(MAP_KEY_SECOND, UNKNOWN));
+        final Movie movie = storage.getMovieById(movieId)
+                .orElseThrow(() -> new StorageException("Link references unknown movie: " + data));
+        final Performer performer = storage.getPerformerById(performerId)
+                .orElseThrow(() -> new StorageException("Link references unknown performer: " + data));
+        batchLinks.add(paired(movie, performer));
+    }
+
+    private static int getId(final JSONObject data) {
+        final int id = data.optInt(KEY_ID, UNKNOWN);
+        if (id < 0) {
+            throw new StorageException("Record without valid id: " + data);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,29 @@
+package de.moviemanager.core.storage;
+
+import de.storage.StorageException;
+
+enum RecordType {
+    HEADER("header"),
+    IMAGE("image"),
+    MOVIE("movie"),
+    PERFORMER("performer"),
+    LINK("link");
+
+    static final String KEY_TYPE = "type";
+    static final String KEY_DATA = "data";
+
+    final String key;
+
+    RecordType(final String key) {
+        this.key = key;
+    }
+
+    static RecordType fromKey(final String key) {
+        for (final RecordType type : values()) {
+            if (type.key.equals(key)) {
+                return type;
+            }
+        }
+        throw new StorageException("Unknown record type '" + key + "'");
+    }
+}
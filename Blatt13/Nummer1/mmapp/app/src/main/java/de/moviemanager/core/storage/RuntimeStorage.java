@@ -4,33 +4,60 @@ import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.drawable.BitmapDrawable;
 import android.graphics.drawable.Drawable;
+import android.os.Handler;
+import android.os.Looper;
+import android.widget.ImageView;
 
 import androidx.annotation.NonNull;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.IntFunction;
 
 import de.associations.BidirectionalAssociationSet;
 import de.associations.RuleViolationCallbacks;
+import de.fulltext.FullTextIndex;
 import de.moviemanager.R;
 import de.moviemanager.core.json.ImagePyramidFromJsonObject;
 import de.moviemanager.core.json.MovieFromJsonObject;
 import de.moviemanager.core.json.PerformerFromJsonObject;
 import de.moviemanager.data.ImagePyramid;
+import de.moviemanager.data.ImagePyramid.ImageCodec;
 import de.moviemanager.data.ImagePyramid.ImageSize;
 import de.moviemanager.data.Movie;
 import de.moviemanager.data.Performer;
 import de.moviemanager.data.Portrayable;
+import de.moviemanager.util.FileUtils;
+import de.query.Field;
+import de.query.QueryEngine;
+import de.query.QueryPlan;
+import de.query.RangeIndex;
+import de.query.TermIndex;
 import de.storage.Register;
 import de.storage.Storage;
 import de.storage.StorageException;
 import de.util.Identifiable;
 import de.util.Pair;
+import de.util.PrefixTrie;
+import de.util.TrigramIndex;
 import de.util.operationflow.ReversibleOperations.ReversibleTransformation;
 import de.util.operationflow.ReversibleTransaction;
 import de.util.operationflow.Transaction;
@@ -41,19 +68,52 @@ import static de.associations.BidirectionalAssociationSet.create;
 import static de.util.Pair.paired;
 import static de.util.operationflow.ReversibleOperations.reversibleTransformation;
 import static java.util.Collections.emptyList;
+import static java.util.Objects.requireNonNull;
 import static java.util.Optional.ofNullable;
+import static java.util.concurrent.CompletableFuture.allOf;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.runAsync;
+import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
 
 public class RuntimeStorage implements RuntimeStorageConcept {
     private static final Map<File, RuntimeStorage> INSTANCES = new HashMap<>();
+    private static final ImageSize[] ATLAS_SIZES = {ImageSize.SMALL, ImageSize.MEDIUM};
+    private static final int MAX_ATLAS_CELLS = 1024;
+    private static final String FULL_TEXT_DIRECTORY = "fulltext";
+    private static final String MOVIE_TEXTS = "movies.idx";
+    private static final String PERFORMER_TEXTS = "performers.idx";
+    private static final Executor FULL_TEXT_WRITER = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "full-text-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     private final File home;
     private final String imagePath;
+    private final ImageCache imageCache;
+    private ImageLoader imageLoader;
+    private Executor mainThread;
+    private final Map<ImageSize, ThumbnailAtlas> atlases;
+    private ImageCodec imageCodec;
+    private boolean atlasEnabled;
     private Storage physicalStorage;
 
     private Register<Movie> movies;
     private Register<Performer> performers;
     private Register<ImagePyramid> images;
+    private Map<String, Integer> imageIdsByHash;
+    private TrigramIndex movieNames;
+    private TrigramIndex performerNames;
+    private PrefixTrie movieCompletions;
+    private PrefixTrie performerCompletions;
+    private FullTextIndex movieTexts;
+    private FullTextIndex performerTexts;
+    private QueryEngine<Movie> movieQueries;
+    private QueryEngine<Performer> performerQueries;
+    private int batchDepth;
+    // indexes whose save is scheduled but didn't start yet, so a burst of changes is saved once
+    private final Set<FullTextIndex> pendingTextSaves = ConcurrentHashMap.newKeySet();
     private BidirectionalAssociationSet<Movie, Performer> moviePerformerAssociations;
 
 
@@ -66,6 +126,10 @@ public class RuntimeStorage implements RuntimeStorageConcept {
         super();
         this.home = home;
         this.imagePath = this.home.getAbsoluteFile() + File.separator + "images";
+        this.imageCache = new ImageCache();
+        this.atlases = new EnumMap<>(ImageSize.class);
+        this.imageCodec = ImageCodec.PNG;
+        this.atlasEnabled = true;
         setup();
     }
 
@@ -102,6 +166,259 @@ public class RuntimeStorage implements RuntimeStorageConcept {
         movies = setupRegister(Movie::new, loadExistingData(Movie.class));
         performers = setupRegister(Performer::new, loadExistingData(Performer.class));
         images = setupRegister(ImagePyramid::new, loadExistingData(ImagePyramid.class));
+        imageIdsByHash = createHashIndex(images);
+        movieNames = createNameIndex(movies);
+        performerNames = createNameIndex(performers);
+        movieCompletions = createCompletionTrie(movies);
+        performerCompletions = createCompletionTrie(performers);
+        movieTexts = createFullTextIndex(movies, RuntimeStorage::textOf, MOVIE_TEXTS);
+        performerTexts = createFullTextIndex(performers, RuntimeStorage::textOf, PERFORMER_TEXTS);
+        movieQueries = createMovieQueries();
+        performerQueries = createPerformerQueries();
+    }
+
+    private QueryEngine<Movie> createMovieQueries() {
+        final QueryEngine<Movie> engine = new QueryEngine<>(Movie::normalizedName);
+        engine.addField(Field.number(createRangeIndex(movies, RuntimeStorage::ratingOf)), "rating");
+        engine.addField(Field.number(createRangeIndex(movies, m -> m.getRuntime() > 0 ? (double) m.getRuntime() : null)),
+                "runtime");
+        engine.addField(Field.date(createRangeIndex(movies, m -> timeOf(m.getDueDate()))), "due");
+        engine.addField(Field.date(createRangeIndex(movies, m -> timeOf(m.getWatchDate()))), "watched");
+        engine.addField(Field.terms(createTermIndex(movies, Movie::getLanguages)), "lang", "language");
+        engine.addField(Field.terms(createTermIndex(movies, RuntimeStorage::locationsOf)), "location");
+        engine.addField(Field.join(this::findMoviesOfPerformersNamed), "performer");
+        return engine;
+    }
+
+    private QueryEngine<Performer> createPerformerQueries() {
+        final QueryEngine<Performer> engine = new QueryEngine<>(Performer::normalizedName);
+        engine.addField(Field.number(createRangeIndex(performers, RuntimeStorage::ratingOf)), "rating");
+        engine.addField(Field.date(createRangeIndex(performers, p -> timeOf(p.getDateOfBirth()))), "born");
+        engine.addField(Field.terms(createTermIndex(performers, Performer::getOccupations)), "occupation");
+        engine.addField(Field.join(this::findPerformersOfMoviesNamed), "movie");
+        return engine;
+    }
+
+    /**
+     * Indexes an ordered attribute of the elements of a register, which follows every saved or
+     * deleted element.
+     *
+     * @param key key of an element or <i>null</i>, if the element has no value
+     */
+    private static <X extends Identifiable> RangeIndex createRangeIndex(final Register<X> register,
+                                                                        final Function<X, Double> key) {
+        final RangeIndex index = new RangeIndex();
+        final Consumer<X> update = x -> {
+            final Double value = key.apply(x);
+            if (value == null) {
+                index.remove(x.id());
+            } else {
+                index.put(x.id(), value);
+            }
+        };
+        register.getElements().forEach(update);
+        register.addSaveListener(update::accept);
+        register.addDeleteListener(x -> index.remove(x.id()));
+        return index;
+    }
+
+    private static <X extends Identifiable> TermIndex createTermIndex(final Register<X> register,
+                                                                      final Function<X, Collection<String>> values) {
+        final TermIndex index = new TermIndex();
+        register.getElements().forEach(x -> index.put(x.id(), values.apply(x)));
+        register.addSaveListener(x -> index.put(x.id(), values.apply(x)));
+        register.addDeleteListener(x -> index.remove(x.id()));
+        return index;
+    }
+
+    private static Double ratingOf(final Portrayable portrayable) {
+        return portrayable.isRated() ? portrayable.getRating() : null;
+    }
+
+    private static Double timeOf(final Date date) {
+        return date == null ? null : (double) date.getTime();
+    }
+
+    private static List<String> locationsOf(final Movie movie) {
+        final List<String> locations = new ArrayList<>(movie.getProductionLocations());
+        locations.addAll(movie.getFilmingLocations());
+        return locations;
+    }
+
+    private Set<Integer> findMoviesOfPerformersNamed(final String name) {
+        final Set<Integer> ids = new HashSet<>();
+        findNamed(performers, performerNames, name)
+                .forEach(p -> getLinkedMoviesOfPerformer(p).forEach(m -> ids.add(m.id())));
+        return ids;
+    }
+
+    private Set<Integer> findPerformersOfMoviesNamed(final String name) {
+        final Set<Integer> ids = new HashSet<>();
+        findNamed(movies, movieNames, name)
+                .forEach(m -> getLinkedPerformersOfMovie(m).forEach(p -> ids.add(p.id())));
+        return ids;
+    }
+
+    /**
+     * Finds the elements whose name contains the given name, ignoring case. A name containing
+     * a selective name shares the trigrams inside of it, so only the candidates of the name
+     * index are compared.
+     */
+    private static <X extends Portrayable> List<X> findNamed(final Register<X> register,
+                                                             final TrigramIndex names,
+                                                             final String name) {
+        final String lowerName = name.toLowerCase();
+        final List<X> candidates = !TrigramIndex.isSelective(name)
+                ? register.getElements()
+                : names.candidates(name)
+                        .stream()
+                        .map(register::getElementById)
+                        .filter(Optional::isPresent)
+                        .map(Optional::get)
+                        .collect(toList());
+        return candidates.stream()
+                .filter(x -> x.normalizedName() != null && x.normalizedName().contains(lowerName))
+                .collect(toList());
+    }
+
+    /**
+     * Loads the saved full-text index of a register and brings it up to date with the elements,
+     * so only the elements changed since the last save are indexed again. An unreadable index
+     * is rebuilt. Afterwards every saved or deleted element updates the index and the file.
+     * The file is written in the background, so saving an element doesn't wait for it.
+     */
+    private <X extends Identifiable> FullTextIndex createFullTextIndex(final Register<X> register,
+                                                                       final Function<X, String> text,
+                                                                       final String name) {
+        final File file = getFullTextFile(name);
+        FullTextIndex index;
+        try {
+            index = file.exists() ? FullTextIndex.load(file) : new FullTextIndex();
+        } catch (IOException e) {
+            index = new FullTextIndex();
+        }
+
+        final Map<Integer, String> texts = new HashMap<>();
+        register.getElements().forEach(x -> texts.put(x.id(), text.apply(x)));
+        index.synchronize(texts);
+        scheduleFullTextSave(index, file);
+
+        final FullTextIndex target = index;
+        register.addSaveListener(x -> {
+            target.put(x.id(), text.apply(x));
+            saveFullTextIndexUnlessBatched(target, file);
+        });
+        register.addDeleteListener(x -> {
+            target.remove(x.id());
+            saveFullTextIndexUnlessBatched(target, file);
+        });
+        return index;
+    }
+
+    private File getFullTextFile(final String name) {
+        return new File(home.getAbsoluteFile() + File.separator + FULL_TEXT_DIRECTORY, name);
+    }
+
+    private void saveFullTextIndexUnlessBatched(final FullTextIndex index, final File file) {
+        if (batchDepth == 0) {
+            scheduleFullTextSave(index, file);
+        }
+    }
+
+    private void scheduleFullTextSave(final FullTextIndex index, final File file) {
+        if (pendingTextSaves.add(index)) {
+            FULL_TEXT_WRITER.execute(() -> {
+                // changes after this point schedule the next save
+                pendingTextSaves.remove(index);
+                saveFullTextIndex(index, file);
+            });
+        }
+    }
+
+    /**
+     * Waits until all scheduled saves of the full-text indexes are written.
+     */
+    private static void awaitFullTextSaves() {
+        runAsync(() -> {}, FULL_TEXT_WRITER).join();
+    }
+
+    private static void saveFullTextIndex(final FullTextIndex index, final File file) {
+        if (!index.isModified()) {
+            return;
+        }
+        try {
+            FileUtils.createDirectory(file);
+            index.save(file);
+        } catch (IOException e) {
+            // the index stays usable in memory and is brought up to date at the next start
+        }
+    }
+
+    private static String textOf(final Movie movie) {
+        final List<String> parts = new ArrayList<>();
+        parts.add(movie.name());
+        parts.add(movie.getDescription());
+        parts.addAll(movie.getLanguages());
+        parts.addAll(movie.getProductionLocations());
+        parts.addAll(movie.getFilmingLocations());
+        return joinTexts(parts);
+    }
+
+    private static String textOf(final Performer performer) {
+        final List<String> parts = new ArrayList<>();
+        parts.add(performer.name());
+        parts.add(performer.getBirthName());
+        parts.add(performer.getBiography());
+        parts.addAll(performer.getOccupations());
+        return joinTexts(parts);
+    }
+
+    private static String joinTexts(final List<String> parts) {
+        return parts.stream()
+                .filter(Objects::nonNull)
+                .collect(joining("\n"));
+    }
+
+    private static <X extends Portrayable> TrigramIndex createNameIndex(final Register<X> register) {
+        final TrigramIndex index = new TrigramIndex();
+        register.getElements().forEach(x -> index.put(x.id(), x.name()));
+        register.addSaveListener(x -> index.put(x.id(), x.name()));
+        register.addDeleteListener(x -> index.remove(x.id()));
+        return index;
+    }
+
+    /**
+     * Maps the content hashes of the pyramids to their ids, so an image can be shared without
+     * scanning all pyramids.
+     */
+    private static Map<String, Integer> createHashIndex(final Register<ImagePyramid> register) {
+        final Map<String, Integer> index = new HashMap<>();
+        final Map<Integer, String> hashes = new HashMap<>();
+        final Consumer<ImagePyramid> remove = pyramid -> {
+            final String hash = hashes.remove(pyramid.id());
+            if (hash != null) {
+                index.remove(hash, pyramid.id());
+            }
+        };
+        final Consumer<ImagePyramid> update = pyramid -> {
+            remove.accept(pyramid);
+            if (pyramid.getHash() != null) {
+                hashes.put(pyramid.id(), pyramid.getHash());
+                index.put(pyramid.getHash(), pyramid.id());
+            }
+        };
+        register.getElements().forEach(update);
+        register.addSaveListener(update::accept);
+        register.addDeleteListener(remove::accept);
+        return index;
+    }
+
+    private static <X extends Portrayable> PrefixTrie createCompletionTrie(final Register<X> register) {
+        final PrefixTrie trie = new PrefixTrie();
+        register.getElements().forEach(x -> trie.put(x.id(), x.name()));
+        register.addSaveListener(x -> trie.put(x.id(), x.name()));
+        register.addDeleteListener(x -> trie.remove(x.id()));
+        return trie;
     }
 
     private <X> List<X> loadExistingData(final Class<X> cls) {
@@ -162,6 +479,14 @@ public class RuntimeStorage implements RuntimeStorageConcept {
         return transaction;
     }
 
+    ReversibleTransaction<Performer> newUnlinkedPerformer() {
+        return performers.startCreationTransaction();
+    }
+
+    ReversibleTransaction<ImagePyramid> newImage() {
+        return images.startCreationTransaction();
+    }
+
     @Override
     public ReversibleTransaction<Movie> updateMovie(final Movie movie) {
         return movies.startUpdateTransactionFor(movie);
@@ -215,8 +540,7 @@ public class RuntimeStorage implements RuntimeStorageConcept {
             public Movie forward(final Movie obj) {
                 final Optional<ImagePyramid> opt = images.getElementById(obj.getImageId());
                 if (opt.isPresent()) {
-                    imageTransaction = images.startRemovalTransactionFor(opt.get());
-                    imageTransaction.addOperation(removeImageFromStorage());
+                    imageTransaction = releaseImage(opt.get());
                     imageTransaction.commit();
                 }
 
@@ -254,22 +578,41 @@ public class RuntimeStorage implements RuntimeStorageConcept {
         return transaction;
     }
 
+    private ReversibleTransaction<ImagePyramid> releaseImage(final ImagePyramid pyramid) {
+        if (pyramid.getReferences() > 1) {
+            return changeReferences(pyramid, -1);
+        }
+        final ReversibleTransaction<ImagePyramid> transaction = images.startRemovalTransactionFor(pyramid);
+        transaction.addOperation(removeImageFromStorage());
+        return transaction;
+    }
+
+    ReversibleTransaction<ImagePyramid> changeReferences(final ImagePyramid pyramid, final int delta) {
+        final ReversibleTransaction<ImagePyramid> transaction = images.startUpdateTransactionFor(pyramid);
+        transaction.addOperation(reversibleTransformation(
+                ImagePyramid::getReferences,
+                ImagePyramid::setReferences,
+                pyramid.getReferences() + delta)
+        );
+        return transaction;
+    }
+
     private ReversibleTransformation<ImagePyramid> removeImageFromStorage() {
         return new ReversibleTransformation<ImagePyramid>() {
             Bitmap stored;
 
             @Override
             public ImagePyramid forward(final ImagePyramid obj) {
-                Optional<Bitmap> opt = obj.loadBitmap(imagePath, ImageSize.LARGE);
+                Optional<Bitmap> opt = loadSharedBitmap(obj, ImageSize.LARGE);
                 opt.ifPresent(bitmap -> stored = bitmap);
-                obj.updateImage(imagePath, null);
+                updateImage(obj, null);
                 return obj;
             }
 
             @Override
             public ImagePyramid backward(final ImagePyramid obj) {
                 if (stored != null) {
-                    obj.updateImage(imagePath, stored);
+                    updateImage(obj, stored);
                 }
                 return obj;
             }
@@ -288,8 +631,7 @@ public class RuntimeStorage implements RuntimeStorageConcept {
             public Performer forward(final Performer obj) {
                 final Optional<ImagePyramid> opt = images.getElementById(obj.getImageId());
                 if (opt.isPresent()) {
-                    imageTransaction = images.startRemovalTransactionFor(opt.get());
-                    imageTransaction.addOperation(removeImageFromStorage());
+                    imageTransaction = releaseImage(opt.get());
                     imageTransaction.commit();
                 }
 
@@ -317,6 +659,14 @@ public class RuntimeStorage implements RuntimeStorageConcept {
         physicalStorage.write(moviePerformerAssociations);
     }
 
+    void linkAll(final List<Pair<Movie, Performer>> links) {
+        if (links.isEmpty()) {
+            return;
+        }
+        links.forEach(link -> moviePerformerAssociations.associate(link.first, link.second));
+        physicalStorage.write(moviePerformerAssociations);
+    }
+
     @Override
     public void unlink(final Movie movie, final Performer performer) {
         moviePerformerAssociations.disassociate(movie, performer);
@@ -362,21 +712,227 @@ public class RuntimeStorage implements RuntimeStorageConcept {
     }
 
     @Override
-    public void setImageForPortrayable(final Portrayable portrayable, final Bitmap image) {
-        int imageId = portrayable.getImageId();
-        final ImagePyramid pyramid = images.getElementById(imageId)
-                .orElseGet(() -> newImagePyramid(portrayable.getClass().getSimpleName().toLowerCase()));
-        portrayable.setImageId(pyramid.id());
-        pyramid.updateImage(imagePath, image);
+    public Set<Integer> findMovieCandidates(final String query, final int maxEditDistance) {
+        return movieNames.candidates(query, maxEditDistance);
+    }
+
+    @Override
+    public Set<Integer> findPerformerCandidates(final String query, final int maxEditDistance) {
+        return performerNames.candidates(query, maxEditDistance);
+    }
+
+    @Override
+    public List<Movie> completeMovieNames(final String prefix, final int limit) {
+        return resolve(movieCompletions.complete(prefix, limit), movies);
+    }
+
+    @Override
+    public List<Performer> completePerformerNames(final String prefix, final int limit) {
+        return resolve(performerCompletions.complete(prefix, limit), performers);
+    }
+
+    private static <X> List<X> resolve(final List<Integer> ids, final Register<X> register) {
+        return ids.stream()
+                .map(register::getElementById)
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .collect(toList());
+    }
+
+    @Override
+    public List<Movie> searchMoviesByText(final String query, final int limit) {
+        return movieTexts.search(query, limit)
+                .stream()
+                .map(result -> movies.getElementById(result.first))
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .collect(toList());
+    }
+
+    @Override
+    public List<Performer> searchPerformersByText(final String query, final int limit) {
+        return performerTexts.search(query, limit)
+                .stream()
+                .map(result -> performers.getElementById(result.first))
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .collect(toList());
+    }
+
+    @Override
+    public QueryPlan<Movie> planMovieQuery(final String query) {
+        return movieQueries.plan(query);
+    }
+
+    @Override
+    public QueryPlan<Performer> planPerformerQuery(final String query) {
+        return performerQueries.plan(query);
+    }
+
+    /**
+     * Removing an image is done at once. A new image is hashed and scaled on the encoder
+     * threads first, afterwards the pyramid is assigned on the main thread and the changed
+     * image id of the portrayable is saved.
+     */
+    @Override
+    public CompletableFuture<Void> setImageForPortrayable(final Portrayable portrayable, final Bitmap image) {
+        if (image == null) {
+            images.getElementById(portrayable.getImageId()).ifPresent(pyramid -> releaseImage(pyramid).commit());
+            portrayable.setImageId(-1);
+            return completedFuture(null);
+        }
+
+        return ImagePyramid.prepare(image)
+                .thenComposeAsync(prepared -> assignImage(portrayable, prepared.first, prepared.second),
+                        getMainThread());
     }
 
-    private ImagePyramid newImagePyramid(final String prefix) {
+    private CompletableFuture<Void> assignImage(final Portrayable portrayable,
+                                                final String hash,
+                                                final Map<ImageSize, Bitmap> levels) {
+        // the portrayable may have been deleted while its image was prepared
+        final Optional<ImagePyramid> current = images.getElementById(portrayable.getImageId());
+        if (!isStored(portrayable) || current.map(pyramid -> hash.equals(pyramid.getHash())).orElse(false)) {
+            return completedFuture(null);
+        }
+
+        current.ifPresent(pyramid -> releaseImage(pyramid).commit());
+        final Optional<ImagePyramid> shared = getImageByHash(hash);
+        if (shared.isPresent()) {
+            changeReferences(shared.get(), 1).commit();
+            saveImageId(portrayable, shared.get().id());
+            return completedFuture(null);
+        }
+
+        final ImagePyramid pyramid = newImagePyramid(portrayable.getClass().getSimpleName().toLowerCase(), hash);
+        saveImageId(portrayable, pyramid.id());
+        return updateImage(pyramid, levels);
+    }
+
+    private boolean isStored(final Portrayable portrayable) {
+        return portrayable instanceof Movie
+                ? movies.getElementById(portrayable.id()).isPresent()
+                : performers.getElementById(portrayable.id()).isPresent();
+    }
+
+    private void saveImageId(final Portrayable portrayable, final int imageId) {
+        if (portrayable instanceof Movie) {
+            movies.startUpdateTransactionFor((Movie) portrayable)
+                    .addOperation(reversibleTransformation(Movie::getImageId, Movie::setImageId, imageId))
+                    .commit();
+        } else {
+            performers.startUpdateTransactionFor((Performer) portrayable)
+                    .addOperation(reversibleTransformation(Performer::getImageId, Performer::setImageId, imageId))
+                    .commit();
+        }
+    }
+
+    private Executor getMainThread() {
+        if (mainThread == null) {
+            mainThread = new Handler(Looper.getMainLooper())::post;
+        }
+        return mainThread;
+    }
+
+    CompletableFuture<Void> updateImage(final ImagePyramid pyramid, final Bitmap image) {
+        if (image == null) {
+            final int id = pyramid.id();
+            invalidateImage(id);
+            return allOf(
+                    pyramid.updateImage(imagePath, null),
+                    pyramid.runAfterPendingUpdates(() -> removeFromAtlases(id))
+            );
+        }
+        return updateImage(pyramid, ImagePyramid.createLevels(image));
+    }
+
+    private void invalidateImage(final int id) {
+        imageCache.invalidate(id);
+        if (imageLoader != null) {
+            imageLoader.invalidate(id);
+        }
+        removeFromAtlases(id);
+    }
+
+    private CompletableFuture<Void> updateImage(final ImagePyramid pyramid, final Map<ImageSize, Bitmap> levels) {
+        final int id = pyramid.id();
+        invalidateImage(id);
+        final long stamp = imageCache.stamp();
+        levels.forEach((size, level) -> {
+            // the levels may be the bitmap of the caller, which is still in use
+            imageCache.share(level);
+            imageCache.put(id, size, level, stamp);
+        });
+        return allOf(
+                pyramid.writeLevels(imagePath, levels),
+                pyramid.runAfterPendingUpdates(() -> storeInAtlases(id, levels))
+        );
+    }
+
+    private synchronized ThumbnailAtlas getAtlas(final ImageSize size) {
+        return atlases.computeIfAbsent(size, s -> new ThumbnailAtlas(
+                new File(imagePath, s.name().toLowerCase(Locale.US) + ".atlas"),
+                s.getWidth(),
+                s.getHeight(),
+                MAX_ATLAS_CELLS)
+        );
+    }
+
+    private Optional<ThumbnailAtlas> getEnabledAtlas(final ImageSize size) {
+        if (!atlasEnabled || size == ImageSize.LARGE) {
+            return Optional.empty();
+        }
+        return Optional.of(getAtlas(size));
+    }
+
+    private void storeInAtlases(final int id, final Map<ImageSize, Bitmap> levels) {
+        for (final ImageSize size : ATLAS_SIZES) {
+            getEnabledAtlas(size).ifPresent(atlas -> atlas.writeBitmap(id, levels.get(size)));
+        }
+    }
+
+    private void removeFromAtlases(final int id) {
+        for (final ImageSize size : ATLAS_SIZES) {
+            // cells written while the atlas was enabled are removed, but no atlas is created
+            final ThumbnailAtlas atlas = getAtlas(size);
+            if (atlasEnabled || atlas.getFile().exists()) {
+                atlas.remove(id);
+            }
+        }
+    }
+
+    private synchronized void closeAtlases() {
+        atlases.values().forEach(ThumbnailAtlas::close);
+        atlases.clear();
+    }
+
+    @Override
+    public void setThumbnailAtlasEnabled(final boolean enabled) {
+        this.atlasEnabled = enabled;
+    }
+
+    @Override
+    public void setImageCodec(final ImageCodec codec) {
+        this.imageCodec = requireNonNull(codec);
+    }
+
+    private ImagePyramid newImagePyramid(final String prefix, final String hash) {
         final Optional<ImagePyramid> optional = images.startCreationTransaction()
                 .addOperation(reversibleTransformation(
                         ImagePyramid::getPrefix,
                         ImagePyramid::setPrefix,
                         prefix)
                 )
+                .addOperation(reversibleTransformation(
+                        ImagePyramid::getCodec,
+                        ImagePyramid::setCodec,
+                        imageCodec)
+                )
+                .addOperation(reversibleTransformation(
+                        ImagePyramid::getHash,
+                        ImagePyramid::setHash,
+                        hash)
+                )
                 .commit();
 
         if (optional.isPresent()) {
@@ -386,6 +942,19 @@ public class RuntimeStorage implements RuntimeStorageConcept {
         }
     }
 
+    Optional<ImagePyramid> getImageById(final int id) {
+        return images.getElementById(id);
+    }
+
+    Optional<ImagePyramid> getImageByHash(final String hash) {
+        return Optional.ofNullable(imageIdsByHash.get(hash))
+                .flatMap(images::getElementById);
+    }
+
+    String getImagePath() {
+        return imagePath;
+    }
+
     @Override
     public Pair<Drawable, Boolean> getImage(final Context context,
                                             final Portrayable portrayal,
@@ -393,13 +962,113 @@ public class RuntimeStorage implements RuntimeStorageConcept {
         return ofNullable(portrayal)
                 .map(Portrayable::getImageId)
                 .flatMap(images::getElementById)
-                .flatMap(pyramid -> pyramid.loadBitmap(imagePath, size))
-                .map(bitmap -> new BitmapDrawable(context.getResources(), bitmap))
-                .map(Drawable.class::cast)
+                .flatMap(pyramid -> loadSharedBitmap(pyramid, size))
+                .map(bitmap -> toDrawable(context, bitmap))
                 .map(image -> paired(image, true))
                 .orElseGet(() -> paired(getDefaultImage(context, size), false));
     }
 
+    /**
+     * Loads a bitmap, which is handed out without tracking its users, so it is never reused.
+     */
+    private Optional<Bitmap> loadSharedBitmap(final ImagePyramid pyramid, final ImageSize size) {
+        final Optional<Bitmap> cached = imageCache.share(pyramid.id(), size);
+        return cached.isPresent() ? cached : decodeBitmap(pyramid, size, imageCache::share);
+    }
+
+    /**
+     * Loads a bitmap for the views of an image load. It is held until all views received it.
+     */
+    private Optional<Bitmap> loadHeldBitmap(final ImagePyramid pyramid, final ImageSize size) {
+        final Optional<Bitmap> cached = imageCache.hold(pyramid.id(), size);
+        return cached.isPresent() ? cached : decodeBitmap(pyramid, size, imageCache::hold);
+    }
+
+    /**
+     * Decodes a level into a reusable bitmap, if the cache has one. The bitmap is claimed
+     * before it is cached, so it can't be evicted and reused before its users got it.
+     */
+    private Optional<Bitmap> decodeBitmap(final ImagePyramid pyramid,
+                                          final ImageSize size,
+                                          final Consumer<Bitmap> claim) {
+        final long stamp = imageCache.stamp();
+        final Bitmap reusable = imageCache.acquireReusable(size).orElse(null);
+        final Optional<ThumbnailAtlas> atlas = getEnabledAtlas(size);
+        final Optional<Bitmap> packed = atlas.flatMap(a -> a.readBitmap(pyramid.id(), reusable));
+        final Optional<Bitmap> loaded = packed.isPresent() ? packed : pyramid.loadBitmap(imagePath, size, reusable);
+        if (reusable != null && loaded.map(bitmap -> bitmap != reusable).orElse(true)) {
+            imageCache.offerReusable(size, reusable);
+        }
+        loaded.ifPresent(claim);
+        if (atlas.isPresent() && loaded.isPresent() && !packed.isPresent() && stamp == imageCache.stamp()) {
+            atlas.get().writeBitmap(pyramid.id(), loaded.get());
+        }
+        loaded.ifPresent(bitmap -> imageCache.put(pyramid.id(), size, bitmap, stamp));
+        return loaded;
+    }
+
+    private static Drawable toDrawable(final Context context, final Bitmap bitmap) {
+        return new BitmapDrawable(context.getResources(), bitmap);
+    }
+
+    @Override
+    public void loadImageInto(final ImageView view, final Portrayable portrayal, final ImageSize size) {
+        cancelImageLoad(view);
+        final Context context = view.getContext();
+        final Optional<ImagePyramid> pyramid = ofNullable(portrayal)
+                .map(Portrayable::getImageId)
+                .flatMap(images::getElementById);
+        final Optional<Bitmap> cached = pyramid.flatMap(p -> imageCache.hold(p.id(), size));
+
+        if (cached.isPresent()) {
+            showHeldBitmap(view, cached.get());
+            return;
+        }
+
+        view.setImageDrawable(getDefaultImage(context, size));
+        if (pyramid.isPresent()) {
+            final ImageLoader.Request request = getImageLoader().load(pyramid.get(), size, loaded ->
+                    loaded.ifPresent(bitmap -> {
+                        imageCache.hold(bitmap);
+                        showHeldBitmap(view, bitmap);
+                    }));
+            view.setTag(R.id.image_request, request);
+        }
+    }
+
+    private void showHeldBitmap(final ImageView view, final Bitmap bitmap) {
+        view.setImageDrawable(toDrawable(view.getContext(), bitmap));
+        view.setTag(R.id.image_request, bitmap);
+    }
+
+    private ImageLoader getImageLoader() {
+        if (imageLoader == null) {
+            // the hold of the decoding is released once every view holds the bitmap itself
+            imageLoader = new ImageLoader(this::loadHeldBitmap, imageCache::release, getMainThread());
+        }
+        return imageLoader;
+    }
+
+    /**
+     * Cancels the running image load of the view, or releases the bitmap it shows. The view
+     * shows no image afterwards, so the bitmap can be reused as soon as no view holds it.
+     */
+    @Override
+    public void cancelImageLoad(final ImageView view) {
+        final Object request = view.getTag(R.id.image_request);
+        if (request instanceof ImageLoader.Request) {
+            ((ImageLoader.Request) request).cancel();
+        } else if (request instanceof Bitmap) {
+            view.setImageDrawable(null);
+            imageCache.release((Bitmap) request);
+        }
+        view.setTag(R.id.image_request, null);
+    }
+
+    public ImageCache getImageCache() {
+        return imageCache;
+    }
+
     @Override
     public Drawable getDefaultImage(final Context context, final ImageSize size) {
         switch (size) {
@@ -413,6 +1082,41 @@ public class RuntimeStorage implements RuntimeStorageConcept {
         }
     }
 
+    @Override
+    public void exportLibrary(final File target, final TransferProgress progress) {
+        final LibraryExporter exporter = new LibraryExporter(this);
+        exporter.setProgress(progress);
+        try {
+            exporter.exportTo(target);
+        } catch (IOException e) {
+            throw new StorageException(e);
+        }
+    }
+
+    @Override
+    public void importLibrary(final File source, final TransferProgress progress) {
+        final LibraryImporter importer = new LibraryImporter(this);
+        importer.setProgress(progress);
+        try {
+            importer.importFrom(source);
+        } catch (IOException e) {
+            throw new StorageException(e);
+        }
+    }
+
+    void runBatched(final Runnable batch) {
+        ++batchDepth;
+        try {
+            physicalStorage.runBatched(batch);
+        } finally {
+            --batchDepth;
+            if (batchDepth == 0) {
+                scheduleFullTextSave(movieTexts, getFullTextFile(MOVIE_TEXTS));
+                scheduleFullTextSave(performerTexts, getFullTextFile(PERFORMER_TEXTS));
+            }
+        }
+    }
+
     @Override
     public void clear() {
         selfDestruct();
@@ -421,10 +1125,15 @@ public class RuntimeStorage implements RuntimeStorageConcept {
 
     @Override
     public void selfDestruct() {
+        imageCache.clear();
+        closeAtlases();
+        // a pending save must not recreate the deleted directory
+        awaitFullTextSaves();
         physicalStorage.deleteStorage();
     }
 
     void close() {
+        awaitFullTextSaves();
         physicalStorage.close();
     }
 }
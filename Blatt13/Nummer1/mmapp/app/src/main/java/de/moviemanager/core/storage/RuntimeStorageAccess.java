@@ -4,16 +4,20 @@ import android.app.Activity;
 import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.drawable.Drawable;
+import android.widget.ImageView;
 
 import java.io.File;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import de.moviemanager.data.ImagePyramid;
 import de.moviemanager.data.Movie;
 import de.moviemanager.data.Performer;
 import de.moviemanager.data.Portrayable;
 import de.moviemanager.ui.MasterActivity;
+import de.query.QueryPlan;
 import de.storage.StorageException;
 import de.util.Pair;
 import de.util.operationflow.ReversibleTransaction;
@@ -178,8 +182,58 @@ public final class RuntimeStorageAccess implements RuntimeStorageConcept {
     }
 
     @Override
-    public void setImageForPortrayable(Portrayable portrayable, Bitmap image) {
-        getStorage().setImageForPortrayable(portrayable, image);
+    public Set<Integer> findMovieCandidates(String query, int maxEditDistance) {
+        return getStorage().findMovieCandidates(query, maxEditDistance);
+    }
+
+    @Override
+    public Set<Integer> findPerformerCandidates(String query, int maxEditDistance) {
+        return getStorage().findPerformerCandidates(query, maxEditDistance);
+    }
+
+    @Override
+    public List<Movie> completeMovieNames(String prefix, int limit) {
+        return getStorage().completeMovieNames(prefix, limit);
+    }
+
+    @Override
+    public List<Performer> completePerformerNames(String prefix, int limit) {
+        return getStorage().completePerformerNames(prefix, limit);
+    }
+
+    @Override
+    public List<Movie> searchMoviesByText(String query, int limit) {
+        return getStorage().searchMoviesByText(query, limit);
+    }
+
+    @Override
+    public List<Performer> searchPerformersByText(String query, int limit) {
+        return getStorage().searchPerformersByText(query, limit);
+    }
+
+    @Override
+    public QueryPlan<Movie> planMovieQuery(String query) {
+        return getStorage().planMovieQuery(query);
+    }
+
+    @Override
+    public QueryPlan<Performer> planPerformerQuery(String query) {
+        return getStorage().planPerformerQuery(query);
+    }
+
+    @Override
+    public CompletableFuture<Void> setImageForPortrayable(Portrayable portrayable, Bitmap image) {
+        return getStorage().setImageForPortrayable(portrayable, image);
+    }
+
+    @Override
+    public void setImageCodec(ImagePyramid.ImageCodec codec) {
+        getStorage().setImageCodec(codec);
+    }
+
+    @Override
+    public void setThumbnailAtlasEnabled(boolean enabled) {
+        getStorage().setThumbnailAtlasEnabled(enabled);
     }
 
     @Override
@@ -192,6 +246,26 @@ public final class RuntimeStorageAccess implements RuntimeStorageConcept {
         return getStorage().getDefaultImage(context, size);
     }
 
+    @Override
+    public void loadImageInto(ImageView view, Portrayable portrayal, ImagePyramid.ImageSize size) {
+        getStorage().loadImageInto(view, portrayal, size);
+    }
+
+    @Override
+    public void cancelImageLoad(ImageView view) {
+        getStorage().cancelImageLoad(view);
+    }
+
+    @Override
+    public void exportLibrary(File target, TransferProgress progress) {
+        getStorage().exportLibrary(target, progress);
+    }
+
+    @Override
+    public void importLibrary(File source, TransferProgress progress) {
+        getStorage().importLibrary(source, progress);
+    }
+
     @Override
     public void selfDestruct() {
         getStorage().selfDestruct();
@@ -3,14 +3,20 @@ package de.moviemanager.core.storage;
 import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.drawable.Drawable;
+import android.widget.ImageView;
 
+import java.io.File;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
+import de.moviemanager.data.ImagePyramid.ImageCodec;
 import de.moviemanager.data.ImagePyramid.ImageSize;
 import de.moviemanager.data.Movie;
 import de.moviemanager.data.Performer;
 import de.moviemanager.data.Portrayable;
+import de.query.QueryPlan;
 import de.util.Pair;
 import de.util.operationflow.ReversibleTransaction;
 
@@ -40,9 +46,28 @@ public interface RuntimeStorageConcept {
     Optional<Movie> getMovieById(int id);
     Optional<Performer> getPerformerById(int id);
 
-    void setImageForPortrayable(Portrayable portrayable, Bitmap image);
+    Set<Integer> findMovieCandidates(String query, int maxEditDistance);
+    Set<Integer> findPerformerCandidates(String query, int maxEditDistance);
+
+    List<Movie> completeMovieNames(String prefix, int limit);
+    List<Performer> completePerformerNames(String prefix, int limit);
+
+    List<Movie> searchMoviesByText(String query, int limit);
+    List<Performer> searchPerformersByText(String query, int limit);
+
+    QueryPlan<Movie> planMovieQuery(String query);
+    QueryPlan<Performer> planPerformerQuery(String query);
+
+    CompletableFuture<Void> setImageForPortrayable(Portrayable portrayable, Bitmap image);
+    void setImageCodec(ImageCodec codec);
+    void setThumbnailAtlasEnabled(boolean enabled);
     Pair<Drawable, Boolean> getImage(Context context, Portrayable portrayal, ImageSize size);
     Drawable getDefaultImage(Context context, ImageSize size);
+    void loadImageInto(ImageView view, Portrayable portrayal, ImageSize size);
+    void cancelImageLoad(ImageView view);
+
+    void exportLibrary(File target, TransferProgress progress);
+    void importLibrary(File source, TransferProgress progress);
 
     void clear();
     void selfDestruct();
@@ -0,0 +1,234 @@
+package de.moviemanager.core.storage;
+
+import android.graphics.Bitmap;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Optional;
+
+import de.moviemanager.util.FileUtils;
+import de.storage.StorageException;
+
+import static java.lang.String.format;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+
+/**
+ * Packs thumbnails of one size as uncompressed ARGB_8888 cells into a single file, so a
+ * thumbnail is read by slicing its cell out of a mapped chunk instead of decoding an image file.
+ * The number of cells is bounded, thumbnails beyond it are simply not packed and read from their
+ * image files.
+ */
+class ThumbnailAtlas implements Closeable {
+    private static final int NO_CELL = 0;
+    private static final int INDEX_ENTRY_BYTES = Integer.BYTES;
+    private static final Bitmap.Config CONFIG = Bitmap.Config.ARGB_8888;
+    private static final int BYTES_PER_PIXEL = 4;
+    private static final int CELLS_PER_CHUNK = 64;
+
+    private final File cellFile;
+    private final File indexFile;
+    private final int width;
+    private final int height;
+    private final int cellBytes;
+    private final int maxCells;
+    private final BitSet usedCells;
+    private final MappedByteBuffer[] chunks;
+    private int[] cellOfId;
+    private RandomAccessFile cells;
+    private RandomAccessFile index;
+
+    /**
+     * @param cellFile file of the cells, the index is stored next to it
+     * @param width width of the thumbnails
+     * @param height height of the thumbnails
+     * @param maxCells maximum number of packed thumbnails
+     */
+    ThumbnailAtlas(final File cellFile, final int width, final int height, final int maxCells) {
+        this.cellFile = cellFile;
+        this.indexFile = new File(cellFile.getPath() + ".index");
+        this.width = width;
+        this.height = height;
+        this.cellBytes = width * height * BYTES_PER_PIXEL;
+        this.maxCells = maxCells;
+        this.usedCells = new BitSet();
+        this.chunks = new MappedByteBuffer[(maxCells + CELLS_PER_CHUNK - 1) / CELLS_PER_CHUNK];
+        this.cellOfId = new int[0];
+    }
+
+    File getFile() {
+        return cellFile;
+    }
+
+    private void open() throws IOException {
+        if (cells != null) {
+            return;
+        }
+        FileUtils.createDirectory(cellFile);
+        cells = new RandomAccessFile(cellFile, "rw");
+        index = new RandomAccessFile(indexFile, "rw");
+
+        final int entries = (int) (index.length() / INDEX_ENTRY_BYTES);
+        final ByteBuffer buffer = ByteBuffer.allocate(entries * INDEX_ENTRY_BYTES);
+        index.getChannel().read(buffer, 0);
+        buffer.flip();
+        cellOfId = new int[entries];
+        for (int id = 0; id < entries; ++id) {
+            cellOfId[id] = buffer.getInt();
+            if (cellOfId[id] != NO_CELL) {
+                usedCells.set(cellOfId[id] - 1);
+            }
+        }
+    }
+
+    /**
+     * Maps the chunk holding the given cell on first use. Chunks never hold more cells than
+     * the atlas is bounded to, so the file grows by at most one chunk past the used cells.
+     */
+    private ByteBuffer sliceOf(final int cell) throws IOException {
+        final int chunk = (cell - 1) / CELLS_PER_CHUNK;
+        if (chunks[chunk] == null) {
+            final int firstCell = chunk * CELLS_PER_CHUNK;
+            final int cellsInChunk = Math.min(CELLS_PER_CHUNK, maxCells - firstCell);
+            chunks[chunk] = cells.getChannel().map(
+                    READ_WRITE,
+                    (long) firstCell * cellBytes,
+                    (long) cellsInChunk * cellBytes
+            );
+        }
+
+        final ByteBuffer slice = chunks[chunk].duplicate();
+        final int offset = ((cell - 1) % CELLS_PER_CHUNK) * cellBytes;
+        slice.position(offset);
+        slice.limit(offset + cellBytes);
+        return slice.slice();
+    }
+
+    /**
+     * @return the pixels of the cell, which change when the cell is written again
+     */
+    synchronized Optional<ByteBuffer> read(final int id) {
+        try {
+            open();
+            if (id < 0 || id >= cellOfId.length || cellOfId[id] == NO_CELL) {
+                return Optional.empty();
+            }
+            return Optional.of(sliceOf(cellOfId[id]).asReadOnlyBuffer());
+        } catch (IOException e) {
+            throw new StorageException(format("Couldn't read cell of %d from '%s': %s", id, cellFile, e.getMessage()));
+        }
+    }
+
+    /**
+     * @return <i>false</i>, if all cells are used by other thumbnails
+     */
+    synchronized boolean write(final int id, final ByteBuffer pixels) {
+        if (pixels.remaining() != cellBytes) {
+            throw new IllegalArgumentException(format("Cell needs %d bytes, but got %d", cellBytes, pixels.remaining()));
+        }
+
+        try {
+            open();
+            int cell = id < cellOfId.length ? cellOfId[id] : NO_CELL;
+            if (cell == NO_CELL) {
+                final int free = usedCells.nextClearBit(0);
+                if (free >= maxCells) {
+                    return false;
+                }
+                cell = free + 1;
+            }
+
+            sliceOf(cell).put(pixels);
+            usedCells.set(cell - 1);
+            putIndex(id, cell);
+            return true;
+        } catch (IOException e) {
+            throw new StorageException(format("Couldn't write cell of %d to '%s': %s", id, cellFile, e.getMessage()));
+        }
+    }
+
+    synchronized void remove(final int id) {
+        try {
+            open();
+            if (id < 0 || id >= cellOfId.length || cellOfId[id] == NO_CELL) {
+                return;
+            }
+            usedCells.clear(cellOfId[id] - 1);
+            putIndex(id, NO_CELL);
+        } catch (IOException e) {
+            throw new StorageException(format("Couldn't remove cell of %d from '%s': %s", id, cellFile, e.getMessage()));
+        }
+    }
+
+    private void putIndex(final int id, final int cell) throws IOException {
+        if (id >= cellOfId.length) {
+            final int[] grown = new int[Math.max(id + 1, cellOfId.length * 2)];
+            System.arraycopy(cellOfId, 0, grown, 0, cellOfId.length);
+            cellOfId = grown;
+        }
+        cellOfId[id] = cell;
+
+        final ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_BYTES).putInt(cell);
+        entry.flip();
+        index.getChannel().write(entry, (long) id * INDEX_ENTRY_BYTES);
+    }
+
+    synchronized int getNumberOfCells() {
+        return usedCells.cardinality();
+    }
+
+    /**
+     * @param reusable bitmap to copy the cell into, a new one is allocated if it is <i>null</i>
+     *                 or too small
+     */
+    synchronized Optional<Bitmap> readBitmap(final int id, final Bitmap reusable) {
+        return read(id).map(pixels -> {
+            final Bitmap bitmap = reuseOrCreate(reusable);
+            bitmap.copyPixelsFromBuffer(pixels);
+            return bitmap;
+        });
+    }
+
+    private Bitmap reuseOrCreate(final Bitmap reusable) {
+        if (reusable != null && reusable.isMutable() && reusable.getAllocationByteCount() >= cellBytes) {
+            reusable.reconfigure(width, height, CONFIG);
+            return reusable;
+        }
+        return Bitmap.createBitmap(width, height, CONFIG);
+    }
+
+    void writeBitmap(final int id, final Bitmap bitmap) {
+        if (bitmap.getWidth() != width || bitmap.getHeight() != height) {
+            return;
+        }
+
+        final Bitmap converted = bitmap.getConfig() == CONFIG ? bitmap : bitmap.copy(CONFIG, false);
+        final ByteBuffer pixels = ByteBuffer.allocate(cellBytes);
+        converted.copyPixelsToBuffer(pixels);
+        pixels.flip();
+        write(id, pixels);
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            if (cells != null) {
+                cells.close();
+                index.close();
+            }
+        } catch (IOException e) {
+            throw new StorageException(e);
+        } finally {
+            cells = null;
+            index = null;
+            Arrays.fill(chunks, null);
+            usedCells.clear();
+            cellOfId = new int[0];
+        }
+    }
+}
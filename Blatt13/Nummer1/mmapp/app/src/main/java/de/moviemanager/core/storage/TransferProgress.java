@@ -0,0 +1,9 @@
+package de.moviemanager.core.storage;
+
+@FunctionalInterface
+public interface TransferProgress {
+    TransferProgress NONE = (processed, total) -> {
+    };
+
+    void onProgress(long processed, long total);
+}
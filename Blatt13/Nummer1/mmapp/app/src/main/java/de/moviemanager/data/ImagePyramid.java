@@ -1,7 +1,7 @@
 package de.moviemanager.data;
 
 import android.graphics.Bitmap;
-import android.util.Log;
+import android.graphics.BitmapFactory;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -9,12 +9,24 @@ import androidx.annotation.Nullable;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 
 import de.moviemanager.core.storage.JsonAttr;
 import de.moviemanager.util.FileUtils;
 import de.storage.StorageException;
 import de.util.Identifiable;
+import de.util.Pair;
 import de.util.Traits;
 import de.util.annotations.Trait;
 
@@ -24,6 +36,10 @@ import static de.moviemanager.util.AndroidStringUtils.join;
 import static java.io.File.separator;
 import static java.lang.String.format;
 import static java.util.Locale.US;
+import static java.util.concurrent.CompletableFuture.allOf;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.runAsync;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
 
 public class ImagePyramid implements Identifiable {
     public enum ImageSize {
@@ -40,60 +56,279 @@ public class ImagePyramid implements Identifiable {
             this.width = width;
             this.height = height;
         }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+    }
+
+    public enum ImageCodec {
+        PNG(Bitmap.CompressFormat.PNG, 100, "png"),
+        JPEG(Bitmap.CompressFormat.JPEG, 90, "jpg"),
+        WEBP(Bitmap.CompressFormat.WEBP, 90, "webp");
+
+        final Bitmap.CompressFormat format;
+        final int quality;
+        final String extension;
+
+        ImageCodec(Bitmap.CompressFormat format, int quality, String extension) {
+            this.format = format;
+            this.quality = quality;
+            this.extension = extension;
+        }
+
+        public static ImageCodec fromName(final String name) {
+            for (final ImageCodec codec : values()) {
+                if (codec.name().equals(name)) {
+                    return codec;
+                }
+            }
+            return PNG;
+        }
     }
 
-    private static final Bitmap.CompressFormat FORMAT = Bitmap.CompressFormat.PNG;
+    private static final ImageSize[] CASCADE = {ImageSize.LARGE, ImageSize.MEDIUM, ImageSize.SMALL};
+    private static final Executor ENCODER = Executors.newFixedThreadPool(CASCADE.length, runnable -> {
+        final Thread thread = new Thread(runnable, "image-encoder");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // pyramids sharing a content hash share their files, so updates are serialized per file name
+    private static final Map<String, CompletableFuture<Void>> PENDING_UPDATES = new HashMap<>();
     private static final Traits TRAITS = new Traits(ImagePyramid.class);
 
     @Trait @JsonAttr private final int id;
     @Trait @JsonAttr private String prefix;
+    @JsonAttr private ImageCodec codec;
+    @JsonAttr private String hash;
+    @JsonAttr private int references;
     private String fileName;
 
     public ImagePyramid(int id) {
         this.id = id;
+        this.codec = ImageCodec.PNG;
+        this.references = 1;
     }
 
     public void setPrefix(String prefix) {
         this.prefix = prefix;
-        this.fileName = prefix + format(US, "-%08d", id) + "." + FORMAT.name().toLowerCase();
+        updateFileName();
     }
 
     public String getPrefix() {
         return prefix;
     }
 
+    public void setCodec(ImageCodec codec) {
+        this.codec = codec;
+        updateFileName();
+    }
+
+    public ImageCodec getCodec() {
+        return codec;
+    }
+
+    public void setHash(String hash) {
+        this.hash = hash;
+        updateFileName();
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public void setReferences(int references) {
+        this.references = references;
+    }
+
+    public int getReferences() {
+        return references;
+    }
+
+    private void updateFileName() {
+        final String name = hash != null ? hash : prefix + format(US, "-%08d", id);
+        this.fileName = name + "." + codec.extension;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    private File getFile(final String directory, final ImageSize size) {
+        return new File(join(separator, directory, size.folder, fileName));
+    }
+
     public Optional<Bitmap> loadBitmap(final String directory, final ImageSize size) {
-        final String path = join(separator, directory, size.folder, fileName);
+        return loadBitmap(directory, size, null);
+    }
+
+    /**
+     * Decodes a level into a mutable bitmap, so it can be reused for other levels later.
+     *
+     * @param reusable bitmap to decode into, a new one is allocated if it is <i>null</i> or
+     *                 too small for the stored image
+     */
+    public Optional<Bitmap> loadBitmap(final String directory, final ImageSize size, final Bitmap reusable) {
+        final File file = getFile(directory, size);
 
-        if(!new File(path).exists())
+        if(!file.exists())
             return Optional.empty();
-        return Optional.ofNullable(decodeFile(path));
+
+        final BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inMutable = true;
+        options.inBitmap = reusable;
+        try {
+            return Optional.ofNullable(decodeFile(file.getPath(), options));
+        } catch (IllegalArgumentException e) {
+            options.inBitmap = null;
+            return Optional.ofNullable(decodeFile(file.getPath(), options));
+        }
     }
 
-    public void updateImage(final String directory, final Bitmap bitmap) {
-        for(final ImageSize size : ImageSize.values()) {
-            final String path = join(separator, directory, size.folder, fileName);
-            final File file = new File(path);
-            if(bitmap == null) {
-                try {
-                    FileUtils.delete(file);
-                } catch (IOException e) {
-                    throw new StorageException(format("Couldn't delete '%s'.", file));
+    public static String hashOf(final Bitmap source) {
+        final int width = source.getWidth();
+        final int height = source.getHeight();
+        final int[] row = new int[width];
+        final ByteBuffer buffer = ByteBuffer.allocate(4 * Math.max(width, 2));
+        final MessageDigest digest = createDigest();
+
+        buffer.putInt(width).putInt(height).flip();
+        digest.update(buffer);
+        for(int y = 0; y < height; ++y) {
+            source.getPixels(row, 0, width, 0, y, width, 1);
+            buffer.clear();
+            buffer.asIntBuffer().put(row);
+            digest.update(buffer.array(), 0, 4 * width);
+        }
+        return format(US, "%040x", new BigInteger(1, digest.digest()));
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new StorageException(e);
+        }
+    }
+
+    /**
+     * Hashes the source and scales it to every size on the encoder threads, so the caller
+     * doesn't wait for it.
+     *
+     * @param source the full image
+     * @return the {@link #hashOf(Bitmap) hash} and the {@link #createLevels(Bitmap) levels}
+     */
+    public static CompletableFuture<Pair<String, Map<ImageSize, Bitmap>>> prepare(final Bitmap source) {
+        return supplyAsync(() -> Pair.paired(hashOf(source), createLevels(source)), ENCODER);
+    }
+
+    public static Map<ImageSize, Bitmap> createLevels(final Bitmap source) {
+        final Map<ImageSize, Bitmap> levels = new EnumMap<>(ImageSize.class);
+        Bitmap previous = source;
+        for(final ImageSize size : CASCADE) {
+            previous = createScaledBitmap(previous, size.width, size.height, true);
+            levels.put(size, previous);
+        }
+        return levels;
+    }
+
+    public CompletableFuture<Void> updateImage(final String directory, final Bitmap bitmap) {
+        if(bitmap == null) {
+            return enqueue(() -> runAsync(() -> deleteImage(directory), ENCODER));
+        }
+        return writeLevels(directory, createLevels(bitmap));
+    }
+
+    public CompletableFuture<Void> writeLevels(final String directory, final Map<ImageSize, Bitmap> levels) {
+        return enqueue(() -> allOf(levels.entrySet()
+                .stream()
+                .map(level -> runAsync(() -> write(directory, level.getKey(), level.getValue()), ENCODER))
+                .toArray(CompletableFuture[]::new)
+        ));
+    }
+
+    public CompletableFuture<Void> runAfterPendingUpdates(final Runnable task) {
+        return enqueue(() -> runAsync(task, ENCODER));
+    }
+
+    private CompletableFuture<Void> enqueue(final Supplier<CompletableFuture<Void>> update) {
+        final String key = fileName;
+        synchronized (PENDING_UPDATES) {
+            final CompletableFuture<Void> pending = PENDING_UPDATES
+                    .getOrDefault(key, completedFuture(null))
+                    .handle((ignored, error) -> (Void) null)
+                    .thenCompose(ignored -> update.get());
+            PENDING_UPDATES.put(key, pending);
+            pending.whenComplete((ignored, error) -> {
+                synchronized (PENDING_UPDATES) {
+                    PENDING_UPDATES.remove(key, pending);
                 }
-                continue;
+            });
+            return pending;
+        }
+    }
+
+    private void deleteImage(final String directory) {
+        for(final ImageSize size : ImageSize.values()) {
+            final File file = getFile(directory, size);
+            try {
+                FileUtils.delete(file);
+            } catch (IOException e) {
+                throw new StorageException(format("Couldn't delete '%s'.", file));
+            }
+        }
+    }
+
+    private void write(final String directory, final ImageSize size, final Bitmap bitmap) {
+        final File file = getFile(directory, size);
+        final File temporary = new File(file.getPath() + ".tmp");
+
+        try {
+            FileUtils.createDirectory(file);
+            try(FileOutputStream out = new FileOutputStream(temporary)) {
+                if(!bitmap.compress(codec.format, codec.quality, out))
+                    throw new IOException("Encoding as " + codec + " failed");
             }
-            final Bitmap scaled = createScaledBitmap(bitmap, size.width, size.height, false);
+            if(!temporary.renameTo(file))
+                throw new IOException("Renaming '" + temporary + "' failed");
+        } catch (IOException e) {
+            throw new StorageException(format("Couldn't write '%s': %s", file, e.getMessage()));
+        }
+    }
+
+    public void exportImage(final String directory,
+                            final String targetDirectory) {
+        for(final ImageSize size : ImageSize.values()) {
+            final File source = getFile(directory, size);
+            final File target = new File(join(separator, targetDirectory, size.folder, fileName));
+            if(!source.exists())
+                continue;
 
             try {
-                FileUtils.createDirectory(file);
+                FileUtils.copy(source, target);
             } catch (IOException e) {
-                throw new StorageException(format("Failed to create '%s'.", file.getParentFile()));
+                throw new StorageException(format("Couldn't export '%s'.", source));
             }
+        }
+    }
 
-            try(FileOutputStream out = new FileOutputStream(file)) {
-                scaled.compress(Bitmap.CompressFormat.PNG, 100, out);
+    public void importImage(final String directory,
+                            final String sourceDirectory,
+                            final String sourceFileName) {
+        for(final ImageSize size : ImageSize.values()) {
+            final File source = new File(join(separator, sourceDirectory, size.folder, sourceFileName));
+            final File target = getFile(directory, size);
+            if(!source.exists())
+                continue;
+
+            try {
+                FileUtils.copy(source, target);
             } catch (IOException e) {
-                Log.e("ImagePyramid", "Couldn't write size " + size, e);
+                throw new StorageException(format("Couldn't import '%s'.", source));
             }
         }
     }
@@ -106,7 +341,7 @@ public class ImagePyramid implements Identifiable {
     @NonNull
     @Override
     public String toString() {
-        return "ImagePyramid{id=" + id + ", fileName='" + fileName + "'}";
+        return "ImagePyramid{id=" + id + ", fileName='" + fileName + "', references=" + references + "}";
     }
 
     @Override
@@ -16,6 +16,7 @@ public abstract class Portrayable implements Identifiable, Nameable, Rateable, P
     @JsonAttr @Trait private String name;
     @JsonAttr @Trait private int imageId;
     @JsonAttr @Trait private double rating;
+    private transient String normalizedName;
 
     protected Portrayable(int id) {
         this.id = id;
@@ -73,6 +74,22 @@ public abstract class Portrayable implements Identifiable, Nameable, Rateable, P
 
     public void setName(final String name) {
         this.name = name;
+        this.normalizedName = null;
+    }
+
+    /**
+     * The name in lower case, as every name comparison ignores case. It is computed once per
+     * name, instead of once per comparison.
+     *
+     * @return the name in lower case
+     */
+    public String normalizedName() {
+        String result = normalizedName;
+        if (result == null && name != null) {
+            result = name.toLowerCase();
+            normalizedName = result;
+        }
+        return result;
     }
 
     @Override
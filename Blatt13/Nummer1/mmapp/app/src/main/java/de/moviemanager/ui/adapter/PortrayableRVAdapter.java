@@ -22,11 +22,15 @@ import com.google.android.material.snackbar.Snackbar;
 
 import java.security.InvalidParameterException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 import de.moviemanager.R;
@@ -47,7 +51,10 @@ import de.moviemanager.ui.masterlist.viewholder.ContentViewHolder;
 import de.moviemanager.ui.masterlist.viewholder.DividerViewHolder;
 import de.moviemanager.ui.masterlist.viewholder.HeaderViewHolder;
 import de.moviemanager.ui.masterlist.viewholder.TypedViewHolder;
+import de.util.Cancellation;
 import de.util.Pair;
+import de.util.QueryPredicate;
+import de.util.RefinementContext;
 import de.util.operationflow.ReversibleOperations.ReversibleTransformation;
 import de.util.operationflow.ReversibleTransaction;
 import de.util.operationflow.Transaction;
@@ -75,6 +82,8 @@ public abstract class PortrayableRVAdapter<T extends Portrayable>
     private final View.OnClickListener itemClickListener;
 
     private BiPredicate<T, String> filter;
+    private final RefinementContext<Set<Integer>> refinement;
+    private final VersionedFilter<List<Element>> queryFilter;
 
     PortrayableRVAdapter(final OneTimeTaskExecutorRudiment taskExecutor,
                                    @NonNull final ResultHandlingFragment host,
@@ -88,6 +97,8 @@ public abstract class PortrayableRVAdapter<T extends Portrayable>
         this.modelData = modelData;
         this.originalData = new ArrayList<>();
         this.filteredData = new ArrayList<>();
+        this.refinement = new RefinementContext<>();
+        this.queryFilter = createFilter();
 
         orders.forEach(ElementOrder::unselect);
         selectOrder(orders.getDefaultIndex(), constraint);
@@ -256,11 +267,19 @@ public abstract class PortrayableRVAdapter<T extends Portrayable>
     private void bindContentDataToView(ViewHolder viewHolder, Element element) {
         ContentViewHolder holder = (ContentViewHolder) viewHolder;
         ContentElement<T> cElement = (ContentElement<T>) element;
-        holder.setImage(STORAGE.getImage(context, cElement.retrieveContentModel(), MEDIUM).first);
+        STORAGE.loadImageInto(holder.getImageView(), cElement.retrieveContentModel(), MEDIUM);
         holder.setTitle(cElement.getContent());
         holder.setMetaText(cElement.getMeta());
     }
 
+    @Override
+    public void onViewRecycled(@NonNull final TypedViewHolder holder) {
+        super.onViewRecycled(holder);
+        if (holder instanceof ContentViewHolder) {
+            STORAGE.cancelImageLoad(((ContentViewHolder) holder).getImageView());
+        }
+    }
+
     @Override
     public int getItemCount() {
         return filteredData.size();
@@ -302,48 +321,114 @@ public abstract class PortrayableRVAdapter<T extends Portrayable>
 
     @Override
     public Filter getFilter() {
-        return new Filter() {
+        return queryFilter;
+    }
+
+    /**
+     * Filters the list with a new query. A running filter run of an older query is cancelled
+     * and its results are dropped.
+     *
+     * @param constraint the new query
+     */
+    public void filter(final CharSequence constraint) {
+        queryFilter.request(constraint);
+    }
+
+    private VersionedFilter<List<Element>> createFilter() {
+        return new VersionedFilter<List<Element>>() {
             @Override
-            protected FilterResults performFiltering(final CharSequence constraint) {
+            protected List<Element> compute(final CharSequence constraint, final Cancellation cancellation) {
                 orderMeta = orderMeta.mapSecond(s -> constraint.toString());
-                final FilterResults results = new FilterResults();
                 final List<Element> filteredOriginal = new ArrayList<>(originalData);
-                applyFilter(filteredOriginal, constraint);
+                applyFilter(filteredOriginal, constraint, cancellation);
+                return filteredOriginal;
+            }
 
-                results.values = filteredOriginal;
-                results.count = filteredOriginal.size();
-                return results;
+            @Override
+            protected int countOf(final List<Element> results) {
+                return results.size();
             }
 
             @Override
-            protected void publishResults(final CharSequence constraint,
-                                          final FilterResults results) {
+            protected void publish(final CharSequence constraint,
+                                   final List<Element> results,
+                                   final int count) {
                 filteredData.clear();
-                filteredData.addAll((List<Element>) results.values);
+                filteredData.addAll(results);
                 notifyDataSetChanged();
             }
         };
     }
 
-    private void applyFilter(@NonNull List<Element> filteredData, CharSequence constraint) {
+    /**
+     * Hides the elements not matching the query. The cancellation is checked before every
+     * group of elements, so a superseded query stops early.
+     */
+    private void applyFilter(@NonNull List<Element> filteredData,
+                             CharSequence constraint,
+                             final Cancellation cancellation) {
         filteredData.forEach(e -> e.setVisible(true));
         if (constraint != null && constraint.length() > 0) {
+            final String query = constraint.toString();
+            final BiPredicate<T, String> currentFilter = filter;
+            final Predicate<T> matches = matcherFor(currentFilter, query);
+            final Set<Integer> matchingIds = new HashSet<>();
             filteredData.stream()
                     .filter(Element::isHeader)
                     .map(e -> (HeaderElement<T>) e)
-                    .forEach(h -> h.filter(o -> filter.test(o, constraint.toString())));
+                    .forEach(h -> {
+                        cancellation.check();
+                        h.filter(o -> {
+                            final boolean visible = matches.test(o);
+                            if (visible) {
+                                matchingIds.add(o.id());
+                            }
+                            return visible;
+                        });
+                    });
+            if (isRefinable(currentFilter, query)) {
+                refinement.remember(query, matchingIds);
+            } else {
+                refinement.reset();
+            }
         }
         filteredData.removeIf(e -> !e.isVisible());
     }
 
+    /**
+     * Creates the test for the query. A query filter prepares its test once per run, e.g. by
+     * executing a fielded query against the indexes. A refinable filter can't match an element
+     * which didn't match a prefix of the query, so while the query is extended only the previous
+     * matches are tested. After a deleted character every element is tested again.
+     */
+    private Predicate<T> matcherFor(final BiPredicate<T, String> currentFilter, final String query) {
+        final Predicate<T> test = currentFilter instanceof QueryPredicate
+                ? ((QueryPredicate<T>) currentFilter).prepare(query)
+                : o -> currentFilter.test(o, query);
+        final Optional<Set<Integer>> previousMatches = isRefinable(currentFilter, query)
+                ? refinement.refine(query)
+                : Optional.empty();
+        if (previousMatches.isPresent()) {
+            final Set<Integer> candidates = previousMatches.get();
+            return o -> candidates.contains(o.id()) && test.test(o);
+        }
+        return test;
+    }
+
+    private static <T> boolean isRefinable(final BiPredicate<T, String> filter, final String query) {
+        return filter instanceof QueryPredicate && ((QueryPredicate<T>) filter).isRefinable(query);
+    }
+
     public void selectOrder(int index, String constraint) {
         orderMeta = Pair.paired(index, constraint);
         originalData.clear();
         filteredData.clear();
         originalData.addAll(orders.select(index, modelData));
         filter = orders.getFilterLogic();
+        refinement.reset();
+        queryFilter.supersede();
         filteredData.addAll(originalData);
-        applyFilter(filteredData, constraint);
+        applyFilter(filteredData, constraint, Cancellation.NEVER);
         notifyDataSetChanged();
     }
 
@@ -353,8 +438,10 @@ public abstract class PortrayableRVAdapter<T extends Portrayable>
         this.originalData.clear();
         filteredData.clear();
         this.originalData.addAll(orders.reselect(index, modelData));
+        refinement.reset();
+        queryFilter.supersede();
         this.filteredData.addAll(originalData);
-        applyFilter(filteredData, constraint);
+        applyFilter(filteredData, constraint, Cancellation.NEVER);
         notifyDataSetChanged();
     }
 
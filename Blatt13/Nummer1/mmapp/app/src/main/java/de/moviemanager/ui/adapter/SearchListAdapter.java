@@ -16,7 +16,14 @@ import androidx.recyclerview.widget.RecyclerView;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.IntConsumer;
 import java.util.function.ObjIntConsumer;
@@ -25,13 +32,22 @@ import java.util.stream.Collectors;
 import de.moviemanager.R;
 import de.moviemanager.core.storage.RuntimeStorageAccess;
 import de.moviemanager.data.Portrayable;
+import de.util.Cancellation;
+import de.util.IncrementalEditDistance;
 import de.util.Pair;
+import de.util.ParallelScorer;
+import de.util.ParallelScorer.Scorer;
+import de.util.RefinementContext;
+import de.util.TrigramIndex;
 
 import static android.drm.DrmStore.DrmObjectType.CONTENT;
 import static androidx.recyclerview.widget.RecyclerView.ViewHolder;
 import static de.moviemanager.data.ImagePyramid.ImageSize.SMALL;
 import static de.util.Pair.paired;
+import static de.util.StringUtils.maxEditDistance;
+import static de.util.StringUtils.minimumForEditDistance;
 import static de.util.StringUtils.normedMinimumEditDistance;
+import static de.util.StringUtils.normedMinimumEditDistanceOfLowerCase;
 
 public class SearchListAdapter<T extends Portrayable>
         extends RecyclerView.Adapter<RecyclerView.ViewHolder>
@@ -40,14 +56,20 @@ public class SearchListAdapter<T extends Portrayable>
 
     public static final int MAX_RESULTS = 5;
     public static final int UNLIMITED = -1;
+    private static final int MAX_TEXT_RESULTS = 20;
     private static final double[] THRESHOLDS = {0.0, 0.02, 0.03,
             0.05, 0.1, 0.25,
             0.4, 0.5, 0.55,
             0.65, 0.7};
+    private static final int CHARACTERS_PER_INDEXED_EDIT = 6;
 
-    private final Context context;
     private final @LayoutRes int itemLayout;
     private List<T> originalData;
+    private Map<Integer, Integer> originalPositions;
+    private BiFunction<String, Integer, Set<Integer>> candidateSource;
+    private BiFunction<String, Integer, List<T>> textSearch;
+    private final RefinementContext<Map<Integer, IncrementalEditDistance>> refinement;
+    private final VersionedFilter<List<T>> queryFilter;
     private List<T> filteredData;
     private final List<T> limitedData;
     private final LayoutInflater layoutInflater;
@@ -69,11 +91,12 @@ public class SearchListAdapter<T extends Portrayable>
                              final List<T> originalData,
                              final int listConstraint,
                              boolean useSmall) {
-        this.context = context;
         this.originalData = originalData;
         this.layoutInflater = LayoutInflater.from(context);
         this.filteredData = new ArrayList<>(originalData);
         this.limitedData = new ArrayList<>();
+        this.refinement = new RefinementContext<>();
+        this.queryFilter = createFilter();
         this.listConstraint = listConstraint;
 
         if(useSmall) {
@@ -114,61 +137,261 @@ public class SearchListAdapter<T extends Portrayable>
         ImageView showImage = viewHolder.itemView.findViewById(R.id.show_image);
         TextView showTitle = viewHolder.itemView.findViewById(R.id.dialog_title);
 
-        showImage.setImageDrawable(STORAGE.getImage(context.getApplicationContext(), element, SMALL).first);
+        STORAGE.loadImageInto(showImage, element, SMALL);
         showTitle.setText(element.name());
     }
 
+    @Override
+    public void onViewRecycled(@NonNull ViewHolder viewHolder) {
+        super.onViewRecycled(viewHolder);
+        STORAGE.cancelImageLoad(viewHolder.itemView.findViewById(R.id.show_image));
+    }
+
     @Override
     public int getItemCount() {
         return limitedData.size();
     }
 
+    /**
+     * Searches with a new query. A running search of an older query is cancelled and its
+     * results are dropped.
+     *
+     * @param constraint the new query
+     */
     public void filter(final CharSequence constraint) {
-        getFilter().filter(constraint);
+        queryFilter.request(constraint);
     }
 
     @Override
     public Filter getFilter() {
-        return new Filter() {
-            @Override
-            protected FilterResults performFiltering(CharSequence constraint) {
-                if (constraint.length() == 0)
-                    filteredData = new ArrayList<>();
-                else
-                    filteredData = applyFilter(originalData, constraint.toString());
-
-
-                filteredData = applyLimitConstraint(filteredData, listConstraint);
-                FilterResults results = new FilterResults();
+        return queryFilter;
+    }
 
-                results.values = filteredData;
-                results.count = filteredData.size();
+    private VersionedFilter<List<T>> createFilter() {
+        return new VersionedFilter<List<T>>() {
+            @Override
+            protected List<T> compute(final CharSequence constraint, final Cancellation cancellation) {
+                return search(constraint, cancellation);
+            }
 
-                return results;
+            @Override
+            protected int countOf(final List<T> results) {
+                return results.size();
             }
 
             @Override
-            protected void publishResults(CharSequence constraint, FilterResults results) {
-                updateLimitedData((List<T>) results.values);
+            protected void publish(final CharSequence constraint, final List<T> results, final int count) {
+                filteredData = results;
+                updateLimitedData(results);
                 if(onQueryProcessedListener != null) {
-                    onQueryProcessedListener.accept(constraint.toString(), results.count);
+                    onQueryProcessedListener.accept(constraint.toString(), count);
                 }
             }
         };
     }
 
+    /**
+     * Ranks the elements for the query without showing them, so the results of several
+     * adapters can be computed together. Must not be called concurrently for one adapter.
+     *
+     * @param constraint the search query
+     * @return the results for the query, respecting the list constraint
+     */
+    public List<T> search(final CharSequence constraint) {
+        return search(constraint, Cancellation.NEVER);
+    }
+
+    /**
+     * Like {@link #search(CharSequence)}, but stops as soon as the search is cancelled.
+     *
+     * @param constraint the search query
+     * @param cancellation cancellation of the search, e.g. by a newer query
+     * @return the results for the query, respecting the list constraint
+     * @throws java.util.concurrent.CancellationException if the search was cancelled
+     */
+    public List<T> search(final CharSequence constraint, final Cancellation cancellation) {
+        if (constraint.length() == 0) {
+            return new ArrayList<>();
+        }
+        final List<T> ranked = rank(constraint.toString(), cancellation);
+        return applyLimitConstraint(withTextMatches(constraint.toString(), ranked, cancellation), listConstraint);
+    }
+
+    /**
+     * Appends the elements whose texts match the query, e.g. by their description, to the
+     * elements matching by name. Elements matching both ways are only kept at their name rank.
+     */
+    private List<T> withTextMatches(final String constraint,
+                                    final List<T> ranked,
+                                    final Cancellation cancellation) {
+        if (textSearch == null) {
+            return ranked;
+        }
+
+        cancellation.check();
+        final int limit = listConstraint == UNLIMITED ? MAX_TEXT_RESULTS : listConstraint;
+        final List<T> data = originalData;
+        final Map<Integer, Integer> positions = positions();
+        final Set<Integer> shown = new HashSet<>();
+        ranked.forEach(element -> shown.add(element.id()));
+
+        final List<T> results = new ArrayList<>(ranked);
+        for (final T match : textSearch.apply(constraint, limit)) {
+            final Integer position = positions.get(match.id());
+            if (position != null && shown.add(match.id())) {
+                results.add(data.get(position));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Shows results computed by {@link #search(CharSequence)}.
+     *
+     * @param results the results to show
+     */
+    public void showResults(final List<T> results) {
+        this.filteredData = results;
+        updateLimitedData(results);
+    }
+
+    /**
+     * Ranks the elements matching the query. A limited list only needs its best elements,
+     * so they are selected without sorting all matches.
+     */
+    private List<T> rank(final String constraint, final Cancellation cancellation) {
+        final double threshold = thresholdOf(constraint);
+        final List<T> candidates = selectCandidates(constraint, threshold);
+        final Map<Integer, IncrementalEditDistance> distances = new ConcurrentHashMap<>();
+        final Scorer<T> similarity = similarityFor(constraint, distances);
+        final List<T> ranked = listConstraint == MAX_RESULTS
+                ? applyTopFilter(candidates, threshold, similarity, MAX_RESULTS, cancellation)
+                : applyFilter(candidates, threshold, similarity, cancellation);
+        refinement.remember(constraint, distances);
+        return ranked;
+    }
+
+    /**
+     * Provides the similarity of the elements to the query. If the query extends the previous
+     * query, the edit distances of the previous query are extended by the appended characters,
+     * so the cost per typed character doesn't grow with the length of the query. Otherwise,
+     * e.g. after a deleted character, the elements are compared from scratch and the extended
+     * distances start with the next query. The extended distances are put into the given map.
+     * The query is lower cased once and compared with the cached lower case names.
+     */
+    private Scorer<T> similarityFor(final String constraint,
+                                        final Map<Integer, IncrementalEditDistance> distances) {
+        final Optional<Map<Integer, IncrementalEditDistance>> previous = refinement.refine(constraint);
+        if (!previous.isPresent()) {
+            final String lowerConstraint = constraint.toLowerCase();
+            return (element, minimum) -> normedMinimumEditDistanceOfLowerCase(lowerConstraint,
+                    element.normalizedName(),
+                    minimum);
+        }
+
+        final Map<Integer, IncrementalEditDistance> previousDistances = previous.get();
+        return (element, minimum) -> {
+            IncrementalEditDistance distance = previousDistances.get(element.id());
+            if (distance == null || !distance.hasTarget(element.name())) {
+                distance = IncrementalEditDistance.of(element.name(), element.normalizedName());
+            }
+            distance = distance.append(constraint.substring(distance.queryLength()));
+            distances.put(element.id(), distance);
+            return distance.similarity();
+        };
+    }
+
+    /**
+     * Selects the most similar elements. Large lists are scored in chunks on the shared
+     * fork-join pool.
+     */
+    private static <E extends Portrayable> List<E> applyTopFilter(@NonNull final List<E> originalData,
+                                                                  final double threshold,
+                                                                  final Scorer<E> similarity,
+                                                                  final int limit,
+                                                                  final Cancellation cancellation) {
+        return ParallelScorer.shared().selectBest(originalData, limit, threshold, similarity, cancellation);
+    }
+
     private static <E extends Portrayable> List<E> applyFilter(@NonNull final List<E> originalData,
-                                                               final String constraint) {
+                                                               final double threshold,
+                                                               final Scorer<E> similarity,
+                                                               final Cancellation cancellation) {
         final List<E> results = originalData.stream()
-                .map(v -> paired(v, normedMinimumEditDistance(constraint, v.name())))
+                .map(v -> {
+                    cancellation.check();
+                    return paired(v, similarity.score(v, threshold));
+                })
+                .filter(p -> p.second > threshold)
                 .sorted(Comparator.comparing(Pair::getSecond))
-                .filter(p -> p.second > adaptiveThreshold(constraint.length()))
                 .map(Pair::getFirst)
                 .collect(Collectors.toList());
         Collections.reverse(results);
         return results;
     }
 
+    /**
+     * Selects the elements worth scoring for the query. If a candidate source is set and every
+     * element above the threshold is guaranteed to share trigrams with the query, only the
+     * elements sharing enough trigrams to be within the edit distance of the threshold are
+     * selected, otherwise all elements. The selected elements keep the order of the original
+     * data.
+     */
+    private List<T> selectCandidates(final String constraint, final double threshold) {
+        final List<T> data = originalData;
+        final int maxDistance = maxEditDistance(constraint.length(), threshold);
+        if (candidateSource == null || !TrigramIndex.isSelective(constraint, maxDistance)) {
+            return data;
+        }
+
+        final Map<Integer, Integer> positions = positions();
+        final List<Integer> candidatePositions = new ArrayList<>();
+        for (final Integer id : candidateSource.apply(constraint, maxDistance)) {
+            final Integer position = positions.get(id);
+            if (position != null) {
+                candidatePositions.add(position);
+            }
+        }
+        Collections.sort(candidatePositions);
+
+        final List<T> candidates = new ArrayList<>(candidatePositions.size());
+        for (final int position : candidatePositions) {
+            candidates.add(data.get(position));
+        }
+        return candidates;
+    }
+
+    private Map<Integer, Integer> positions() {
+        Map<Integer, Integer> positions = originalPositions;
+        if (positions == null) {
+            positions = positionsOf(originalData);
+            originalPositions = positions;
+        }
+        return positions;
+    }
+
+    private static Map<Integer, Integer> positionsOf(final List<? extends Portrayable> data) {
+        final Map<Integer, Integer> positions = new HashMap<>();
+        for (int i = 0; i < data.size(); ++i) {
+            positions.put(data.get(i).id(), i);
+        }
+        return positions;
+    }
+
+    /**
+     * Provides the similarity a match needs. With a candidate source, a long query allows at
+     * most one edit per {@value #CHARACTERS_PER_INDEXED_EDIT} characters, so its matches share
+     * enough trigrams with it to be looked up in the index instead of comparing every element.
+     */
+    private double thresholdOf(final String constraint) {
+        final int length = constraint.length();
+        final double threshold = adaptiveThreshold(length);
+        if (candidateSource == null || length < THRESHOLDS.length) {
+            return threshold;
+        }
+        return Math.max(threshold, minimumForEditDistance(length, length / CHARACTERS_PER_INDEXED_EDIT));
+    }
+
     private static double adaptiveThreshold(int length) {
 
         if(THRESHOLDS.length <= length) {
@@ -187,11 +410,25 @@ public class SearchListAdapter<T extends Portrayable>
     }
 
     public void refilterList(List<T> newData, CharSequence constraint) {
-        this.originalData = new ArrayList<>(newData);
-        this.filteredData = applyFilter(originalData, constraint.toString());
+        setData(newData);
+        this.filteredData = rank(constraint.toString(), Cancellation.NEVER);
         updateLimitedData(applyLimitConstraint(filteredData, listConstraint));
     }
 
+    /**
+     * Replaces the searched elements without searching them, e.g. before a
+     * {@link #search(CharSequence) search} together with other adapters. Results of searches
+     * in the previous elements are dropped.
+     *
+     * @param newData the elements to search
+     */
+    public void setData(final List<T> newData) {
+        this.originalData = new ArrayList<>(newData);
+        this.originalPositions = null;
+        this.refinement.reset();
+        this.queryFilter.supersede();
+    }
+
     private void updateLimitedData(List<T> results) {
         this.limitedData.clear();
         this.limitedData.addAll(results);
@@ -201,6 +438,27 @@ public class SearchListAdapter<T extends Portrayable>
         notifyDataSetChanged();
     }
 
+    /**
+     * Sets the source of the candidates for a query, e.g. a {@link TrigramIndex} over the names
+     * of all elements. Only the candidates are compared with the query, instead of every element.
+     *
+     * @param candidateSource maps a query and a maximum edit distance to the ids of the
+     *                        candidates, <i>null</i> to compare the query with every element
+     */
+    public void setCandidateSource(final BiFunction<String, Integer, Set<Integer>> candidateSource) {
+        this.candidateSource = candidateSource;
+    }
+
+    /**
+     * Sets the full-text search, whose results are shown after the elements matching by name.
+     *
+     * @param textSearch maps a query and a limit to the best matching elements, <i>null</i> to
+     *                   only match names
+     */
+    public void setTextSearch(final BiFunction<String, Integer, List<T>> textSearch) {
+        this.textSearch = textSearch;
+    }
+
     public void setOnItemClickListener(Consumer<T> onItemClick) {
         this.onItemClick = onItemClick;
     }
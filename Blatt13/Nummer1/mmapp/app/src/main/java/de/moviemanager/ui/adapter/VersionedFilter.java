@@ -0,0 +1,94 @@
+package de.moviemanager.ui.adapter;
+
+import android.widget.Filter;
+
+import java.util.concurrent.CancellationException;
+
+import de.util.Cancellation;
+import de.util.GenerationCounter;
+import de.util.Pair;
+
+import static de.util.Pair.paired;
+
+/**
+ * Filter whose runs are numbered by generations. Every {@link #request(CharSequence) request}
+ * starts a new generation, which cancels the running computation of an older query at its next
+ * check and drops its results, so a slow old query can't replace the results of a newer one.
+ * An adapter keeps one instance, so pending queries are replaced by newer ones instead of
+ * running concurrently.
+ *
+ * @param <R> type of the computed results
+ */
+public abstract class VersionedFilter<R> extends Filter {
+    private final GenerationCounter generations;
+
+    protected VersionedFilter() {
+        this.generations = new GenerationCounter();
+    }
+
+    /**
+     * Filters with a new query, superseding all earlier queries.
+     *
+     * @param constraint the new query
+     */
+    public void request(final CharSequence constraint) {
+        generations.advance();
+        filter(constraint);
+    }
+
+    /**
+     * Drops the results of all running and pending queries, e.g. because the filtered data was
+     * replaced and filtered directly.
+     */
+    public void supersede() {
+        generations.advance();
+    }
+
+    @Override
+    protected final FilterResults performFiltering(final CharSequence constraint) {
+        final long generation = generations.current();
+        final FilterResults results = new FilterResults();
+        try {
+            final R computed = compute(constraint, generations.cancellationOf(generation));
+            results.values = paired(generation, computed);
+            results.count = countOf(computed);
+        } catch (CancellationException e) {
+            // superseded by a newer query, which publishes its own results
+        }
+        return results;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected final void publishResults(final CharSequence constraint, final FilterResults results) {
+        final Pair<Long, R> computed = (Pair<Long, R>) results.values;
+        if (computed != null && generations.isCurrent(computed.first)) {
+            publish(constraint, computed.second, results.count);
+        }
+    }
+
+    /**
+     * Computes the results of a query on the filter thread.
+     *
+     * @param constraint the query
+     * @param cancellation cancelled as soon as a newer query is requested, should be checked
+     *                     between chunks of work
+     * @return the results of the query
+     */
+    protected abstract R compute(CharSequence constraint, Cancellation cancellation);
+
+    /**
+     * @param results results of a query
+     * @return number of results
+     */
+    protected abstract int countOf(R results);
+
+    /**
+     * Shows the results of the newest query on the main thread.
+     *
+     * @param constraint the query
+     * @param results the results of the query
+     * @param count number of results
+     */
+    protected abstract void publish(CharSequence constraint, R results, int count);
+}
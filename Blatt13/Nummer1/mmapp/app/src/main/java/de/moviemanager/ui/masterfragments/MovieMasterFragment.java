@@ -18,6 +18,7 @@ import de.moviemanager.ui.masterlist.categorizer.OrderGroup;
 import de.moviemanager.ui.masterlist.categorizer.Rated;
 import de.moviemanager.ui.masterlist.categorizer.LendDueDate;
 import de.moviemanager.util.RatingUtils;
+import de.query.QueryPlan;
 
 import static de.moviemanager.ui.detail.PortrayableDetailEditActivity.RESULT_PIPELINE;
 import static de.moviemanager.util.RatingUtils.calculateOverallRating;
@@ -35,22 +36,27 @@ public class MovieMasterFragment extends PortrayableMasterFragment<Movie> {
         orders.addOrder(getString(R.string.movie_criterion_title),
                 new Alphabetical<>(false,
                         m -> ratingToString(calculateOverallRating(m), true)),
-                nameContainsInput
+                matchesQuery
         );
         orders.addOrder(rating,
                 new Rated<>(rating, Movie::getRating),
-                nameContainsInput
+                matchesQuery
         );
         orders.addOrder(overallRating,
                 new Rated<>(overallRating, RatingUtils::calculateOverallRating),
-                nameContainsInput
+                matchesQuery
         );
         orders.addOrder("Lend Date",
                 new LendDueDate(),
-                nameContainsInput
+                matchesQuery
         );
     }
 
+    @Override
+    protected QueryPlan<Movie> planQuery(final String query) {
+        return STORAGE.planMovieQuery(query);
+    }
+
     @Override
     protected PortrayableRVAdapter<Movie> createAdapter() {
         String constraint = filter.getText().toString();
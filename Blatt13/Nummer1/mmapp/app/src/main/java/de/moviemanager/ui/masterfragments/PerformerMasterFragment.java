@@ -14,6 +14,7 @@ import de.moviemanager.ui.masterlist.categorizer.Alphabetical;
 import de.moviemanager.ui.masterlist.categorizer.Numeric;
 import de.moviemanager.ui.masterlist.categorizer.OrderGroup;
 import de.moviemanager.ui.masterlist.categorizer.Rated;
+import de.query.QueryPlan;
 
 import static de.moviemanager.ui.detail.PortrayableDetailActivity.INITIAL_PORTRAYABLE;
 import static de.moviemanager.ui.detail.PortrayableDetailEditActivity.RESULT_PIPELINE;
@@ -31,18 +32,23 @@ public class PerformerMasterFragment extends PortrayableMasterFragment<Performer
         orders = new OrderGroup<>(0);
         orders.addOrder(getString(R.string.performer_criterion_name),
                 new Alphabetical<>(false, p -> ratingToString(p.rating())),
-                nameContainsInput
+                matchesQuery
         );
         orders.addOrder(rating,
                 new Rated<>(rating, Performer::getRating),
-                nameContainsInput
+                matchesQuery
         );
         orders.addOrder(age,
                 new Numeric<>(age, 10, Performer::age),
-                nameContainsInput
+                matchesQuery
         );
     }
 
+    @Override
+    protected QueryPlan<Performer> planQuery(final String query) {
+        return STORAGE.planPerformerQuery(query);
+    }
+
     @Override
     protected PortrayableRVAdapter<Performer> createAdapter() {
         String constraint = filter.getText().toString();
@@ -20,7 +20,6 @@ import com.google.android.material.floatingactionbutton.FloatingActionButton;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.function.BiPredicate;
 
 import de.moviemanager.R;
 import de.moviemanager.android.ResultHandlingFragment;
@@ -32,15 +31,16 @@ import de.moviemanager.ui.MasterActivity;
 import de.moviemanager.ui.adapter.OrderWindowAdapter;
 import de.moviemanager.ui.adapter.PortrayableRVAdapter;
 import de.moviemanager.ui.masterlist.OrderState;
+import de.moviemanager.ui.masterlist.QueryFilter;
 import de.moviemanager.ui.masterlist.categorizer.OrderGroup;
 import de.moviemanager.ui.view.OrderMenuItem;
 import de.moviemanager.util.DimensionUtils;
 import de.moviemanager.util.autobind.AutoBind;
 import de.moviemanager.util.autobind.Bind;
+import de.query.QueryPlan;
 
 import static androidx.core.content.ContextCompat.getDrawable;
 import static de.moviemanager.ui.MasterActivity.FRAGMENT_NAME;
-import static de.moviemanager.util.AndroidStringUtils.buildQueryPredicate;
 import static de.moviemanager.util.Listeners.createOnTextChangedListener;
 import static de.moviemanager.util.RecyclerViewUtils.setLinearLayoutTo;
 import static java.util.Optional.ofNullable;
@@ -49,11 +49,7 @@ import static java.util.stream.StreamSupport.stream;
 
 public abstract class PortrayableMasterFragment<T extends Portrayable> extends ResultHandlingFragment {
     private static final String ORIGINAL_DATA = "original_data_arg";
-    final BiPredicate<T, String> nameContainsInput = buildQueryPredicate(
-            String::contains,
-            Portrayable::name,
-            String::toLowerCase
-    );
+    final QueryFilter<T> matchesQuery = new QueryFilter<>(this::planQuery);
 
     protected static final RuntimeStorageAccess STORAGE = RuntimeStorageAccess.getInstance();
 
@@ -125,7 +121,7 @@ public abstract class PortrayableMasterFragment<T extends Portrayable> extends R
         setupRecyclerView();
 
         orderButton.setOnClickListener(this::openOrderPopupMenu);
-        filter.addTextChangedListener(createOnTextChangedListener(getAdapter().getFilter()::filter));
+        filter.addTextChangedListener(createOnTextChangedListener(getAdapter()::filter));
         addButton.setOnClickListener(v -> getAdapter().createObject());
     }
 
@@ -142,6 +138,12 @@ public abstract class PortrayableMasterFragment<T extends Portrayable> extends R
 
     protected abstract void createOrders();
 
+    /**
+     * @param query the typed filter
+     * @return plan of the query over the indexes of the listed elements
+     */
+    protected abstract QueryPlan<T> planQuery(final String query);
+
     private void openOrderPopupMenu(final View anchor) {
         final List<OrderMenuItem> items = stream(orders.spliterator(), false)
                 .map(order -> new OrderMenuItem(order.getName(), order.getState()))
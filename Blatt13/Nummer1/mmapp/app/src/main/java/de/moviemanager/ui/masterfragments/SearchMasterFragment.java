@@ -12,8 +12,10 @@ import androidx.annotation.Nullable;
 import androidx.annotation.StringRes;
 import androidx.appcompat.widget.SearchView;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.Consumer;
 import java.util.function.IntConsumer;
 import java.util.function.ObjIntConsumer;
@@ -27,13 +29,16 @@ import de.moviemanager.data.Performer;
 import de.moviemanager.data.Portrayable;
 import de.moviemanager.ui.MasterActivity;
 import de.moviemanager.ui.adapter.SearchListAdapter;
+import de.moviemanager.ui.adapter.VersionedFilter;
 import de.moviemanager.ui.detail.MovieDetailActivity;
 import de.moviemanager.ui.detail.PerformerDetailActivity;
+import de.moviemanager.ui.search.NameSuggestions;
 import de.moviemanager.ui.search.SearchInfo;
 import de.moviemanager.ui.view.InterceptibleScrollView;
 import de.moviemanager.ui.view.SearchResultBlock;
 import de.moviemanager.util.AndroidUtils;
 import de.moviemanager.util.Listeners;
+import de.util.Cancellation;
 import de.util.Pair;
 
 import static de.moviemanager.ui.MasterActivity.FRAGMENT_NAME;
@@ -61,7 +66,7 @@ public class SearchMasterFragment extends ResultHandlingFragment {
     private SearchListAdapter<Performer> performerAdapter;
 
     private SearchInfo info;
-    private TotalCount counter;
+    private CombinedSearch search;
 
     public static SearchMasterFragment newInstance(@StringRes int nameId) {
         Bundle args = new Bundle();
@@ -101,10 +106,7 @@ public class SearchMasterFragment extends ResultHandlingFragment {
     }
 
     private boolean onQueryChanged(final String query) {
-        counter.runFilter(query, asList(
-                q -> movieAdapter.filter(q),
-                q -> performerAdapter.filter(q)
-        ));
+        search.request(query);
         return true;
     }
 
@@ -125,7 +127,6 @@ public class SearchMasterFragment extends ResultHandlingFragment {
         blockRoot.addView(performerBlock);
 
         info = new SearchInfo(source);
-        counter = new TotalCount(this::afterBlockUpdates);
     }
 
     private SearchResultBlock createBlock(@StringRes int titleId,
@@ -142,10 +143,15 @@ public class SearchMasterFragment extends ResultHandlingFragment {
                 movieBlock,
                 this::showMovieFrom
         );
+        movieAdapter.setCandidateSource(STORAGE::findMovieCandidates);
+        movieAdapter.setTextSearch(STORAGE::searchMoviesByText);
         performerAdapter = createAdapter(STORAGE.getPerformers(),
                 performerBlock,
                 this::showPerformerFrom
         );
+        performerAdapter.setCandidateSource(STORAGE::findPerformerCandidates);
+        performerAdapter.setTextSearch(STORAGE::searchPerformersByText);
+        search = new CombinedSearch(movieAdapter, performerAdapter, this::afterBlockUpdates);
     }
 
     private <T extends Portrayable> SearchListAdapter<T> createAdapter(final List<T> data,
@@ -153,7 +159,6 @@ public class SearchMasterFragment extends ResultHandlingFragment {
                                                                        final Consumer<T> listClick) {
         final SearchListAdapter<T> result = new SearchListAdapter<>(source, data, MAX_RESULTS);
         result.setOnSizeChangeListener(showBlockIfNonEmpty(block));
-        result.setOnQueryProcessedListener((query, size) -> counter.update(size));
         result.setOnItemClickListener(listClick);
         block.setAdapter(result);
         return result;
@@ -184,16 +189,15 @@ public class SearchMasterFragment extends ResultHandlingFragment {
     }
 
     private void refilterAfterEdit() {
-        final String query = searchBar.getQuery().toString();
-        counter.runFilter(query, asList(
-                q -> movieAdapter.refilterList(STORAGE.getMovies(), q),
-                q -> performerAdapter.refilterList(STORAGE.getPerformers(), q)
-        ));
+        movieAdapter.setData(STORAGE.getMovies());
+        performerAdapter.setData(STORAGE.getPerformers());
+        search.request(searchBar.getQuery().toString());
     }
 
     private void setupListeners() {
 
         searchBar.setOnQueryTextListener(Listeners.liveQueryListener(source, this::onQueryChanged));
+        NameSuggestions.attachTo(source, searchBar, this::completeNames);
 
         movieBlock.setContinueListener(v -> openMovieSearch(
                 searchBar.getQuery().toString(),
@@ -212,6 +216,12 @@ public class SearchMasterFragment extends ResultHandlingFragment {
         info.addOnClickActionTo(R.id.only_search_performers, () -> openPerformerSearch(this));
     }
 
+    private List<Portrayable> completeNames(final String prefix, final int limit) {
+        final List<Portrayable> names = new ArrayList<>(STORAGE.completeMovieNames(prefix, limit));
+        names.addAll(STORAGE.completePerformerNames(prefix, limit));
+        return names.subList(0, Math.min(limit, names.size()));
+    }
+
     private void afterBlockUpdates(final String query, int totalSize) {
         info.show(query, totalSize);
 
@@ -245,43 +255,52 @@ public class SearchMasterFragment extends ResultHandlingFragment {
     }
 }
 
-class TotalCount {
-    private String currentQuery;
-    private AtomicInteger value;
-    private final AtomicInteger pending;
+/**
+ * Searches movies and performers as one filter run. Both collections are ranked concurrently
+ * on the common fork-join pool and both result blocks are updated with one combined result,
+ * together with the total number of results. A newer query cancels both searches of an older
+ * one, so the blocks and the total always belong to the same query. A run only ends after
+ * both of its searches ended.
+ */
+class CombinedSearch extends VersionedFilter<Pair<List<Movie>, List<Performer>>> {
+    private final SearchListAdapter<Movie> movies;
+    private final SearchListAdapter<Performer> performers;
     private final ObjIntConsumer<String> listener;
 
-    TotalCount(final ObjIntConsumer<String> listener) {
+    CombinedSearch(final SearchListAdapter<Movie> movies,
+                   final SearchListAdapter<Performer> performers,
+                   final ObjIntConsumer<String> listener) {
+        this.movies = movies;
+        this.performers = performers;
         this.listener = listener;
-        pending = new AtomicInteger();
-        reset(null);
     }
 
-    private void reset(final String currentQuery) {
-        this.currentQuery = currentQuery;
-        this.value = new AtomicInteger(0);
-    }
-
-    void runFilter(final String currentQuery, final List<Consumer<String>> actions) {
-        reset(currentQuery);
-        pending.set(actions.size());
-        for (final Consumer<String> action : actions) {
-            action.accept(currentQuery);
+    @Override
+    protected Pair<List<Movie>, List<Performer>> compute(final CharSequence constraint,
+                                                         final Cancellation cancellation) {
+        final ForkJoinTask<List<Movie>> movieSearch = ForkJoinPool.commonPool()
+                .submit(() -> movies.search(constraint, cancellation));
+        try {
+            final List<Performer> foundPerformers = performers.search(constraint, cancellation);
+            return paired(movieSearch.join(), foundPerformers);
+        } finally {
+            // if the performer search was cancelled or failed, the movie search must not keep
+            // using the adapter while the next query searches it, a cancelled one stops soon
+            movieSearch.quietlyJoin();
         }
     }
 
-    void update(int size) {
-        int stillPending = pending.decrementAndGet();
-        value.addAndGet(size);
-
-        if (stillPending == 0) {
-            notifyListener();
-        }
+    @Override
+    protected int countOf(final Pair<List<Movie>, List<Performer>> found) {
+        return found.first.size() + found.second.size();
     }
 
-    private void notifyListener() {
-        if (listener != null) {
-            listener.accept(currentQuery, value.get());
-        }
+    @Override
+    protected void publish(final CharSequence constraint,
+                           final Pair<List<Movie>, List<Performer>> found,
+                           final int count) {
+        movies.showResults(found.first);
+        performers.showResults(found.second);
+        listener.accept(constraint.toString(), count);
     }
 }
@@ -0,0 +1,61 @@
+package de.moviemanager.ui.masterlist;
+
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import de.moviemanager.data.Portrayable;
+import de.query.QueryException;
+import de.query.QueryPlan;
+import de.util.QueryPredicate;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Filter logic of the master lists, which understands fielded queries like
+ * <code>rating&gt;=4 lang:german</code>. The plan of the last query is kept, so typing
+ * doesn't parse the query again for every element. A query which can't be executed, e.g.
+ * because of a misspelled date, is matched against the names as a whole.
+ *
+ * @param <T> type of the filtered elements
+ */
+public class QueryFilter<T extends Portrayable> implements QueryPredicate<T> {
+    private final Function<String, QueryPlan<T>> planner;
+    private String query;
+    private QueryPlan<T> plan;
+
+    /**
+     * @param planner plans a query over the indexes of the elements
+     */
+    public QueryFilter(final Function<String, QueryPlan<T>> planner) {
+        this.planner = requireNonNull(planner);
+    }
+
+    @Override
+    public Predicate<T> prepare(final String query) {
+        final QueryPlan<T> current = planOf(query);
+        try {
+            // executed on every run, so the indexes are looked up with their current content
+            return current.execute();
+        } catch (QueryException e) {
+            return QueryPlan.<T>plain(query, Portrayable::normalizedName).execute();
+        }
+    }
+
+    @Override
+    public boolean isRefinable(final String query) {
+        return planOf(query).isPlain();
+    }
+
+    @Override
+    public boolean test(final T element, final String query) {
+        return prepare(query).test(element);
+    }
+
+    private synchronized QueryPlan<T> planOf(final String query) {
+        if (!query.equals(this.query)) {
+            this.plan = planner.apply(query);
+            this.query = query;
+        }
+        return plan;
+    }
+}
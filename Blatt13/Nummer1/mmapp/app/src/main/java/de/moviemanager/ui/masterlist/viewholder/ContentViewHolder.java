@@ -28,6 +28,10 @@ public class ContentViewHolder extends TypedViewHolder {
         imageView.setImageDrawable(d);
     }
 
+    public ImageView getImageView() {
+        return imageView;
+    }
+
     public void setTitle(String title) {
         titleView.setText(title);
     }
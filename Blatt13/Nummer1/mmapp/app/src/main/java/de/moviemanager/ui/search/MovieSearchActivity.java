@@ -1,6 +1,7 @@
 package de.moviemanager.ui.search;
 
 import java.util.List;
+import java.util.Set;
 
 import de.moviemanager.data.Movie;
 import de.moviemanager.ui.detail.MovieDetailActivity;
@@ -16,6 +17,21 @@ public class MovieSearchActivity extends PortrayableSearchActivity<Movie> {
         return STORAGE.getMovies();
     }
 
+    @Override
+    protected Set<Integer> findCandidatesInStorage(final String query, final int maxEditDistance) {
+        return STORAGE.findMovieCandidates(query, maxEditDistance);
+    }
+
+    @Override
+    protected List<Movie> searchTextsInStorage(final String query, final int limit) {
+        return STORAGE.searchMoviesByText(query, limit);
+    }
+
+    @Override
+    protected List<Movie> completeNamesInStorage(final String prefix, final int limit) {
+        return STORAGE.completeMovieNames(prefix, limit);
+    }
+
     @Override
     protected void showFrom(final Movie elem) {
         MovieDetailActivity.showAndNotifyIfOk(this, elem, data -> updateAfterEdit());
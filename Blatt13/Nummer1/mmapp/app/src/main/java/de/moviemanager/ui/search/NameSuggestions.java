@@ -0,0 +1,80 @@
+package de.moviemanager.ui.search;
+
+import android.app.SearchManager;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.MatrixCursor;
+import android.provider.BaseColumns;
+
+import androidx.appcompat.widget.SearchView;
+import androidx.cursoradapter.widget.SimpleCursorAdapter;
+
+import java.util.List;
+import java.util.function.BiFunction;
+
+import de.moviemanager.data.Portrayable;
+
+/**
+ * Offers the names completing the typed prefix as suggestions of a search bar. The suggestions
+ * are looked up in a prefix trie on the filter thread of the search bar, choosing one searches
+ * for it.
+ */
+public class NameSuggestions {
+    public static final int MAX_SUGGESTIONS = 5;
+
+    private static final String[] COLUMNS = {BaseColumns._ID, SearchManager.SUGGEST_COLUMN_TEXT_1};
+
+    private NameSuggestions() {
+    }
+
+    /**
+     * @param context context of the search bar
+     * @param searchBar the search bar
+     * @param completion completes a prefix to at most the given number of elements
+     */
+    public static void attachTo(final Context context,
+                                final SearchView searchBar,
+                                final BiFunction<String, Integer, List<? extends Portrayable>> completion) {
+        final SimpleCursorAdapter adapter = new SimpleCursorAdapter(context,
+                android.R.layout.simple_list_item_1,
+                null,
+                new String[]{SearchManager.SUGGEST_COLUMN_TEXT_1},
+                new int[]{android.R.id.text1},
+                0
+        );
+        adapter.setFilterQueryProvider(prefix -> createCursor(prefix == null
+                ? ""
+                : prefix.toString(), completion));
+        searchBar.setSuggestionsAdapter(adapter);
+        searchBar.setOnSuggestionListener(new SearchView.OnSuggestionListener() {
+            @Override
+            public boolean onSuggestionSelect(final int position) {
+                return false;
+            }
+
+            @Override
+            public boolean onSuggestionClick(final int position) {
+                final Cursor cursor = adapter.getCursor();
+                if (cursor != null && cursor.moveToPosition(position)) {
+                    searchBar.setQuery(cursor.getString(1), true);
+                }
+                return true;
+            }
+        });
+    }
+
+    private static Cursor createCursor(final String prefix,
+                                       final BiFunction<String, Integer, List<? extends Portrayable>> completion) {
+        final MatrixCursor cursor = new MatrixCursor(COLUMNS);
+        if (prefix.trim().isEmpty()) {
+            return cursor;
+        }
+
+        // movies and performers may share ids, so the rows are numbered
+        int row = 0;
+        for (final Portrayable portrayable : completion.apply(prefix, MAX_SUGGESTIONS)) {
+            cursor.addRow(new Object[]{row++, portrayable.name()});
+        }
+        return cursor;
+    }
+}
@@ -1,6 +1,7 @@
 package de.moviemanager.ui.search;
 
 import java.util.List;
+import java.util.Set;
 
 import de.moviemanager.data.Performer;
 import de.moviemanager.ui.detail.PerformerDetailActivity;
@@ -17,6 +18,21 @@ public class PerformerSearchActivity extends PortrayableSearchActivity<Performer
         return STORAGE.getPerformers();
     }
 
+    @Override
+    protected Set<Integer> findCandidatesInStorage(final String query, final int maxEditDistance) {
+        return STORAGE.findPerformerCandidates(query, maxEditDistance);
+    }
+
+    @Override
+    protected List<Performer> searchTextsInStorage(final String query, final int limit) {
+        return STORAGE.searchPerformersByText(query, limit);
+    }
+
+    @Override
+    protected List<Performer> completeNamesInStorage(final String prefix, final int limit) {
+        return STORAGE.completePerformerNames(prefix, limit);
+    }
+
     @Override
     protected void showFrom(Performer elem) {
         PerformerDetailActivity.showAndNotifyIfOk(this, elem, data -> updateAfterEdit());
@@ -12,6 +12,7 @@ import androidx.appcompat.widget.SearchView;
 import androidx.recyclerview.widget.RecyclerView;
 
 import java.util.List;
+import java.util.Set;
 
 import de.moviemanager.R;
 import de.moviemanager.android.ResultHandler;
@@ -108,6 +109,7 @@ public abstract class PortrayableSearchActivity<T extends Portrayable> extends R
         searchBar.setIconifiedByDefault(false);
         searchBar.setQuery(initialQuery, true);
         searchBar.setQueryHint(getString(queryHintId));
+        NameSuggestions.attachTo(this, searchBar, this::completeNamesInStorage);
     }
 
     private void setupList() {
@@ -125,11 +127,19 @@ public abstract class PortrayableSearchActivity<T extends Portrayable> extends R
                 false
         );
         adapter.setOnQueryProcessedListener(infoBox::show);
+        adapter.setCandidateSource(this::findCandidatesInStorage);
+        adapter.setTextSearch(this::searchTextsInStorage);
         resultList.setAdapter(adapter);
     }
 
     protected abstract List<T> getListFromStorage();
 
+    protected abstract Set<Integer> findCandidatesInStorage(String query, int maxEditDistance);
+
+    protected abstract List<T> searchTextsInStorage(String query, int limit);
+
+    protected abstract List<T> completeNamesInStorage(String prefix, int limit);
+
     private void setListeners() {
         adapter.setOnItemClickListener(this::showFrom);
         searchBar.setOnQueryTextListener(liveQueryListener(this, this::onQueryChanged));
@@ -4,16 +4,31 @@ import android.graphics.Bitmap;
 
 import com.google.gson.JsonObject;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+import de.wiki.HttpCache;
+import de.wiki.MediaWiki;
+import de.wiki.MirroredWikipedia;
+import de.wiki.PageMirror;
+import de.wiki.WikiScheduler;
+import de.wiki.Wikipedia;
 import de.wiki.data.Actor;
 import de.wiki.data.Film;
 
 import static de.moviemanager.util.AndroidStringUtils.generateIdentifier;
+import static de.wiki.WikiScheduler.Priority.BACKGROUND;
+import static java.util.concurrent.TimeUnit.HOURS;
 
 public final class WikiStorage {
+    private static final String HTTP_CACHE_FOLDER = "wiki";
+    private static final long HTTP_CACHE_BYTES = 8L * 1024 * 1024;
+    private static final long HTTP_CACHE_HOURS = 24;
+    private static final String MIRROR_FILE = "wiki_mirror.pages";
+
     private static final Map<String, List<JsonObject>> PAGE_QUERY_RESULTS;
     private static final Map<String, Actor> SAVED_ACTORS;
     private static final Map<String, Film> SAVED_FILMS;
@@ -61,6 +76,49 @@ public final class WikiStorage {
         return unwrap(SAVED_FILMS, key);
     }
 
+    public static synchronized void installHttpCache(final File cacheDirectory) {
+        final Wikipedia wiki = MediaWiki.getCurrentWikipedia();
+        if (!wiki.getCache().isPresent()) {
+            final File directory = new File(cacheDirectory, HTTP_CACHE_FOLDER);
+            wiki.setCache(new HttpCache(directory, HTTP_CACHE_BYTES, HTTP_CACHE_HOURS, HOURS));
+        }
+    }
+
+    public static synchronized void installMirror(final File filesDirectory,
+                                                  final boolean networkFallback) {
+        final File file = new File(filesDirectory, MIRROR_FILE);
+        final Wikipedia wiki = MediaWiki.getCurrentWikipedia();
+        if (!file.isFile() || wiki instanceof MirroredWikipedia) {
+            return;
+        }
+
+        try {
+            final PageMirror mirror = new PageMirror(file);
+            MediaWiki.useOtherWiki(new MirroredWikipedia(wiki.getName(),
+                    wiki.getHttpClient(), mirror, networkFallback));
+        } catch (IOException e) {
+            // without a readable mirror the Wiki is used directly
+        }
+    }
+
+    public static synchronized void flushMirror() {
+        final Wikipedia wiki = MediaWiki.getCurrentWikipedia();
+        if (!(wiki instanceof MirroredWikipedia)) {
+            return;
+        }
+
+        // flushing may compact the mirror file, so it isn't done on the main thread
+        final PageMirror mirror = ((MirroredWikipedia) wiki).getMirror();
+        WikiScheduler.getDefault().submit(BACKGROUND, () -> {
+            try {
+                mirror.flush();
+            } catch (IOException e) {
+                // the index is rebuilt from the mirror file when it is opened next time
+            }
+            return null;
+        });
+    }
+
     public static void storeImage(final Bitmap bitmap) {
         WikiStorage.bitmap = bitmap;
     }
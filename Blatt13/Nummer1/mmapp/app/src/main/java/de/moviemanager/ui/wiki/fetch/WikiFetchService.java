@@ -1,18 +1,25 @@
 package de.moviemanager.ui.wiki.fetch;
 
-import android.app.IntentService;
+import android.app.Service;
+import android.content.Context;
 import android.content.Intent;
+import android.os.IBinder;
 
 import androidx.annotation.Nullable;
 
 import com.google.gson.JsonObject;
 
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
+import de.moviemanager.R;
 import de.moviemanager.ui.wiki.WikiStorage;
 import de.moviemanager.ui.wiki.query.WikiQueryMode;
+import de.util.Pair;
 import de.wiki.MediaWiki;
+import de.wiki.WikiScheduler;
+import de.wiki.data.Film;
 
 import static com.google.gson.JsonParser.parseString;
 import static de.moviemanager.ui.wiki.query.WikiQueryService.DEFAULT_REQUEST_ID;
@@ -22,33 +29,78 @@ import static de.moviemanager.ui.wiki.query.WikiQueryService.RESULT_EMPTY;
 import static de.moviemanager.ui.wiki.query.WikiQueryService.RESULT_ID;
 import static de.moviemanager.ui.wiki.query.WikiQueryService.RESULT_NON_EMPTY;
 import static de.moviemanager.ui.wiki.query.WikiQueryService.RESULT_STATE;
+import static de.moviemanager.ui.wiki.query.WikiQueryService.publishCancelled;
+import static de.moviemanager.ui.wiki.query.WikiQueryService.requestIdOf;
+import static de.wiki.WikiScheduler.Priority.USER_VISIBLE;
 
-public class WikiFetchService extends IntentService {
+public class WikiFetchService extends Service {
     public static final String PARAMETER_WIKI_PAGE_JSON = "parameter_wiki_page_json";
     public static final String RESULT_KEY = "result_key";
     public static final String RESULT_CALLBACK = "de.moviemanager.ui.wiki.fetch";
 
-    public WikiFetchService() {
-        super(WikiFetchService.class.getSimpleName());
+    private final AtomicInteger runningRequests = new AtomicInteger(0);
+    private volatile int lastStartId;
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        WikiStorage.installMirror(getFilesDir(),
+                getResources().getBoolean(R.bool.wiki_mirror_network_fallback));
+        WikiStorage.installHttpCache(getCacheDir());
     }
 
     @Override
-    protected void onHandleIntent(@Nullable Intent intent) {
+    public void onDestroy() {
+        // the responses added to the mirror are kept in its index until it is flushed
+        WikiStorage.flushMirror();
+        super.onDestroy();
+    }
+
+    @Nullable
+    @Override
+    public IBinder onBind(Intent intent) {
+        return null;
+    }
+
+    @Override
+    public int onStartCommand(@Nullable Intent intent, int flags, int startId) {
+        final Context context = getApplicationContext();
+        final int requestId = requestIdOf(intent);
+        lastStartId = startId;
+        runningRequests.incrementAndGet();
+        // the requesting activity only waits for its latest request, so it supersedes all others
+        WikiScheduler.getDefault()
+                .submit(RESULT_CALLBACK, USER_VISIBLE,
+                        () -> handleRequest(intent),
+                        response -> publishResult(context, response.first, response.second),
+                        () -> publishCancelled(context, RESULT_CALLBACK, requestId))
+                .whenDone(this::requestDone);
+        return START_NOT_STICKY;
+    }
+
+    private void requestDone() {
+        // requests may finish out of order, stopping with an older start id would end later ones
+        if (runningRequests.decrementAndGet() == 0) {
+            stopSelf(lastStartId);
+        }
+    }
+
+    private static Pair<Integer, String> handleRequest(@Nullable Intent intent) {
         int requestId = DEFAULT_REQUEST_ID;
         String resultKey = null;
 
         if (intent != null) {
-            requestId = intent.getIntExtra(PARAMETER_ID, DEFAULT_REQUEST_ID);
+            requestId = requestIdOf(intent);
             final WikiQueryMode type = WikiQueryMode.fromExtra(intent, PARAMETER_TYPE);
             final String pageJson = intent.getStringExtra(PARAMETER_WIKI_PAGE_JSON);
             final JsonObject page = parseString(pageJson).getAsJsonObject();
             resultKey = processPage(type, page);
         }
 
-        publishResult(requestId, resultKey);
+        return Pair.paired(requestId, resultKey);
     }
 
-    private String processPage(WikiQueryMode mode, JsonObject page) {
+    private static String processPage(WikiQueryMode mode, JsonObject page) {
         String resultKey = null;
 
         if (mode == WikiQueryMode.ACTOR) {
@@ -65,7 +117,10 @@ public class WikiFetchService extends IntentService {
     }
 
     private static String loadFilmFromPage(final JsonObject page) {
-        return loadFromPage(MediaWiki::getFilmDataFromWikiPage, WikiStorage::wrapFilm, page);
+        final Optional<Film> film = MediaWiki.getFilmDataFromWikiPage(page);
+        // the performers of a synced film are likely synced next
+        film.ifPresent(MediaWiki::prefetchCastData);
+        return film.map(WikiStorage::wrapFilm).orElse(null);
     }
 
     private static <T> String loadFromPage(final Function<JsonObject, Optional<T>> load,
@@ -81,11 +136,11 @@ public class WikiFetchService extends IntentService {
         return resultKey;
     }
 
-    private void publishResult(int resultId, String resultKey) {
+    private static void publishResult(final Context context, int resultId, String resultKey) {
         final Intent intent = new Intent(RESULT_CALLBACK);
         intent.putExtra(RESULT_ID, resultId);
         intent.putExtra(RESULT_STATE, resultKey != null ? RESULT_NON_EMPTY : RESULT_EMPTY);
         intent.putExtra(RESULT_KEY, resultKey);
-        sendBroadcast(intent);
+        context.sendBroadcast(intent);
     }
 }
@@ -3,6 +3,8 @@ package de.moviemanager.ui.wiki.query;
 import android.app.Activity;
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.widget.Button;
 import android.widget.ImageView;
 
@@ -12,6 +14,7 @@ import androidx.appcompat.widget.SearchView;
 
 import com.google.gson.JsonObject;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,22 +24,28 @@ import de.moviemanager.ui.wiki.NetworkInfoFragment;
 import de.moviemanager.ui.wiki.fetch.WikiFetchActivity;
 import de.moviemanager.util.autobind.AutoBind;
 import de.moviemanager.util.autobind.Bind;
+import de.wiki.MediaWiki;
+import de.wiki.PageSearchResult;
 import de.wiki.WikiException;
+import de.wiki.WikiPrefetcher;
+import de.wiki.WikiSearchSession;
 
 import static de.moviemanager.ui.wiki.WikiStorage.unwrapQueryResult;
 import static de.moviemanager.ui.wiki.query.WikiQueryMode.UNDEFINED;
 import static de.moviemanager.ui.wiki.query.WikiQueryService.PARAMETER_ID;
 import static de.moviemanager.ui.wiki.query.WikiQueryService.PARAMETER_QUERY;
 import static de.moviemanager.ui.wiki.query.WikiQueryService.PARAMETER_TYPE;
+import static de.moviemanager.ui.wiki.query.WikiQueryService.RESULT_CANCELLED;
+import static de.moviemanager.ui.wiki.query.WikiQueryService.RESULT_COMPLETE;
 import static de.moviemanager.ui.wiki.query.WikiQueryService.RESULT_LIST;
-import static de.moviemanager.ui.wiki.query.WikiQueryService.RESULT_NON_EMPTY;
 import static de.moviemanager.ui.wiki.query.WikiQueryService.RESULT_STATE;
-import static de.moviemanager.util.Listeners.submitQueryListener;
+import static de.moviemanager.util.Listeners.liveQueryListener;
 import static java.util.Optional.ofNullable;
 
 public class WikiQueryActivity extends NetworkActivity<String> {
     public static final String EXTRA_INITIAL_QUERY = "initial_query";
     public static final String EXTRA_QUERY_MODE = "query_mode";
+    private static final long QUERY_DELAY_MILLIS = 400;
 
     @Bind(R.id.search) private SearchView search;
     @Bind(R.id.refresh_button) private ImageView refreshButton;
@@ -45,6 +54,13 @@ public class WikiQueryActivity extends NetworkActivity<String> {
 
     private WikiQueryMode mode = UNDEFINED;
     private JsonObject selected;
+    private WikiPrefetcher<?>.Session prefetch;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final WikiSearchSession searchSession = new WikiSearchSession();
+    private Runnable pendingQuery;
+    private String currentQuery = "";
+    private String requestedQuery = "";
 
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
@@ -52,7 +68,7 @@ public class WikiQueryActivity extends NetworkActivity<String> {
         setContentView(R.layout.activity_wiki_sync_query);
         AutoBind.bindAll(this);
 
-        search.setOnQueryTextListener(submitQueryListener(this, this::onQueryConfirmed));
+        search.setOnQueryTextListener(liveQueryListener(this, this::onQueryChanged));
         showFragment(NetworkInfoFragment.loadingFragment(this));
         refreshButton.setOnClickListener(view -> onQueryConfirmed("" + search.getQuery()));
 
@@ -83,6 +99,9 @@ public class WikiQueryActivity extends NetworkActivity<String> {
         extra.putInt(WikiFetchActivity.EXTRA_QUERY_MODE, mode.ordinal());
         extra.putString(WikiFetchActivity.EXTRA_PAGE_STRING, selected.toString());
         intent.putExtras(extra);
+        if (prefetch != null) {
+            prefetch.cancelExcept(selected);
+        }
         startActivityForResult(intent, this::onFetchSuccess);
     }
 
@@ -97,9 +116,37 @@ public class WikiQueryActivity extends NetworkActivity<String> {
         return R.id.fragment_container;
     }
 
-    private boolean onQueryConfirmed(final String query) {
+    private boolean onQueryChanged(final String text) {
+        if (pendingQuery != null) {
+            handler.removeCallbacks(pendingQuery);
+        }
+        pendingQuery = () -> runQuery(text);
+        handler.postDelayed(pendingQuery, QUERY_DELAY_MILLIS);
+        return true;
+    }
+
+    private void runQuery(final String text) {
+        final String query = WikiSearchSession.normalize(text);
+        if (query.isEmpty() || query.equals(currentQuery)) {
+            return;
+        }
+
+        currentQuery = query;
+        final Optional<List<JsonObject>> known = searchSession.lookup(query);
+        if (known.isPresent()) {
+            // responses of still running requests are outdated now
+            requestId.incrementAndGet();
+            showResult(known.get());
+        } else {
+            onQueryConfirmed(query);
+        }
+    }
+
+    private boolean onQueryConfirmed(final String text) {
+        currentQuery = WikiSearchSession.normalize(text);
         disableForward();
-        sendRequestIfInternet(query);
+        cancelPrefetch();
+        sendRequestIfInternet(currentQuery);
         return true;
     }
 
@@ -125,17 +172,55 @@ public class WikiQueryActivity extends NetworkActivity<String> {
         requestList.putExtra(PARAMETER_ID, requestId);
         requestList.putExtra(PARAMETER_TYPE, mode.ordinal());
         requestList.putExtra(PARAMETER_QUERY, requestData);
+        requestedQuery = requestData;
         startService(requestList);
     }
 
     @Override
     protected void latestServiceResponse(Bundle extras) {
-        int resultCode = extras.getInt(RESULT_STATE);
-        if (resultCode == RESULT_NON_EMPTY) {
-            List<JsonObject> resultList = unwrapQueryResult(extras.getString(RESULT_LIST));
-            showFragment(WikiQueryResultFragment.newInstance(resultList, this::onSelected));
-        } else {
+        if (extras.getInt(RESULT_STATE) == RESULT_CANCELLED) {
+            // the request failed or was dropped, so nothing is stored for the query
+            showResult(new ArrayList<>());
+            return;
+        }
+
+        List<JsonObject> resultList = unwrapQueryResult(extras.getString(RESULT_LIST));
+        if (resultList == null) {
+            resultList = new ArrayList<>();
+        }
+        final boolean complete = extras.getBoolean(RESULT_COMPLETE);
+        searchSession.store(requestedQuery, new PageSearchResult(resultList, complete));
+        showResult(resultList);
+    }
+
+    private void showResult(final List<JsonObject> resultList) {
+        disableForward();
+        if (resultList.isEmpty()) {
+            cancelPrefetch();
             showFragment(NetworkInfoFragment.noResultFragment(this));
+        } else {
+            startPrefetch(resultList);
+            showFragment(WikiQueryResultFragment.newInstance(resultList, this::onSelected));
+        }
+    }
+
+    private void startPrefetch(final List<JsonObject> resultList) {
+        cancelPrefetch();
+        if (!getResources().getBoolean(R.bool.wiki_prefetch_enabled)) {
+            return;
+        }
+
+        if (mode == WikiQueryMode.ACTOR) {
+            prefetch = MediaWiki.prefetchActorData(resultList);
+        } else if (mode == WikiQueryMode.FILM) {
+            prefetch = MediaWiki.prefetchFilmData(resultList);
+        }
+    }
+
+    private void cancelPrefetch() {
+        if (prefetch != null) {
+            prefetch.cancel();
+            prefetch = null;
         }
     }
 
@@ -143,4 +228,11 @@ public class WikiQueryActivity extends NetworkActivity<String> {
         this.selected = selected;
         setForwardEnabled(selected != null);
     }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        handler.removeCallbacksAndMessages(null);
+        cancelPrefetch();
+    }
 }
@@ -1,9 +1,10 @@
 package de.moviemanager.ui.wiki.query;
 
-import android.app.IntentService;
+import android.app.Service;
+import android.content.Context;
 import android.content.Intent;
+import android.os.IBinder;
 
-import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import com.google.gson.JsonObject;
@@ -11,13 +12,19 @@ import com.google.gson.JsonObject;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
+import de.moviemanager.R;
 import de.moviemanager.ui.wiki.WikiStorage;
 import de.util.Pair;
 import de.wiki.MediaWiki;
+import de.wiki.PageSearchResult;
+import de.wiki.WikiScheduler;
 
-public class WikiQueryService extends IntentService {
+import static de.wiki.WikiScheduler.Priority.USER_VISIBLE;
+
+public class WikiQueryService extends Service {
     public static final int DEFAULT_REQUEST_ID = -1;
 
     public static final String PARAMETER_ID = "parameter_id";
@@ -26,77 +33,129 @@ public class WikiQueryService extends IntentService {
 
     public static final int RESULT_EMPTY = 0;
     public static final int RESULT_NON_EMPTY = 1;
+    public static final int RESULT_CANCELLED = 2;
 
     public static final String RESULT_ID = "result_id";
     public static final String RESULT_STATE = "result_state";
     public static final String RESULT_LIST = "result_list";
+    public static final String RESULT_COMPLETE = "result_complete";
     public static final String RESULT_CALLBACK = "de.moviemanager.ui.wiki.query";
 
-    public WikiQueryService() {
-        super(WikiQueryService.class.getSimpleName());
+    private final AtomicInteger runningRequests = new AtomicInteger(0);
+    private volatile int lastStartId;
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        WikiStorage.installMirror(getFilesDir(),
+                getResources().getBoolean(R.bool.wiki_mirror_network_fallback));
+        WikiStorage.installHttpCache(getCacheDir());
+    }
+
+    @Override
+    public void onDestroy() {
+        // the responses added to the mirror are kept in its index until it is flushed
+        WikiStorage.flushMirror();
+        super.onDestroy();
     }
 
+    @Nullable
     @Override
-    protected void onHandleIntent(@Nullable Intent intent) {
-        final List<JsonObject> result = new ArrayList<>();
-        int requestId = DEFAULT_REQUEST_ID;
-        int resultCode = RESULT_EMPTY;
-
-        if (intent != null) {
-            Pair<Integer, Integer> idCodePair = handleRequest(intent, result);
-            requestId = idCodePair.first;
-            resultCode = idCodePair.second;
+    public IBinder onBind(Intent intent) {
+        return null;
+    }
+
+    @Override
+    public int onStartCommand(@Nullable Intent intent, int flags, int startId) {
+        final Context context = getApplicationContext();
+        final int requestId = requestIdOf(intent);
+        lastStartId = startId;
+        runningRequests.incrementAndGet();
+        // the requesting activity only waits for its latest request, so it supersedes all others
+        WikiScheduler.getDefault()
+                .submit(RESULT_CALLBACK, USER_VISIBLE,
+                        () -> handleRequest(intent),
+                        response -> publishResult(context, response.first, response.second),
+                        () -> publishCancelled(context, RESULT_CALLBACK, requestId))
+                .whenDone(this::requestDone);
+        return START_NOT_STICKY;
+    }
+
+    private void requestDone() {
+        // requests may finish out of order, stopping with an older start id would end later ones
+        if (runningRequests.decrementAndGet() == 0) {
+            stopSelf(lastStartId);
         }
+    }
 
-        publishResult(requestId, resultCode, result);
+    static int requestIdOf(@Nullable Intent request) {
+        return request == null ? DEFAULT_REQUEST_ID : request.getIntExtra(PARAMETER_ID, DEFAULT_REQUEST_ID);
     }
 
-    private static Pair<Integer, Integer> handleRequest(@NonNull Intent request,
-                                                        final List<JsonObject> resultList) {
-        int resultCode = RESULT_NON_EMPTY;
-        int id = request.getIntExtra(PARAMETER_ID, DEFAULT_REQUEST_ID);
+    /**
+     * Tells the requesting activity that the request failed or was dropped, so it doesn't wait
+     * for a response forever.
+     *
+     * @param context context of the service
+     * @param callback callback identifier of the service
+     * @param requestId id of the request
+     */
+    static void publishCancelled(final Context context, String callback, int requestId) {
+        final Intent intent = new Intent(callback);
+        intent.putExtra(RESULT_ID, requestId);
+        intent.putExtra(RESULT_STATE, RESULT_CANCELLED);
+        context.sendBroadcast(intent);
+    }
+
+    private static Pair<Integer, PageSearchResult> handleRequest(@Nullable Intent request) {
+        if (request == null) {
+            return Pair.paired(DEFAULT_REQUEST_ID, emptyResult());
+        }
+
+        int id = requestIdOf(request);
         final String query = request.getStringExtra(PARAMETER_QUERY);
         final WikiQueryMode type = WikiQueryMode.fromExtra(request, PARAMETER_TYPE);
+        PageSearchResult result = emptyResult();
 
         if (type == WikiQueryMode.ACTOR) {
-            resultList.addAll(queryActors(query));
+            result = queryActors(query);
         } else if (type == WikiQueryMode.FILM) {
-            resultList.addAll(queryFilms(query));
-        } else {
-            resultCode = RESULT_EMPTY;
+            result = queryFilms(query);
         }
 
-        if(resultList.isEmpty()) {
-            resultCode = RESULT_EMPTY;
-        }
+        return Pair.paired(id, result);
+    }
 
-        return Pair.paired(id, resultCode);
+    private static PageSearchResult emptyResult() {
+        return new PageSearchResult(new ArrayList<>(), false);
     }
 
-    private static List<JsonObject> queryActors(final String query) {
-        return query(query, MediaWiki::getActorWikiPagesByName);
+    private static PageSearchResult queryActors(final String query) {
+        return query(query, MediaWiki::searchActorWikiPages);
     }
 
-    private static List<JsonObject> query(final String query,
-                                          final Function<String, Optional<List<JsonObject>>> retriever) {
-        List<JsonObject> result;
+    private static PageSearchResult query(final String query,
+                                          final Function<String, Optional<PageSearchResult>> retriever) {
+        PageSearchResult result;
         if (query == null || query.isEmpty()) {
-            result = new ArrayList<>();
+            result = emptyResult();
         } else {
-            result = retriever.apply(query).orElseGet(ArrayList::new);
+            result = retriever.apply(query).orElseGet(WikiQueryService::emptyResult);
         }
         return result;
     }
 
-    private static List<JsonObject> queryFilms(final String query) {
-        return query(query, MediaWiki::getFilmWikiPagesByName);
+    private static PageSearchResult queryFilms(final String query) {
+        return query(query, MediaWiki::searchFilmWikiPages);
     }
 
-    private void publishResult(int resultId, int resultCode, List<JsonObject> result) {
+    private static void publishResult(final Context context, int resultId, PageSearchResult result) {
+        final List<JsonObject> pages = new ArrayList<>(result.getPages());
         final Intent intent = new Intent(RESULT_CALLBACK);
         intent.putExtra(RESULT_ID, resultId);
-        intent.putExtra(RESULT_STATE, resultCode);
-        intent.putExtra(RESULT_LIST, WikiStorage.wrapQueryResult(result));
-        sendBroadcast(intent);
+        intent.putExtra(RESULT_STATE, pages.isEmpty() ? RESULT_EMPTY : RESULT_NON_EMPTY);
+        intent.putExtra(RESULT_LIST, WikiStorage.wrapQueryResult(pages));
+        intent.putExtra(RESULT_COMPLETE, result.isComplete());
+        context.sendBroadcast(intent);
     }
 }
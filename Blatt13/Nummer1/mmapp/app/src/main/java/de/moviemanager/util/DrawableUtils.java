@@ -66,11 +66,12 @@ public enum  DrawableUtils {
 
             @Override
             public T forward(T obj) {
-                if(customImage) {
-                    STORAGE.setImageForPortrayable(obj, drawableToBitmap(image));
-                } else {
-                    STORAGE.setImageForPortrayable(obj, null);
-                }
+                final Bitmap bitmap = customImage ? drawableToBitmap(image) : null;
+                STORAGE.setImageForPortrayable(obj, bitmap).whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        Log.e("DU", "Failed to write image of " + obj.name(), error);
+                    }
+                });
                 return obj;
             }
 
@@ -0,0 +1,60 @@
+package de.query;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * One whitespace separated part of a query: either a fielded clause like
+ * <code>rating&gt;=4</code> or a free text, which is matched against the names.
+ */
+final class Clause {
+    private final String field;
+    private final Comparison comparison;
+    private final String value;
+    private final String text;
+
+    private Clause(final String field, final Comparison comparison, final String value, final String text) {
+        this.field = field;
+        this.comparison = comparison;
+        this.value = value;
+        this.text = text;
+    }
+
+    static Clause fielded(final String field, final Comparison comparison, final String value, final String text) {
+        return new Clause(requireNonNull(field), requireNonNull(comparison), requireNonNull(value), text);
+    }
+
+    static Clause freeText(final String text) {
+        return new Clause(null, null, text, text);
+    }
+
+    boolean isFielded() {
+        return field != null;
+    }
+
+    String getField() {
+        return field;
+    }
+
+    Comparison getComparison() {
+        return comparison;
+    }
+
+    /**
+     * @return the value of a fielded clause without quotes, the text of a free text
+     */
+    String getValue() {
+        return value;
+    }
+
+    /**
+     * @return the clause as written in the query, quotes included
+     */
+    String getText() {
+        return text;
+    }
+
+    @Override
+    public String toString() {
+        return isFielded() ? field + comparison.getSymbol() + '"' + value + '"' : '"' + value + '"';
+    }
+}
@@ -0,0 +1,47 @@
+package de.query;
+
+import java.util.Optional;
+
+/**
+ * Operator of a fielded clause. Both ':' and '=' select the elements whose attribute matches
+ * the value, the others compare ordered attributes like ratings and dates.
+ */
+public enum Comparison {
+    MATCHES(":"),
+    EQUAL("="),
+    LESS_EQUAL("<="),
+    GREATER_EQUAL(">="),
+    LESS("<"),
+    GREATER(">");
+
+    private final String symbol;
+
+    Comparison(final String symbol) {
+        this.symbol = symbol;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public boolean isMatch() {
+        return this == MATCHES || this == EQUAL;
+    }
+
+    /**
+     * Finds the operator at the given position. Two character operators are preferred, so
+     * '&lt;=' isn't read as '&lt;'.
+     *
+     * @param text the text containing the operator
+     * @param position position of the first character of the operator
+     * @return the operator starting at the position, if any
+     */
+    static Optional<Comparison> at(final String text, final int position) {
+        for (final Comparison comparison : values()) {
+            if (text.startsWith(comparison.symbol, position)) {
+                return Optional.of(comparison);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,79 @@
+package de.query;
+
+import java.util.Set;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Attribute a query can restrict, like the rating or the languages of a movie. A field looks
+ * up the matching elements in an index instead of testing every element.
+ */
+@FunctionalInterface
+public interface Field {
+    /**
+     * @param comparison operator of the clause
+     * @param value value of the clause, never empty
+     * @return ids of the elements fulfilling the clause
+     * @throws QueryException if the field doesn't support the operator or the value
+     */
+    Set<Integer> select(Comparison comparison, String value);
+
+    /**
+     * @param index index of a numeric attribute
+     * @return field comparing the attribute with numbers
+     */
+    static Field number(final RangeIndex index) {
+        requireNonNull(index);
+        return (comparison, value) -> {
+            final double[] interval = Values.numberInterval(value);
+            return index.select(comparison, interval[0], interval[1]);
+        };
+    }
+
+    /**
+     * @param index index of a date attribute, keyed by the time in milliseconds
+     * @return field comparing the attribute with dates like '2026-11-01'
+     */
+    static Field date(final RangeIndex index) {
+        requireNonNull(index);
+        return (comparison, value) -> {
+            final double[] interval = Values.dateInterval(value);
+            return index.select(comparison, interval[0], interval[1]);
+        };
+    }
+
+    /**
+     * @param index index of a textual attribute
+     * @return field matching the terms of the attribute, see {@link TermIndex#find(String)}
+     */
+    static Field terms(final TermIndex index) {
+        requireNonNull(index);
+        return matching(index::find);
+    }
+
+    /**
+     * Creates a field of associated elements, e.g. the movies of the performers matching
+     * the value.
+     *
+     * @param lookup finds the ids of the elements associated with elements matching a value
+     * @return field joining the associated elements
+     */
+    static Field join(final Function<String, Set<Integer>> lookup) {
+        return matching(lookup);
+    }
+
+    /**
+     * @param lookup finds the ids of the elements matching a value
+     * @return field which only supports the match operators
+     */
+    static Field matching(final Function<String, Set<Integer>> lookup) {
+        requireNonNull(lookup);
+        return (comparison, value) -> {
+            if (!comparison.isMatch()) {
+                throw new QueryException("Operator " + comparison.getSymbol() + " can't be applied to " + value);
+            }
+            return lookup.apply(value);
+        };
+    }
+}
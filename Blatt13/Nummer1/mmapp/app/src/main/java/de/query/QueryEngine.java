@@ -0,0 +1,70 @@
+package de.query;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import de.util.Identifiable;
+
+import static java.util.Locale.ROOT;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Plans queries like <code>rating&gt;=4 lang:german due&lt;2026-11-01 performer:"depp"</code>
+ * over the registered fields of one kind of element. Every fielded clause is answered by the
+ * index of its field, the remaining words have to be contained in the name of an element.
+ * A clause naming an unknown field is treated as a word, so names containing a colon can
+ * still be searched. A query without any clause of a known field is matched against the names
+ * as a whole, like before the query language existed.
+ *
+ * @param <T> type of the queried elements
+ */
+public class QueryEngine<T extends Identifiable> {
+    private final Function<T, String> lowerCaseName;
+    private final Map<String, Field> fields;
+
+    /**
+     * @param lowerCaseName name of an element in lower case, which free text is matched against
+     */
+    public QueryEngine(final Function<T, String> lowerCaseName) {
+        this.lowerCaseName = requireNonNull(lowerCaseName);
+        this.fields = new HashMap<>();
+    }
+
+    /**
+     * @param field a field of the elements
+     * @param names names of the field in queries, case is ignored
+     */
+    public synchronized void addField(final Field field, final String... names) {
+        requireNonNull(field);
+        for (final String fieldName : names) {
+            fields.put(fieldName.toLowerCase(ROOT), field);
+        }
+    }
+
+    /**
+     * @param query the query as typed by the user
+     * @return the plan executing the query
+     */
+    public synchronized QueryPlan<T> plan(final String query) {
+        final List<QueryPlan.Lookup> lookups = new ArrayList<>();
+        final List<String> words = new ArrayList<>();
+        final List<Clause> clauses = QueryParser.parse(query);
+        for (final Clause clause : clauses) {
+            final Field field = clause.isFielded() ? fields.get(clause.getField()) : null;
+            if (field == null) {
+                words.add(clause.getText().replace("\"", ""));
+            } else if (!clause.getValue().isEmpty()) {
+                // a clause without a value is still being typed and doesn't restrict yet
+                lookups.add(new QueryPlan.Lookup(field, clause));
+            }
+        }
+
+        if (words.size() == clauses.size()) {
+            return QueryPlan.plain(query, lowerCaseName);
+        }
+        return new QueryPlan<>(lookups, words, lowerCaseName);
+    }
+}
@@ -0,0 +1,7 @@
+package de.query;
+
+public class QueryException extends RuntimeException {
+    public QueryException(final String msg) {
+        super(msg);
+    }
+}
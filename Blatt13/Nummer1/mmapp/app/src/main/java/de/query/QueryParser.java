@@ -0,0 +1,70 @@
+package de.query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static java.util.Locale.ROOT;
+
+/**
+ * Splits a query into its clauses. Clauses are separated by whitespace outside of double
+ * quotes. A clause starting with a field name made of letters followed by an operator is a
+ * fielded clause, every other clause is a free text. Values and free texts may be quoted to
+ * contain whitespace, an unterminated quote extends to the end of the query.
+ */
+enum QueryParser {
+    ;
+
+    static List<Clause> parse(final String query) {
+        final List<Clause> clauses = new ArrayList<>();
+        int position = 0;
+        while (position < query.length()) {
+            if (Character.isWhitespace(query.charAt(position))) {
+                ++position;
+                continue;
+            }
+
+            final int end = endOfClause(query, position);
+            clauses.add(parseClause(query.substring(position, end)));
+            position = end;
+        }
+        return clauses;
+    }
+
+    private static int endOfClause(final String query, final int start) {
+        boolean quoted = false;
+        int position = start;
+        while (position < query.length()) {
+            final char c = query.charAt(position);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (!quoted && Character.isWhitespace(c)) {
+                break;
+            }
+            ++position;
+        }
+        return position;
+    }
+
+    private static Clause parseClause(final String text) {
+        int fieldEnd = 0;
+        while (fieldEnd < text.length() && Character.isLetter(text.charAt(fieldEnd))) {
+            ++fieldEnd;
+        }
+
+        final Optional<Comparison> comparison = fieldEnd > 0
+                ? Comparison.at(text, fieldEnd)
+                : Optional.empty();
+        if (!comparison.isPresent()) {
+            return Clause.freeText(unquote(text));
+        }
+
+        final String field = text.substring(0, fieldEnd).toLowerCase(ROOT);
+        final String value = unquote(text.substring(fieldEnd + comparison.get().getSymbol().length()));
+        return Clause.fielded(field, comparison.get(), value, text);
+    }
+
+    private static String unquote(final String text) {
+        return text.replace("\"", "");
+    }
+}
@@ -0,0 +1,153 @@
+package de.query;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import de.util.Identifiable;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Execution plan of a query, created by {@link QueryEngine#plan(String)}. Executing the plan
+ * looks up the ids selected by every fielded clause in the indexes and intersects them, the
+ * smallest set first, so the work depends on the number of selected elements instead of the
+ * number of all elements. The words of the query are checked against the names of the
+ * remaining elements only.
+ *
+ * @param <T> type of the queried elements
+ */
+public class QueryPlan<T extends Identifiable> {
+    private final List<Lookup> lookups;
+    private final List<String> words;
+    private final Function<T, String> lowerCaseName;
+    private final boolean plain;
+
+    static final class Lookup {
+        private final Field field;
+        private final Clause clause;
+
+        Lookup(final Field field, final Clause clause) {
+            this.field = field;
+            this.clause = clause;
+        }
+
+        Set<Integer> select() {
+            return field.select(clause.getComparison(), clause.getValue());
+        }
+
+        @Override
+        public String toString() {
+            return clause.toString();
+        }
+    }
+
+    QueryPlan(final List<Lookup> lookups, final List<String> words, final Function<T, String> lowerCaseName) {
+        this(lookups, words, lowerCaseName, false);
+    }
+
+    private QueryPlan(final List<Lookup> lookups,
+                      final List<String> words,
+                      final Function<T, String> lowerCaseName,
+                      final boolean plain) {
+        this.lookups = unmodifiableList(new ArrayList<>(lookups));
+        this.words = unmodifiableList(new ArrayList<>(words));
+        this.lowerCaseName = requireNonNull(lowerCaseName);
+        this.plain = plain;
+    }
+
+    /**
+     * @param query a query
+     * @param lowerCaseName name of an element in lower case
+     * @param <T> type of the queried elements
+     * @return plan matching the elements whose name contains the whole query, ignoring case
+     */
+    public static <T extends Identifiable> QueryPlan<T> plain(final String query,
+                                                              final Function<T, String> lowerCaseName) {
+        return new QueryPlan<>(emptyList(), singletonList(query), lowerCaseName, true);
+    }
+
+    /**
+     * @return <i>true</i> if the plan only matches the names against the whole query, so
+     * an element matching a query matches every prefix of it too
+     */
+    public boolean isPlain() {
+        return plain;
+    }
+
+    /**
+     * Looks up the indexes with their current content. The returned test doesn't see later
+     * changes of the indexes, so the plan has to be executed again for changed elements.
+     *
+     * @return test whether an element is matched by the query
+     * @throws QueryException if a value of the query doesn't fit its field
+     */
+    public Predicate<T> execute() {
+        final Set<Integer> ids = selectIds();
+        if (ids != null && ids.isEmpty()) {
+            return element -> false;
+        }
+
+        final List<String> lowerWords = new ArrayList<>(words.size());
+        words.forEach(word -> lowerWords.add(word.toLowerCase()));
+        return element -> (ids == null || ids.contains(element.id()))
+                && containsAll(lowerCaseName.apply(element), lowerWords);
+    }
+
+    /**
+     * @return the ids selected by all fielded clauses, or <i>null</i> if there are none
+     */
+    private Set<Integer> selectIds() {
+        if (lookups.isEmpty()) {
+            return null;
+        }
+
+        final List<Set<Integer>> selections = new ArrayList<>(lookups.size());
+        for (final Lookup lookup : lookups) {
+            final Set<Integer> selection = lookup.select();
+            if (selection.isEmpty()) {
+                return selection;
+            }
+            selections.add(selection);
+        }
+
+        selections.sort(Comparator.comparingInt(Set::size));
+        final Set<Integer> result = new HashSet<>(selections.get(0));
+        for (int i = 1; i < selections.size() && !result.isEmpty(); ++i) {
+            result.retainAll(selections.get(i));
+        }
+        return result;
+    }
+
+    private static boolean containsAll(final String lowerName, final List<String> lowerWords) {
+        if (lowerWords.isEmpty()) {
+            return true;
+        }
+        if (lowerName == null) {
+            return false;
+        }
+
+        for (final String word : lowerWords) {
+            if (!lowerName.contains(word)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        final List<String> steps = new ArrayList<>();
+        lookups.forEach(lookup -> steps.add(lookup.toString()));
+        words.forEach(word -> steps.add("name contains \"" + word + '"'));
+        return steps.isEmpty() ? "all" : steps.stream().collect(joining(" and "));
+    }
+}
@@ -0,0 +1,160 @@
+package de.query;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Thread safe index of ordered attributes like ratings or dates, which finds the ids of all
+ * elements whose key lies in a range. The keys are kept in a sorted primitive array with the
+ * ids in a parallel array, so a range is found with two binary searches and its ids are read
+ * sequentially. Dates are indexed by their time in milliseconds.
+ */
+public class RangeIndex {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private double[] keys;
+    private int[] ids;
+    private int size;
+    private final Map<Integer, Double> keyOfId;
+
+    public RangeIndex() {
+        this.keys = new double[INITIAL_CAPACITY];
+        this.ids = new int[INITIAL_CAPACITY];
+        this.keyOfId = new HashMap<>();
+    }
+
+    /**
+     * Indexes the key of an element, replacing the key indexed earlier for the same id.
+     *
+     * @param id id of the element
+     * @param key current key of the element, must not be NaN
+     */
+    public synchronized void put(final int id, final double key) {
+        if (Double.isNaN(key)) {
+            throw new IllegalArgumentException("Key of " + id + " must not be NaN");
+        }
+        remove(id);
+
+        final int position = lowerBound(key);
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(keys, position, keys, position + 1, size - position);
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        keys[position] = key;
+        ids[position] = id;
+        ++size;
+        keyOfId.put(id, key);
+    }
+
+    /**
+     * Removes an element from the index.
+     *
+     * @param id id of the element
+     */
+    public synchronized void remove(final int id) {
+        final Double key = keyOfId.remove(id);
+        if (key == null) {
+            return;
+        }
+
+        int position = lowerBound(key);
+        while (ids[position] != id) {
+            ++position;
+        }
+        System.arraycopy(keys, position + 1, keys, position, size - position - 1);
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        --size;
+    }
+
+    /**
+     * Finds all elements whose key lies in the given range.
+     *
+     * @param from lower bound of the range
+     * @param fromInclusive <i>true</i> if keys equal to the lower bound are in the range
+     * @param to upper bound of the range
+     * @param toInclusive <i>true</i> if keys equal to the upper bound are in the range
+     * @return ids of the elements in the range
+     */
+    public synchronized Set<Integer> find(final double from, final boolean fromInclusive,
+                                          final double to, final boolean toInclusive) {
+        final int start = fromInclusive ? lowerBound(from) : upperBound(from);
+        final int end = toInclusive ? upperBound(to) : lowerBound(to);
+        final Set<Integer> result = new HashSet<>();
+        for (int i = start; i < end; ++i) {
+            result.add(ids[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Selects the elements whose key compares with a value as requested. The value is an
+     * interval, so a date compares with all points in time of its day: a key is equal to the
+     * value if it lies in the interval, less than the value if it is less than the start and
+     * greater than the value if it isn't less than the end.
+     *
+     * @param comparison the requested comparison
+     * @param start inclusive start of the value
+     * @param end exclusive end of the value
+     * @return ids of the selected elements
+     */
+    public Set<Integer> select(final Comparison comparison, final double start, final double end) {
+        switch (comparison) {
+            case LESS:
+                return find(Double.NEGATIVE_INFINITY, true, start, false);
+            case LESS_EQUAL:
+                return find(Double.NEGATIVE_INFINITY, true, end, false);
+            case GREATER:
+                return find(end, true, Double.POSITIVE_INFINITY, true);
+            case GREATER_EQUAL:
+                return find(start, true, Double.POSITIVE_INFINITY, true);
+            default:
+                return find(start, true, end, false);
+        }
+    }
+
+    /**
+     * @return number of indexed elements
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return position of the first key not less than the given key
+     */
+    private int lowerBound(final double key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (keys[middle] < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return position of the first key greater than the given key
+     */
+    private int upperBound(final double key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (keys[middle] <= key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
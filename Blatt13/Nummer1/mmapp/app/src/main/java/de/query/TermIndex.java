@@ -0,0 +1,105 @@
+package de.query;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+import de.fulltext.Tokenizer;
+
+import static java.util.Collections.emptySet;
+
+/**
+ * Thread safe term dictionary of an attribute with several values, like the languages of a
+ * movie. The values are split into terms by the {@link Tokenizer} and the dictionary is sorted,
+ * so the terms starting with a prefix are found without looking at the other terms.
+ */
+public class TermIndex {
+    private final NavigableMap<String, Set<Integer>> dictionary;
+    private final Map<Integer, Set<String>> termsOfId;
+
+    public TermIndex() {
+        this.dictionary = new TreeMap<>();
+        this.termsOfId = new HashMap<>();
+    }
+
+    /**
+     * Indexes the values of an element, replacing the values indexed earlier for the same id.
+     *
+     * @param id id of the element
+     * @param values current values of the element
+     */
+    public synchronized void put(final int id, final Collection<String> values) {
+        remove(id);
+        final Set<String> terms = new HashSet<>();
+        for (final String value : values) {
+            terms.addAll(Tokenizer.tokenize(value));
+        }
+        for (final String term : terms) {
+            dictionary.computeIfAbsent(term, t -> new HashSet<>()).add(id);
+        }
+        termsOfId.put(id, terms);
+    }
+
+    /**
+     * Removes an element from the index.
+     *
+     * @param id id of the element
+     */
+    public synchronized void remove(final int id) {
+        final Set<String> terms = termsOfId.remove(id);
+        if (terms == null) {
+            return;
+        }
+
+        for (final String term : terms) {
+            final Set<Integer> ids = dictionary.get(term);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                dictionary.remove(term);
+            }
+        }
+    }
+
+    /**
+     * Finds the elements having a term starting with every term of the value, so 'ger'
+     * finds 'German' and 'new zea' finds 'New Zealand'.
+     *
+     * @param value the searched value
+     * @return ids of the found elements, empty if the value has no terms
+     */
+    public synchronized Set<Integer> find(final String value) {
+        final List<String> prefixes = Tokenizer.tokenize(value);
+        if (prefixes.isEmpty()) {
+            return emptySet();
+        }
+
+        Set<Integer> result = null;
+        for (final String prefix : prefixes) {
+            final Set<Integer> ids = new HashSet<>();
+            for (final Set<Integer> termIds : dictionary.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+                ids.addAll(termIds);
+            }
+            if (result == null) {
+                result = ids;
+            } else {
+                result.retainAll(ids);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return number of indexed elements
+     */
+    public synchronized int size() {
+        return termsOfId.size();
+    }
+}
@@ -0,0 +1,68 @@
+package de.query;
+
+import java.util.Calendar;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Converts the values of fielded clauses into the intervals of keys they stand for.
+ */
+enum Values {
+    ;
+
+    private static final Pattern DATE = Pattern.compile("(\\d{4})(?:-(\\d{1,2})(?:-(\\d{1,2}))?)?");
+
+    /**
+     * @param value a number like '4' or '3.5'
+     * @return the interval containing only the number
+     * @throws QueryException if the value isn't a number
+     */
+    static double[] numberInterval(final String value) {
+        try {
+            final double number = Double.parseDouble(value);
+            if (Double.isNaN(number)) {
+                throw new QueryException("Not a number: " + value);
+            }
+            return new double[]{number, Math.nextUp(number)};
+        } catch (NumberFormatException e) {
+            throw new QueryException("Not a number: " + value);
+        }
+    }
+
+    /**
+     * Dates may be given as year, month or day, like '2026', '2026-11' or '2026-11-01', and
+     * stand for the whole year, month or day in the local time zone.
+     *
+     * @param value a date
+     * @return the interval from the first to after the last millisecond of the date
+     * @throws QueryException if the value isn't a valid date
+     */
+    static double[] dateInterval(final String value) {
+        final Matcher matcher = DATE.matcher(value);
+        if (!matcher.matches()) {
+            throw new QueryException("Not a date: " + value);
+        }
+
+        final Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.setLenient(false);
+        calendar.set(Calendar.YEAR, Integer.parseInt(matcher.group(1)));
+        int unit = Calendar.YEAR;
+        if (matcher.group(2) != null) {
+            calendar.set(Calendar.MONTH, Integer.parseInt(matcher.group(2)) - 1);
+            unit = Calendar.MONTH;
+        }
+        if (matcher.group(3) != null) {
+            calendar.set(Calendar.DAY_OF_MONTH, Integer.parseInt(matcher.group(3)));
+            unit = Calendar.DAY_OF_MONTH;
+        }
+
+        try {
+            final long start = calendar.getTimeInMillis();
+            calendar.add(unit, 1);
+            return new double[]{start, calendar.getTimeInMillis()};
+        } catch (IllegalArgumentException e) {
+            throw new QueryException("Not a date: " + value);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+/**
+ * Package containing the fielded query language of the master lists, like
+ * <code>rating&gt;=4 lang:german due&lt;2026-11-01 performer:"depp"</code>, and the
+ * per-attribute indexes its queries are executed with.
+ */
+package de.query;
@@ -29,6 +29,8 @@ public class Register<T extends Identifiable> {
     private final List<Integer> freeIds;
     private Consumer<T> storageSave;
     private Consumer<T> storageDelete;
+    private final List<Consumer<T>> saveListeners;
+    private final List<Consumer<T>> deleteListeners;
 
     public Register(final IntFunction<T> constructor) {
         this(constructor, new ArrayList<>());
@@ -59,6 +61,8 @@ public class Register<T extends Identifiable> {
         };
         storageDelete = x -> {
         };
+        saveListeners = new ArrayList<>();
+        deleteListeners = new ArrayList<>();
     }
 
     public void setStorageSave(final Consumer<T> storageSave) {
@@ -69,6 +73,25 @@ public class Register<T extends Identifiable> {
         this.storageDelete = requireNonNull(storageDelete);
     }
 
+    /**
+     * Adds a listener which is notified after an element was added or updated,
+     * e.g. to keep an index of the elements up to date.
+     *
+     * @param listener receives the saved element
+     */
+    public void addSaveListener(final Consumer<T> listener) {
+        saveListeners.add(requireNonNull(listener));
+    }
+
+    /**
+     * Adds a listener which is notified after an element was removed.
+     *
+     * @param listener receives the removed element
+     */
+    public void addDeleteListener(final Consumer<T> listener) {
+        deleteListeners.add(requireNonNull(listener));
+    }
+
     public ReversibleTransaction<T> startCreationTransaction() {
         final ReversibleSupplier<T> begin = createCreationBegin();
         final ReversibleConsumer<T> end = createCreationEnd();
@@ -126,6 +149,7 @@ public class Register<T extends Identifiable> {
         else
             elements.set(index, obj);
         storageSave.accept(obj);
+        saveListeners.forEach(listener -> listener.accept(obj));
     }
 
     public ReversibleTransaction<T> startUpdateTransactionFor(final T obj) {
@@ -167,6 +191,7 @@ public class Register<T extends Identifiable> {
 
     private void update(T obj) {
         storageSave.accept(obj);
+        saveListeners.forEach(listener -> listener.accept(obj));
     }
 
     public ReversibleTransaction<T> startRemovalTransactionFor(T obj) {
@@ -197,6 +222,7 @@ public class Register<T extends Identifiable> {
         int id = obj.id();
         elements.set(id, null);
         storageDelete.accept(obj);
+        deleteListeners.forEach(listener -> listener.accept(obj));
     }
 
     private ReversibleConsumer<T> createRemovalEnd() {
@@ -38,6 +38,8 @@ public class Storage {
     private final File home;
     private final HashMap<Class<?>, StorageGroup<?>> groups;
     private final HashMap<Class<?>, Set<String>> objectNames;
+    private int batchDepth;
+    private boolean metaDataOutdated;
 
     public static Storage openIn(final File home) {
         STORAGES.computeIfAbsent(home, Storage::new);
@@ -107,10 +109,31 @@ public class Storage {
         final StorageGroup<T> group = (StorageGroup<T>) groups.get(cls);
         final String fname = group.saveIn(home, o);
         objectNames.get(cls).add(fname);
-        updateMetaData();
+        metaDataChanged();
+    }
+
+    public void runBatched(final Runnable batch) {
+        ++batchDepth;
+        try {
+            batch.run();
+        } finally {
+            --batchDepth;
+            if (batchDepth == 0 && metaDataOutdated) {
+                updateMetaData();
+            }
+        }
+    }
+
+    private void metaDataChanged() {
+        if (batchDepth > 0) {
+            metaDataOutdated = true;
+        } else {
+            updateMetaData();
+        }
     }
 
     private void updateMetaData() {
+        metaDataOutdated = false;
         for (Map.Entry<Class<?>, Set<String>> entry : objectNames.entrySet()) {
             final Pair<Class<?>, HashSet<String>> pair = Pair.paired(entry).mapSecond(HashSet::new);
             final StorageGroup<?> group = groups.get(pair.first);
@@ -159,7 +182,7 @@ public class Storage {
         objectNames.get(cls).remove(name);
         final File file = resolve(group.getDirectory(home), name);
         FileUtils.delete(file);
-        updateMetaData();
+        metaDataChanged();
     }
 
     public Optional<Storage> copyStorageTo(final File newHome) {
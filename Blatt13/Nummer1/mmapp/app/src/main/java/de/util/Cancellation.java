@@ -0,0 +1,30 @@
+package de.util;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Cooperative cancellation of a computation, e.g. of a search whose query was replaced by a
+ * newer one. A long computation checks the cancellation between its chunks of work and stops
+ * by throwing a {@link CancellationException}.
+ */
+@FunctionalInterface
+public interface Cancellation {
+    /**
+     * Cancellation of a computation which always runs to its end.
+     */
+    Cancellation NEVER = () -> false;
+
+    /**
+     * @return <i>true</i> if the result of the computation isn't needed anymore
+     */
+    boolean isCancelled();
+
+    /**
+     * @throws CancellationException if the computation is cancelled
+     */
+    default void check() {
+        if (isCancelled()) {
+            throw new CancellationException();
+        }
+    }
+}
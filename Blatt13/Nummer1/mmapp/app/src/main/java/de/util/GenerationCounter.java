@@ -0,0 +1,48 @@
+package de.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Numbers consecutive jobs of the same kind, like the filter runs of a list, with monotonically
+ * increasing generations. Starting a new generation supersedes all older ones, so their work
+ * can be cancelled and their results dropped instead of replacing newer results.
+ */
+public class GenerationCounter {
+    private final AtomicLong current;
+
+    public GenerationCounter() {
+        this.current = new AtomicLong();
+    }
+
+    /**
+     * Starts a new generation, superseding all older generations.
+     *
+     * @return the new generation
+     */
+    public long advance() {
+        return current.incrementAndGet();
+    }
+
+    /**
+     * @return the newest generation
+     */
+    public long current() {
+        return current.get();
+    }
+
+    /**
+     * @param generation a generation
+     * @return <i>true</i> if no newer generation was started
+     */
+    public boolean isCurrent(final long generation) {
+        return current.get() == generation;
+    }
+
+    /**
+     * @param generation a generation
+     * @return cancellation which is cancelled as soon as a newer generation is started
+     */
+    public Cancellation cancellationOf(final long generation) {
+        return () -> !isCurrent(generation);
+    }
+}
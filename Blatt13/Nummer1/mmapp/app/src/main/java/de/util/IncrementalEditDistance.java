@@ -0,0 +1,109 @@
+package de.util;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Levenshtein edit distance between a fixed target and a query which grows at its end, like a
+ * search query while typing. Only the last row of the dynamic programming table is kept, so
+ * appending a character to the query costs O(m), with m the length of the target, instead of
+ * O(n * m) for comparing the whole query again. Like {@link StringUtils#editDistance(String, String)}
+ * the comparison ignores case. Instances are immutable.
+ */
+public final class IncrementalEditDistance {
+    private final String target;
+    private final String comparedTarget;
+    private final int queryLength;
+    private final int[] row;
+
+    private IncrementalEditDistance(final String target,
+                                    final String comparedTarget,
+                                    final int queryLength,
+                                    final int[] row) {
+        this.target = target;
+        this.comparedTarget = comparedTarget;
+        this.queryLength = queryLength;
+        this.row = row;
+    }
+
+    /**
+     * @param target the string the query is compared with
+     * @return the distance between the target and the empty query
+     */
+    public static IncrementalEditDistance of(final String target) {
+        return of(target, requireNonNull(target).toLowerCase());
+    }
+
+    /**
+     * @param target the string the query is compared with
+     * @param lowerCaseTarget the target in lower case, e.g. a cached lower case name
+     * @return the distance between the target and the empty query
+     */
+    public static IncrementalEditDistance of(final String target, final String lowerCaseTarget) {
+        final String comparedTarget = requireNonNull(lowerCaseTarget);
+        final int[] row = new int[comparedTarget.length() + 1];
+        for (int j = 0; j < row.length; ++j) {
+            row[j] = j;
+        }
+        return new IncrementalEditDistance(target, comparedTarget, 0, row);
+    }
+
+    /**
+     * @param suffix characters appended to the query
+     * @return the distance between the target and the extended query
+     */
+    public IncrementalEditDistance append(final CharSequence suffix) {
+        if (suffix.length() == 0) {
+            return this;
+        }
+
+        final String appended = suffix.toString().toLowerCase();
+        final int m = comparedTarget.length();
+        int[] previous = row;
+        for (int i = 0; i < appended.length(); ++i) {
+            // the previous row may be shared with other instances, so a new row is required
+            final int[] current = new int[m + 1];
+            final char c = appended.charAt(i);
+            current[0] = previous[0] + 1;
+            for (int j = 1; j <= m; ++j) {
+                final int substitution = previous[j - 1] + (c == comparedTarget.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(Math.min(current[j - 1], previous[j]) + 1, substitution);
+            }
+            previous = current;
+        }
+        return new IncrementalEditDistance(target, comparedTarget, queryLength + suffix.length(), previous);
+    }
+
+    /**
+     * @return the edit distance between the target and the query
+     */
+    public int distance() {
+        return row[row.length - 1];
+    }
+
+    /**
+     * @return the same value as {@link StringUtils#normedMinimumEditDistance(String, String)}
+     * for the query and the target
+     */
+    public double similarity() {
+        final int longerLength = Math.max(queryLength, target.length());
+        if (longerLength == 0) {
+            return 1.0;
+        }
+        return (longerLength - distance()) / (double) longerLength;
+    }
+
+    /**
+     * @return length of the query compared so far
+     */
+    public int queryLength() {
+        return queryLength;
+    }
+
+    /**
+     * @param target a target
+     * @return <i>true</i> if this distance was computed for the given target
+     */
+    public boolean hasTarget(final String target) {
+        return this.target.equals(target);
+    }
+}
@@ -0,0 +1,170 @@
+package de.util;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Scores the elements of a list on a fork-join pool and selects the best scored elements.
+ * The list is split into chunks, every chunk is scored by one task with its own
+ * {@link TopKSelector} and the selections of the chunks are merged. Lists not larger than one
+ * chunk are scored on the calling thread. The selection is the same as of a sequential
+ * selection over the whole list, including the order of equally scored elements. A selection
+ * can be cancelled, which is checked before every chunk.
+ */
+public class ParallelScorer {
+    public static final int DEFAULT_CHUNK_SIZE = 512;
+
+    private static final ParallelScorer SHARED = new ParallelScorer(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    /**
+     * Scores an element, e.g. by its similarity to a search query.
+     *
+     * @param <T> type of the scored elements
+     */
+    @FunctionalInterface
+    public interface Scorer<T> {
+        /**
+         * Called concurrently for different elements, so it must be thread safe.
+         *
+         * @param element the element to score
+         * @param minimum score the element has to exceed to be selected
+         * @return the score of the element, if it is greater than the minimum, otherwise
+         * a value not greater than the minimum
+         */
+        double score(T element, double minimum);
+    }
+
+    /**
+     * @param pool pool which executes the chunks
+     * @param chunkSize maximum number of elements scored by one task, must be positive
+     */
+    public ParallelScorer(final ForkJoinPool pool, final int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive, but was " + chunkSize);
+        }
+        this.pool = requireNonNull(pool);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @return scorer using the common fork-join pool
+     */
+    public static ParallelScorer shared() {
+        return SHARED;
+    }
+
+    /**
+     * Selects the best scored elements whose score exceeds the threshold.
+     *
+     * @param elements the elements to score
+     * @param limit maximum number of selected elements, must be positive
+     * @param threshold score an element has to exceed
+     * @param scorer scores the elements
+     * @param <T> type of the elements
+     * @return the selected elements, the best element first
+     */
+    public <T> List<T> selectBest(final List<T> elements,
+                                  final int limit,
+                                  final double threshold,
+                                  final Scorer<T> scorer) {
+        return selectBest(elements, limit, threshold, scorer, Cancellation.NEVER);
+    }
+
+    /**
+     * Like {@link #selectBest(List, int, double, Scorer)}, but stops scoring as soon as the
+     * selection is cancelled.
+     *
+     * @param elements the elements to score
+     * @param limit maximum number of selected elements, must be positive
+     * @param threshold score an element has to exceed
+     * @param scorer scores the elements
+     * @param cancellation cancellation of the selection
+     * @param <T> type of the elements
+     * @return the selected elements, the best element first
+     * @throws CancellationException if the selection was cancelled
+     */
+    public <T> List<T> selectBest(final List<T> elements,
+                                  final int limit,
+                                  final double threshold,
+                                  final Scorer<T> scorer,
+                                  final Cancellation cancellation) {
+        requireNonNull(cancellation);
+        final ChunkTask<T> task = new ChunkTask<>(elements, 0, elements.size(), limit, threshold, scorer, cancellation);
+        final TopKSelector<T> best;
+        if (elements.size() <= chunkSize) {
+            best = task.compute();
+        } else if (ForkJoinTask.inForkJoinPool()) {
+            best = task.invoke();
+        } else {
+            best = pool.invoke(task);
+        }
+        return best.toList();
+    }
+
+    private class ChunkTask<T> extends RecursiveTask<TopKSelector<T>> {
+        private final List<T> elements;
+        private final int from;
+        private final int to;
+        private final int limit;
+        private final double threshold;
+        private final Scorer<T> scorer;
+        private final Cancellation cancellation;
+
+        private ChunkTask(final List<T> elements,
+                          final int from,
+                          final int to,
+                          final int limit,
+                          final double threshold,
+                          final Scorer<T> scorer,
+                          final Cancellation cancellation) {
+            this.elements = elements;
+            this.from = from;
+            this.to = to;
+            this.limit = limit;
+            this.threshold = threshold;
+            this.scorer = scorer;
+            this.cancellation = cancellation;
+        }
+
+        @Override
+        protected TopKSelector<T> compute() {
+            if (to - from <= chunkSize) {
+                return scoreChunk();
+            }
+
+            final int middle = (from + to) >>> 1;
+            final ChunkTask<T> right = new ChunkTask<>(elements, middle, to, limit, threshold, scorer, cancellation);
+            right.fork();
+            final TopKSelector<T> best = new ChunkTask<>(elements, from, middle, limit, threshold, scorer, cancellation)
+                    .compute();
+            best.merge(right.join());
+            return best;
+        }
+
+        private TopKSelector<T> scoreChunk() {
+            cancellation.check();
+            // positions start at the chunk start, so the chunks merge in list order
+            final TopKSelector<T> best = new TopKSelector<>(limit, from);
+            for (int i = from; i < to; ++i) {
+                // once full, an element has to reach the lowest selected score
+                final double minimum = best.isFull()
+                        ? Math.max(threshold, Math.nextDown(best.lowestScore()))
+                        : threshold;
+                final T element = elements.get(i);
+                final double score = scorer.score(element, minimum);
+                if (score > minimum) {
+                    best.offer(element, score);
+                }
+            }
+            return best;
+        }
+    }
+}
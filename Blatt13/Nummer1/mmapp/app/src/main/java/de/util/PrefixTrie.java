@@ -0,0 +1,235 @@
+package de.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+import static java.util.Locale.ROOT;
+
+/**
+ * Thread safe compressed prefix trie (radix tree) over the names of elements, which completes
+ * a typed prefix to the elements whose name or one of its words starts with it. Every edge is
+ * labeled with a string instead of a single character and every inner node either ends a key
+ * or branches, so a lookup costs O(prefix length + results), independent of the number of
+ * indexed names. Names are lower cased and whitespace is collapsed like in the
+ * {@link TrigramIndex}.
+ */
+public class PrefixTrie {
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Node root;
+    private final Map<Integer, String> names;
+
+    private static final class Node {
+        private String label;
+        private final TreeMap<Character, Node> children;
+        private final Set<Integer> ids;
+
+        private Node(final String label) {
+            this.label = label;
+            this.children = new TreeMap<>();
+            this.ids = new TreeSet<>();
+        }
+
+        private boolean isEmpty() {
+            return ids.isEmpty() && children.isEmpty();
+        }
+    }
+
+    public PrefixTrie() {
+        this.root = new Node("");
+        this.names = new HashMap<>();
+    }
+
+    /**
+     * Indexes the name of an element, replacing the name indexed earlier for the same id.
+     *
+     * @param id id of the element
+     * @param name current name of the element
+     */
+    public synchronized void put(final int id, final String name) {
+        remove(id);
+        if (name == null) {
+            return;
+        }
+
+        final String key = normalize(name);
+        for (final String suffix : wordSuffixesOf(key)) {
+            insert(root, suffix, 0, id);
+        }
+        names.put(id, key);
+    }
+
+    /**
+     * Removes an element from the trie.
+     *
+     * @param id id of the element
+     */
+    public synchronized void remove(final int id) {
+        final String key = names.remove(id);
+        if (key == null) {
+            return;
+        }
+
+        for (final String suffix : wordSuffixesOf(key)) {
+            delete(root, suffix, 0, id);
+        }
+    }
+
+    /**
+     * Completes a prefix. The elements are ordered by the completed key, so shorter and
+     * alphabetically lower completions come first.
+     *
+     * @param prefix the typed prefix
+     * @param limit maximum number of completions, must be positive
+     * @return ids of the elements whose name or one of its words starts with the prefix
+     */
+    public synchronized List<Integer> complete(final String prefix, final int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive, but was " + limit);
+        }
+
+        final String key = normalize(prefix);
+        final Set<Integer> result = new LinkedHashSet<>();
+        if (key.isEmpty()) {
+            return new ArrayList<>(result);
+        }
+
+        final Node start = find(key);
+        if (start != null) {
+            collect(start, limit, result);
+        }
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * @return number of indexed elements
+     */
+    public synchronized int size() {
+        return names.size();
+    }
+
+    /**
+     * @return the whole key and every part of it starting at a word
+     */
+    private static List<String> wordSuffixesOf(final String key) {
+        final List<String> suffixes = new ArrayList<>();
+        if (key.isEmpty()) {
+            return suffixes;
+        }
+
+        suffixes.add(key);
+        for (int i = key.indexOf(' '); i >= 0; i = key.indexOf(' ', i + 1)) {
+            suffixes.add(key.substring(i + 1));
+        }
+        return suffixes;
+    }
+
+    private static void insert(final Node node, final String key, final int offset, final int id) {
+        if (offset == key.length()) {
+            node.ids.add(id);
+            return;
+        }
+
+        final Node child = node.children.get(key.charAt(offset));
+        if (child == null) {
+            final Node leaf = new Node(key.substring(offset));
+            leaf.ids.add(id);
+            node.children.put(key.charAt(offset), leaf);
+            return;
+        }
+
+        final int common = commonPrefixLength(child.label, key, offset);
+        if (common < child.label.length()) {
+            // split the edge, so the shared part of the label becomes its own node
+            final Node middle = new Node(child.label.substring(0, common));
+            child.label = child.label.substring(common);
+            middle.children.put(child.label.charAt(0), child);
+            node.children.put(middle.label.charAt(0), middle);
+            insert(middle, key, offset + common, id);
+        } else {
+            insert(child, key, offset + common, id);
+        }
+    }
+
+    private static void delete(final Node node, final String key, final int offset, final int id) {
+        if (offset == key.length()) {
+            node.ids.remove(id);
+            return;
+        }
+
+        final Node child = node.children.get(key.charAt(offset));
+        if (child == null || !key.startsWith(child.label, offset)) {
+            return;
+        }
+
+        delete(child, key, offset + child.label.length(), id);
+        if (child.isEmpty()) {
+            node.children.remove(key.charAt(offset));
+        } else if (child.ids.isEmpty() && child.children.size() == 1) {
+            // a node which neither ends a key nor branches is merged with its only child
+            final Node grandchild = child.children.firstEntry().getValue();
+            grandchild.label = child.label + grandchild.label;
+            node.children.put(key.charAt(offset), grandchild);
+        }
+    }
+
+    /**
+     * @return the node whose subtree holds exactly the keys starting with the prefix
+     */
+    private Node find(final String prefix) {
+        Node node = root;
+        int offset = 0;
+        while (offset < prefix.length()) {
+            final Node child = node.children.get(prefix.charAt(offset));
+            if (child == null) {
+                return null;
+            }
+
+            final int common = commonPrefixLength(child.label, prefix, offset);
+            if (offset + common == prefix.length()) {
+                return child;
+            }
+            if (common < child.label.length()) {
+                return null;
+            }
+            node = child;
+            offset += common;
+        }
+        return node;
+    }
+
+    private static boolean collect(final Node node, final int limit, final Set<Integer> result) {
+        for (final int id : node.ids) {
+            result.add(id);
+            if (result.size() == limit) {
+                return true;
+            }
+        }
+        for (final Node child : node.children.values()) {
+            if (collect(child, limit, result)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int commonPrefixLength(final String label, final String key, final int offset) {
+        final int maximum = Math.min(label.length(), key.length() - offset);
+        int length = 0;
+        while (length < maximum && label.charAt(length) == key.charAt(offset + length)) {
+            ++length;
+        }
+        return length;
+    }
+
+    private static String normalize(final String name) {
+        return WHITESPACE.matcher(name.trim()).replaceAll(" ").toLowerCase(ROOT);
+    }
+}
@@ -0,0 +1,30 @@
+package de.util;
+
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Query predicate which can prepare the test of a query once for all tested elements, e.g. by
+ * parsing the query or looking it up in an index, instead of once per element.
+ *
+ * @param <T> type of the tested elements
+ */
+@FunctionalInterface
+public interface QueryPredicate<T> extends BiPredicate<T, String> {
+    /**
+     * @param query the query
+     * @return test of the elements against the query
+     */
+    default Predicate<T> prepare(final String query) {
+        return element -> test(element, query);
+    }
+
+    /**
+     * @param query the query
+     * @return <i>true</i> if an element matching the query matches every prefix of it too, so
+     * a filter may test only the matches of a previous query, which the query extends
+     */
+    default boolean isRefinable(final String query) {
+        return false;
+    }
+}
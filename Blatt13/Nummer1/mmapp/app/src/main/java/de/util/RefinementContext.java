@@ -0,0 +1,61 @@
+package de.util;
+
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Remembers the state computed for the last query of an incremental search, e.g. its matches
+ * or scores. While the user keeps typing, every query extends the previous one, so the next
+ * query can be answered from this state instead of starting from scratch. Deleting a character
+ * breaks the chain and the state is dropped. The query and its state are always replaced
+ * together, so concurrent filter runs see a consistent pair.
+ *
+ * @param <S> type of the state
+ */
+public class RefinementContext<S> {
+    private String query;
+    private S state;
+
+    /**
+     * Returns the state of the last query if the given query extends it.
+     *
+     * @param query the new query
+     * @return the state of the last query, if it is a prefix of the new query, otherwise empty
+     */
+    public synchronized Optional<S> refine(final String query) {
+        if (this.query == null || !extendsQuery(this.query, query)) {
+            return Optional.empty();
+        }
+        return Optional.of(state);
+    }
+
+    /**
+     * Remembers the state of a query, replacing the previous query and its state.
+     *
+     * @param query the processed query
+     * @param state the state computed for the query
+     */
+    public synchronized void remember(final String query, final S state) {
+        this.query = requireNonNull(query);
+        this.state = requireNonNull(state);
+    }
+
+    /**
+     * Drops the remembered state, e.g. because the searched data changed.
+     */
+    public synchronized void reset() {
+        this.query = null;
+        this.state = null;
+    }
+
+    /**
+     * @param previous the previous query
+     * @param query the new query
+     * @return <i>true</i> if the new query is the previous query with zero or more characters
+     * appended
+     */
+    public static boolean extendsQuery(final String previous, final String query) {
+        return query.startsWith(previous);
+    }
+}
@@ -0,0 +1,129 @@
+package de.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.ToIntFunction;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.Optional.ofNullable;
+
+/**
+ * Thread safe cache, which evicts the least recently used entries as soon as the summed
+ * size of all values exceeds the given maximum. The size of a value is determined by the
+ * given size function, e.g. the number of bytes of a decoded image.
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the cached values
+ */
+public class SizeBoundedCache<K, V> {
+    private final LinkedHashMap<K, V> entries;
+    private final ToIntFunction<V> sizeFunction;
+    private final long maxSize;
+    private BiConsumer<K, V> evictionListener;
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    public SizeBoundedCache(final long maxSize, final ToIntFunction<V> sizeFunction) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive, but was " + maxSize);
+        }
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.sizeFunction = requireNonNull(sizeFunction);
+        this.maxSize = maxSize;
+        this.evictionListener = (key, value) -> {
+        };
+    }
+
+    /**
+     * Sets the listener, which receives every entry evicted to make room for new entries.
+     * Entries which are removed or cleared explicitly are not passed to the listener.
+     *
+     * @param evictionListener called with key and value of each evicted entry
+     */
+    public synchronized void setEvictionListener(final BiConsumer<K, V> evictionListener) {
+        this.evictionListener = requireNonNull(evictionListener);
+    }
+
+    public synchronized Optional<V> get(final K key) {
+        final V value = entries.get(key);
+        if (value == null) {
+            ++missCount;
+        } else {
+            ++hitCount;
+        }
+        return ofNullable(value);
+    }
+
+    public synchronized void put(final K key, final V value) {
+        requireNonNull(value);
+        remove(key);
+
+        final int valueSize = sizeFunction.applyAsInt(value);
+        if (valueSize > maxSize) {
+            return;
+        }
+
+        entries.put(key, value);
+        size += valueSize;
+        trimTo(maxSize);
+    }
+
+    private void trimTo(final long targetSize) {
+        final Iterator<Map.Entry<K, V>> iterator = entries.entrySet().iterator();
+        while (size > targetSize && iterator.hasNext()) {
+            final Map.Entry<K, V> eldest = iterator.next();
+            iterator.remove();
+            size -= sizeFunction.applyAsInt(eldest.getValue());
+            ++evictionCount;
+            evictionListener.accept(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    public synchronized Optional<V> remove(final K key) {
+        final V value = entries.remove(key);
+        if (value != null) {
+            size -= sizeFunction.applyAsInt(value);
+        }
+        return ofNullable(value);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        size = 0;
+    }
+
+    public synchronized long size() {
+        return size;
+    }
+
+    public long maxSize() {
+        return maxSize;
+    }
+
+    public synchronized int count() {
+        return entries.size();
+    }
+
+    public synchronized long hitCount() {
+        return hitCount;
+    }
+
+    public synchronized long missCount() {
+        return missCount;
+    }
+
+    public synchronized long evictionCount() {
+        return evictionCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("SizeBoundedCache(size=%d/%d, hits=%d, misses=%d, evictions=%d)",
+                size, maxSize, hitCount, missCount, evictionCount);
+    }
+}
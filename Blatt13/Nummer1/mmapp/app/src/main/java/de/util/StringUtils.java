@@ -8,6 +8,8 @@ import static java.util.stream.Collectors.joining;
 
 public enum  StringUtils {
     ;
+    // rows of the bounded edit distance, reused by every comparison of the same thread
+    private static final ThreadLocal<int[][]> DISTANCE_ROWS = ThreadLocal.withInitial(() -> new int[2][0]);
 
     /**
      * @param leftString first string of comparison
@@ -29,6 +31,159 @@ public enum  StringUtils {
 
     }
 
+    /**
+     * Like {@link #normedMinimumEditDistance(String, String)}, but stops the comparison as soon
+     * as the similarity can't be greater than the given minimum anymore.
+     *
+     * @param leftString first string of comparison
+     * @param rightString second string of comparison
+     * @param minimum similarity which has to be exceeded
+     * @return the same value as {@link #normedMinimumEditDistance(String, String)} if it is
+     * greater than the minimum, otherwise a value not greater than the minimum
+     */
+    public static double normedMinimumEditDistance(String leftString, String rightString, double minimum) {
+        int longerLength = Math.max(leftString.length(), rightString.length());
+        if (longerLength == 0)
+            return 1.0;
+
+        // (longerLength - distance) / longerLength > minimum <=> distance < longerLength * (1 - minimum)
+        int maxDistance = (int) Math.min(longerLength, Math.ceil(longerLength * (1.0 - minimum)));
+        int distance = boundedEditDistance(leftString, rightString, Math.max(0, maxDistance));
+        if (distance > maxDistance)
+            return Math.min(minimum, 0.0);
+        return (longerLength - distance) / (double) longerLength;
+    }
+
+    /**
+     * Like {@link #normedMinimumEditDistance(String, String, double)}, but for strings which are
+     * already in lower case, e.g. a query and a cached lower case name. Neither string is
+     * converted again, so comparing one query with many names doesn't copy every name.
+     *
+     * @param lowerLeft first string of comparison, in lower case
+     * @param lowerRight second string of comparison, in lower case
+     * @param minimum similarity which has to be exceeded
+     * @return the same value as {@link #normedMinimumEditDistance(String, String, double)}
+     */
+    public static double normedMinimumEditDistanceOfLowerCase(String lowerLeft, String lowerRight, double minimum) {
+        int longerLength = Math.max(lowerLeft.length(), lowerRight.length());
+        if (longerLength == 0)
+            return 1.0;
+
+        int maxDistance = (int) Math.min(longerLength, Math.ceil(longerLength * (1.0 - minimum)));
+        int distance = boundedDistance(lowerLeft, lowerRight, Math.max(0, maxDistance));
+        if (distance > maxDistance)
+            return Math.min(minimum, 0.0);
+        return (longerLength - distance) / (double) longerLength;
+    }
+
+    /**
+     * Bounds the edit distance between a query and every string whose
+     * {@link #normedMinimumEditDistance(String, String) similarity} to the query is greater than
+     * the minimum. The similarity is normed by the longer string, so a longer string allows more
+     * edits, but it is only similar enough while it is shorter than queryLength / minimum.
+     *
+     * @param queryLength length of the query
+     * @param minimum similarity which has to be exceeded
+     * @return maximum edit distance of a similar string, {@link Integer#MAX_VALUE} if the
+     * minimum isn't positive
+     */
+    public static int maxEditDistance(int queryLength, double minimum) {
+        if (minimum <= 0.0)
+            return Integer.MAX_VALUE;
+
+        int maxDistance = 0;
+        for (int length = queryLength; length * minimum < queryLength; ++length) {
+            // (length - distance) / length > minimum <=> distance < length * (1 - minimum)
+            maxDistance = Math.max(maxDistance, (int) Math.ceil(length * (1.0 - minimum)) - 1);
+        }
+        return maxDistance;
+    }
+
+    /**
+     * Inverts {@link #maxEditDistance(int, double)}: a string whose similarity to the query is
+     * greater than the returned minimum is within the given edit distance of the query. The most
+     * similar string beyond the distance is the query with maxDistance + 1 inserted characters.
+     *
+     * @param queryLength length of the query
+     * @param maxDistance maximum edit distance of a similar string, must not be negative
+     * @return similarity which has to be exceeded
+     */
+    public static double minimumForEditDistance(int queryLength, int maxDistance) {
+        return queryLength / (double) (queryLength + maxDistance + 1);
+    }
+
+    /**
+     * Levenshtein Edit Distance which only computes the diagonal band of the given width and
+     * stops as soon as every cell of a row exceeds the maximum distance.
+     * Costs O(max(n, m) * maxDistance) instead of O(n * m).
+     *
+     * @param s1 first string of comparison
+     * @param s2 second string of comparison
+     * @param maxDistance maximum distance of interest, must not be negative
+     * @return the same value as {@link #editDistance(String, String)} if it is not greater than
+     * the maximum distance, otherwise maxDistance + 1
+     */
+    public static int boundedEditDistance(String s1, String s2, int maxDistance) {
+        if (maxDistance < 0)
+            throw new IllegalArgumentException("Maximum distance must not be negative, but was " + maxDistance);
+
+        return boundedDistance(s1.toLowerCase(), s2.toLowerCase(), maxDistance);
+    }
+
+    private static int boundedDistance(String s1, String s2, final int maxDistance) {
+        if (s1.length() < s2.length()) {
+            final String tmp = s1;
+            s1 = s2;
+            s2 = tmp;
+        }
+
+        final int outside = maxDistance + 1;
+        final int n = s1.length();
+        final int m = s2.length();
+        if (n - m > maxDistance)
+            return outside;
+
+        final int[][] rows = distanceRows(m + 1);
+        int[] previous = rows[0];
+        int[] current = rows[1];
+        for (int j = 0; j <= m; j++)
+            previous[j] = Math.min(j, outside);
+
+        for (int i = 1; i <= n; i++) {
+            final int from = Math.max(1, i - maxDistance);
+            final int to = Math.min(m, i + maxDistance);
+            final char c = s1.charAt(i - 1);
+
+            current[0] = Math.min(i, outside);
+            current[from - 1] = from == 1 ? current[0] : outside;
+            int rowMinimum = current[from - 1];
+            for (int j = from; j <= to; j++) {
+                final int substitution = previous[j - 1] + (c == s2.charAt(j - 1) ? 0 : 1);
+                final int value = Math.min(Math.min(current[j - 1], previous[j]) + 1, substitution);
+                current[j] = Math.min(value, outside);
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+            if (to < m)
+                current[to + 1] = outside;
+            if (rowMinimum > maxDistance)
+                return outside;
+
+            final int[] tmp = previous;
+            previous = current;
+            current = tmp;
+        }
+        return previous[m];
+    }
+
+    private static int[][] distanceRows(final int length) {
+        final int[][] rows = DISTANCE_ROWS.get();
+        if (rows[0].length < length) {
+            rows[0] = new int[length];
+            rows[1] = new int[length];
+        }
+        return rows;
+    }
+
     /**
      * Example implementation of the Levenshtein Edit Distance
      * See http://rosettacode.org/wiki/Levenshtein_distance#Java
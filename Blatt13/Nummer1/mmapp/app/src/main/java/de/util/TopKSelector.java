@@ -0,0 +1,181 @@
+package de.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Selects the k elements with the highest scores from a stream of scored elements, using a
+ * bounded min-heap over primitive scores. Offering an element costs O(log k) and no sorting
+ * of the whole stream is required. Of elements with equal scores the later offered element
+ * ranks higher, which matches a stable ascending sort followed by a reversal.
+ *
+ * @param <T> type of the elements
+ */
+public class TopKSelector<T> {
+    private final int capacity;
+    private final double[] scores;
+    private final long[] sequence;
+    private final Object[] elements;
+    private int size;
+    private long offered;
+
+    /**
+     * @param capacity number of elements to select, must be positive
+     */
+    public TopKSelector(final int capacity) {
+        this(capacity, 0);
+    }
+
+    /**
+     * Creates a selector for a part of a stream, e.g. a chunk of a list, which can be
+     * {@link #merge(TopKSelector) merged} with the selectors of the other parts.
+     *
+     * @param capacity number of elements to select, must be positive
+     * @param firstPosition position of the first offered element in the whole stream
+     */
+    public TopKSelector(final int capacity, final long firstPosition) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive, but was " + capacity);
+        }
+        this.capacity = capacity;
+        this.scores = new double[capacity];
+        this.sequence = new long[capacity];
+        this.elements = new Object[capacity];
+        this.offered = firstPosition;
+    }
+
+    /**
+     * Offers an element, which is kept if it ranks among the k best elements offered so far.
+     *
+     * @param element the scored element
+     * @param score score of the element, higher is better
+     */
+    public void offer(final T element, final double score) {
+        insert(element, score, offered++);
+    }
+
+    /**
+     * Adds the selected elements of another selector, keeping their positions in the stream.
+     * Afterwards this selector holds the k best elements of both.
+     *
+     * @param other selector of another part of the same stream
+     */
+    @SuppressWarnings("unchecked")
+    public void merge(final TopKSelector<T> other) {
+        for (int i = 0; i < other.size; ++i) {
+            insert((T) other.elements[i], other.scores[i], other.sequence[i]);
+        }
+    }
+
+    private void insert(final T element, final double score, final long position) {
+        if (size < capacity) {
+            set(size, element, score, position);
+            siftUp(size++);
+        } else if (ranksAboveLowest(score, position)) {
+            set(0, element, score, position);
+            siftDown(0);
+        }
+    }
+
+    private boolean ranksAboveLowest(final double score, final long position) {
+        final int byScore = Double.compare(score, scores[0]);
+        return byScore != 0 ? byScore > 0 : position > sequence[0];
+    }
+
+    /**
+     * @return <i>true</i> if k elements are selected, so further elements have to beat
+     * {@link #lowestScore()}
+     */
+    public boolean isFull() {
+        return size == capacity;
+    }
+
+    /**
+     * @return the lowest score of the selected elements
+     * @throws IllegalStateException if no element was offered
+     */
+    public double lowestScore() {
+        if (size == 0) {
+            throw new IllegalStateException("No element was offered");
+        }
+        return scores[0];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the selected elements, the best element first
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> toList() {
+        final Integer[] order = new Integer[size];
+        for (int i = 0; i < size; ++i) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> -compare(a, b));
+
+        final List<T> result = new ArrayList<>(size);
+        for (final int i : order) {
+            result.add((T) elements[i]);
+        }
+        return result;
+    }
+
+    private void set(final int i, final T element, final double score, final long position) {
+        elements[i] = element;
+        scores[i] = score;
+        sequence[i] = position;
+    }
+
+    private int compare(final int a, final int b) {
+        final int byScore = Double.compare(scores[a], scores[b]);
+        return byScore != 0 ? byScore : Long.compare(sequence[a], sequence[b]);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            final int parent = (i - 1) / 2;
+            if (compare(i, parent) >= 0) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            final int left = 2 * i + 1;
+            final int right = left + 1;
+            int smallest = i;
+            if (left < size && compare(left, smallest) < 0) {
+                smallest = left;
+            }
+            if (right < size && compare(right, smallest) < 0) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(final int a, final int b) {
+        final double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+
+        final long position = sequence[a];
+        sequence[a] = sequence[b];
+        sequence[b] = position;
+
+        final Object element = elements[a];
+        elements[a] = elements[b];
+        elements[b] = element;
+    }
+}
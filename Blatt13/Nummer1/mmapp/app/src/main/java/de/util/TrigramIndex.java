@@ -0,0 +1,176 @@
+package de.util;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static java.util.Collections.emptySet;
+import static java.util.Locale.ROOT;
+
+/**
+ * Thread safe inverted index from the trigrams of names to the ids of the named elements.
+ * It finds the candidates for a substring search, every name which shares at least one
+ * trigram with the query, and for a fuzzy name search, every name which shares enough
+ * trigrams to be within an edit distance of the query. Names are lower cased, whitespace is
+ * collapsed and the name is padded with a space at both ends, so the beginning and the end of
+ * a name form trigrams too. The candidates only contain every match if the query is selective
+ * for the search, see {@link #isSelective(String)} and {@link #isSelective(String, int)}.
+ * The cost of a lookup depends on the number of elements sharing trigrams with the query,
+ * not on the number of indexed elements.
+ */
+public class TrigramIndex {
+    public static final int GRAM_LENGTH = 3;
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Map<String, Set<Integer>> postings;
+    private final Map<Integer, Set<String>> indexedGrams;
+
+    public TrigramIndex() {
+        this.postings = new HashMap<>();
+        this.indexedGrams = new HashMap<>();
+    }
+
+    /**
+     * Indexes the name of an element, replacing the name indexed earlier for the same id.
+     *
+     * @param id id of the element
+     * @param name current name of the element
+     */
+    public synchronized void put(final int id, final String name) {
+        remove(id);
+        final Set<String> grams = trigramsOf(name);
+        for (final String gram : grams) {
+            postings.computeIfAbsent(gram, g -> new HashSet<>()).add(id);
+        }
+        indexedGrams.put(id, grams);
+    }
+
+    /**
+     * Removes an element from the index.
+     *
+     * @param id id of the element
+     */
+    public synchronized void remove(final int id) {
+        final Set<String> grams = indexedGrams.remove(id);
+        if (grams == null) {
+            return;
+        }
+
+        for (final String gram : grams) {
+            final Set<Integer> ids = postings.get(gram);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    /**
+     * Returns the ids of all elements whose name shares at least one trigram with the query.
+     *
+     * @param query the search query
+     * @return ids of the candidates, empty if the query has no trigram in common with any name
+     */
+    public synchronized Set<Integer> candidates(final String query) {
+        final Set<Integer> result = new HashSet<>();
+        for (final String gram : trigramsOf(query)) {
+            result.addAll(postings.getOrDefault(gram, emptySet()));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the ids of all elements whose name shares at least
+     * {@link #minSharedTrigrams(String, int) enough} trigrams with the query to be within the
+     * given edit distance of it. Every name within the distance is a candidate, if the query is
+     * {@link #isSelective(String, int) selective} for the distance.
+     *
+     * @param query the search query
+     * @param maxEditDistance maximum edit distance of a match
+     * @return ids of the candidates
+     */
+    public synchronized Set<Integer> candidates(final String query, final int maxEditDistance) {
+        final long minShared = Math.max(1, minSharedTrigrams(query, maxEditDistance));
+        final Map<Integer, Integer> sharedTrigrams = new HashMap<>();
+        for (final String gram : trigramsOf(query)) {
+            for (final Integer id : postings.getOrDefault(gram, emptySet())) {
+                sharedTrigrams.merge(id, 1, Integer::sum);
+            }
+        }
+
+        final Set<Integer> result = new HashSet<>();
+        sharedTrigrams.forEach((id, shared) -> {
+            if (shared >= minShared) {
+                result.add(id);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Checks if the candidates contain every name which contains the query. Such a name
+     * contains every trigram inside of the query, so the query needs at least one.
+     *
+     * @param query the search query
+     * @return <i>true</i> if the query has at least {@value #GRAM_LENGTH} characters
+     */
+    public static boolean isSelective(final String query) {
+        return normalize(query).length() >= GRAM_LENGTH;
+    }
+
+    /**
+     * Checks if the candidates contain every name within the given edit distance of the query.
+     * This needs a positive {@link #minSharedTrigrams(String, int) bound} of the shared
+     * trigrams, otherwise the query has to be compared against all names.
+     *
+     * @param query the search query
+     * @param maxEditDistance maximum edit distance of a match
+     * @return <i>true</i> if every match shares at least one trigram with the query
+     */
+    public static boolean isSelective(final String query, final int maxEditDistance) {
+        return minSharedTrigrams(query, maxEditDistance) >= 1;
+    }
+
+    /**
+     * Every edit changes at most {@value #GRAM_LENGTH} trigrams of the padded query, so a name
+     * within the given edit distance shares at least the number of distinct trigrams of the
+     * query minus {@value #GRAM_LENGTH} per edit with it (q-gram lemma).
+     *
+     * @param query the search query
+     * @param maxEditDistance maximum edit distance of a match
+     * @return number of trigrams every match shares with the query, not positive if a match
+     * may share none
+     */
+    static long minSharedTrigrams(final String query, final int maxEditDistance) {
+        return trigramsOf(query).size() - (long) GRAM_LENGTH * maxEditDistance;
+    }
+
+    static Set<String> trigramsOf(final String name) {
+        final String padded = " " + normalize(name) + " ";
+        final Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= padded.length(); ++i) {
+            grams.add(padded.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static String normalize(final String name) {
+        return WHITESPACE.matcher(name.trim()).replaceAll(" ").toLowerCase(ROOT);
+    }
+
+    /**
+     * @return number of indexed elements
+     */
+    public synchronized int size() {
+        return indexedGrams.size();
+    }
+
+    public synchronized void clear() {
+        postings.clear();
+        indexedGrams.clear();
+    }
+}
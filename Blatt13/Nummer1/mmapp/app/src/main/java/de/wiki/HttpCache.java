@@ -0,0 +1,317 @@
+package de.wiki;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Comparator.comparingLong;
+import static java.util.Locale.US;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Persistent cache for responses of a {@link Wikipedia}, keyed by their url.
+ * Every response is stored in its own file in the cache directory. An entry is fresh for the
+ * configured time to live, afterwards it can be revalidated with its <i>ETag</i> or
+ * <i>Last-Modified</i> value. As soon as the summed size of all entries exceeds the
+ * maximum size, the least recently used entries are deleted.
+ */
+public class HttpCache {
+    private static final String SUFFIX = ".entry";
+    private static final String KEY_URL = "url";
+    private static final String KEY_ETAG = "etag";
+    private static final String KEY_LAST_MODIFIED = "lastModified";
+    private static final String KEY_STORED_AT = "storedAt";
+
+    private final File directory;
+    private final long maxBytes;
+    private final long timeToLive;
+    private final LongSupplier clock;
+    private final LinkedHashMap<String, Long> entrySizes;
+    private long size;
+
+    /**
+     * Entry of the cache.
+     */
+    public static final class Entry {
+        private final String url;
+        private final String body;
+        private final String eTag;
+        private final String lastModified;
+        private final long storedAt;
+
+        Entry(String url, String body, String eTag, String lastModified, long storedAt) {
+            this.url = url;
+            this.body = body;
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+            this.storedAt = storedAt;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public String getBody() {
+            return body;
+        }
+
+        /**
+         * @return value of the <i>ETag</i> header or <i>null</i> if the server sent none
+         */
+        public String getETag() {
+            return eTag;
+        }
+
+        /**
+         * @return value of the <i>Last-Modified</i> header or <i>null</i> if the server sent none
+         */
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        public long getStoredAt() {
+            return storedAt;
+        }
+    }
+
+    /**
+     * Creates a cache in the given directory. Entries written by an earlier instance in the
+     * same directory are reused.
+     *
+     * @param directory directory of the cache files, created if missing
+     * @param maxBytes maximum summed size of all entries in bytes
+     * @param timeToLive time to live of an entry
+     * @param unit unit of the time to live
+     */
+    public HttpCache(File directory, long maxBytes, long timeToLive, TimeUnit unit) {
+        this(directory, maxBytes, unit.toMillis(timeToLive), System::currentTimeMillis);
+    }
+
+    HttpCache(File directory, long maxBytes, long timeToLiveMillis, LongSupplier clock) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive, but was " + maxBytes);
+        }
+        this.directory = requireNonNull(directory);
+        this.maxBytes = maxBytes;
+        this.timeToLive = timeToLiveMillis;
+        this.clock = requireNonNull(clock);
+        this.entrySizes = new LinkedHashMap<>(16, 0.75f, true);
+        loadEntries();
+    }
+
+    private void loadEntries() {
+        final File[] files = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+        if (files == null) {
+            return;
+        }
+
+        Arrays.sort(files, comparingLong(File::lastModified));
+        for (final File file : files) {
+            final String key = file.getName().substring(0, file.getName().length() - SUFFIX.length());
+            entrySizes.put(key, file.length());
+            size += file.length();
+        }
+        trim();
+    }
+
+    /**
+     * Returns the entry of the url regardless of its age.
+     *
+     * @param url url of the cached response
+     * @return the stored entry or an empty Optional if none is stored or it can't be read
+     */
+    public synchronized Optional<Entry> get(String url) {
+        final String key = keyOf(url);
+        if (entrySizes.get(key) == null) {
+            return Optional.empty();
+        }
+
+        final File file = fileOf(key);
+        try (FileInputStream input = new FileInputStream(file);
+             InputStreamReader reader = new InputStreamReader(input, UTF_8);
+             BufferedReader bReader = new BufferedReader(reader)) {
+            final JsonObject meta = JsonParser.parseString(bReader.readLine()).getAsJsonObject();
+            final String body = readRemaining(bReader);
+            if (!url.equals(meta.get(KEY_URL).getAsString())) {
+                return Optional.empty();
+            }
+            file.setLastModified(clock.getAsLong());
+            return Optional.of(new Entry(url,
+                    body,
+                    optString(meta, KEY_ETAG),
+                    optString(meta, KEY_LAST_MODIFIED),
+                    meta.get(KEY_STORED_AT).getAsLong())
+            );
+        } catch (IOException | RuntimeException e) {
+            remove(key);
+            return Optional.empty();
+        }
+    }
+
+    private static String readRemaining(BufferedReader reader) throws IOException {
+        final StringBuilder builder = new StringBuilder();
+        final char[] buffer = new char[8192];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            builder.append(buffer, 0, read);
+        }
+        return builder.toString();
+    }
+
+    private static String optString(JsonObject meta, String key) {
+        return meta.has(key) && !meta.get(key).isJsonNull() ? meta.get(key).getAsString() : null;
+    }
+
+    /**
+     * Checks if the entry is younger than the time to live of this cache.
+     *
+     * @param entry entry of this cache
+     * @return <i>true</i> if the entry can be used without revalidation
+     */
+    public boolean isFresh(Entry entry) {
+        return clock.getAsLong() - entry.getStoredAt() < timeToLive;
+    }
+
+    /**
+     * Stores the body of the url, replacing an older entry.
+     *
+     * @param url url of the response
+     * @param body body of the response
+     * @param eTag value of the <i>ETag</i> header, may be <i>null</i>
+     * @param lastModified value of the <i>Last-Modified</i> header, may be <i>null</i>
+     * @return the stored entry
+     */
+    public synchronized Entry put(String url, String body, String eTag, String lastModified) {
+        final Entry entry = new Entry(url, body, eTag, lastModified, clock.getAsLong());
+        write(entry);
+        return entry;
+    }
+
+    /**
+     * Marks the entry as fresh again, e.g. after the server answered a revalidation with
+     * <i>304 Not Modified</i>.
+     *
+     * @param entry the revalidated entry
+     * @return the refreshed entry
+     */
+    public synchronized Entry refresh(Entry entry) {
+        return put(entry.getUrl(), entry.getBody(), entry.getETag(), entry.getLastModified());
+    }
+
+    private void write(Entry entry) {
+        final String key = keyOf(entry.getUrl());
+        final JsonObject meta = new JsonObject();
+        meta.addProperty(KEY_URL, entry.getUrl());
+        meta.addProperty(KEY_ETAG, entry.getETag());
+        meta.addProperty(KEY_LAST_MODIFIED, entry.getLastModified());
+        meta.addProperty(KEY_STORED_AT, entry.getStoredAt());
+
+        final File file = fileOf(key);
+        final File temporary = new File(file.getPath() + ".tmp");
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("Couldn't create " + directory);
+            }
+            try (FileOutputStream output = new FileOutputStream(temporary);
+                 Writer writer = new OutputStreamWriter(output, UTF_8)) {
+                writer.write(meta.toString());
+                writer.write('\n');
+                writer.write(entry.getBody());
+            }
+            remove(key);
+            if (!temporary.renameTo(file)) {
+                throw new IOException("Renaming " + temporary + " failed");
+            }
+        } catch (IOException e) {
+            // a failing cache must not break the request, the entry is just not cached
+            temporary.delete();
+            return;
+        }
+
+        entrySizes.put(key, file.length());
+        size += file.length();
+        trim();
+    }
+
+    private void trim() {
+        final Iterator<Map.Entry<String, Long>> iterator = entrySizes.entrySet().iterator();
+        while (size > maxBytes && iterator.hasNext()) {
+            final Map.Entry<String, Long> eldest = iterator.next();
+            iterator.remove();
+            size -= eldest.getValue();
+            fileOf(eldest.getKey()).delete();
+        }
+    }
+
+    private void remove(String key) {
+        final Long removed = entrySizes.remove(key);
+        if (removed != null) {
+            size -= removed;
+        }
+        fileOf(key).delete();
+    }
+
+    /**
+     * Deletes all entries of this cache.
+     */
+    public synchronized void clear() {
+        for (final String key : entrySizes.keySet()) {
+            fileOf(key).delete();
+        }
+        entrySizes.clear();
+        size = 0;
+    }
+
+    /**
+     * @return summed size of all entries in bytes
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+    /**
+     * @return number of entries
+     */
+    public synchronized int count() {
+        return entrySizes.size();
+    }
+
+    private File fileOf(String key) {
+        return new File(directory, key + SUFFIX);
+    }
+
+    private static String keyOf(String url) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-1").digest(url.getBytes(UTF_8));
+            return format(US, "%040x", new BigInteger(1, digest));
+        } catch (NoSuchAlgorithmException e) {
+            throw new WikiException(e);
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return format(US, "HttpCache{directory=\"%s\", size=%d/%d, entries=%d}",
+                directory, size, maxBytes, entrySizes.size());
+    }
+}
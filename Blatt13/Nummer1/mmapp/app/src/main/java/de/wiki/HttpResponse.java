@@ -0,0 +1,63 @@
+package de.wiki;
+
+import static java.net.HttpURLConnection.HTTP_NOT_MODIFIED;
+import static java.net.HttpURLConnection.HTTP_OK;
+
+/**
+ * Response of a request made by a {@link Wikipedia}, containing the body and the headers
+ * required for revalidating a cached copy.
+ */
+public class HttpResponse {
+    private final int status;
+    private final String body;
+    private final String eTag;
+    private final String lastModified;
+
+    public HttpResponse(int status, String body, String eTag, String lastModified) {
+        this.status = status;
+        this.body = body;
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Creates a successful response.
+     *
+     * @param body body of the response
+     * @param eTag value of the <i>ETag</i> header, may be <i>null</i>
+     * @param lastModified value of the <i>Last-Modified</i> header, may be <i>null</i>
+     * @return response with status 200
+     */
+    public static HttpResponse ok(String body, String eTag, String lastModified) {
+        return new HttpResponse(HTTP_OK, body, eTag, lastModified);
+    }
+
+    /**
+     * Creates the response to a revalidation of an unchanged resource.
+     *
+     * @return response with status 304 and without body
+     */
+    public static HttpResponse notModified() {
+        return new HttpResponse(HTTP_NOT_MODIFIED, null, null, null);
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public boolean isNotModified() {
+        return status == HTTP_NOT_MODIFIED;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+}
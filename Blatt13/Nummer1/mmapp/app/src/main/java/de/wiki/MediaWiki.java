@@ -5,24 +5,36 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 
+import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.ToDoubleFunction;
 
+import de.util.Pair;
 import de.wiki.data.Actor;
 import de.wiki.data.Film;
 import de.wiki.loader.ActorLoader;
 import de.wiki.loader.FilmLoader;
+import de.wiki.query.LeadSectionQuery;
+import de.wiki.query.TitleBatchQuery;
 
 import static de.util.StringUtils.normedMinimumEditDistance;
+import static de.wiki.WikiScheduler.Priority.BACKGROUND;
 import static de.wiki.query.NameBasedQuery.createQueryURL;
+import static de.wiki.query.TitleBatchQuery.assignPages;
+import static de.wiki.query.TitleBatchQuery.createContinuationURL;
+import static de.wiki.query.TitleBatchQuery.mergeContinuedResult;
+import static de.wiki.query.TitleBatchQuery.partition;
 import static java.util.Comparator.comparing;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
@@ -57,8 +69,16 @@ public final class MediaWiki {
 
     private static final FilmLoader FILM_LOADER = FilmLoader.getInstance();
     private static final ActorLoader ACTOR_LOADER = ActorLoader.getInstance();
+    private static final int MAX_CONTINUATIONS = 20;
+    private static final WikiPrefetcher<Film> FILM_PREFETCHER = new WikiPrefetcher<>(
+            page -> getDataFromWikiPage(page, FILM_LOADER::loadDataFromWikiHTML),
+            WikiScheduler.getDefault());
+    private static final WikiPrefetcher<Actor> ACTOR_PREFETCHER = new WikiPrefetcher<>(
+            page -> getDataFromWikiPage(page, ACTOR_LOADER::loadDataFromWikiHTML),
+            WikiScheduler.getDefault());
 
     private static Wikipedia wikipedia;
+    private static boolean leadSectionParsing = true;
 
     static {
         resetToEnglishWikipedia();
@@ -95,6 +115,18 @@ public final class MediaWiki {
         wikipedia = requireNonNull(wiki);
     }
 
+    /**
+     * Enables or disables loading only the lead section of a page. The lead section contains
+     * the infobox and the introduction, so it is sufficient for the data retrieval in most
+     * cases. If a page can't be loaded from its lead section, the complete page is loaded.
+     * Enabled by default.
+     *
+     * @param enabled <i>true</i> to load the lead section first
+     */
+    public static void setLeadSectionParsing(boolean enabled) {
+        leadSectionParsing = enabled;
+    }
+
     /**
      * Returns a list of possible actor Wiki pages matching the given name, sorted by similarity
      * where the first element has the greatest similarity to the given name.
@@ -109,6 +141,17 @@ public final class MediaWiki {
      *         Otherwise List contains {@link JsonObject}s of the meta data of the matching pages.
      */
     public static Optional<List<JsonObject>> getActorWikiPagesByName(String name) {
+        return searchActorWikiPages(name).map(PageSearchResult::getPages);
+    }
+
+    /**
+     * Same as {@link MediaWiki#getActorWikiPagesByName(String)}, but the result also tells if
+     * the search found all matching pages or was cut off at the result limit.
+     *
+     * @param name partial or complete name of the desired actor
+     * @return Optional is empty if an error occurred, otherwise the found actor pages
+     */
+    public static Optional<PageSearchResult> searchActorWikiPages(String name) {
         Optional<String> opt = retrieveJsonByName(name);
         return opt.map(json -> collectPages(name, json, MediaWiki::isActor));
     }
@@ -127,10 +170,72 @@ public final class MediaWiki {
      *         Otherwise List contains {@link JsonObject}s of the meta data of the matching pages.
      */
     public static Optional<List<JsonObject>> getFilmWikiPagesByName(String name) {
+        return searchFilmWikiPages(name).map(PageSearchResult::getPages);
+    }
+
+    /**
+     * Same as {@link MediaWiki#getFilmWikiPagesByName(String)}, but the result also tells if
+     * the search found all matching pages or was cut off at the result limit.
+     *
+     * @param name partial or complete name of the desired film
+     * @return Optional is empty if an error occurred, otherwise the found film pages
+     */
+    public static Optional<PageSearchResult> searchFilmWikiPages(String name) {
         Optional<String> opt = retrieveJsonByName(name);
         return opt.map(json -> collectPages(name, json, MediaWiki::isFilm));
     }
 
+    /**
+     * Looks up the actor Wiki pages of many complete names with as few requests as possible.
+     * The names are sent in batches of up to {@value TitleBatchQuery#MAX_TITLES_PER_QUERY},
+     * redirects like 'Johnny Christopher Depp' are followed. If an error occurred during
+     * data retrieval the Optional is empty. Names without an actor page are not contained
+     * in the map.
+     *
+     * @param names complete names of the desired actors, e.g. the cast of a film
+     * @return Optional is empty if an error occurred.<br>
+     *         Otherwise map from each found name to the {@link JsonObject} of the page meta data.
+     */
+    public static Optional<Map<String, JsonObject>> getActorWikiPagesByTitles(Collection<String> names) {
+        return collectPagesByTitles(names, MediaWiki::isActor);
+    }
+
+    private static Optional<Map<String, JsonObject>> collectPagesByTitles(Collection<String> titles,
+                                                                          Predicate<JsonObject> criterion) {
+        final Map<String, JsonObject> collected = new LinkedHashMap<>();
+        for (final List<String> batch : partition(wikipedia.getName(), titles)) {
+            final String url = TitleBatchQuery.createQueryURL(wikipedia.getName(), batch);
+            final Optional<JsonObject> result = retrieveCompleteResult(url);
+            if (!result.isPresent()) {
+                return Optional.empty();
+            }
+            assignPages(batch, result.get()).forEach((title, page) -> {
+                if (criterion.test(page)) {
+                    collected.put(title, page);
+                }
+            });
+        }
+        return Optional.of(collected);
+    }
+
+    private static Optional<JsonObject> retrieveCompleteResult(String url) {
+        try {
+            final JsonObject result = JsonParser.parseString(wikipedia.getTextFile(url)).getAsJsonObject();
+            JsonObject last = result;
+            for (int i = 0; i < MAX_CONTINUATIONS; ++i) {
+                final String next = createContinuationURL(url, last);
+                if (next == null) {
+                    break;
+                }
+                last = JsonParser.parseString(wikipedia.getTextFile(next)).getAsJsonObject();
+                mergeContinuedResult(result, last);
+            }
+            return Optional.of(result);
+        } catch (IOException | RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
     private static Optional<String> retrieveJsonByName(String name) {
         String url = createQueryURL(wikipedia.getName(), name);
         return retrieveJsonFromURL(url);
@@ -175,23 +280,30 @@ public final class MediaWiki {
         return isPageOfCategory(page, filmCriterion);
     }
 
-    private static List<JsonObject> collectPages(String name,
+    private static PageSearchResult collectPages(String name,
                                                  String jsonString,
                                                  Predicate<JsonObject> criterion) {
         try {
             final JsonObject result = JsonParser.parseString(jsonString).getAsJsonObject();
             final JsonObject query = result.getAsJsonObject("query");
+            // the search generator announces further matches with a continue object
+            final boolean complete = !result.has("continue");
+            if (query == null) {
+                // a search without any match has no query object
+                return new PageSearchResult(new ArrayList<>(), complete);
+            }
             final JsonObject pages = query.getAsJsonObject("pages");
 
             final ToDoubleFunction<JsonObject> keyExtractor = p -> comparePageToName(p, name);
 
-            return stream(pages.keySet().spliterator(), false)
+            final List<JsonObject> collected = stream(pages.keySet().spliterator(), false)
                     .map(pages::getAsJsonObject)
                     .filter(criterion)
                     .sorted(comparing(keyExtractor::applyAsDouble))
                     .collect(toList());
+            return new PageSearchResult(collected, complete);
         } catch (Exception e) {
-            return new ArrayList<>();
+            return new PageSearchResult(new ArrayList<>(), false);
         }
     }
 
@@ -205,28 +317,88 @@ public final class MediaWiki {
      * Loads the html document from the given meta data of the page and extracts the film data
      * from this document. If something fails during data retrieval or parsing an empty Optional
      * will be returned, otherwise the optional contains the film data.
+     * If the page was prefetched by {@link MediaWiki#prefetchFilmData(List)}, the prefetched
+     * data is used.
      *
      * @param page metadata of the film page
      * @return returns Optional of the film data, empty if something went wrong
      */
     public static Optional<Film> getFilmDataFromWikiPage(JsonObject page) {
-        return getDataFromWikiPage(page, FILM_LOADER::loadDataFromWikiHTML);
+        return FILM_PREFETCHER.load(page);
     }
 
     /**
      * Loads the html document from the given meta data of the page and extracts the actor data
      * from this document. If something fails during data retrieval or parsing an empty Optional
      * will be returned, otherwise the optional contains the actor data.
+     * If the page was prefetched by {@link MediaWiki#prefetchActorData(List)}, the prefetched
+     * data is used.
      *
      * @param page metadata of the actor page
      * @return returns Optional of the actor data, empty if something went wrong
      */
     public static Optional<Actor> getActorDataFromWikiPage(JsonObject page) {
-        return getDataFromWikiPage(page, ACTOR_LOADER::loadDataFromWikiHTML);
+        return ACTOR_PREFETCHER.load(page);
+    }
+
+    /**
+     * Starts loading the film data of the best matching pages in the background, so a following
+     * {@link MediaWiki#getFilmDataFromWikiPage(JsonObject)} doesn't have to wait for the network.
+     * The session should be cancelled as soon as the prefetched pages are not needed anymore.
+     *
+     * @param pages ranked metadata of film pages as returned by
+     *              {@link MediaWiki#getFilmWikiPagesByName(String)}
+     * @return session of the started prefetches
+     */
+    public static WikiPrefetcher<Film>.Session prefetchFilmData(List<JsonObject> pages) {
+        return FILM_PREFETCHER.prefetch(pages);
+    }
+
+    /**
+     * Starts loading the actor data of the best matching pages in the background, so a following
+     * {@link MediaWiki#getActorDataFromWikiPage(JsonObject)} doesn't have to wait for the network.
+     * The session should be cancelled as soon as the prefetched pages are not needed anymore.
+     *
+     * @param pages ranked metadata of actor pages as returned by
+     *              {@link MediaWiki#getActorWikiPagesByName(String)}
+     * @return session of the started prefetches
+     */
+    public static WikiPrefetcher<Actor>.Session prefetchActorData(List<JsonObject> pages) {
+        return ACTOR_PREFETCHER.prefetch(pages);
+    }
+
+    /**
+     * Starts loading the actor data of the leading cast of a film in the background, so
+     * syncing one of its performers afterwards doesn't have to wait for the network.
+     * The linked pages of the whole cast are resolved by
+     * {@link MediaWiki#getActorWikiPagesByTitles(Collection)} in one request per batch,
+     * instead of one search per name.
+     *
+     * @param film film whose cast is prefetched
+     */
+    public static void prefetchCastData(Film film) {
+        final List<String> titles = film.getStarring()
+                .stream()
+                .map(Pair::getFirst)
+                .map(TitleBatchQuery::titleOfLink)
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .collect(toList());
+        if (titles.isEmpty()) {
+            return;
+        }
+
+        WikiScheduler.getDefault().submit(BACKGROUND, () -> getActorWikiPagesByTitles(titles)
+                .map(pages -> prefetchActorData(new ArrayList<>(pages.values()))));
     }
 
     private static <P> Optional<P> getDataFromWikiPage(JsonObject page,
                                                        Function<Document, Optional<P>> load) {
+        final Optional<P> fromLeadSection = loadLeadSection(page).flatMap(load);
+        if (fromLeadSection.isPresent()) {
+            return fromLeadSection;
+        }
+
         try {
             String url = page.get("fullurl").getAsString();
             Document doc = wikipedia.getHTMLDocument(url);
@@ -236,6 +408,22 @@ public final class MediaWiki {
         }
     }
 
+    private static Optional<Document> loadLeadSection(JsonObject page) {
+        if (!leadSectionParsing || !page.has("pageid")) {
+            return Optional.empty();
+        }
+
+        try {
+            final long pageId = page.get("pageid").getAsLong();
+            final String url = LeadSectionQuery.createQueryURL(wikipedia.getName(), pageId);
+            final String json = wikipedia.getTextFile(url);
+            final String html = LeadSectionQuery.extractHtml(json);
+            return Optional.of(Jsoup.parseBodyFragment(html, wikipedia.getHomeURL()));
+        } catch (IOException | RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
     public static String asAbsolutePath(String url) {
         return wikipedia.asAbsolutePath(url);
     }
@@ -0,0 +1,111 @@
+package de.wiki;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import static de.wiki.PageMirror.ARTICLE_PATH;
+import static de.wiki.PageMirror.normalizeTitle;
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Wikipedia which answers all requests from a {@link PageMirror}, e.g. for the use without a
+ * connection or for repeatable tests. Requests for responses which aren't mirrored fail,
+ * unless the network fallback is enabled: in this case the response is requested from the
+ * Wiki and added to the mirror, so the next request for it is answered locally.
+ */
+public class MirroredWikipedia extends Wikipedia {
+    private final PageMirror mirror;
+    private volatile boolean networkFallback;
+
+    /**
+     * Creates a new mirrored Wikipedia with the default client.
+     *
+     * @param name base url part of the Wiki like 'en.wikipedia.org'
+     * @param mirror mirror which answers the requests
+     * @param networkFallback <i>true</i> if requests missing in the mirror are sent to the Wiki
+     */
+    public MirroredWikipedia(String name, PageMirror mirror, boolean networkFallback) {
+        this(name, new WikiHttpClient(), mirror, networkFallback);
+    }
+
+    /**
+     * Creates a new mirrored Wikipedia.
+     *
+     * @param name base url part of the Wiki like 'en.wikipedia.org'
+     * @param client client used for the requests missing in the mirror
+     * @param mirror mirror which answers the requests
+     * @param networkFallback <i>true</i> if requests missing in the mirror are sent to the Wiki
+     */
+    public MirroredWikipedia(String name, WikiHttpClient client, PageMirror mirror, boolean networkFallback) {
+        super(name, client);
+        this.mirror = requireNonNull(mirror);
+        this.networkFallback = networkFallback;
+    }
+
+    public PageMirror getMirror() {
+        return mirror;
+    }
+
+    public boolean isNetworkFallback() {
+        return networkFallback;
+    }
+
+    /**
+     * Allows or forbids requesting responses which are missing in the mirror from the Wiki.
+     *
+     * @param networkFallback <i>true</i> if requests missing in the mirror are sent to the Wiki
+     */
+    public void setNetworkFallback(boolean networkFallback) {
+        this.networkFallback = networkFallback;
+    }
+
+    /**
+     * Retrieves the article with the given title.
+     *
+     * @param title title of the article, e.g. 'Johnny Depp'
+     * @return the parsed html document of the article
+     * @throws IOException if the article isn't mirrored and the request failed or isn't allowed
+     */
+    public Document getArticle(String title) throws IOException {
+        return getHTMLDocument(asAbsolutePath(ARTICLE_PATH + normalizeTitle(title)));
+    }
+
+    @Override
+    public Document getHTMLDocument(String url) throws IOException {
+        return Jsoup.parse(getTextFile(url), url);
+    }
+
+    @Override
+    public String getTextFile(String url) throws IOException {
+        Optional<String> mirrored;
+        try {
+            mirrored = mirror.get(url);
+        } catch (IOException e) {
+            mirrored = Optional.empty();
+        }
+        if (mirrored.isPresent()) {
+            return mirrored.get();
+        }
+        if (!networkFallback) {
+            throw new IOException("Not mirrored: " + url);
+        }
+
+        final String body = super.getTextFile(url);
+        try {
+            mirror.put(url, body);
+        } catch (IOException e) {
+            // a failing mirror must not break the request, the response is just not mirrored
+        }
+        return body;
+    }
+
+    @Override
+    public String toString() {
+        return format("MirroredWikipedia{name=\"%s\", mirror=%s, networkFallback=%s}",
+                getName(), mirror, networkFallback);
+    }
+}
@@ -0,0 +1,398 @@
+package de.wiki;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Locale.ROOT;
+import static java.util.Locale.US;
+
+/**
+ * Local store of Wiki responses, e.g. search results as JSON and articles as HTML, which
+ * allows a {@link MirroredWikipedia} to answer requests without a connection.
+ * <p>
+ *     All responses are stored compressed in a single append-only file. Every record consists
+ *     of the normalized url, the length of the compressed body and the body itself. The
+ *     offsets of the bodies are kept in an in-memory index, which is written next to the file
+ *     by {@link #flush()}. If the index is missing or doesn't belong to the current state of
+ *     the file, it is rebuilt by skipping through the records. Storing a changed response
+ *     appends a new record, the index always points to the latest one, storing an unchanged
+ *     response writes nothing. The replaced records are dropped by {@link #flush()} as soon as
+ *     they take more space than the current ones.
+ * </p>
+ * <p>
+ *     Urls are normalized before they are used as key: the scheme is dropped, the host is
+ *     converted to lower case and the title of an article path is normalized by
+ *     {@link #normalizeTitle(String)}, so 'https://en.wikipedia.org/wiki/johnny Depp' and
+ *     'https://en.wikipedia.org/wiki/Johnny_Depp' refer to the same record.
+ * </p>
+ */
+public class PageMirror implements Closeable {
+    public static final String ARTICLE_PATH = "/wiki/";
+
+    private static final int MAGIC = 0x574d4952;
+    private static final int HEADER_LENGTH = 4;
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final long MIN_COMPACTED_BYTES = 64L * 1024;
+    private static final Pattern TITLE_SEPARATOR = Pattern.compile("[\\s_]+");
+
+    private final File dataFile;
+    private final File indexFile;
+    private RandomAccessFile data;
+    private final Map<String, Location> index;
+    private boolean dirty;
+
+    private static final class Location {
+        private final long offset;
+        private final int length;
+
+        private Location(long offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Opens the mirror stored in the given file. The file and its parent directories are
+     * created if they are missing.
+     *
+     * @param dataFile file of the mirror
+     * @throws IOException if the file can't be opened or isn't a mirror
+     */
+    public PageMirror(File dataFile) throws IOException {
+        this.dataFile = dataFile;
+        this.indexFile = new File(dataFile.getPath() + INDEX_SUFFIX);
+        this.index = new HashMap<>();
+
+        final File parent = dataFile.getAbsoluteFile().getParentFile();
+        if (!parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Couldn't create " + parent);
+        }
+
+        this.data = new RandomAccessFile(dataFile, "rw");
+        try {
+            if (data.length() == 0) {
+                data.writeInt(MAGIC);
+            } else if (data.length() < HEADER_LENGTH || data.readInt() != MAGIC) {
+                throw new IOException(dataFile + " is no page mirror");
+            }
+            if (!loadIndex()) {
+                rebuildIndex();
+            }
+        } catch (IOException e) {
+            data.close();
+            throw e;
+        }
+    }
+
+    private boolean loadIndex() {
+        if (!indexFile.isFile()) {
+            return false;
+        }
+
+        try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(indexFile)))) {
+            if (input.readInt() != MAGIC || input.readLong() != data.length()) {
+                return false;
+            }
+            final int count = input.readInt();
+            for (int i = 0; i < count; ++i) {
+                final String key = input.readUTF();
+                index.put(key, new Location(input.readLong(), input.readInt()));
+            }
+            return true;
+        } catch (IOException e) {
+            index.clear();
+            return false;
+        }
+    }
+
+    private void rebuildIndex() throws IOException {
+        final long length = data.length();
+        long position = HEADER_LENGTH;
+        try {
+            while (position < length) {
+                data.seek(position);
+                final String key = data.readUTF();
+                final int bodyLength = data.readInt();
+                final long offset = data.getFilePointer();
+                if (bodyLength < 0 || offset + bodyLength > length) {
+                    throw new EOFException();
+                }
+                index.put(key, new Location(offset, bodyLength));
+                position = offset + bodyLength;
+            }
+        } catch (EOFException e) {
+            // the last record was cut off while it was written, it is dropped
+            data.setLength(position);
+        }
+        dirty = true;
+    }
+
+    /**
+     * Normalizes the title of an article like MediaWiki does: whitespace and underscores are
+     * collapsed to a single underscore and the first letter is converted to upper case.
+     *
+     * @param title title of an article
+     * @return normalized title, e.g. 'Johnny_Depp' for ' johnny  Depp'
+     */
+    public static String normalizeTitle(String title) {
+        final String joined = TITLE_SEPARATOR.matcher(title.trim()).replaceAll("_");
+        if (joined.isEmpty()) {
+            return joined;
+        }
+        return joined.substring(0, 1).toUpperCase(ROOT) + joined.substring(1);
+    }
+
+    static String normalizeKey(String url) {
+        String key = url.trim();
+        final int scheme = key.indexOf("://");
+        if (scheme >= 0) {
+            key = key.substring(scheme + 3);
+        }
+
+        final int slash = key.indexOf('/');
+        final String host = (slash < 0 ? key : key.substring(0, slash)).toLowerCase(ROOT);
+        final String path = slash < 0 ? "" : key.substring(slash);
+        if (path.startsWith(ARTICLE_PATH)) {
+            return host + ARTICLE_PATH + normalizeTitle(path.substring(ARTICLE_PATH.length()));
+        }
+        return host + path;
+    }
+
+    /**
+     * Returns the stored response of the url.
+     *
+     * @param url url of the response
+     * @return the body of the response or an empty Optional if the url isn't mirrored
+     * @throws IOException if the record can't be read
+     */
+    public synchronized Optional<String> get(String url) throws IOException {
+        final Location location = index.get(normalizeKey(url));
+        if (location == null) {
+            return Optional.empty();
+        }
+
+        return Optional.of(inflate(read(location)));
+    }
+
+    private byte[] read(Location location) throws IOException {
+        final byte[] compressed = new byte[location.length];
+        data.seek(location.offset);
+        data.readFully(compressed);
+        return compressed;
+    }
+
+    /**
+     * @param url url of a response
+     * @return <i>true</i> if the response of the url is mirrored
+     */
+    public synchronized boolean contains(String url) {
+        return index.containsKey(normalizeKey(url));
+    }
+
+    /**
+     * Stores the response of the url, replacing an earlier response of the same url.
+     *
+     * @param url url of the response
+     * @param body body of the response
+     * @throws IOException if the record can't be written
+     */
+    public synchronized void put(String url, String body) throws IOException {
+        final String key = normalizeKey(url);
+        final byte[] compressed = deflate(body);
+        final Location stored = index.get(key);
+        if (stored != null && stored.length == compressed.length
+                && Arrays.equals(read(stored), compressed)) {
+            return;
+        }
+
+        final ByteArrayOutputStream record = new ByteArrayOutputStream(compressed.length + 64);
+        final DataOutputStream output = new DataOutputStream(record);
+        output.writeUTF(key);
+        output.writeInt(compressed.length);
+        output.write(compressed);
+
+        final long start = data.length();
+        data.seek(start);
+        data.write(record.toByteArray());
+        index.put(key, new Location(start + record.size() - compressed.length, compressed.length));
+        dirty = true;
+    }
+
+    private static byte[] deflate(String body) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DeflaterOutputStream output = new DeflaterOutputStream(bytes)) {
+            output.write(body.getBytes(UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String inflate(byte[] compressed) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(compressed.length * 4);
+        try (InflaterInputStream input = new InflaterInputStream(
+                new ByteArrayInputStream(compressed))) {
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                bytes.write(buffer, 0, read);
+            }
+        }
+        return new String(bytes.toByteArray(), UTF_8);
+    }
+
+    /**
+     * @return number of mirrored responses
+     */
+    public synchronized int count() {
+        return index.size();
+    }
+
+    /**
+     * @return size of the mirror file in bytes
+     * @throws IOException if the size can't be determined
+     */
+    public synchronized long size() throws IOException {
+        return data.length();
+    }
+
+    /**
+     * Writes the index next to the mirror file, so the next instance doesn't have to rebuild it.
+     * If the replaced records take more space than the current ones, the file is compacted first.
+     *
+     * @throws IOException if the file can't be compacted or the index can't be written
+     */
+    public synchronized void flush() throws IOException {
+        if (!dirty) {
+            return;
+        }
+
+        final long currentBytes = currentBytes();
+        if (data.length() > MIN_COMPACTED_BYTES && data.length() - currentBytes > currentBytes) {
+            compact();
+        }
+
+        final File temporary = new File(indexFile.getPath() + TEMPORARY_SUFFIX);
+        try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(temporary)))) {
+            output.writeInt(MAGIC);
+            output.writeLong(data.length());
+            output.writeInt(index.size());
+            for (final Map.Entry<String, Location> entry : index.entrySet()) {
+                output.writeUTF(entry.getKey());
+                output.writeLong(entry.getValue().offset);
+                output.writeInt(entry.getValue().length);
+            }
+        }
+        if (indexFile.exists() && !indexFile.delete() || !temporary.renameTo(indexFile)) {
+            temporary.delete();
+            throw new IOException("Couldn't replace " + indexFile);
+        }
+        dirty = false;
+    }
+
+    private long currentBytes() {
+        long bytes = HEADER_LENGTH;
+        for (final Map.Entry<String, Location> entry : index.entrySet()) {
+            bytes += utfLength(entry.getKey()) + Integer.BYTES + entry.getValue().length;
+        }
+        return bytes;
+    }
+
+    /**
+     * @return number of bytes written by {@link DataOutputStream#writeUTF(String)}
+     */
+    private static int utfLength(String text) {
+        int length = 2;
+        for (int i = 0; i < text.length(); ++i) {
+            final char c = text.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                length += 1;
+            } else if (c > 0x07FF) {
+                length += 3;
+            } else {
+                length += 2;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Rewrites the file with only the current record of every url.
+     */
+    private void compact() throws IOException {
+        final File temporary = new File(dataFile.getPath() + TEMPORARY_SUFFIX);
+        final Map<String, Location> compacted = new HashMap<>();
+        try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(temporary)))) {
+            output.writeInt(MAGIC);
+            long position = HEADER_LENGTH;
+            for (final Map.Entry<String, Location> entry : index.entrySet()) {
+                final byte[] compressed = read(entry.getValue());
+                output.writeUTF(entry.getKey());
+                output.writeInt(compressed.length);
+                output.write(compressed);
+                position += utfLength(entry.getKey()) + Integer.BYTES;
+                compacted.put(entry.getKey(), new Location(position, compressed.length));
+                position += compressed.length;
+            }
+        } catch (IOException e) {
+            temporary.delete();
+            throw e;
+        }
+
+        data.close();
+        final boolean replaced = dataFile.delete() && temporary.renameTo(dataFile);
+        data = new RandomAccessFile(dataFile, "rw");
+        if (!replaced) {
+            temporary.delete();
+            if (data.length() == 0) {
+                // the old file is gone, so the mirror starts empty
+                data.writeInt(MAGIC);
+                index.clear();
+            }
+            throw new IOException("Couldn't replace " + dataFile);
+        }
+        index.clear();
+        index.putAll(compacted);
+    }
+
+    /**
+     * Writes the index and closes the mirror file.
+     *
+     * @throws IOException if the index can't be written or the file can't be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            data.close();
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return format(US, "PageMirror{file=\"%s\", entries=%d}", dataFile, index.size());
+    }
+}
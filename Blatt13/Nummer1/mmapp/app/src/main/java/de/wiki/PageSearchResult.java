@@ -0,0 +1,43 @@
+package de.wiki;
+
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.String.format;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Pages found by a name based search together with the information whether the search found
+ * all matching pages of the Wiki or was cut off at the result limit.
+ */
+public final class PageSearchResult {
+    private final List<JsonObject> pages;
+    private final boolean complete;
+
+    /**
+     * @param pages meta data of the found pages, sorted by similarity
+     * @param complete <i>true</i> if the Wiki has no further matches for the search
+     */
+    public PageSearchResult(List<JsonObject> pages, boolean complete) {
+        this.pages = unmodifiableList(new ArrayList<>(pages));
+        this.complete = complete;
+    }
+
+    public List<JsonObject> getPages() {
+        return pages;
+    }
+
+    /**
+     * @return <i>true</i> if the Wiki has no further matches for the search
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    @Override
+    public String toString() {
+        return format("PageSearchResult{pages=%d, complete=%s}", pages.size(), complete);
+    }
+}
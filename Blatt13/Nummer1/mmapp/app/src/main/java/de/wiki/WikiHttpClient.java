@@ -0,0 +1,156 @@
+package de.wiki;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.zip.GZIPInputStream;
+
+import static java.lang.String.format;
+import static java.net.HttpURLConnection.HTTP_BAD_REQUEST;
+import static java.net.HttpURLConnection.HTTP_NOT_MODIFIED;
+import static java.net.HttpURLConnection.HTTP_OK;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Shared HTTP access of {@link Wikipedia} instances.
+ * Every request asks for a gzip compressed response and decodes it while reading. Responses
+ * are always read completely and closed, so the underlying connection can be kept alive and
+ * reused by the next request to the same host.
+ */
+public class WikiHttpClient {
+    public static final int DEFAULT_TIMEOUT = 5000;
+    static final String USER_AGENT = "MovieManager/1.0 (de.moviemanager)";
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final int connectTimeout;
+    private final int readTimeout;
+
+    /**
+     * Creates a client with the default timeout of 5 seconds for connecting and reading.
+     */
+    public WikiHttpClient() {
+        this(DEFAULT_TIMEOUT, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Creates a client with custom timeouts.
+     *
+     * @param connectTimeout maximum time in ms for establishing a connection
+     * @param readTimeout maximum time in ms between two received packets
+     */
+    public WikiHttpClient(int connectTimeout, int readTimeout) {
+        if (connectTimeout < 0 || readTimeout < 0) {
+            throw new IllegalArgumentException(format("Timeouts must not be negative, but were %d and %d",
+                    connectTimeout, readTimeout));
+        }
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+    }
+
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public int getReadTimeout() {
+        return readTimeout;
+    }
+
+    /**
+     * Requests the url and reads the complete body as text. If a cached entry is given, the
+     * request is a conditional one.
+     *
+     * @param url URL of the resource
+     * @param cached entry to revalidate, may be <i>null</i>
+     * @return the response, without body if the server answered with <i>304 Not Modified</i>
+     * @throws IOException if the url is invalid, the server answered with an error or read failed
+     */
+    public HttpResponse get(String url, HttpCache.Entry cached) throws IOException {
+        final URLConnection connection = open(url, cached);
+        final int status = statusOf(connection);
+        if (status == HTTP_NOT_MODIFIED) {
+            discard(connection);
+            return HttpResponse.notModified();
+        }
+
+        try (InputStream input = bodyOf(connection);
+             Reader reader = new InputStreamReader(input, UTF_8)) {
+            return new HttpResponse(status,
+                    readFully(reader, connection.getContentLength()),
+                    connection.getHeaderField("ETag"),
+                    connection.getHeaderField("Last-Modified"));
+        }
+    }
+
+    private URLConnection open(String url, HttpCache.Entry cached) throws IOException {
+        final URLConnection connection = new URL(url).openConnection();
+        connection.setConnectTimeout(connectTimeout);
+        connection.setReadTimeout(readTimeout);
+        connection.setRequestProperty("Accept-Encoding", "gzip");
+        connection.setRequestProperty("User-Agent", USER_AGENT);
+        if (cached != null && cached.getETag() != null) {
+            connection.setRequestProperty("If-None-Match", cached.getETag());
+        }
+        if (cached != null && cached.getLastModified() != null) {
+            connection.setRequestProperty("If-Modified-Since", cached.getLastModified());
+        }
+        return connection;
+    }
+
+    private static int statusOf(URLConnection connection) throws IOException {
+        if (!(connection instanceof HttpURLConnection)) {
+            return HTTP_OK;
+        }
+
+        final int status = ((HttpURLConnection) connection).getResponseCode();
+        if (status >= HTTP_BAD_REQUEST) {
+            discard(connection);
+            throw new IOException(format("Server answered %d for %s", status, connection.getURL()));
+        }
+        return status;
+    }
+
+    private static InputStream bodyOf(URLConnection connection) throws IOException {
+        final InputStream input = new BufferedInputStream(connection.getInputStream(), BUFFER_SIZE);
+        if ("gzip".equalsIgnoreCase(connection.getContentEncoding())) {
+            return new GZIPInputStream(input, BUFFER_SIZE);
+        }
+        return input;
+    }
+
+    private static String readFully(Reader reader, int expectedLength) throws IOException {
+        final StringBuilder builder = new StringBuilder(expectedLength > 0 ? expectedLength : BUFFER_SIZE);
+        final char[] buffer = new char[BUFFER_SIZE];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            builder.append(buffer, 0, read);
+        }
+        return builder.toString();
+    }
+
+    private static void discard(URLConnection connection) {
+        if (!(connection instanceof HttpURLConnection)) {
+            return;
+        }
+
+        // reading the rest of the response allows the connection to be reused
+        final HttpURLConnection http = (HttpURLConnection) connection;
+        try (InputStream input = http.getErrorStream() != null ? http.getErrorStream() : http.getInputStream()) {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            while (input != null && input.read(buffer) != -1) {
+                // skip
+            }
+        } catch (IOException e) {
+            http.disconnect();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return format("WikiHttpClient{connectTimeout='%s ms', readTimeout='%s ms'}", connectTimeout, readTimeout);
+    }
+}
@@ -0,0 +1,232 @@
+package de.wiki;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import static de.wiki.WikiScheduler.Priority.BACKGROUND;
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Loads the data of the most promising pages of a query result in the background, before the
+ * user selected one of them. A later {@link #load(JsonObject)} of a prefetched page reuses the
+ * running or finished prefetch instead of requesting the page again.
+ * Prefetches run with background priority on a {@link WikiScheduler}, so they are bounded by
+ * its number of workers and never delay requests the user waits for. A single
+ * {@link #prefetch(List, int, long)} never schedules more pages than fit into its byte budget.
+ * Prefetches which are no longer needed are dropped by cancelling their {@link Session}.
+ * At most {@link #MAX_PENDING} prefetches are kept, beyond that the oldest ones are cancelled
+ * and dropped, so pages which are kept but never loaded can't pile up.
+ *
+ * @param <T> type of the data extracted from a page
+ */
+public class WikiPrefetcher<T> {
+    public static final int DEFAULT_CANDIDATES = 3;
+    public static final int DEFAULT_PARALLELISM = 2;
+    public static final long DEFAULT_BYTE_BUDGET = 512L * 1024;
+    public static final int MAX_PENDING = 4 * DEFAULT_CANDIDATES;
+    static final long UNKNOWN_PAGE_BYTES = 64L * 1024;
+
+    private static final String KEY_URL = "fullurl";
+    private static final String KEY_LENGTH = "length";
+
+    private final Function<JsonObject, Optional<T>> loader;
+    private final WikiScheduler scheduler;
+    private final Map<String, Future<Optional<T>>> prefetched;
+
+    /**
+     * Handle of the prefetches scheduled by one call of {@link #prefetch(List, int, long)}.
+     */
+    public final class Session {
+        private final Map<String, Future<Optional<T>>> scheduled;
+        private boolean cancelled;
+
+        private Session(Map<String, Future<Optional<T>>> scheduled) {
+            this.scheduled = scheduled;
+        }
+
+        /**
+         * @return urls of the prefetched pages in order of their rank
+         */
+        public synchronized List<String> getScheduledUrls() {
+            return new ArrayList<>(scheduled.keySet());
+        }
+
+        /**
+         * Cancels all prefetches of this session, except the one of the given page.
+         * Used if the user selected a page and the remaining candidates are not needed anymore.
+         *
+         * @param page page whose prefetch is kept, may be <i>null</i>
+         */
+        public synchronized void cancelExcept(JsonObject page) {
+            final String kept = page == null ? null : urlOf(page);
+            scheduled.forEach((url, future) -> {
+                if (!url.equals(kept)) {
+                    future.cancel(true);
+                    drop(url, future);
+                }
+            });
+            cancelled = true;
+        }
+
+        /**
+         * Cancels all prefetches of this session. Finished prefetches are discarded.
+         */
+        public void cancel() {
+            cancelExcept(null);
+        }
+
+        public synchronized boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    /**
+     * Creates a prefetcher with the default parallelism.
+     *
+     * @param loader loads and extracts the data of a page, must be thread safe
+     */
+    public WikiPrefetcher(Function<JsonObject, Optional<T>> loader) {
+        this(loader, DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * Creates a prefetcher.
+     *
+     * @param loader loads and extracts the data of a page, must be thread safe
+     * @param parallelism maximum number of pages loaded at the same time
+     */
+    public WikiPrefetcher(Function<JsonObject, Optional<T>> loader, int parallelism) {
+        this(loader, new WikiScheduler(parallelism));
+    }
+
+    /**
+     * Creates a prefetcher which shares the workers of the given scheduler.
+     *
+     * @param loader loads and extracts the data of a page, must be thread safe
+     * @param scheduler scheduler running the prefetches
+     */
+    public WikiPrefetcher(Function<JsonObject, Optional<T>> loader, WikiScheduler scheduler) {
+        this.loader = requireNonNull(loader);
+        this.scheduler = requireNonNull(scheduler);
+        this.prefetched = new LinkedHashMap<>();
+    }
+
+    /**
+     * Prefetches the first pages of the ranked list with the default number of candidates
+     * and the default byte budget.
+     *
+     * @param pages ranked meta data of the pages, the best match first
+     * @return session of the scheduled prefetches
+     */
+    public Session prefetch(List<JsonObject> pages) {
+        return prefetch(pages, DEFAULT_CANDIDATES, DEFAULT_BYTE_BUDGET);
+    }
+
+    /**
+     * Prefetches the first pages of the ranked list. Pages are taken in order until either
+     * <i>candidates</i> pages are scheduled or the next page would exceed the byte budget.
+     * The size of a page is estimated by its <i>length</i> property, if it is missing
+     * 64 KiB are assumed.
+     *
+     * @param pages ranked meta data of the pages, the best match first
+     * @param candidates maximum number of prefetched pages
+     * @param byteBudget maximum summed size of the prefetched pages
+     * @return session of the scheduled prefetches
+     */
+    public Session prefetch(List<JsonObject> pages, int candidates, long byteBudget) {
+        final Map<String, Future<Optional<T>>> scheduled = new LinkedHashMap<>();
+        long remaining = byteBudget;
+
+        for (final JsonObject page : pages) {
+            final String url = urlOf(page);
+            if (url == null || scheduled.containsKey(url)) {
+                continue;
+            }
+            final long bytes = estimatedBytesOf(page);
+            if (scheduled.size() >= candidates || bytes > remaining) {
+                break;
+            }
+
+            remaining -= bytes;
+            scheduled.put(url, schedule(url, page));
+        }
+
+        return new Session(scheduled);
+    }
+
+    private synchronized Future<Optional<T>> schedule(String url, JsonObject page) {
+        final Future<Optional<T>> future = prefetched.computeIfAbsent(url,
+                key -> scheduler.submit(BACKGROUND, () -> loader.apply(page)));
+        final Iterator<Future<Optional<T>>> eldest = prefetched.values().iterator();
+        while (prefetched.size() > MAX_PENDING) {
+            eldest.next().cancel(true);
+            eldest.remove();
+        }
+        return future;
+    }
+
+    private synchronized Future<Optional<T>> take(String url) {
+        return prefetched.remove(url);
+    }
+
+    private synchronized void drop(String url, Future<Optional<T>> future) {
+        prefetched.remove(url, future);
+    }
+
+    /**
+     * Returns the data of the page. If the page was prefetched, the prefetch is awaited and
+     * its result is returned, otherwise the page is loaded in the calling thread.
+     *
+     * @param page meta data of the page
+     * @return data of the page, empty if something went wrong
+     */
+    public Optional<T> load(JsonObject page) {
+        final String url = urlOf(page);
+        final Future<Optional<T>> future = url == null ? null : take(url);
+        if (future != null) {
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Optional.empty();
+            } catch (ExecutionException | CancellationException e) {
+                // the prefetch failed or was dropped, so the page is loaded again
+            }
+        }
+        return loader.apply(page);
+    }
+
+    /**
+     * @return number of prefetches which weren't taken by {@link #load(JsonObject)} or cancelled
+     */
+    public synchronized int getPendingCount() {
+        return prefetched.size();
+    }
+
+    private static String urlOf(JsonObject page) {
+        final JsonElement url = page.get(KEY_URL);
+        return url == null || url.isJsonNull() ? null : url.getAsString();
+    }
+
+    private static long estimatedBytesOf(JsonObject page) {
+        final JsonElement length = page.get(KEY_LENGTH);
+        return length == null || length.isJsonNull() ? UNKNOWN_PAGE_BYTES : length.getAsLong();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return format("WikiPrefetcher{pending=%d}", prefetched.size());
+    }
+}
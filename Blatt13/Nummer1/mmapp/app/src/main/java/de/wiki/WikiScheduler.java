@@ -0,0 +1,245 @@
+package de.wiki;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Runs wiki work on a bounded pool of worker threads.
+ * Waiting work is started by priority, so requests the user waits for overtake background work
+ * like prefetches. Work submitted on a channel supersedes the earlier work of the same channel:
+ * the earlier work is cancelled and its result is never delivered. Callers waiting for a result
+ * are told by the fallback of the work instead, which also runs if the work failed.
+ */
+public class WikiScheduler {
+    public static final int DEFAULT_WORKERS = 3;
+
+    private static WikiScheduler defaultScheduler;
+
+    private final ThreadPoolExecutor executor;
+    private final Map<String, Task<?>> latestByChannel;
+    private final AtomicLong sequence;
+
+    /**
+     * Priority of submitted work, earlier constants are started first.
+     */
+    public enum Priority {
+        USER_VISIBLE,
+        BACKGROUND
+    }
+
+    /**
+     * Submitted unit of work.
+     *
+     * @param <T> type of the result
+     */
+    public final class Task<T> extends FutureTask<T> implements Comparable<Task<?>> {
+        private final String channel;
+        private final Priority priority;
+        private final long order;
+        private final Consumer<T> delivery;
+        private final Runnable fallback;
+        private final List<Runnable> doneActions;
+
+        private Task(String channel, Priority priority, Callable<T> work, Consumer<T> delivery, Runnable fallback) {
+            super(work);
+            this.channel = channel;
+            this.priority = requireNonNull(priority);
+            this.order = sequence.getAndIncrement();
+            this.delivery = delivery;
+            this.fallback = fallback;
+            this.doneActions = new ArrayList<>();
+        }
+
+        public Priority getPriority() {
+            return priority;
+        }
+
+        /**
+         * Runs the action as soon as this task finished, failed or was cancelled.
+         * If the task is already done, the action runs immediately in the calling thread.
+         *
+         * @param action action to run
+         */
+        public void whenDone(Runnable action) {
+            synchronized (doneActions) {
+                if (!isDone()) {
+                    doneActions.add(action);
+                    return;
+                }
+            }
+            action.run();
+        }
+
+        @Override
+        protected void done() {
+            if (channel != null) {
+                synchronized (latestByChannel) {
+                    latestByChannel.remove(channel, this);
+                }
+            }
+
+            if (isCancelled()) {
+                runFallback();
+            } else if (delivery != null) {
+                deliver();
+            }
+
+            final List<Runnable> actions;
+            synchronized (doneActions) {
+                actions = new ArrayList<>(doneActions);
+                doneActions.clear();
+            }
+            actions.forEach(Runnable::run);
+        }
+
+        private void deliver() {
+            try {
+                delivery.accept(get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                // failed work has no result to deliver
+                runFallback();
+            }
+        }
+
+        private void runFallback() {
+            if (fallback != null) {
+                fallback.run();
+            }
+        }
+
+        @Override
+        public int compareTo(Task<?> other) {
+            final int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(order, other.order);
+        }
+    }
+
+    /**
+     * Returns the scheduler shared by all wiki requests of the app,
+     * with {@value #DEFAULT_WORKERS} workers.
+     *
+     * @return the shared scheduler
+     */
+    public static synchronized WikiScheduler getDefault() {
+        if (defaultScheduler == null) {
+            defaultScheduler = new WikiScheduler(DEFAULT_WORKERS);
+        }
+        return defaultScheduler;
+    }
+
+    /**
+     * Creates a scheduler.
+     *
+     * @param workers maximum number of work items running at the same time
+     */
+    public WikiScheduler(int workers) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("Number of workers must be positive, but was " + workers);
+        }
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, MILLISECONDS,
+                new PriorityBlockingQueue<>(),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, "wiki-worker");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.latestByChannel = new HashMap<>();
+        this.sequence = new AtomicLong();
+    }
+
+    /**
+     * Submits work which can't be superseded.
+     *
+     * @param priority priority of the work
+     * @param work the work
+     * @param <T> type of the result
+     * @return the task of the work
+     */
+    public <T> Task<T> submit(Priority priority, Callable<T> work) {
+        return submit(null, priority, work, null, null);
+    }
+
+    /**
+     * Submits work on a channel without a fallback.
+     *
+     * @param channel channel of the work, <i>null</i> if it can't be superseded
+     * @param priority priority of the work
+     * @param work the work
+     * @param delivery receiver of the result, may be <i>null</i>
+     * @param <T> type of the result
+     * @return the task of the work
+     * @see #submit(String, Priority, Callable, Consumer, Runnable)
+     */
+    public <T> Task<T> submit(String channel, Priority priority, Callable<T> work, Consumer<T> delivery) {
+        return submit(channel, priority, work, delivery, null);
+    }
+
+    /**
+     * Submits work on a channel. Waiting or running work of the same channel is cancelled.
+     * The result is handed to the delivery in the worker thread. If the work failed or was
+     * cancelled, e.g. because it was superseded, the fallback runs instead, in the worker
+     * thread or in the thread which cancelled the work.
+     *
+     * @param channel channel of the work, <i>null</i> if it can't be superseded
+     * @param priority priority of the work
+     * @param work the work
+     * @param delivery receiver of the result, may be <i>null</i>
+     * @param fallback runs instead of the delivery, may be <i>null</i>
+     * @param <T> type of the result
+     * @return the task of the work
+     */
+    public <T> Task<T> submit(String channel,
+                              Priority priority,
+                              Callable<T> work,
+                              Consumer<T> delivery,
+                              Runnable fallback) {
+        final Task<T> task = new Task<>(channel, priority, requireNonNull(work), delivery, fallback);
+        if (channel != null) {
+            final Task<?> superseded;
+            synchronized (latestByChannel) {
+                superseded = latestByChannel.put(channel, task);
+            }
+            if (superseded != null) {
+                superseded.cancel(true);
+                executor.remove(superseded);
+            }
+        }
+        executor.execute(task);
+        return task;
+    }
+
+    /**
+     * @return number of submitted tasks which weren't started yet
+     */
+    public int getWaitingCount() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Stops all workers. Waiting work is dropped.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String toString() {
+        return format("WikiScheduler{workers=%d, active=%d, waiting=%d}",
+                executor.getMaximumPoolSize(), executor.getActiveCount(), getWaitingCount());
+    }
+}
@@ -0,0 +1,139 @@
+package de.wiki;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.ToDoubleFunction;
+import java.util.regex.Pattern;
+
+import de.util.SizeBoundedCache;
+
+import static de.util.StringUtils.normedMinimumEditDistance;
+import static java.util.Comparator.comparingDouble;
+import static java.util.Locale.ROOT;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Remembers the results of the name based searches of one query session, e.g. while the user
+ * types the name of an actor. Queries are normalized first, so queries which only differ
+ * in case or spacing are answered by the same result.
+ * A query which adds words to an earlier query is answered without a request, if the result of
+ * the earlier query was complete: in this case the matching pages are already known and
+ * only the pages whose title contains every word of the longer query are kept. A query which
+ * only extends the last word of an earlier query is always requested, because the search
+ * matches whole words, so the earlier result doesn't contain all pages matching the longer word.
+ */
+public class WikiSearchSession {
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final String KEY_TITLE = "title";
+
+    private final SizeBoundedCache<String, PageSearchResult> results;
+
+    /**
+     * Creates a session which remembers the results of up to 64 queries.
+     */
+    public WikiSearchSession() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a session.
+     *
+     * @param capacity maximum number of remembered results
+     */
+    public WikiSearchSession(int capacity) {
+        this.results = new SizeBoundedCache<>(capacity, result -> 1);
+    }
+
+    /**
+     * Normalizes the query by trimming it, collapsing the whitespace and converting it
+     * to lower case.
+     *
+     * @param query the raw query, may be <i>null</i>
+     * @return normalized query, empty if the query contains no word
+     */
+    public static String normalize(String query) {
+        if (query == null) {
+            return "";
+        }
+        return WHITESPACE.matcher(query.trim()).replaceAll(" ").toLowerCase(ROOT);
+    }
+
+    /**
+     * Answers the query from the results of this session.
+     *
+     * @param query the normalized query
+     * @return the pages matching the query or an empty Optional if a request is necessary
+     */
+    public Optional<List<JsonObject>> lookup(String query) {
+        final Optional<PageSearchResult> known = results.get(query);
+        if (known.isPresent()) {
+            return known.map(PageSearchResult::getPages);
+        }
+
+        for (int end = query.lastIndexOf(' '); end > 0; end = query.lastIndexOf(' ', end - 1)) {
+            final Optional<PageSearchResult> shorter = results.get(query.substring(0, end));
+            if (shorter.isPresent() && shorter.get().isComplete()) {
+                final PageSearchResult refined = refine(shorter.get(), query);
+                results.put(query, refined);
+                return Optional.of(refined.getPages());
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static PageSearchResult refine(PageSearchResult shorter, String query) {
+        final String[] words = query.split(" ");
+        final ToDoubleFunction<JsonObject> dissimilarity =
+                page -> 1.0 - normedMinimumEditDistance(titleOf(page), query);
+
+        final List<JsonObject> pages = shorter.getPages()
+                .stream()
+                .filter(page -> containsAll(normalize(titleOf(page)), words))
+                .sorted(comparingDouble(dissimilarity))
+                .collect(toList());
+        return new PageSearchResult(pages, true);
+    }
+
+    private static boolean containsAll(String title, String[] words) {
+        for (final String word : words) {
+            if (!title.contains(word)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String titleOf(JsonObject page) {
+        final JsonElement title = page.get(KEY_TITLE);
+        return title == null || title.isJsonNull() ? "" : title.getAsString();
+    }
+
+    /**
+     * Remembers the result of a request.
+     *
+     * @param query the normalized query of the request
+     * @param result the received result
+     */
+    public void store(String query, PageSearchResult result) {
+        results.put(query, result);
+    }
+
+    /**
+     * Forgets all results, e.g. if the user explicitly asks for a refresh.
+     */
+    public void clear() {
+        results.clear();
+    }
+
+    /**
+     * @return number of remembered results
+     */
+    public int count() {
+        return results.count();
+    }
+}
@@ -3,18 +3,14 @@ package de.wiki;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.net.URL;
+import java.util.Optional;
 
 import de.util.Traits;
 import de.util.annotations.Trait;
 
 import static java.lang.String.format;
-import static java.nio.charset.StandardCharsets.UTF_8;
-import static java.util.stream.Collectors.joining;
+import static java.util.Objects.requireNonNull;
 
 /**
  * Light weighted wrapper class for accessing Wikipedia-related online data.
@@ -24,12 +20,12 @@ import static java.util.stream.Collectors.joining;
  * <br><b>Author</b>: <a href="mailto:schustrchr@gmail.com">Ctoffer</a><br>
  */
 public class Wikipedia {
-    private static final int DEFAULT_TIMEOUT = 5000;
-
     private static final Traits TRAITS = new Traits(Wikipedia.class);
 
     @Trait private final String name;
     @Trait private final int timeout;
+    private final WikiHttpClient client;
+    private HttpCache cache;
 
     /**
      * Creates a new Wikipedia instance with the default timeout
@@ -38,18 +34,20 @@ public class Wikipedia {
      * @param name base url part of the Wiki like 'en.wikipedia.org'
      */
     public Wikipedia(String name) {
-        this(name, DEFAULT_TIMEOUT);
+        this(name, new WikiHttpClient());
     }
 
     /**
-     * Creates a new Wikipedia instance with a custom timeout
+     * Creates a new Wikipedia instance which uses the given client for all requests.
+     * The client determines the timeouts for connecting and reading.
      *
      * @param name base url part of the Wiki like 'en.wikipedia.org'
-     * @param timeout the maximum time after which a response must be retrieved
+     * @param client client used for the requests
      */
-    private Wikipedia(String name, int timeout) {
+    public Wikipedia(String name, WikiHttpClient client) {
         this.name = name;
-        this.timeout = timeout;
+        this.client = requireNonNull(client);
+        this.timeout = client.getReadTimeout();
     }
 
     /**
@@ -81,14 +79,34 @@ public class Wikipedia {
     }
 
     /**
-     * Retrieves a html page as a document
+     * Uses the given cache for all following requests. Responses are taken from the cache as
+     * long as they are fresh, afterwards they are revalidated. If the revalidation fails
+     * because of a missing connection, the stale response is used.
+     *
+     * @param cache cache for the responses, <i>null</i> disables caching
+     */
+    public void setCache(HttpCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Returns the cache used for requests
+     *
+     * @return the cache or an empty Optional if caching is disabled
+     */
+    public Optional<HttpCache> getCache() {
+        return Optional.ofNullable(cache);
+    }
+
+    /**
+     * Retrieves a html page as a document.
      *
      * @param url URL of the html page
      * @return the parsed html document
      * @throws IOException if the URL is not a valid one or the connection time outed
      */
     public Document getHTMLDocument(String url) throws IOException {
-        return Jsoup.parse(new URL(url), timeout);
+        return Jsoup.parse(getTextFile(url), url);
     }
 
     /**
@@ -99,12 +117,53 @@ public class Wikipedia {
      * @throws IOException if the url is invalid or read failed
      */
     public String getTextFile(String url) throws IOException {
-        try (InputStream input = new URL(url).openStream();
-             InputStreamReader reader = new InputStreamReader(input, UTF_8.name());
-             BufferedReader bReader = new BufferedReader(reader)
-        ) {
-            return bReader.lines().collect(joining("\n"));
+        if (cache == null) {
+            return download(url, null).getBody();
+        }
+
+        final Optional<HttpCache.Entry> cached = cache.get(url);
+        if (cached.isPresent() && cache.isFresh(cached.get())) {
+            return cached.get().getBody();
+        }
+
+        final HttpResponse response;
+        try {
+            response = download(url, cached.orElse(null));
+        } catch (IOException e) {
+            if (cached.isPresent()) {
+                return cached.get().getBody();
+            }
+            throw e;
         }
+
+        if (response.isNotModified() && cached.isPresent()) {
+            return cache.refresh(cached.get()).getBody();
+        }
+        return cache.put(url, response.getBody(), response.getETag(), response.getLastModified())
+                .getBody();
+    }
+
+    /**
+     * Performs the actual request. If a cached entry is given, the request is a conditional
+     * one and the server may answer with <i>304 Not Modified</i>.
+     * Children can override this method to simulate a server.
+     *
+     * @param url URL of the file
+     * @param cached entry to revalidate, may be <i>null</i>
+     * @return the response of the server
+     * @throws IOException if the url is invalid or read failed
+     */
+    protected HttpResponse download(String url, HttpCache.Entry cached) throws IOException {
+        return client.get(url, cached);
+    }
+
+    /**
+     * Returns the client used for the requests
+     *
+     * @return the client
+     */
+    public WikiHttpClient getHttpClient() {
+        return client;
     }
 
     @Override
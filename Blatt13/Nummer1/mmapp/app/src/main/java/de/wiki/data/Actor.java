@@ -1,7 +1,7 @@
 package de.wiki.data;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.BiConsumer;
@@ -14,7 +14,6 @@ import de.util.annotations.Trait;
 
 import static java.lang.Integer.parseInt;
 import static java.lang.String.format;
-import static java.util.Arrays.asList;
 import static java.util.Collections.unmodifiableList;
 import static java.util.regex.Pattern.compile;
 
@@ -33,17 +32,24 @@ public class Actor {
     private static final String BORN = "born";
     private static final String OCCUPATION = "occupation";
 
-    public static final List<String> TABULAR_ATTRIBUTES = unmodifiableList(asList(BORN, OCCUPATION));
+    /**
+     * Table of all handled attributes and their handlers, in the order of the attributes.
+     * The tabular attributes are derived from this table, so both can't diverge.
+     */
     private static final Map<String, BiConsumer<Actor, List<String>>> ATTRIBUTE_HANDLER;
+    public static final List<String> TABULAR_ATTRIBUTES;
 
     static {
-        ATTRIBUTE_HANDLER = new HashMap<>();
+        ATTRIBUTE_HANDLER = new LinkedHashMap<>();
         ATTRIBUTE_HANDLER.put(BORN, Actor::handleBorn);
         ATTRIBUTE_HANDLER.put(OCCUPATION, Actor::handleOccupations);
+        TABULAR_ATTRIBUTES = unmodifiableList(new ArrayList<>(ATTRIBUTE_HANDLER.keySet()));
     }
 
+    private static final BiConsumer<Actor, List<String>> IGNORE = (d, p) -> {};
+
     private static BiConsumer<Actor, List<String>> getAttributeHandler(String key) {
-        return ATTRIBUTE_HANDLER.getOrDefault(key, (d, p) -> {});
+        return ATTRIBUTE_HANDLER.getOrDefault(key, IGNORE);
     }
 
     private static final Pattern DATE_PATTERN = compile("\\((\\d{4})-(\\d{2})-(\\d{2})\\)");
@@ -1,7 +1,7 @@
 package de.wiki.data;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.BiConsumer;
@@ -14,7 +14,6 @@ import de.util.annotations.Trait;
 
 import static de.util.Pair.paired;
 import static java.lang.String.format;
-import static java.util.Arrays.asList;
 import static java.util.Collections.unmodifiableList;
 import static java.util.regex.Pattern.compile;
 import static java.util.stream.Collectors.toList;
@@ -37,29 +36,33 @@ public class Film {
     private static final String LANGUAGE_ATTRIBUTE = "language";
     private static final String RELEASE_DATE_ATTRIBUTE = "release date";
 
-    public static final List<String> TABULAR_ATTRIBUTES = unmodifiableList(asList(COUNTRY_ATTRIBUTE,
-            RUNNING_TIME_ATTRIBUTE,
-            STARRING_ATTRIBUTE,
-            LANGUAGE_ATTRIBUTE,
-            RELEASE_DATE_ATTRIBUTE));
-
+    /**
+     * Table of all handled attributes and their handlers, in the order of the attributes.
+     * The tabular attributes are derived from this table, so both can't diverge.
+     */
     private static final Map<String, BiConsumer<Film, List<Pair<String, String>>>> ATTRIBUTE_HANDLER;
+    public static final List<String> TABULAR_ATTRIBUTES;
 
     static {
-        ATTRIBUTE_HANDLER = new HashMap<>();
+        ATTRIBUTE_HANDLER = new LinkedHashMap<>();
         ATTRIBUTE_HANDLER.put(COUNTRY_ATTRIBUTE, Film::handleCountries);
         ATTRIBUTE_HANDLER.put(RUNNING_TIME_ATTRIBUTE, Film::handleRunningTime);
-        ATTRIBUTE_HANDLER.put(RELEASE_DATE_ATTRIBUTE, Film::handleReleaseDates);
-        ATTRIBUTE_HANDLER.put(LANGUAGE_ATTRIBUTE, Film::handleLanguages);
         ATTRIBUTE_HANDLER.put(STARRING_ATTRIBUTE, Film::handleStarring);
+        ATTRIBUTE_HANDLER.put(LANGUAGE_ATTRIBUTE, Film::handleLanguages);
+        ATTRIBUTE_HANDLER.put(RELEASE_DATE_ATTRIBUTE, Film::handleReleaseDates);
+        TABULAR_ATTRIBUTES = unmodifiableList(new ArrayList<>(ATTRIBUTE_HANDLER.keySet()));
     }
 
+    private static final BiConsumer<Film, List<Pair<String, String>>> IGNORE = (d, p) -> {};
+
     private static final String RELEASE_TEXT_DATE = "\\d+\\s\\w+\\s\\d{4}";
     private static final String RELEASE_NUMERIC_DATE = "\\(\\d{4}-\\d+-\\d+\\)\\s";
     private static final String RELEASE_LOCATION = "\\w+(\\s\\w+)*";
     private static final String RELEASE_FORMAT = "(%s)\\s(%s)?\\((%s)\\)";
     private static final Pattern RELEASE_PATTERN = compile(format(RELEASE_FORMAT,
             RELEASE_TEXT_DATE, RELEASE_NUMERIC_DATE, RELEASE_LOCATION));
+    private static final Pattern COUNTRY_PATTERN = compile("(.*)\\[\\d+\\]");
+    private static final Pattern RUNNING_TIME_PATTERN = compile("(\\d+\\s+minutes).*");
     private static final String TO_STRING_FORMAT = "Film{title=\"%s\"" +
             ", running time=\"%s\", #releases=%s}";
 
@@ -98,26 +101,24 @@ public class Film {
 
         for(Map.Entry<String, List<Pair<String, String>>> e : attributes.entrySet()) {
             BiConsumer<Film, List<Pair<String, String>>> method = ATTRIBUTE_HANDLER.getOrDefault(
-                    e.getKey(), (d, p) -> {});
+                    e.getKey(), IGNORE);
             method.accept(this, e.getValue());
         }
     }
 
     private void handleCountries(List<Pair<String, String>> countries) {
-        Pattern pattern = compile("(.*)\\[\\d+\\]");
         this.countries = countries.stream()
                 .map(Pair::getSecond)
-                .map(pattern::matcher)
+                .map(COUNTRY_PATTERN::matcher)
                 .filter(Matcher::matches)
                 .map(m -> m.group(1))
                 .collect(toList());
     }
 
     private void handleRunningTime(List<Pair<String, String>> runningTimes) {
-        Pattern pattern = compile("(\\d+\\s+minutes).*");
         this.runningTime = runningTimes.stream()
                 .map(Pair::getSecond)
-                .map(pattern::matcher)
+                .map(RUNNING_TIME_PATTERN::matcher)
                 .filter(Matcher::matches)
                 .map(m -> m.group(1))
                 .findAny()
@@ -2,6 +2,7 @@ package de.wiki.loader;
 
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
 
 import java.util.List;
 
@@ -10,6 +11,7 @@ import de.wiki.data.Actor;
 import static de.wiki.data.Actor.TABULAR_ATTRIBUTES;
 import static java.util.Collections.singletonList;
 import static java.util.stream.Collectors.toList;
+import static org.jsoup.select.QueryParser.parse;
 
 /**
  * <p>
@@ -24,8 +26,10 @@ import static java.util.stream.Collectors.toList;
  */
 public final class ActorLoader extends BaseLoader<Actor, String> {
     private static final ActorLoader INSTANCE = new ActorLoader();
-    private static final String NAME_SELECTOR = "div[class=fn]";
-    private static final String TABLE_SELECTOR = "table[class=infobox biography vcard]";
+    private static final Evaluator NAME = parse("div[class=fn]");
+    private static final Evaluator TABLE = parse("table[class=infobox biography vcard]");
+    private static final Evaluator HORIZONTAL_LIST = parse("div[class='hlist hlist-separated']");
+    private static final Evaluator NON_LIST_DATA = parse("td > div, td > span");
 
     private ActorLoader() {
         super(TABULAR_ATTRIBUTES, Actor::new);
@@ -40,23 +44,23 @@ public final class ActorLoader extends BaseLoader<Actor, String> {
     }
 
     @Override
-    protected String getNameSelector() {
-        return NAME_SELECTOR;
+    protected Evaluator getNameEvaluator() {
+        return NAME;
     }
 
     @Override
-    protected String getTableSelector() {
-        return TABLE_SELECTOR;
+    protected Evaluator getTableEvaluator() {
+        return TABLE;
     }
 
     @Override
     protected List<String> handleAttributeRow(Element row) {
-        Element td = row.selectFirst("td");
-        Element hList = td.selectFirst("div[class='hlist hlist-separated']");
-        Elements nonListData = td.select("td > div, td > span");
+        Element td = selectFirst(row, CELL);
+        Element hList = selectFirst(td, HORIZONTAL_LIST);
+        Elements nonListData = select(td, NON_LIST_DATA);
 
         if (hList != null)
-            return hList.select("li")
+            return select(hList, LIST_ENTRY)
                     .stream()
                     .map(Element::text)
                     .map(String::toLowerCase)
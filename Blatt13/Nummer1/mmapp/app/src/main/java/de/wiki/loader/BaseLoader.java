@@ -2,16 +2,21 @@ package de.wiki.loader;
 
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
+import org.jsoup.select.Collector;
 import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Predicate;
 
 import de.util.Pair;
 
 import static de.util.Pair.paired;
+import static org.jsoup.select.QueryParser.parse;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
@@ -21,6 +26,10 @@ import static java.util.stream.Collectors.toMap;
  *      Extracts meta data from a given Wiki-page. Some extractions need to be specialized by
  *      a subclass.
  * </p>
+ * <p>
+ *      All selectors are parsed once into jsoup {@link Evaluator}s and shared by every
+ *      extraction, instead of parsing the selector string again for each table row.
+ * </p>
  *
  * <br><b>Author</b>: <a href="mailto:schustrchr@gmail.com">Ctoffer</a><br>
  *
@@ -28,14 +37,34 @@ import static java.util.stream.Collectors.toMap;
  * @param <T> type of the attribute metadata
  */
 public abstract class BaseLoader<P, T> {
-    private final List<String> tabularAttributes;
+    static final Evaluator CELL = parse("td");
+    static final Evaluator LIST_ENTRY = parse("li");
+
+    private static final Evaluator IMAGE_LINK = parse("a[class=image]");
+    private static final Evaluator IMAGE = parse("img");
+    private static final Evaluator TABLE_OF_CONTENTS = parse("div[class~=toc]");
+    private static final Evaluator PARAGRAPH = parse("p");
+    private static final Evaluator CITE = parse("sup[id^=cite_ref-]");
+    private static final Evaluator ROW_HEADER = parse("th[scope=row]");
+    private static final Evaluator HEADER = parse("th");
+    private static final Evaluator WIKI_LINK = parse("a[href^='/wiki/']");
+
+    private final Set<String> tabularAttributes;
     private final ProductConstructor<P, T> constructor;
 
     BaseLoader(List<String> tabularAttributes, ProductConstructor<P, T> constructor) {
-        this.tabularAttributes = tabularAttributes;
+        this.tabularAttributes = new HashSet<>(tabularAttributes);
         this.constructor = constructor;
     }
 
+    static Elements select(Element root, Evaluator evaluator) {
+        return Collector.collect(evaluator, root);
+    }
+
+    static Element selectFirst(Element root, Evaluator evaluator) {
+        return Collector.findFirst(evaluator, root);
+    }
+
     /**
      * Loads meta data from the given document and creates a product using this metadata.
      *
@@ -52,10 +81,10 @@ public abstract class BaseLoader<P, T> {
     }
 
     private P tryLoadingDataFromWikiHTML(Document doc) {
-        Element table = doc.selectFirst(getTableSelector());
+        Element table = selectFirst(doc, getTableEvaluator());
 
-        String title = table.selectFirst(getNameSelector()).text();
-        Element image = table.selectFirst("a[class=image]").selectFirst("img");
+        String title = selectFirst(table, getNameEvaluator()).text();
+        Element image = selectFirst(selectFirst(table, IMAGE_LINK), IMAGE);
         String relativePath = image.hasAttr("srcset")
                 ? image.attr("srcset")
                 : image.attr("src");
@@ -66,14 +95,16 @@ public abstract class BaseLoader<P, T> {
         return constructor.create(title, imageURL, description, attributes);
     }
 
-    protected abstract String getTableSelector();
+    protected abstract Evaluator getTableEvaluator();
 
-    protected abstract String getNameSelector();
+    protected abstract Evaluator getNameEvaluator();
 
     private String getIntroduction(Document doc) {
-        int index = doc.selectFirst("div[class~=toc]").elementSiblingIndex();
+        // the lead section alone has no table of contents, every paragraph belongs to it
+        Element toc = selectFirst(doc, TABLE_OF_CONTENTS);
+        int index = toc != null ? toc.elementSiblingIndex() : Integer.MAX_VALUE;
         Predicate<String> notEmpty = s -> !s.isEmpty();
-        return doc.select("p")
+        return select(doc, PARAGRAPH)
                 .stream()
                 .filter(p -> p.elementSiblingIndex() < index)
                 .map(this::removeCites)
@@ -84,12 +115,12 @@ public abstract class BaseLoader<P, T> {
     }
 
     private Element removeCites(Element e) {
-        e.select("sup[id^=cite_ref-]").remove();
+        select(e, CITE).remove();
         return e;
     }
 
     private Map<String, List<T>> extractAttributesFromTable(Element table) {
-        List<Element> rows = table.select("th[scope=row]")
+        List<Element> rows = select(table, ROW_HEADER)
                 .stream()
                 .map(Element::parent)
                 .collect(toList());
@@ -106,7 +137,7 @@ public abstract class BaseLoader<P, T> {
     }
 
     private Pair<String, Element> toHeaderContentPair(Element row) {
-        Element th = row.selectFirst("th");
+        Element th = selectFirst(row, HEADER);
         String text = th.text().toLowerCase();
         return paired(text, row);
     }
@@ -122,7 +153,7 @@ public abstract class BaseLoader<P, T> {
     protected abstract List<T> handleAttributeRow(Element row);
 
     Pair<String, String> listEntryToPair(Element li) {
-        Elements anchor = li.select("a[href^='/wiki/']");
+        Elements anchor = select(li, WIKI_LINK);
         if (anchor != null && !anchor.text().isEmpty() && li.ownText().isEmpty()) {
             return paired(anchor.attr("href"), anchor.text());
         } else
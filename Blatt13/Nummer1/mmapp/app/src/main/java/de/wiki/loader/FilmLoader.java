@@ -1,6 +1,7 @@
 package de.wiki.loader;
 
 import org.jsoup.nodes.Element;
+import org.jsoup.select.Evaluator;
 
 import java.util.List;
 
@@ -10,6 +11,7 @@ import de.wiki.data.Film;
 import static de.util.Pair.paired;
 import static java.util.Collections.singletonList;
 import static java.util.stream.Collectors.toList;
+import static org.jsoup.select.QueryParser.parse;
 
 /**
  * <p>
@@ -24,8 +26,9 @@ import static java.util.stream.Collectors.toList;
  */
 public final class FilmLoader extends BaseLoader<Film, Pair<String, String>> {
     private static final  FilmLoader INSTANCE = new FilmLoader();
-    private static final String NAME_SELECTOR = "th[class=summary]";
-    private static final String TABLE_SELECTOR = "table[class=infobox vevent]";
+    private static final Evaluator NAME = parse("th[class=summary]");
+    private static final Evaluator TABLE = parse("table[class=infobox vevent]");
+    private static final Evaluator PLAIN_LIST = parse("div[class=plainlist]");
 
     private FilmLoader() {
         super(Film.TABULAR_ATTRIBUTES, Film::new);
@@ -40,22 +43,22 @@ public final class FilmLoader extends BaseLoader<Film, Pair<String, String>> {
     }
 
     @Override
-    protected  String getNameSelector() {
-        return NAME_SELECTOR;
+    protected  Evaluator getNameEvaluator() {
+        return NAME;
     }
 
     @Override
-    protected  String getTableSelector() {
-        return TABLE_SELECTOR;
+    protected  Evaluator getTableEvaluator() {
+        return TABLE;
     }
 
     @Override
     protected List<Pair<String, String>> handleAttributeRow(Element row) {
-        Element td = row.selectFirst("td");
-        Element plainList = td.selectFirst("div[class=plainlist]");
+        Element td = selectFirst(row, CELL);
+        Element plainList = selectFirst(td, PLAIN_LIST);
 
         if (plainList != null)
-            return plainList.select("li")
+            return select(plainList, LIST_ENTRY)
                     .stream()
                     .map(this::listEntryToPair)
                     .collect(toList());
@@ -0,0 +1,64 @@
+package de.wiki.query;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import de.wiki.WikiException;
+
+import static de.wiki.query.QueryResultFormat.JSON;
+
+/**
+ * Class to manage the building of a query for the rendered lead section of a Wiki page.
+ * The lead section (section 0) contains the infobox and the introduction, which is all the
+ * data a loader needs, but it is only a fraction of the size of the complete article.
+ */
+public final class LeadSectionQuery {
+    private static final String ACTION_PARSE = "parse";
+    private static final String KEY_PARSE = "parse";
+    private static final String KEY_TEXT = "text";
+
+    private LeadSectionQuery() {
+
+    }
+
+    /**
+     * Creates an URL-query for the WikiMedia-API, which renders only the lead section of the
+     * page with the given id.<br>
+     * Example URL for the lead section of 'Johnny Depp':<br>
+     * <a href="https://en.wikipedia.org/w/api.php?action=parse&amp;pageid=71870&amp;section=0&amp;prop=text&amp;disablelimitreport=1&amp;disableeditsection=1&amp;formatversion=2&amp;format=jsonfm">Show in browser</a>
+     *
+     * @param wiki the name of the Wiki
+     * @param pageId id of the page as contained in its meta data
+     * @return an URL containing the query for the WikiMedia-API
+     */
+    public static String createQueryURL(String wiki, long pageId) {
+        return "https://" + wiki + "/w/api.php?" +
+                "action=" + ACTION_PARSE + "&" +
+                "pageid=" + pageId + "&" +
+                "section=0&" +
+                "prop=text&" +
+                "disablelimitreport=1&" +
+                "disableeditsection=1&" +
+                "formatversion=2&" +
+                "format=" + JSON;
+    }
+
+    /**
+     * Extracts the rendered html from the result of a query created by
+     * {@link #createQueryURL(String, long)}.
+     *
+     * @param json result of the query
+     * @return html of the lead section
+     * @throws WikiException if the result contains no rendered text, e.g. because the page
+     *                       doesn't exist
+     */
+    public static String extractHtml(String json) {
+        final JsonObject parse = JsonParser.parseString(json).getAsJsonObject().getAsJsonObject(KEY_PARSE);
+        final JsonElement text = parse == null ? null : parse.get(KEY_TEXT);
+        if (text == null || !text.isJsonPrimitive()) {
+            throw new WikiException("Result contains no lead section");
+        }
+        return text.getAsString();
+    }
+}
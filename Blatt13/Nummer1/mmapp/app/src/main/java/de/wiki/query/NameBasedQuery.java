@@ -14,7 +14,7 @@ import static java.nio.charset.StandardCharsets.UTF_8;
  * <br><b>Author</b>: <a href="mailto:schustrchr@gmail.com">Ctoffer</a><br>
  */
 public class NameBasedQuery {
-    private static final String ACTION_QUERY = "query";
+    static final String ACTION_QUERY = "query";
 
     private static final String PARAM_CATEGORIES = "categories";
     private static final String PARAM_INFO = "info";
@@ -60,13 +60,13 @@ public class NameBasedQuery {
                 .build();
     }
 
-    private static URLParameter categories() {
+    static URLParameter categories() {
         return new URLParameterBuilder(PARAM_CATEGORIES)
                 .addAttribute(CATEGORY_PREFIX + LIMIT, "max")
                 .build();
     }
 
-    private static URLParameter info() {
+    static URLParameter info() {
         return new URLParameterBuilder(PARAM_INFO)
                 .addAttribute(INFO_PREFIX + PROPERTY, "url")
                 .build();
@@ -79,7 +79,7 @@ public class NameBasedQuery {
                 .build();
     }
 
-    private static String encodeForURL(String name) {
+    static String encodeForURL(String name) {
         try {
             return encode(name, encoding);
         } catch (UnsupportedEncodingException uee) {
@@ -10,6 +10,8 @@ class QueryBuilder {
    private String action;
    private final List<URLParameter> properties;
    private URLParameter generator;
+   private List<String> titles;
+   private boolean resolveRedirects;
    private QueryResultFormat format;
 
    QueryBuilder(String wiki) {
@@ -32,6 +34,16 @@ class QueryBuilder {
       return this;
    }
 
+   QueryBuilder setTitles(List<String> titles) {
+      this.titles = titles;
+      return this;
+   }
+
+   QueryBuilder setResolveRedirects(boolean resolveRedirects) {
+      this.resolveRedirects = resolveRedirects;
+      return this;
+   }
+
    QueryBuilder setFormat(QueryResultFormat format) {
       this.format = format;
       return this;
@@ -50,8 +62,16 @@ class QueryBuilder {
                 "action=" + action + "&" +
                 "prop=" + propString + "&" +
                 attrs + "&" +
-                "generator=" + generator.getName() + "&" +
-                generator.getAttributeString() + "&" +
+                pageSource() +
                 "format=" + format;
    }
+
+   private String pageSource() {
+      if (generator != null) {
+         return "generator=" + generator.getName() + "&" +
+                 generator.getAttributeString() + "&";
+      }
+      return "titles=" + String.join("|", titles) + "&" +
+              (resolveRedirects ? "redirects=1&" : "");
+   }
 }
@@ -0,0 +1,241 @@
+package de.wiki.query;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static de.wiki.query.NameBasedQuery.ACTION_QUERY;
+import static de.wiki.query.NameBasedQuery.categories;
+import static de.wiki.query.NameBasedQuery.encodeForURL;
+import static de.wiki.query.NameBasedQuery.info;
+import static de.wiki.query.QueryResultFormat.JSON;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Class to manage the building of queries for many complete page titles at once.
+ * In contrast to {@link NameBasedQuery} no search is performed, every title is looked up
+ * directly. The titles are split into batches, so that no request exceeds the title limit
+ * of the WikiMedia-API or a safe URL length. Redirects are resolved by the API, and
+ * {@link #assignPages(Collection, JsonObject)} maps each requested title to its final page.
+ */
+public final class TitleBatchQuery {
+    public static final int MAX_TITLES_PER_QUERY = 50;
+    static final int MAX_URL_LENGTH = 8000;
+
+    private static final String KEY_QUERY = "query";
+    private static final String KEY_PAGES = "pages";
+    private static final String KEY_TITLE = "title";
+    private static final String KEY_FROM = "from";
+    private static final String KEY_TO = "to";
+    private static final String KEY_MISSING = "missing";
+    private static final String KEY_INVALID = "invalid";
+    private static final String KEY_CONTINUE = "continue";
+    private static final String[] TITLE_MAPPINGS = {"normalized", "redirects"};
+    private static final String ARTICLE_PATH = "/wiki/";
+
+    private TitleBatchQuery() {
+
+    }
+
+    /**
+     * Splits the titles into batches, each of them can be requested with
+     * {@link #createQueryURL(String, List)}. Duplicates are removed and the order is kept.
+     *
+     * @param wiki the name of the Wiki
+     * @param titles complete titles of the pages
+     * @return batches of at most {@value #MAX_TITLES_PER_QUERY} titles
+     */
+    public static List<List<String>> partition(String wiki, Collection<String> titles) {
+        final List<List<String>> batches = new ArrayList<>();
+        final int baseLength = createQueryURL(wiki, new ArrayList<>()).length();
+        List<String> batch = new ArrayList<>();
+        int length = baseLength;
+
+        for (final String title : new LinkedHashSet<>(titles)) {
+            final int titleLength = encodeForURL(title).length() + 1;
+            if (!batch.isEmpty() && (batch.size() == MAX_TITLES_PER_QUERY
+                    || length + titleLength > MAX_URL_LENGTH)) {
+                batches.add(batch);
+                batch = new ArrayList<>();
+                length = baseLength;
+            }
+            batch.add(title);
+            length += titleLength;
+        }
+
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    /**
+     * Extracts the page title of an internal link of an article, e.g. '/wiki/Johnny_Depp'.
+     * The title is passed to the WikiMedia-API as it is, which normalizes the underscores.
+     *
+     * @param link the href of the link
+     * @return the title, or an empty Optional if the link doesn't point to an article
+     */
+    public static Optional<String> titleOfLink(String link) {
+        if (link == null || !link.startsWith(ARTICLE_PATH)) {
+            return Optional.empty();
+        }
+
+        final int fragment = link.indexOf('#');
+        final String path = link.substring(ARTICLE_PATH.length(), fragment < 0 ? link.length() : fragment);
+        try {
+            return path.isEmpty() ? Optional.empty() : Optional.of(URLDecoder.decode(path, UTF_8.name()));
+        } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Creates an URL-query for the WikiMedia-API, which retrieves the categories and the info
+     * of every given page, following redirects.<br>
+     * Example URL for retrieving 'Johnny Depp' and 'Orlando Bloom':<br>
+     * <a href="https://en.wikipedia.org/w/api.php?action=query&amp;prop=categories|info&amp;cllimit=max&amp;inprop=url&amp;titles=Johnny+Depp|Orlando+Bloom&amp;redirects=1&amp;format=jsonfm">Show in browser</a>
+     *
+     * @param wiki the name of the Wiki
+     * @param titles complete titles of the pages, should be a batch of {@link #partition}
+     * @return an URL containing the query for the WikiMedia-API
+     */
+    public static String createQueryURL(String wiki, List<String> titles) {
+        return new QueryBuilder(wiki)
+                .setAction(ACTION_QUERY)
+                .addProperty(categories())
+                .addProperty(info())
+                .setTitles(titles.stream().map(NameBasedQuery::encodeForURL).collect(toList()))
+                .setResolveRedirects(true)
+                .setFormat(JSON)
+                .build();
+    }
+
+    /**
+     * Creates the URL for the next part of a result. The WikiMedia-API splits large results,
+     * e.g. if the categories of all pages exceed the category limit, and returns
+     * a <i>continue</i> object in this case.
+     *
+     * @param url the URL of the first request
+     * @param result the last received result
+     * @return URL of the next part or <i>null</i> if the result is complete
+     */
+    public static String createContinuationURL(String url, JsonObject result) {
+        final JsonObject continuation = result.getAsJsonObject(KEY_CONTINUE);
+        if (continuation == null) {
+            return null;
+        }
+
+        final StringBuilder next = new StringBuilder(url);
+        for (final Map.Entry<String, JsonElement> entry : continuation.entrySet()) {
+            next.append('&')
+                    .append(entry.getKey())
+                    .append('=')
+                    .append(encodeForURL(entry.getValue().getAsString()));
+        }
+        return next.toString();
+    }
+
+    /**
+     * Merges the pages of a continued result into the first result. Array properties of the
+     * pages like the categories are concatenated.
+     *
+     * @param result the first result, is modified
+     * @param continued the result of a continuation URL
+     */
+    public static void mergeContinuedResult(JsonObject result, JsonObject continued) {
+        final JsonObject pages = pagesOf(result);
+        final JsonObject continuedPages = pagesOf(continued);
+        if (pages == null || continuedPages == null) {
+            return;
+        }
+
+        for (final Map.Entry<String, JsonElement> entry : continuedPages.entrySet()) {
+            final JsonObject page = pages.getAsJsonObject(entry.getKey());
+            if (page == null) {
+                pages.add(entry.getKey(), entry.getValue());
+            } else {
+                mergePage(page, entry.getValue().getAsJsonObject());
+            }
+        }
+    }
+
+    private static void mergePage(JsonObject page, JsonObject continued) {
+        for (final Map.Entry<String, JsonElement> property : continued.entrySet()) {
+            final JsonElement known = page.get(property.getKey());
+            if (known != null && known.isJsonArray() && property.getValue().isJsonArray()) {
+                known.getAsJsonArray().addAll(property.getValue().getAsJsonArray());
+            } else if (known == null) {
+                page.add(property.getKey(), property.getValue());
+            }
+        }
+    }
+
+    /**
+     * Maps each requested title to the meta data of its page. Normalizations of the title and
+     * redirects reported by the WikiMedia-API are followed, missing and invalid pages are left out.
+     *
+     * @param titles the requested titles
+     * @param result the complete result of the query
+     * @return map from requested title to page meta data, in order of the titles
+     */
+    public static Map<String, JsonObject> assignPages(Collection<String> titles, JsonObject result) {
+        final Map<String, JsonObject> assigned = new LinkedHashMap<>();
+        final JsonObject pages = pagesOf(result);
+        if (pages == null) {
+            return assigned;
+        }
+
+        final Map<String, JsonObject> pagesByTitle = new HashMap<>();
+        for (final String key : pages.keySet()) {
+            final JsonObject page = pages.getAsJsonObject(key);
+            if (!page.has(KEY_MISSING) && !page.has(KEY_INVALID) && page.has(KEY_TITLE)) {
+                pagesByTitle.put(page.get(KEY_TITLE).getAsString(), page);
+            }
+        }
+
+        final JsonObject query = result.getAsJsonObject(KEY_QUERY);
+        for (final String title : titles) {
+            final JsonObject page = pagesByTitle.get(resolve(query, title));
+            if (page != null) {
+                assigned.put(title, page);
+            }
+        }
+        return assigned;
+    }
+
+    private static String resolve(JsonObject query, String title) {
+        String resolved = title;
+        for (final String mapping : TITLE_MAPPINGS) {
+            final JsonArray entries = query.getAsJsonArray(mapping);
+            if (entries == null) {
+                continue;
+            }
+            for (final JsonElement element : entries) {
+                final JsonObject entry = element.getAsJsonObject();
+                if (resolved.equals(entry.get(KEY_FROM).getAsString())) {
+                    resolved = entry.get(KEY_TO).getAsString();
+                    break;
+                }
+            }
+        }
+        return resolved;
+    }
+
+    private static JsonObject pagesOf(JsonObject result) {
+        final JsonObject query = result.getAsJsonObject(KEY_QUERY);
+        return query == null ? null : query.getAsJsonObject(KEY_PAGES);
+    }
+}
@@ -0,0 +1,137 @@
+package de.fulltext;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.util.Pair;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FullTextIndexTest {
+    private static final File FILE = new File("TestFullTextIndex.idx");
+
+    private FullTextIndex index;
+
+    @BeforeEach
+    void init() {
+        index = new FullTextIndex();
+        index.put(0, "A pirate captain searches for the treasure of a pirate ship. Caribbean");
+        index.put(1, "Hobbits travel to Mordor. English, New Zealand");
+        index.put(2, "A ship sinks in the North Atlantic. English");
+    }
+
+    @AfterEach
+    void cleanup() {
+        FILE.delete();
+    }
+
+    private static List<Integer> ids(final List<Pair<Integer, Double>> results) {
+        return results.stream().map(Pair::getFirst).collect(toList());
+    }
+
+    @Test
+    void testFindsDocumentsContainingTerms() {
+        // test
+        assertEquals(asList(0), ids(index.search("pirates pirate", 10)));
+        assertEquals(asList(1), ids(index.search("zealand", 10)));
+        assertEquals(emptyList(), ids(index.search("dragon", 10)));
+    }
+
+    @Test
+    void testRanksByTermFrequencyAndRarity() {
+        // test
+        assertEquals(asList(0, 2), ids(index.search("pirate ship", 10)));
+        assertEquals(asList(2, 0), ids(index.search("ship atlantic", 10)));
+        assertEquals(asList(2), ids(index.search("ship atlantic", 1)));
+    }
+
+    @Test
+    void testEqualScoresOrderedById() {
+        // setup
+        index.put(3, "A ship sinks in the North Atlantic. English");
+
+        // test
+        assertEquals(asList(2, 3), ids(index.search("atlantic", 10)));
+    }
+
+    @Test
+    void testReplaceAndRemove() {
+        // setup
+        index.put(1, "Elves sail west");
+
+        // precondition
+        assertEquals(3, index.size());
+
+        // test
+        assertEquals(emptyList(), ids(index.search("mordor", 10)));
+        assertEquals(asList(1), ids(index.search("elves", 10)));
+        assertTrue(index.remove(1));
+        assertFalse(index.remove(1));
+        assertEquals(emptyList(), ids(index.search("elves", 10)));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void testSynchronize() {
+        // setup
+        final Map<Integer, String> texts = new HashMap<>();
+        texts.put(0, "A pirate captain searches for the treasure of a pirate ship. Caribbean");
+        texts.put(2, "An iceberg");
+        texts.put(5, "Dragons");
+
+        // precondition
+        assertTrue(index.isIndexed(0, texts.get(0)));
+        assertFalse(index.isIndexed(2, texts.get(2)));
+
+        // test
+        index.synchronize(texts);
+        assertEquals(3, index.size());
+        assertEquals(emptyList(), ids(index.search("hobbits", 10)));
+        assertEquals(asList(2), ids(index.search("iceberg", 10)));
+        assertEquals(asList(5), ids(index.search("dragons", 10)));
+        assertEquals(asList(0), ids(index.search("caribbean", 10)));
+    }
+
+    @Test
+    void testSaveAndLoad() throws IOException {
+        // precondition
+        assertTrue(index.isModified());
+
+        // test
+        index.save(FILE);
+        assertFalse(index.isModified());
+
+        final FullTextIndex loaded = FullTextIndex.load(FILE);
+        assertFalse(loaded.isModified());
+        assertEquals(index.size(), loaded.size());
+        assertEquals(index.search("pirate ship english", 10), loaded.search("pirate ship english", 10));
+        assertTrue(loaded.isIndexed(1, "Hobbits travel to Mordor. English, New Zealand"));
+
+        loaded.remove(0);
+        loaded.put(4, "Pirates again");
+        assertEquals(asList(4), ids(loaded.search("pirate pirates", 10)));
+    }
+
+    @Test
+    void testLoadRejectsForeignFile() throws IOException {
+        // setup
+        Files.write(FILE.toPath(), "not an index".getBytes());
+
+        // test
+        assertThrows(IOException.class, () -> FullTextIndex.load(FILE));
+    }
+}
@@ -0,0 +1,30 @@
+package de.fulltext;
+
+import org.junit.jupiter.api.Test;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TokenizerTest {
+    @Test
+    void testSplitsAtNonLetters() {
+        // test
+        assertEquals(asList("star", "wars", "episode", "iv", "1977"),
+                Tokenizer.tokenize("Star Wars: Episode IV (1977)"));
+    }
+
+    @Test
+    void testFoldsCaseAndDiacritics() {
+        // test
+        assertEquals(asList("zurich", "sao", "paulo"), Tokenizer.tokenize("Z\u00fcrich, S\u00e3o PAULO"));
+    }
+
+    @Test
+    void testDropsShortTerms() {
+        // test
+        assertEquals(asList("of", "rings"), Tokenizer.tokenize("a of - Rings"));
+        assertEquals(emptyList(), Tokenizer.tokenize(""));
+        assertEquals(emptyList(), Tokenizer.tokenize(null));
+    }
+}
@@ -0,0 +1,125 @@
+package de.moviemanager.core.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import de.moviemanager.data.ImagePyramid;
+
+import static de.moviemanager.data.ImagePyramid.ImageSize.MEDIUM;
+import static de.moviemanager.data.ImagePyramid.ImageSize.SMALL;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImageLoaderTest {
+    private List<Runnable> queuedWork;
+    private int decodeCount;
+    private ImageLoader loader;
+    private ImagePyramid pyramid;
+
+    @BeforeEach
+    void init() {
+        queuedWork = new ArrayList<>();
+        decodeCount = 0;
+        loader = new ImageLoader(queuedWork::add, Runnable::run, (p, size) -> {
+            ++decodeCount;
+            return Optional.empty();
+        });
+        pyramid = new ImagePyramid(7);
+        pyramid.setPrefix("movie");
+    }
+
+    private void runQueuedWork() {
+        final List<Runnable> work = new ArrayList<>(queuedWork);
+        queuedWork.clear();
+        work.forEach(Runnable::run);
+    }
+
+    @Test
+    void testRequestsForSameKeyAreCoalesced() {
+        // setup
+        final List<String> delivered = new ArrayList<>();
+        loader.load(pyramid, MEDIUM, b -> delivered.add("first"));
+        loader.load(pyramid, MEDIUM, b -> delivered.add("second"));
+        loader.load(pyramid, SMALL, b -> delivered.add("small"));
+
+        // precondition
+        assertEquals(2, queuedWork.size());
+
+        // test
+        runQueuedWork();
+        assertEquals(2, decodeCount);
+        assertEquals(3, delivered.size());
+        assertEquals(0, loader.getNumberOfPendingLoads());
+    }
+
+    @Test
+    void testCancelledRequestIsNotDelivered() {
+        // setup
+        final List<String> delivered = new ArrayList<>();
+        final ImageLoader.Request first = loader.load(pyramid, MEDIUM, b -> delivered.add("first"));
+        loader.load(pyramid, MEDIUM, b -> delivered.add("second"));
+
+        // test
+        first.cancel();
+        runQueuedWork();
+        assertTrue(first.isCancelled());
+        assertEquals(1, decodeCount);
+        assertEquals(1, delivered.size());
+        assertEquals("second", delivered.get(0));
+    }
+
+    @Test
+    void testLoadWithoutRequestsIsSkipped() {
+        // setup
+        final ImageLoader.Request request = loader.load(pyramid, MEDIUM, b -> {
+        });
+
+        // test
+        request.cancel();
+        assertEquals(0, loader.getNumberOfPendingLoads());
+        runQueuedWork();
+        assertEquals(0, decodeCount);
+    }
+
+    @Test
+    void testFailedDecodingDeliversNoImageAndAllowsNewLoad() {
+        // setup
+        loader = new ImageLoader(queuedWork::add, Runnable::run, (p, size) -> {
+            ++decodeCount;
+            throw new IllegalStateException("corrupt file");
+        });
+        final List<Optional<?>> delivered = new ArrayList<>();
+        loader.load(pyramid, MEDIUM, delivered::add);
+
+        // precondition
+        assertThrows(IllegalStateException.class, this::runQueuedWork);
+
+        // test
+        assertEquals(1, delivered.size());
+        assertFalse(delivered.get(0).isPresent());
+        assertEquals(0, loader.getNumberOfPendingLoads());
+        loader.load(pyramid, MEDIUM, delivered::add);
+        assertEquals(1, queuedWork.size());
+    }
+
+    @Test
+    void testInvalidationStartsNewLoad() {
+        // setup
+        loader.load(pyramid, MEDIUM, b -> {
+        });
+
+        // test
+        loader.invalidate(pyramid.id());
+        loader.load(pyramid, MEDIUM, b -> {
+        });
+        assertEquals(2, queuedWork.size());
+        runQueuedWork();
+        assertEquals(2, decodeCount);
+    }
+}
@@ -0,0 +1,194 @@
+package de.moviemanager.core.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import de.moviemanager.data.ImagePyramid;
+import de.moviemanager.data.Movie;
+import de.moviemanager.data.Performer;
+import de.moviemanager.util.FileUtils;
+import de.storage.StorageException;
+
+import static de.moviemanager.data.MovieTransformations.setLanguages;
+import static de.moviemanager.data.MovieTransformations.setRuntime;
+import static de.moviemanager.data.MovieTransformations.setTitle;
+import static de.moviemanager.data.PerformerTransformations.setName;
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LibraryTransferTest {
+    private static final File HOME = new File("TestLibraryTransfer");
+    private static final File EXPORT = new File("TestLibraryTransfer.ndjson");
+    private static final File EXPORT_IMAGES = new File("TestLibraryTransfer.ndjson.images");
+    private static final Supplier<StorageException> CREATION_FAILED = () -> new StorageException("Creation failed");
+
+    private RuntimeStorage storage;
+
+    @BeforeEach
+    void init() {
+        storage = RuntimeStorage.getInstance(HOME);
+        storage.clear();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        storage.selfDestruct();
+        FileUtils.delete(EXPORT);
+        FileUtils.delete(EXPORT_IMAGES);
+        FileUtils.delete(ImportCheckpoint.fileFor(EXPORT));
+    }
+
+    private void fillStorage(final int numberOfMovies) {
+        for (int i = 0; i < numberOfMovies; ++i) {
+            final Movie movie = storage.newMovie()
+                    .addOperation(setTitle("Movie " + i))
+                    .addOperation(setRuntime(90 + i))
+                    .addOperation(setLanguages(asList("English", "German")))
+                    .commit()
+                    .orElseThrow(CREATION_FAILED);
+            storage.newPerformer(movie)
+                    .addOperation(setName("Performer " + i))
+                    .commit()
+                    .orElseThrow(CREATION_FAILED);
+        }
+        final List<Movie> movies = storage.getMovies();
+        storage.link(movies.get(0), storage.getPerformers().get(numberOfMovies - 1));
+    }
+
+    @Test
+    void testExportImportRoundTrip() {
+        // setup
+        fillStorage(5);
+        final List<String> titles = storage.getMovies().stream().map(Movie::getTitle).collect(toList());
+        final List<String> names = storage.getPerformers().stream().map(Performer::getName).collect(toList());
+        storage.exportLibrary(EXPORT, TransferProgress.NONE);
+        storage.clear();
+
+        // precondition
+        assertTrue(EXPORT.exists());
+        assertTrue(storage.getMovies().isEmpty());
+
+        // test
+        storage.importLibrary(EXPORT, TransferProgress.NONE);
+        assertEquals(titles, storage.getMovies().stream().map(Movie::getTitle).collect(toList()));
+        assertEquals(names, storage.getPerformers().stream().map(Performer::getName).collect(toList()));
+        assertEquals(asList("English", "German"), storage.getMovies().get(3).getLanguages());
+        assertEquals(93, storage.getMovies().get(3).getRuntime());
+
+        final Movie first = storage.getMovies().get(0);
+        assertEquals(2, storage.getLinkedPerformersOfMovie(first).size());
+        assertFalse(ImportCheckpoint.fileFor(EXPORT).exists());
+    }
+
+    @Test
+    void testImportResumesFromCheckpoint() throws IOException {
+        // setup
+        fillStorage(10);
+        storage.exportLibrary(EXPORT, TransferProgress.NONE);
+        storage.clear();
+
+        final LibraryImporter interrupted = new LibraryImporter(storage);
+        interrupted.setBatchSize(7);
+        interrupted.setProgress((processed, total) -> {
+            throw new IllegalStateException("Interrupted");
+        });
+
+        // precondition
+        assertThrows(IllegalStateException.class, () -> interrupted.importFrom(EXPORT));
+        assertTrue(ImportCheckpoint.fileFor(EXPORT).exists());
+        assertFalse(storage.getMovies().isEmpty());
+
+        // test
+        final LibraryImporter resumed = new LibraryImporter(storage);
+        resumed.setBatchSize(7);
+        resumed.importFrom(EXPORT);
+        assertEquals(10, storage.getMovies().size());
+        assertEquals(10, storage.getPerformers().size());
+        assertEquals(2, storage.getLinkedPerformersOfMovie(storage.getMovies().get(0)).size());
+        assertFalse(ImportCheckpoint.fileFor(EXPORT).exists());
+    }
+
+    @Test
+    void testBrokenRecordRollsBackBatch() throws IOException {
+        // setup
+        FileUtils.writeLines(EXPORT, asList(
+                "{\"type\":\"movie\",\"data\":{\"id\":0,\"name\":\"Fine\"}}",
+                "{\"type\":\"link\",\"data\":{\"first\":0,\"second\":42}}"
+        ));
+
+        // test
+        assertThrows(StorageException.class, () -> storage.importLibrary(EXPORT, TransferProgress.NONE));
+        assertTrue(storage.getMovies().isEmpty());
+    }
+
+    @Test
+    void testImportSharesImagesWithSameHash() throws IOException {
+        // setup
+        FileUtils.writeLines(EXPORT, asList(
+                "{\"type\":\"image\",\"data\":{\"id\":0,\"prefix\":\"movie\",\"hash\":\"cafe\",\"references\":1}}",
+                "{\"type\":\"movie\",\"data\":{\"id\":0,\"name\":\"Shared\",\"imageId\":0}}"
+        ));
+        storage.importLibrary(EXPORT, TransferProgress.NONE);
+
+        // precondition
+        final Movie first = storage.getMovies().get(0);
+        final ImagePyramid pyramid = storage.getImageById(first.getImageId()).orElseThrow(CREATION_FAILED);
+        assertEquals(1, pyramid.getReferences());
+
+        // test
+        storage.importLibrary(EXPORT, TransferProgress.NONE);
+        final Movie second = storage.getMovies().get(1);
+        assertEquals(first.getImageId(), second.getImageId());
+        assertEquals(2, pyramid.getReferences());
+
+        storage.removeMovie(second).commit();
+        assertEquals(Optional.of(pyramid), storage.getImageById(first.getImageId()));
+        assertEquals(1, pyramid.getReferences());
+
+        storage.removeMovie(first).commit();
+        assertFalse(storage.getImageById(pyramid.id()).isPresent());
+    }
+
+    @Test
+    void testSharedImageIsExportedOnceAndCountedOnImport() throws IOException {
+        // setup
+        FileUtils.writeLines(EXPORT, asList(
+                "{\"type\":\"image\",\"data\":{\"id\":0,\"prefix\":\"movie\",\"hash\":\"cafe\",\"references\":2}}",
+                "{\"type\":\"image\",\"data\":{\"id\":0,\"prefix\":\"movie\",\"hash\":\"cafe\",\"references\":2}}",
+                "{\"type\":\"movie\",\"data\":{\"id\":0,\"name\":\"First\",\"imageId\":0}}",
+                "{\"type\":\"movie\",\"data\":{\"id\":1,\"name\":\"Second\",\"imageId\":0}}"
+        ));
+        storage.importLibrary(EXPORT, TransferProgress.NONE);
+
+        // precondition
+        final List<Movie> movies = storage.getMovies();
+        assertEquals(movies.get(0).getImageId(), movies.get(1).getImageId());
+        final ImagePyramid pyramid = storage.getImageById(movies.get(0).getImageId()).orElseThrow(CREATION_FAILED);
+        assertEquals(2, pyramid.getReferences());
+
+        // test
+        storage.exportLibrary(EXPORT, TransferProgress.NONE);
+        final long images = FileUtils.readAllLines(EXPORT)
+                .stream()
+                .filter(line -> line.contains("\"type\":\"image\""))
+                .count();
+        assertEquals(1, images);
+        assertTrue(FileUtils.readAllLines(EXPORT).get(0).contains("\"images\":\"" + EXPORT_IMAGES.getName() + "\""));
+
+        storage.clear();
+        storage.importLibrary(EXPORT, TransferProgress.NONE);
+        final Movie imported = storage.getMovies().get(0);
+        assertEquals(2, storage.getImageById(imported.getImageId()).orElseThrow(CREATION_FAILED).getReferences());
+    }
+}
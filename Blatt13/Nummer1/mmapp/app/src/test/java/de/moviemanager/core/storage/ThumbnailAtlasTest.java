@@ -0,0 +1,153 @@
+package de.moviemanager.core.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import de.moviemanager.util.FileUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ThumbnailAtlasTest {
+    private static final File ATLAS = new File("TestThumbnailAtlas.atlas");
+    private static final File INDEX = new File("TestThumbnailAtlas.atlas.index");
+    private static final int WIDTH = 2;
+    private static final int HEIGHT = 3;
+    private static final int CELL_BYTES = WIDTH * HEIGHT * 4;
+    private static final int MAX_CELLS = 3;
+
+    private ThumbnailAtlas atlas;
+
+    @BeforeEach
+    void init() {
+        atlas = new ThumbnailAtlas(ATLAS, WIDTH, HEIGHT, MAX_CELLS);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        atlas.close();
+        FileUtils.delete(ATLAS);
+        FileUtils.delete(INDEX);
+    }
+
+    private static ByteBuffer cellFilledWith(final int value) {
+        final ByteBuffer buffer = ByteBuffer.allocate(CELL_BYTES);
+        while (buffer.hasRemaining()) {
+            buffer.put((byte) value);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private int firstByteOfCell(final int id) {
+        return atlas.read(id)
+                .map(buffer -> (int) buffer.get(0))
+                .orElse(-1);
+    }
+
+    @Test
+    void testWrittenCellsCanBeRead() {
+        // setup
+        atlas.write(3, cellFilledWith(7));
+        atlas.write(0, cellFilledWith(5));
+
+        // test
+        assertEquals(CELL_BYTES, (int) atlas.read(3).map(ByteBuffer::remaining).orElse(0));
+        assertEquals(7, firstByteOfCell(3));
+        assertEquals(5, firstByteOfCell(0));
+        assertFalse(atlas.read(1).isPresent());
+        assertFalse(atlas.read(42).isPresent());
+    }
+
+    @Test
+    void testIndexSurvivesReopening() {
+        // setup
+        atlas.write(1, cellFilledWith(9));
+        atlas.close();
+
+        // test
+        atlas = new ThumbnailAtlas(ATLAS, WIDTH, HEIGHT, MAX_CELLS);
+        assertEquals(9, firstByteOfCell(1));
+        assertEquals(1, atlas.getNumberOfCells());
+    }
+
+    @Test
+    void testRemovedCellsAreReused() {
+        // setup
+        atlas.write(0, cellFilledWith(1));
+        atlas.write(1, cellFilledWith(2));
+        atlas.remove(0);
+
+        // precondition
+        assertFalse(atlas.read(0).isPresent());
+        assertEquals(1, atlas.getNumberOfCells());
+
+        // test
+        assertTrue(atlas.write(2, cellFilledWith(3)));
+        assertTrue(atlas.write(3, cellFilledWith(4)));
+        assertEquals(MAX_CELLS, atlas.getNumberOfCells());
+        assertEquals(2, firstByteOfCell(1));
+        assertEquals(3, firstByteOfCell(2));
+        assertEquals(4, firstByteOfCell(3));
+    }
+
+    @Test
+    void testRewritingKeepsCell() {
+        // setup
+        atlas.write(4, cellFilledWith(1));
+
+        // test
+        atlas.write(4, cellFilledWith(8));
+        assertEquals(1, atlas.getNumberOfCells());
+        assertTrue(atlas.read(4).isPresent());
+        assertEquals(8, firstByteOfCell(4));
+    }
+
+    @Test
+    void testFullAtlasOnlyRewritesItsCells() {
+        // setup
+        for (int id = 0; id < MAX_CELLS; ++id) {
+            assertTrue(atlas.write(id, cellFilledWith(id)));
+        }
+
+        // test
+        assertFalse(atlas.write(MAX_CELLS, cellFilledWith(7)));
+        assertFalse(atlas.read(MAX_CELLS).isPresent());
+        assertEquals(MAX_CELLS, atlas.getNumberOfCells());
+        assertEquals(MAX_CELLS * CELL_BYTES, ATLAS.length());
+
+        assertTrue(atlas.write(1, cellFilledWith(7)));
+        assertEquals(7, firstByteOfCell(1));
+    }
+
+    @Test
+    void testCellsOfSeveralChunksCanBeRead() {
+        // setup
+        final int maxCells = 100;
+        atlas.close();
+        atlas = new ThumbnailAtlas(ATLAS, WIDTH, HEIGHT, maxCells);
+        for (int id = 0; id < maxCells; ++id) {
+            atlas.write(id, cellFilledWith(id));
+        }
+        atlas.close();
+
+        // test
+        atlas = new ThumbnailAtlas(ATLAS, WIDTH, HEIGHT, maxCells);
+        assertEquals(maxCells * CELL_BYTES, ATLAS.length());
+        for (int id = 0; id < maxCells; ++id) {
+            assertEquals(id, firstByteOfCell(id));
+        }
+    }
+
+    @Test
+    void testCellOfWrongSizeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> atlas.write(0, ByteBuffer.allocate(CELL_BYTES + 1)));
+    }
+}
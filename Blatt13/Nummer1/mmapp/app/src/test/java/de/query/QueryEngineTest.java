@@ -0,0 +1,126 @@
+package de.query;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Calendar;
+import java.util.List;
+import java.util.function.Predicate;
+
+import de.util.Identifiable;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QueryEngineTest {
+    private static final class Item implements Identifiable {
+        private final int id;
+        private final String name;
+
+        private Item(final int id, final String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        @Override
+        public int id() {
+            return id;
+        }
+    }
+
+    private final List<Item> items = asList(
+            new Item(0, "Pirates of the Caribbean"),
+            new Item(1, "Das Boot"),
+            new Item(2, "Mission: Impossible")
+    );
+    private QueryEngine<Item> engine;
+
+    @BeforeEach
+    void init() {
+        final RangeIndex ratings = new RangeIndex();
+        ratings.put(0, 4.0);
+        ratings.put(1, 5.0);
+        ratings.put(2, 3.0);
+
+        final RangeIndex dueDates = new RangeIndex();
+        dueDates.put(0, millisOf(2026, Calendar.OCTOBER, 31, 12));
+        dueDates.put(1, millisOf(2026, Calendar.NOVEMBER, 1, 0));
+
+        final TermIndex languages = new TermIndex();
+        languages.put(0, asList("English", "Spanish"));
+        languages.put(1, singleton("German"));
+        languages.put(2, asList("English", "German"));
+
+        engine = new QueryEngine<>(item -> item.name.toLowerCase());
+        engine.addField(Field.number(ratings), "rating");
+        engine.addField(Field.date(dueDates), "due");
+        engine.addField(Field.terms(languages), "lang", "language");
+        engine.addField(Field.join(value -> value.equals("depp") ? singleton(0) : singleton(-1)), "performer");
+    }
+
+    private static long millisOf(final int year, final int month, final int day, final int hour) {
+        final Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(year, month, day, hour, 0);
+        return calendar.getTimeInMillis();
+    }
+
+    private List<Integer> run(final String query) {
+        final Predicate<Item> matches = engine.plan(query).execute();
+        return items.stream().filter(matches).map(Item::id).collect(toList());
+    }
+
+    @Test
+    void testCombinesFieldedClauses() {
+        // test
+        assertEquals(asList(0, 1), run("rating>=4"));
+        assertEquals(asList(1), run("rating>=4 lang:ger"));
+        assertEquals(asList(1, 2), run("LANGUAGE:german"));
+        assertEquals(asList(0), run("performer:\"depp\" rating=4"));
+        assertEquals(asList(), run("rating>4 rating<5"));
+    }
+
+    @Test
+    void testComparesDatesByDay() {
+        // test
+        assertEquals(asList(0), run("due<2026-11-01"));
+        assertEquals(asList(0, 1), run("due<=2026-11-01"));
+        assertEquals(asList(1), run("due:2026-11"));
+        assertEquals(asList(0, 1), run("due=2026"));
+        assertThrows(QueryException.class, () -> run("due<2026-13-01"));
+        assertThrows(QueryException.class, () -> run("due<tomorrow"));
+    }
+
+    @Test
+    void testMatchesWordsAgainstNames() {
+        // test
+        assertEquals(asList(0), run("lang:english pirates"));
+        assertEquals(asList(2), run("mission: imp"));
+        assertEquals(asList(), run("rating>=4 impossible"));
+    }
+
+    @Test
+    void testPlainQueriesMatchWholeName() {
+        // test
+        final QueryPlan<Item> plain = engine.plan("das b");
+        final QueryPlan<Item> fielded = engine.plan("rating>=4");
+
+        assertTrue(plain.isPlain());
+        assertFalse(fielded.isPlain());
+        assertEquals(asList(1), run("das b"));
+        assertEquals(asList(), run("boot das"));
+    }
+
+    @Test
+    void testIncompleteClauseDoesNotRestrict() {
+        // test
+        assertEquals(asList(0, 1, 2), run("rating>="));
+        assertThrows(QueryException.class, () -> run("rating>=high"));
+        assertThrows(QueryException.class, () -> run("lang<german"));
+    }
+}
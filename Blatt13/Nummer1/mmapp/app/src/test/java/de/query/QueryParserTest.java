@@ -0,0 +1,60 @@
+package de.query;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QueryParserTest {
+    @Test
+    void testParsesFieldedClauses() {
+        // setup
+        final String query = "rating>=4 LANG:german due<2026-11-01 performer:\"johnny depp\"";
+
+        // test
+        final List<Clause> clauses = QueryParser.parse(query);
+
+        // precondition
+        assertEquals(4, clauses.size());
+
+        assertEquals("rating", clauses.get(0).getField());
+        assertEquals(Comparison.GREATER_EQUAL, clauses.get(0).getComparison());
+        assertEquals("4", clauses.get(0).getValue());
+        assertEquals("lang", clauses.get(1).getField());
+        assertEquals(Comparison.MATCHES, clauses.get(1).getComparison());
+        assertEquals("due", clauses.get(2).getField());
+        assertEquals(Comparison.LESS, clauses.get(2).getComparison());
+        assertEquals("2026-11-01", clauses.get(2).getValue());
+        assertEquals("johnny depp", clauses.get(3).getValue());
+        assertEquals("performer:\"johnny depp\"", clauses.get(3).getText());
+    }
+
+    @Test
+    void testParsesFreeText() {
+        // test
+        final List<Clause> clauses = QueryParser.parse("  \"star wars\"  2>1 ");
+
+        // precondition
+        assertEquals(2, clauses.size());
+
+        assertFalse(clauses.get(0).isFielded());
+        assertEquals("star wars", clauses.get(0).getValue());
+        assertFalse(clauses.get(1).isFielded());
+        assertEquals("2>1", clauses.get(1).getValue());
+    }
+
+    @Test
+    void testUnterminatedQuoteExtendsToEnd() {
+        // test
+        final List<Clause> clauses = QueryParser.parse("performer:\"johnny de");
+
+        // precondition
+        assertEquals(1, clauses.size());
+
+        assertTrue(clauses.get(0).isFielded());
+        assertEquals("johnny de", clauses.get(0).getValue());
+    }
+}
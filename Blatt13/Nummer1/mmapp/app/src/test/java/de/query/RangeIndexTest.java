@@ -0,0 +1,67 @@
+package de.query;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptySet;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RangeIndexTest {
+    private RangeIndex index;
+
+    @BeforeEach
+    void init() {
+        index = new RangeIndex();
+        index.put(0, 3.0);
+        index.put(1, 4.0);
+        index.put(2, 4.0);
+        index.put(3, 5.0);
+    }
+
+    @Test
+    void testFindRespectsBounds() {
+        // test
+        assertEquals(new HashSet<>(asList(0, 1, 2, 3)), index.find(3.0, true, 5.0, true));
+        assertEquals(new HashSet<>(asList(1, 2)), index.find(3.0, false, 5.0, false));
+        assertEquals(emptySet(), index.find(4.5, true, 4.9, true));
+    }
+
+    @Test
+    void testSelectComparesWithInterval() {
+        // test
+        assertEquals(new HashSet<>(asList(1, 2)), index.select(Comparison.EQUAL, 4.0, Math.nextUp(4.0)));
+        assertEquals(new HashSet<>(asList(0)), index.select(Comparison.LESS, 4.0, Math.nextUp(4.0)));
+        assertEquals(new HashSet<>(asList(0, 1, 2)), index.select(Comparison.LESS_EQUAL, 4.0, Math.nextUp(4.0)));
+        assertEquals(new HashSet<>(asList(3)), index.select(Comparison.GREATER, 4.0, Math.nextUp(4.0)));
+        assertEquals(new HashSet<>(asList(1, 2, 3)), index.select(Comparison.GREATER_EQUAL, 4.0, Math.nextUp(4.0)));
+    }
+
+    @Test
+    void testPutReplacesAndRemoveDeletesKey() {
+        // test
+        index.put(1, 1.0);
+        index.remove(3);
+        index.remove(42);
+
+        assertEquals(3, index.size());
+        assertEquals(new HashSet<>(asList(2)), index.find(4.0, true, 5.0, true));
+        assertEquals(new HashSet<>(asList(1)), index.find(0.0, true, 2.0, true));
+    }
+
+    @Test
+    void testGrowsBeyondInitialCapacity() {
+        // setup
+        final RangeIndex large = new RangeIndex();
+
+        // test
+        for (int i = 100; i > 0; --i) {
+            large.put(i, i);
+        }
+
+        assertEquals(100, large.size());
+        assertEquals(new HashSet<>(asList(1, 2, 3)), large.find(0.0, true, 3.0, true));
+    }
+}
@@ -13,6 +13,7 @@ import de.storage.mock.IdMock;
 import de.util.operationflow.Transaction;
 
 import static de.util.operationflow.ReversibleOperations.reversibleTransformation;
+import static java.util.Arrays.asList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -170,4 +171,18 @@ class RegisterTest {
         assertTrue(nextOpt.isPresent());
         assertEquals(2, nextOpt.get().id());
     }
+
+    @Test
+    void testListenersAreNotifiedAboutChanges() {
+        // setup
+        final List<String> events = new ArrayList<>();
+        register1.addSaveListener(x -> events.add("save " + x.id()));
+        register1.addDeleteListener(x -> events.add("delete " + x.id()));
+
+        // test
+        final IdMock obj = register1.startCreationTransaction().commit().orElseThrow(REGISTER_EXCEPTION);
+        register1.startUpdateTransactionFor(obj).commit();
+        register1.startRemovalTransactionFor(obj).commit();
+        assertEquals(asList("save 0", "save 0", "delete 0"), events);
+    }
 }
@@ -145,6 +145,28 @@ class StorageTest {
         }
     }
 
+    @Test
+    void testBatchedWritesUpdateMetaDataOnce() {
+        // setup
+        testStorage.registerGroup(new IntegerGroup());
+        final File names = FileUtils.resolve(STORAGE_PATH, FileUtils.get(OBJECT_NAMES, "integers.ser"));
+
+        // precondition
+        assertFalse(exists(names));
+
+        // test
+        testStorage.runBatched(() -> {
+            range(0, 42).forEach(testStorage::write);
+            assertFalse(exists(names));
+        });
+        assertTrue(exists(names));
+        testStorage.close();
+
+        testStorage = Storage.openIn(STORAGE_PATH);
+        testStorage.registerGroup(new IntegerGroup());
+        assertEquals(42, testStorage.getWrittenNames(Integer.class).size());
+    }
+
     @Test
     void testStorageOpenAndDeletionWithoutStoredData() throws IOException {
         // setup
@@ -0,0 +1,47 @@
+package de.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GenerationCounterTest {
+    @Test
+    void testNewerGenerationSupersedesOlder() {
+        // setup
+        final GenerationCounter generations = new GenerationCounter();
+
+        // test
+        final long first = generations.advance();
+        final long second = generations.advance();
+
+        assertTrue(second > first);
+        assertEquals(second, generations.current());
+        assertFalse(generations.isCurrent(first));
+        assertTrue(generations.isCurrent(second));
+    }
+
+    @Test
+    void testCancellationFollowsGeneration() {
+        // setup
+        final GenerationCounter generations = new GenerationCounter();
+        final long generation = generations.advance();
+        final Cancellation cancellation = generations.cancellationOf(generation);
+
+        // precondition
+        assertFalse(cancellation.isCancelled());
+        assertDoesNotThrow(cancellation::check);
+
+        // test
+        generations.advance();
+
+        assertTrue(cancellation.isCancelled());
+        assertThrows(CancellationException.class, cancellation::check);
+        assertFalse(Cancellation.NEVER.isCancelled());
+    }
+}
@@ -0,0 +1,83 @@
+package de.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static de.util.StringUtils.editDistance;
+import static de.util.StringUtils.normedMinimumEditDistance;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IncrementalEditDistanceTest {
+    @Test
+    void testEmptyQuery() {
+        // setup
+        final IncrementalEditDistance distance = IncrementalEditDistance.of("Star");
+
+        // test
+        assertEquals(4, distance.distance());
+        assertEquals(0, distance.queryLength());
+        assertEquals(1.0, IncrementalEditDistance.of("").similarity());
+    }
+
+    @Test
+    void testAppendingAgreesWithEditDistance() {
+        // setup
+        final Random random = new Random(11);
+
+        // test
+        for (int i = 0; i < 500; ++i) {
+            final String target = randomString(random);
+            final String query = randomString(random);
+            IncrementalEditDistance distance = IncrementalEditDistance.of(target);
+            int typed = 0;
+            while (typed < query.length()) {
+                final int end = typed + 1 + random.nextInt(query.length() - typed);
+                distance = distance.append(query.substring(typed, end));
+                typed = end;
+
+                final String prefix = query.substring(0, typed);
+                assertEquals(editDistance(prefix, target), distance.distance(), prefix + " / " + target);
+                assertEquals(normedMinimumEditDistance(prefix, target), distance.similarity());
+                assertEquals(typed, distance.queryLength());
+            }
+        }
+    }
+
+    @Test
+    void testAppendingKeepsPreviousDistance() {
+        // setup
+        final IncrementalEditDistance star = IncrementalEditDistance.of("Star Wars").append("star");
+
+        // precondition
+        assertEquals(5, star.distance());
+
+        // test
+        assertEquals(0, star.append(" WARS").distance());
+        assertEquals(4, star.append(" trek").distance());
+        assertEquals(5, star.distance());
+        assertSame(star, star.append(""));
+    }
+
+    @Test
+    void testHasTarget() {
+        // setup
+        final IncrementalEditDistance distance = IncrementalEditDistance.of("Star").append("s");
+
+        // test
+        assertTrue(distance.hasTarget("Star"));
+        assertFalse(distance.hasTarget("star"));
+    }
+
+    private static String randomString(final Random random) {
+        final StringBuilder builder = new StringBuilder();
+        final int length = random.nextInt(12);
+        for (int i = 0; i < length; ++i) {
+            builder.append("abcAB ".charAt(random.nextInt(6)));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,102 @@
+package de.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelScorerTest {
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    void init() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void testSelectsBestAboveThreshold() {
+        // setup
+        final ParallelScorer scorer = new ParallelScorer(pool, 2);
+        final List<Double> scores = asList(0.3, 0.9, 0.1, 0.7, 0.5, 0.8, 0.2);
+
+        // test
+        assertEquals(asList(0.9, 0.8, 0.7), scorer.selectBest(scores, 3, 0.0, (score, minimum) -> score));
+        assertEquals(asList(0.9, 0.8), scorer.selectBest(scores, 3, 0.7, (score, minimum) -> score));
+        assertEquals(emptyList(), scorer.selectBest(new ArrayList<Double>(), 3, 0.0, (score, minimum) -> score));
+    }
+
+    @Test
+    void testAgreesWithSequentialSelection() {
+        // setup
+        final Random random = new Random(3);
+        final ParallelScorer scorer = new ParallelScorer(pool, 7);
+
+        // test
+        for (int run = 0; run < 100; ++run) {
+            final int k = 1 + random.nextInt(6);
+            final List<Integer> elements = new ArrayList<>();
+            final List<Double> scores = new ArrayList<>();
+            final int count = random.nextInt(200);
+            for (int i = 0; i < count; ++i) {
+                elements.add(i);
+                scores.add(random.nextInt(9) / 8.0);
+            }
+
+            final TopKSelector<Integer> sequential = new TopKSelector<>(k);
+            for (final int element : elements) {
+                if (scores.get(element) > 0.25) {
+                    sequential.offer(element, scores.get(element));
+                }
+            }
+            assertEquals(sequential.toList(),
+                    scorer.selectBest(elements, k, 0.25, (element, minimum) -> scores.get(element)));
+        }
+    }
+
+    @Test
+    void testCancelledSelectionStopsBetweenChunks() {
+        // setup
+        final ParallelScorer scorer = new ParallelScorer(pool, 4);
+        final List<Integer> elements = new ArrayList<>();
+        for (int i = 0; i < 400; ++i) {
+            elements.add(i);
+        }
+        final AtomicInteger scored = new AtomicInteger();
+        final GenerationCounter generations = new GenerationCounter();
+        final long generation = generations.advance();
+
+        // test
+        assertThrows(CancellationException.class, () -> scorer.selectBest(elements, 3, 0.0,
+                (element, minimum) -> {
+                    if (scored.incrementAndGet() == 10) {
+                        generations.advance();
+                    }
+                    return element;
+                },
+                generations.cancellationOf(generation)));
+        assertTrue(scored.get() < elements.size());
+    }
+
+    @Test
+    void testInvalidChunkSize() {
+        // test
+        assertThrows(IllegalArgumentException.class, () -> new ParallelScorer(pool, 0));
+    }
+}
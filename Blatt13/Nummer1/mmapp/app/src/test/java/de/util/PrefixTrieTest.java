@@ -0,0 +1,67 @@
+package de.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PrefixTrieTest {
+    private PrefixTrie trie;
+
+    @BeforeEach
+    void init() {
+        trie = new PrefixTrie();
+        trie.put(0, "Star Wars");
+        trie.put(1, "Star Trek");
+        trie.put(2, "Stardust");
+        trie.put(3, "The Lord of the Rings");
+    }
+
+    @Test
+    void testCompletesNamesAndWords() {
+        // test
+        assertEquals(asList(1, 0, 2), trie.complete("sta", 10));
+        assertEquals(asList(1), trie.complete("STAR   t", 10));
+        assertEquals(asList(0), trie.complete("wa", 10));
+        assertEquals(asList(3), trie.complete("rings", 10));
+        assertEquals(asList(3), trie.complete("the", 10));
+        assertEquals(emptyList(), trie.complete("stars", 10));
+        assertEquals(emptyList(), trie.complete(" ", 10));
+    }
+
+    @Test
+    void testRespectsLimit() {
+        // test
+        assertEquals(asList(1, 0), trie.complete("s", 2));
+        assertThrows(IllegalArgumentException.class, () -> trie.complete("s", 0));
+    }
+
+    @Test
+    void testPutReplacesAndRemoveDeletesName() {
+        // test
+        trie.put(0, "Solaris");
+        trie.remove(2);
+        trie.remove(42);
+
+        assertEquals(3, trie.size());
+        assertEquals(asList(1), trie.complete("sta", 10));
+        assertEquals(emptyList(), trie.complete("wars", 10));
+        assertEquals(asList(0), trie.complete("sol", 10));
+    }
+
+    @Test
+    void testRemovingAllNamesEmptiesTrie() {
+        // test
+        for (int id = 0; id < 4; ++id) {
+            trie.remove(id);
+        }
+        trie.put(4, "Star");
+
+        assertEquals(1, trie.size());
+        assertEquals(asList(4), trie.complete("st", 10));
+        assertEquals(emptyList(), trie.complete("stardust", 10));
+    }
+}
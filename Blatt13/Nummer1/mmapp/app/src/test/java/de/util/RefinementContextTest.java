@@ -0,0 +1,56 @@
+package de.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RefinementContextTest {
+    @Test
+    void testNothingToRefineInitially() {
+        // setup
+        final RefinementContext<String> context = new RefinementContext<>();
+
+        // test
+        assertFalse(context.refine("star").isPresent());
+    }
+
+    @Test
+    void testExtendedQueryIsRefined() {
+        // setup
+        final RefinementContext<String> context = new RefinementContext<>();
+        context.remember("star", "matches of star");
+
+        // test
+        assertEquals(Optional.of("matches of star"), context.refine("star"));
+        assertEquals(Optional.of("matches of star"), context.refine("star w"));
+    }
+
+    @Test
+    void testDeletedCharacterIsNotRefined() {
+        // setup
+        final RefinementContext<String> context = new RefinementContext<>();
+        context.remember("star w", "matches of star w");
+
+        // test
+        assertFalse(context.refine("star ").isPresent());
+        assertFalse(context.refine("star x").isPresent());
+    }
+
+    @Test
+    void testReset() {
+        // setup
+        final RefinementContext<String> context = new RefinementContext<>();
+        context.remember("star", "matches of star");
+
+        // precondition
+        assertTrue(context.refine("star w").isPresent());
+
+        // test
+        context.reset();
+        assertFalse(context.refine("star w").isPresent());
+    }
+}
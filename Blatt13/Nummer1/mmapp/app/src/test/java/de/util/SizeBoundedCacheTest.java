@@ -0,0 +1,98 @@
+package de.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SizeBoundedCacheTest {
+    private SizeBoundedCache<String, String> cache;
+
+    @BeforeEach
+    void init() {
+        cache = new SizeBoundedCache<>(10, String::length);
+    }
+
+    @Test
+    void testHitAndMissCounters() {
+        // setup
+        cache.put("a", "xyz");
+
+        // test
+        assertEquals(Optional.of("xyz"), cache.get("a"));
+        assertFalse(cache.get("b").isPresent());
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsed() {
+        // setup
+        cache.put("a", "aaaa");
+        cache.put("b", "bbbb");
+        cache.get("a");
+
+        // precondition
+        assertEquals(8, cache.size());
+
+        // test
+        cache.put("c", "cccc");
+        assertTrue(cache.get("a").isPresent());
+        assertFalse(cache.get("b").isPresent());
+        assertTrue(cache.get("c").isPresent());
+        assertEquals(8, cache.size());
+        assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    void testReplaceAndRemoveKeepSize() {
+        // setup
+        cache.put("a", "aaaa");
+
+        // test
+        cache.put("a", "aa");
+        assertEquals(2, cache.size());
+        assertEquals(Optional.of("aa"), cache.remove("a"));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.count());
+    }
+
+    @Test
+    void testValueLargerThanCacheIsNotStored() {
+        // test
+        cache.put("a", "this is too long");
+        assertFalse(cache.get("a").isPresent());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testInvalidMaximumSize() {
+        assertThrows(IllegalArgumentException.class, () -> new SizeBoundedCache<String, String>(0, String::length));
+    }
+
+    @Test
+    void testEvictionListenerReceivesOnlyEvictedEntries() {
+        // setup
+        final List<String> evicted = new ArrayList<>();
+        cache.setEvictionListener((key, value) -> evicted.add(key + "=" + value));
+        cache.put("a", "aaaa");
+        cache.put("b", "bbbb");
+        cache.remove("b");
+
+        // precondition
+        assertTrue(evicted.isEmpty());
+
+        // test
+        cache.put("c", "cccc");
+        cache.put("d", "dddd");
+        assertEquals(singletonList("a=aaaa"), evicted);
+    }
+}
@@ -2,12 +2,19 @@ package de.util;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Random;
+
 import static de.util.StringUtils.alphabeticalComparison;
+import static de.util.StringUtils.boundedEditDistance;
 import static de.util.StringUtils.capitalizeString;
 import static de.util.StringUtils.editDistance;
 import static de.util.StringUtils.join;
+import static de.util.StringUtils.maxEditDistance;
+import static de.util.StringUtils.minimumForEditDistance;
 import static de.util.StringUtils.normedMinimumEditDistance;
+import static de.util.StringUtils.normedMinimumEditDistanceOfLowerCase;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class StringUtilsTest {
     @Test
@@ -54,6 +61,112 @@ class StringUtilsTest {
         assertEquals(0.4, normedMinimumEditDistance("Mice", "Mouse"), 1e-4);
     }
 
+    @Test
+    void testBoundedEditDistance() {
+        // test
+        assertEquals(1, boundedEditDistance("Mouse", "House", 1));
+        assertEquals(3, boundedEditDistance("Mice", "Mouse", 3));
+        assertEquals(3, boundedEditDistance("Mice", "Mouse", 2));
+        assertEquals(1, boundedEditDistance("", "Hello, World!", 0));
+        assertEquals(0, boundedEditDistance("HELLO", "hello", 0));
+    }
+
+    @Test
+    void testBoundedEditDistanceAgreesWithEditDistance() {
+        // setup
+        final Random random = new Random(42);
+
+        // test
+        for (int i = 0; i < 2000; ++i) {
+            final String s1 = randomString(random);
+            final String s2 = randomString(random);
+            final int maxDistance = random.nextInt(8);
+            final int expected = editDistance(s1, s2);
+            assertEquals(Math.min(expected, maxDistance + 1), boundedEditDistance(s1, s2, maxDistance),
+                    s1 + " / " + s2 + " / " + maxDistance);
+        }
+    }
+
+    @Test
+    void testThresholdedNormedMinimumEditDistance() {
+        // setup
+        final Random random = new Random(7);
+
+        // test
+        for (int i = 0; i < 2000; ++i) {
+            final String s1 = randomString(random);
+            final String s2 = randomString(random);
+            final double minimum = random.nextInt(11) / 10.0;
+            final double expected = normedMinimumEditDistance(s1, s2);
+            final double actual = normedMinimumEditDistance(s1, s2, minimum);
+            if (expected > minimum) {
+                assertEquals(expected, actual);
+            } else {
+                assertTrue(actual <= minimum);
+            }
+        }
+    }
+
+    @Test
+    void testNormedMinimumEditDistanceOfLowerCase() {
+        // setup
+        final Random random = new Random(11);
+
+        // test
+        for (int i = 0; i < 500; ++i) {
+            final String s1 = randomString(random);
+            final String s2 = randomString(random);
+            final double minimum = random.nextInt(11) / 10.0;
+            assertEquals(normedMinimumEditDistance(s1, s2, minimum),
+                    normedMinimumEditDistanceOfLowerCase(s1.toLowerCase(), s2.toLowerCase(), minimum));
+        }
+    }
+
+    @Test
+    void testMaxEditDistanceBoundsSimilarStrings() {
+        // setup
+        final Random random = new Random(13);
+
+        // test
+        assertEquals(Integer.MAX_VALUE, maxEditDistance(4, 0.0));
+        assertEquals(35, maxEditDistance(4, 0.1));
+        for (int i = 0; i < 500; ++i) {
+            final String s1 = randomString(random);
+            final String s2 = randomString(random);
+            final double minimum = (1 + random.nextInt(10)) / 10.0;
+            if (normedMinimumEditDistance(s1, s2) > minimum) {
+                assertTrue(editDistance(s1, s2) <= maxEditDistance(s1.length(), minimum));
+            }
+        }
+    }
+
+    @Test
+    void testMinimumForEditDistance() {
+        // setup
+        final Random random = new Random(7);
+
+        // test
+        assertEquals(0.5, minimumForEditDistance(2, 1));
+        assertEquals(3, maxEditDistance(20, minimumForEditDistance(20, 3)));
+        for (int i = 0; i < 500; ++i) {
+            final String s1 = randomString(random);
+            final String s2 = randomString(random);
+            final int maxDistance = random.nextInt(5);
+            if (normedMinimumEditDistance(s1, s2) > minimumForEditDistance(s1.length(), maxDistance)) {
+                assertTrue(editDistance(s1, s2) <= maxDistance);
+            }
+        }
+    }
+
+    private static String randomString(final Random random) {
+        final StringBuilder builder = new StringBuilder();
+        final int length = random.nextInt(12);
+        for (int i = 0; i < length; ++i) {
+            builder.append("abcAB ".charAt(random.nextInt(6)));
+        }
+        return builder.toString();
+    }
+
     @Test
     void testCapitalizationWithEmptyString() {
         // test
@@ -0,0 +1,106 @@
+package de.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static de.util.Pair.paired;
+import static java.util.Arrays.asList;
+import static java.util.Comparator.comparing;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TopKSelectorTest {
+    @Test
+    void testSelectsBestElements() {
+        // setup
+        final TopKSelector<String> selector = new TopKSelector<>(2);
+
+        // precondition
+        assertFalse(selector.isFull());
+        assertThrows(IllegalStateException.class, selector::lowestScore);
+
+        // test
+        selector.offer("a", 0.5);
+        selector.offer("b", 0.9);
+        selector.offer("c", 0.1);
+        selector.offer("d", 0.7);
+        assertTrue(selector.isFull());
+        assertEquals(0.7, selector.lowestScore());
+        assertEquals(asList("b", "d"), selector.toList());
+    }
+
+    @Test
+    void testLaterElementWinsTie() {
+        // setup
+        final TopKSelector<String> selector = new TopKSelector<>(2);
+
+        // test
+        selector.offer("a", 0.5);
+        selector.offer("b", 0.5);
+        selector.offer("c", 0.5);
+        assertEquals(asList("c", "b"), selector.toList());
+    }
+
+    @Test
+    void testAgreesWithSortAndReverse() {
+        // setup
+        final Random random = new Random(11);
+
+        // test
+        for (int run = 0; run < 200; ++run) {
+            final int k = 1 + random.nextInt(6);
+            final List<Pair<Integer, Double>> scored = new ArrayList<>();
+            final TopKSelector<Integer> selector = new TopKSelector<>(k);
+            final int count = random.nextInt(40);
+            for (int i = 0; i < count; ++i) {
+                final double score = random.nextInt(5) / 4.0;
+                scored.add(paired(i, score));
+                selector.offer(i, score);
+            }
+
+            final List<Integer> expected = scored.stream()
+                    .sorted(comparing(Pair::getSecond))
+                    .map(Pair::getFirst)
+                    .collect(toList());
+            Collections.reverse(expected);
+            assertEquals(expected.subList(0, Math.min(k, expected.size())), selector.toList());
+        }
+    }
+
+    @Test
+    void testMergedChunksAgreeWithOneSelector() {
+        // setup
+        final Random random = new Random(5);
+
+        // test
+        for (int run = 0; run < 200; ++run) {
+            final int k = 1 + random.nextInt(6);
+            final int split = random.nextInt(20);
+            final TopKSelector<Integer> whole = new TopKSelector<>(k);
+            final TopKSelector<Integer> first = new TopKSelector<>(k);
+            final TopKSelector<Integer> second = new TopKSelector<>(k, split);
+            final int count = split + random.nextInt(20);
+            for (int i = 0; i < count; ++i) {
+                final double score = random.nextInt(5) / 4.0;
+                whole.offer(i, score);
+                (i < split ? first : second).offer(i, score);
+            }
+
+            first.merge(second);
+            assertEquals(whole.toList(), first.toList());
+        }
+    }
+
+    @Test
+    void testInvalidCapacity() {
+        // test
+        assertThrows(IllegalArgumentException.class, () -> new TopKSelector<>(0));
+    }
+}
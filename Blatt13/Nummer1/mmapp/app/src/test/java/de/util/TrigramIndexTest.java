@@ -0,0 +1,116 @@
+package de.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+
+import static de.util.StringUtils.maxEditDistance;
+import static de.util.StringUtils.minimumForEditDistance;
+import static de.util.StringUtils.normedMinimumEditDistance;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrigramIndexTest {
+    private TrigramIndex index;
+
+    @BeforeEach
+    void init() {
+        index = new TrigramIndex();
+        index.put(0, "Johnny Depp");
+        index.put(1, "Elijah Wood");
+        index.put(2, "Orlando Bloom");
+    }
+
+    @Test
+    void testTrigramsArePadded() {
+        // test
+        assertEquals(new HashSet<>(asList(" ab", "abc", "bc ")), TrigramIndex.trigramsOf("ABC"));
+        assertEquals(new HashSet<>(asList(" a ", "a b", " b ")), TrigramIndex.trigramsOf(" a \t b"));
+    }
+
+    @Test
+    void testCandidatesShareTrigram() {
+        // test
+        assertEquals(singleton(0), index.candidates("jhonny"));
+        assertEquals(new HashSet<>(asList(1, 2)), index.candidates("wood bloom"));
+        assertEquals(emptySet(), index.candidates("xyz"));
+    }
+
+    @Test
+    void testRenamedElementIsReindexed() {
+        // setup
+        index.put(0, "Viggo Mortensen");
+
+        // test
+        assertEquals(emptySet(), index.candidates("johnny"));
+        assertEquals(singleton(0), index.candidates("viggo"));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void testRemovedElementIsNoCandidate() {
+        // setup
+        index.remove(1);
+        index.remove(42);
+
+        // test
+        assertEquals(emptySet(), index.candidates("elijah"));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void testShortQueriesAreNotSelective() {
+        // test
+        assertFalse(TrigramIndex.isSelective(" jo "));
+        assertTrue(TrigramIndex.isSelective("joh"));
+    }
+
+    @Test
+    void testQueryIsOnlySelectiveIfMatchesShareTrigram() {
+        // setup
+        index.put(3, "John Wick");
+        index.put(4, "Kit");
+
+        // precondition
+        assertTrue(normedMinimumEditDistance("jhon", "John Wick") > 0.1);
+        assertTrue(normedMinimumEditDistance("tim", "Kit") > 0.05);
+        assertEquals(emptySet(), index.candidates("jhon"));
+        assertEquals(emptySet(), index.candidates("tim"));
+
+        // test
+        assertFalse(TrigramIndex.isSelective("jhon", maxEditDistance(4, 0.1)));
+        assertFalse(TrigramIndex.isSelective("tim", maxEditDistance(3, 0.05)));
+        assertTrue(TrigramIndex.isSelective("johnny", 1));
+        assertFalse(TrigramIndex.isSelective("johnny", 2));
+    }
+
+    @Test
+    void testCandidatesShareEnoughTrigramsForDistance() {
+        // setup
+        index.clear();
+        index.put(0, "The Lord of the Rings: The Two Towers");
+        index.put(1, "The Lord of the Rings");
+        index.put(2, "The Lord of War");
+        index.put(3, "The Rise of the Planet of the Apes");
+        index.put(4, "Return of the King");
+        index.put(5, "The Lord of the Flies");
+        final String query = "the lord of the rigns";
+        final double threshold = minimumForEditDistance(query.length(), 3);
+        final int maxDistance = maxEditDistance(query.length(), threshold);
+
+        // precondition
+        assertEquals(3, maxDistance);
+        assertFalse(TrigramIndex.isSelective(query, maxEditDistance(query.length(), 0.7)));
+        assertTrue(TrigramIndex.isSelective(query, maxDistance));
+        assertEquals(6, index.candidates(query).size());
+        assertTrue(normedMinimumEditDistance(query, "The Lord of the Rings") > threshold);
+
+        // test
+        assertEquals(new HashSet<>(asList(0, 1, 2, 5)), index.candidates(query, maxDistance));
+    }
+}
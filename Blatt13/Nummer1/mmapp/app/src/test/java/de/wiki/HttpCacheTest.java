@@ -0,0 +1,155 @@
+package de.wiki;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HttpCacheTest {
+    private static final File DIRECTORY = new File("TestHttpCache");
+    private static final long TIME_TO_LIVE = 1000;
+    private static final String URL = "https://en.wikipedia.org/wiki/Johnny_Depp";
+
+    private long now;
+    private HttpCache cache;
+    private ScriptedWiki wiki;
+
+    @BeforeEach
+    void init() {
+        now = 0;
+        cache = createCache(1024);
+        wiki = new ScriptedWiki();
+        wiki.setCache(cache);
+    }
+
+    private HttpCache createCache(final long maxBytes) {
+        return new HttpCache(DIRECTORY, maxBytes, TIME_TO_LIVE, () -> now);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.clear();
+        DIRECTORY.delete();
+    }
+
+    @Test
+    void testFreshEntryIsServedWithoutRequest() throws IOException {
+        // setup
+        wiki.respond(HttpResponse.ok("page", "\"v1\"", null));
+
+        // precondition
+        assertEquals("page", wiki.getTextFile(URL));
+
+        // test
+        now = TIME_TO_LIVE - 1;
+        assertEquals("page", wiki.getTextFile(URL));
+        assertEquals(1, wiki.requests.size());
+    }
+
+    @Test
+    void testExpiredEntryIsRevalidated() throws IOException {
+        // setup
+        wiki.respond(HttpResponse.ok("page", "\"v1\"", "Mon, 01 Jun 2026 10:00:00 GMT"));
+        wiki.respond(HttpResponse.notModified());
+        wiki.getTextFile(URL);
+
+        // test
+        now = TIME_TO_LIVE;
+        assertEquals("page", wiki.getTextFile(URL));
+        assertEquals(asList("none", "\"v1\"|Mon, 01 Jun 2026 10:00:00 GMT"), wiki.requests);
+
+        now = 2 * TIME_TO_LIVE - 1;
+        assertEquals("page", wiki.getTextFile(URL));
+        assertEquals(2, wiki.requests.size());
+    }
+
+    @Test
+    void testChangedPageReplacesEntry() throws IOException {
+        // setup
+        wiki.respond(HttpResponse.ok("old", "\"v1\"", null));
+        wiki.respond(HttpResponse.ok("new", "\"v2\"", null));
+        wiki.getTextFile(URL);
+
+        // test
+        now = TIME_TO_LIVE;
+        assertEquals("new", wiki.getTextFile(URL));
+        assertEquals("\"v2\"", cache.get(URL).map(HttpCache.Entry::getETag).orElse(null));
+    }
+
+    @Test
+    void testStaleEntryIsUsedWithoutConnection() throws IOException {
+        // setup
+        wiki.respond(HttpResponse.ok("page", null, null));
+        wiki.getTextFile(URL);
+
+        // test
+        now = 10 * TIME_TO_LIVE;
+        assertEquals("page", wiki.getTextFile(URL));
+        assertThrows(IOException.class, () -> wiki.getTextFile(URL + "_other"));
+    }
+
+    @Test
+    void testEntriesSurviveNewInstance() {
+        // setup
+        cache.put(URL, "line 1\nline 2", null, null);
+
+        // test
+        cache = createCache(1024);
+        assertEquals("line 1\nline 2", cache.get(URL).map(HttpCache.Entry::getBody).orElse(null));
+        assertEquals(1, cache.count());
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntriesAreEvicted() {
+        // setup
+        final String body = new String(new char[300]).replace('\0', 'x');
+        cache = createCache(1000);
+        cache.put("a", body, null, null);
+        cache.put("b", body, null, null);
+        cache.get("a");
+
+        // precondition
+        assertEquals(2, cache.count());
+
+        // test
+        cache.put("c", body, null, null);
+        assertTrue(cache.size() <= 1000);
+        assertTrue(cache.get("a").isPresent());
+        assertFalse(cache.get("b").isPresent());
+        assertTrue(cache.get("c").isPresent());
+    }
+
+    private static class ScriptedWiki extends Wikipedia {
+        private final Deque<HttpResponse> responses = new ArrayDeque<>();
+        private final List<String> requests = new ArrayList<>();
+
+        ScriptedWiki() {
+            super("scripted.wiki");
+        }
+
+        void respond(final HttpResponse response) {
+            responses.add(response);
+        }
+
+        @Override
+        protected HttpResponse download(String url, HttpCache.Entry cached) throws IOException {
+            if (responses.isEmpty()) {
+                throw new IOException("Not connected");
+            }
+            requests.add(cached == null ? "none" : cached.getETag() + "|" + cached.getLastModified());
+            return responses.poll();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package de.wiki;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MirroredWikipediaTest {
+    private static final File FILE = new File("TestMirroredWikipedia.pages");
+    private static final File INDEX = new File("TestMirroredWikipedia.pages.idx");
+    private static final String URL = "https://en.wikipedia.org/wiki/Johnny_Depp";
+
+    private PageMirror mirror;
+    private ScriptedWiki wiki;
+
+    @BeforeEach
+    void init() throws IOException {
+        mirror = new PageMirror(FILE);
+        wiki = new ScriptedWiki(mirror);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        mirror.close();
+        FILE.delete();
+        INDEX.delete();
+    }
+
+    @Test
+    void testMirroredPageIsServedOffline() throws IOException {
+        // setup
+        mirror.put(URL, "<html><body><p>Johnny Depp</p></body></html>");
+
+        // test
+        assertEquals("Johnny Depp", wiki.getArticle(" Johnny  Depp").selectFirst("p").text());
+        assertTrue(wiki.requests.isEmpty());
+    }
+
+    @Test
+    void testMissingPageFailsOffline() {
+        // test
+        assertThrows(IOException.class, () -> wiki.getTextFile(URL));
+        assertTrue(wiki.requests.isEmpty());
+    }
+
+    @Test
+    void testFallbackResponseIsMirrored() throws IOException {
+        // setup
+        wiki.setNetworkFallback(true);
+
+        // test
+        assertEquals("online", wiki.getTextFile(URL));
+        wiki.setNetworkFallback(false);
+        assertEquals("online", wiki.getTextFile(URL));
+        assertEquals(singletonList(URL), wiki.requests);
+    }
+
+    private static class ScriptedWiki extends MirroredWikipedia {
+        private final List<String> requests = new ArrayList<>();
+
+        ScriptedWiki(final PageMirror mirror) {
+            super("en.wikipedia.org", mirror, false);
+        }
+
+        @Override
+        protected HttpResponse download(String url, HttpCache.Entry cached) {
+            requests.add(url);
+            return HttpResponse.ok("online", null, null);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package de.wiki;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PageMirrorTest {
+    private static final File FILE = new File("TestPageMirror.pages");
+    private static final File INDEX = new File("TestPageMirror.pages.idx");
+    private static final String ARTICLE = "https://en.wikipedia.org/wiki/Johnny_Depp";
+    private static final String QUERY = "https://en.wikipedia.org/w/api.php?action=query&gsrsearch=johnny";
+
+    private PageMirror mirror;
+
+    @BeforeEach
+    void init() throws IOException {
+        mirror = new PageMirror(FILE);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        mirror.close();
+        FILE.delete();
+        INDEX.delete();
+    }
+
+    @Test
+    void testStoredResponsesAreReturned() throws IOException {
+        // setup
+        mirror.put(ARTICLE, "<html>Johnny Depp</html>");
+        mirror.put(QUERY, "{\"query\":{}}");
+
+        // test
+        assertEquals(Optional.of("<html>Johnny Depp</html>"), mirror.get(ARTICLE));
+        assertEquals(Optional.of("{\"query\":{}}"), mirror.get(QUERY));
+        assertFalse(mirror.get("https://en.wikipedia.org/wiki/Elijah_Wood").isPresent());
+        assertEquals(2, mirror.count());
+    }
+
+    @Test
+    void testArticleUrlsAreNormalized() throws IOException {
+        // setup
+        mirror.put(ARTICLE, "page");
+
+        // test
+        assertTrue(mirror.contains("http://EN.wikipedia.org/wiki/johnny Depp"));
+        assertTrue(mirror.contains("https://en.wikipedia.org/wiki/Johnny__Depp "));
+        assertFalse(mirror.contains("https://de.wikipedia.org/wiki/Johnny_Depp"));
+        assertEquals("Johnny_Depp", PageMirror.normalizeTitle(" johnny  Depp"));
+    }
+
+    @Test
+    void testLatestResponseReplacesEarlierOne() throws IOException {
+        // setup
+        mirror.put(ARTICLE, "old");
+        mirror.put(ARTICLE, "new");
+
+        // test
+        assertEquals(Optional.of("new"), mirror.get(ARTICLE));
+        assertEquals(1, mirror.count());
+    }
+
+    @Test
+    void testUnchangedResponseIsNotWrittenAgain() throws IOException {
+        // setup
+        mirror.put(ARTICLE, "page");
+        final long size = mirror.size();
+
+        // test
+        mirror.put(ARTICLE, "page");
+        assertEquals(size, mirror.size());
+        mirror.put(ARTICLE, "changed page");
+        assertTrue(mirror.size() > size);
+    }
+
+    @Test
+    void testReplacedRecordsAreDroppedByFlush() throws IOException {
+        // setup
+        final Random random = new Random(42);
+        for (int i = 0; i < 8; ++i) {
+            final StringBuilder body = new StringBuilder();
+            for (int j = 0; j < 32 * 1024; ++j) {
+                body.append((char) ('a' + random.nextInt(26)));
+            }
+            mirror.put(ARTICLE, body.toString());
+        }
+        mirror.put(QUERY, "query");
+        final String latest = mirror.get(ARTICLE).orElse(null);
+        final long size = mirror.size();
+
+        // test
+        mirror.flush();
+        assertTrue(mirror.size() < size / 4);
+        assertEquals(Optional.of(latest), mirror.get(ARTICLE));
+        assertEquals(Optional.of("query"), mirror.get(QUERY));
+
+        mirror.close();
+        mirror = new PageMirror(FILE);
+        assertEquals(Optional.of(latest), mirror.get(ARTICLE));
+        assertEquals(2, mirror.count());
+    }
+
+    @Test
+    void testReopenedMirrorUsesWrittenIndex() throws IOException {
+        // setup
+        mirror.put(ARTICLE, "page");
+        mirror.close();
+
+        // precondition
+        assertTrue(INDEX.isFile());
+
+        // test
+        mirror = new PageMirror(FILE);
+        assertEquals(Optional.of("page"), mirror.get(ARTICLE));
+    }
+
+    @Test
+    void testIndexIsRebuiltWithoutIndexFile() throws IOException {
+        // setup
+        mirror.put(ARTICLE, "old");
+        mirror.close();
+        mirror = new PageMirror(FILE);
+        mirror.put(ARTICLE, "new");
+        mirror.put(QUERY, "query");
+        mirror.close();
+        INDEX.delete();
+
+        // test
+        mirror = new PageMirror(FILE);
+        assertEquals(Optional.of("new"), mirror.get(ARTICLE));
+        assertEquals(Optional.of("query"), mirror.get(QUERY));
+        assertEquals(2, mirror.count());
+    }
+
+    @Test
+    void testCutOffRecordIsDropped() throws IOException {
+        // setup
+        mirror.put(ARTICLE, "page");
+        mirror.close();
+        final long length = FILE.length();
+        mirror = new PageMirror(FILE);
+        mirror.put(QUERY, "query");
+        mirror.close();
+        try (RandomAccessFile file = new RandomAccessFile(FILE, "rw")) {
+            file.setLength(file.length() - 2);
+        }
+
+        // test
+        mirror = new PageMirror(FILE);
+        assertEquals(Optional.of("page"), mirror.get(ARTICLE));
+        assertFalse(mirror.contains(QUERY));
+        assertEquals(length, mirror.size());
+    }
+
+    @Test
+    void testForeignFileIsRejected() throws IOException {
+        // setup
+        mirror.close();
+        try (FileOutputStream output = new FileOutputStream(FILE)) {
+            output.write("no mirror".getBytes());
+        }
+        INDEX.delete();
+
+        // test
+        assertThrows(IOException.class, () -> new PageMirror(FILE));
+    }
+}
@@ -0,0 +1,144 @@
+package de.wiki;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WikiHttpClientTest {
+    private static final String JSON = "{\"query\":{\"pages\":{}}}";
+    private static final String HTML = "<html><head><title>Johnny Depp</title></head><body></body></html>";
+    private static final String ETAG = "\"v1\"";
+    private static final File CACHE_DIRECTORY = new File("TestWikiHttpClient");
+
+    private HttpServer server;
+    private WikiHttpClient client;
+    private List<String> acceptedEncodings;
+    private List<Integer> remotePorts;
+
+    @BeforeEach
+    void init() throws IOException {
+        acceptedEncodings = new ArrayList<>();
+        remotePorts = new ArrayList<>();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/json", exchange -> respond(exchange, JSON));
+        server.createContext("/html", exchange -> respond(exchange, HTML));
+        server.createContext("/missing", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.start();
+        client = new WikiHttpClient(1000, 1000);
+    }
+
+    private void respond(final HttpExchange exchange, final String body) throws IOException {
+        acceptedEncodings.add(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+        remotePorts.add(exchange.getRemoteAddress().getPort());
+
+        if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body.getBytes(UTF_8));
+        }
+        exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        exchange.getResponseHeaders().add("ETag", ETAG);
+        exchange.sendResponseHeaders(200, compressed.size());
+        try (OutputStream output = exchange.getResponseBody()) {
+            compressed.writeTo(output);
+        }
+    }
+
+    private String urlOf(final String path) {
+        return "http://localhost:" + server.getAddress().getPort() + path;
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void testCompressedBodyIsDecoded() throws IOException {
+        // test
+        final HttpResponse response = client.get(urlOf("/json"), null);
+        assertEquals(JSON, response.getBody());
+        assertEquals(ETAG, response.getETag());
+        assertEquals("gzip", acceptedEncodings.get(0));
+    }
+
+    @Test
+    void testUncachedDocumentIsDownloaded() throws IOException {
+        // setup
+        final Wikipedia wiki = new Wikipedia("localhost", client);
+
+        // test
+        assertEquals("Johnny Depp", wiki.getHTMLDocument(urlOf("/html")).title());
+    }
+
+    @Test
+    void testConditionalRequestIsAnsweredWithoutBody() throws IOException {
+        // setup
+        final HttpCache.Entry cached = new HttpCache.Entry(urlOf("/json"), JSON, ETAG, null, 0);
+
+        // test
+        assertTrue(client.get(urlOf("/json"), cached).isNotModified());
+    }
+
+    @Test
+    void testConnectionIsReused() throws IOException {
+        // test
+        client.get(urlOf("/json"), null);
+        client.get(urlOf("/json"), null);
+        client.get(urlOf("/html"), null);
+        assertEquals(3, remotePorts.size());
+        assertEquals(1, remotePorts.stream().distinct().count());
+    }
+
+    @Test
+    void testErrorStatusThrows() {
+        assertThrows(IOException.class, () -> client.get(urlOf("/missing"), null));
+    }
+
+    @Test
+    void testCachedFetchSkipsServer() throws IOException {
+        // setup
+        final Wikipedia wiki = new Wikipedia("localhost", client);
+        final HttpCache cache = new HttpCache(CACHE_DIRECTORY, 1024, 1, HOURS);
+        wiki.setCache(cache);
+
+        try {
+            // test
+            assertEquals(JSON, wiki.getTextFile(urlOf("/json")));
+            assertEquals(JSON, wiki.getTextFile(urlOf("/json")));
+            assertEquals("Johnny Depp", wiki.getHTMLDocument(urlOf("/html")).title());
+            assertEquals("Johnny Depp", wiki.getHTMLDocument(urlOf("/html")).title());
+            assertEquals(2, remotePorts.size());
+        } finally {
+            cache.clear();
+            CACHE_DIRECTORY.delete();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package de.wiki;
+
+import com.google.gson.JsonObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Tool to fill a {@link PageMirror} for a list of titles. For every title the same requests
+ * are made as by the app: the name based search and the data of the best matching film and
+ * actor page. Responses already contained in the mirror are not requested again.
+ * <p>
+ *     Usage: <code>WikiMirrorFiller &lt;mirror file&gt; &lt;titles file&gt; [wiki]</code>,
+ *     where the titles file contains one title per line.
+ * </p>
+ */
+public final class WikiMirrorFiller {
+    private static final String DEFAULT_WIKI = "en.wikipedia.org";
+
+    private WikiMirrorFiller() {
+
+    }
+
+    /**
+     * Fills the mirror of the given Wiki for the titles. The Wiki is used as the current
+     * Wiki of {@link MediaWiki} during the filling, afterwards the previous Wiki is restored.
+     *
+     * @param wiki the mirrored Wiki, the network fallback is enabled during the filling
+     * @param titles titles of films or names of actors
+     * @return the titles for which neither film nor actor data could be mirrored
+     */
+    public static synchronized List<String> fill(MirroredWikipedia wiki, Collection<String> titles) {
+        final Wikipedia previous = MediaWiki.getCurrentWikipedia();
+        final boolean networkFallback = wiki.isNetworkFallback();
+        MediaWiki.useOtherWiki(wiki);
+        wiki.setNetworkFallback(true);
+        try {
+            final List<String> failed = new ArrayList<>();
+            for (final String title : titles) {
+                if (!fillTitle(title)) {
+                    failed.add(title);
+                }
+            }
+            return failed;
+        } finally {
+            wiki.setNetworkFallback(networkFallback);
+            MediaWiki.useOtherWiki(previous);
+        }
+    }
+
+    private static boolean fillTitle(String title) {
+        final boolean film = topPage(MediaWiki.searchFilmWikiPages(title))
+                .flatMap(MediaWiki::getFilmDataFromWikiPage)
+                .isPresent();
+        final boolean actor = topPage(MediaWiki.searchActorWikiPages(title))
+                .flatMap(MediaWiki::getActorDataFromWikiPage)
+                .isPresent();
+        return film || actor;
+    }
+
+    private static Optional<JsonObject> topPage(Optional<PageSearchResult> result) {
+        return result.map(PageSearchResult::getPages)
+                .filter(pages -> !pages.isEmpty())
+                .map(pages -> pages.get(0));
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: WikiMirrorFiller <mirror file> <titles file> [wiki]");
+            System.exit(1);
+        }
+
+        final List<String> titles = new ArrayList<>();
+        for (final String line : Files.readAllLines(new File(args[1]).toPath(), UTF_8)) {
+            if (!line.trim().isEmpty()) {
+                titles.add(line.trim());
+            }
+        }
+
+        final String name = args.length > 2 ? args[2] : DEFAULT_WIKI;
+        try (PageMirror mirror = new PageMirror(new File(args[0]))) {
+            final List<String> failed = fill(new MirroredWikipedia(name, mirror, true), titles);
+            System.out.println("Mirrored " + (titles.size() - failed.size()) + " of "
+                    + titles.size() + " titles, " + mirror.count() + " responses");
+            for (final String title : failed) {
+                System.out.println("Failed: " + title);
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package de.wiki;
+
+import com.google.gson.JsonObject;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WikiPrefetcherTest {
+    private Map<String, AtomicInteger> loads;
+    private CountDownLatch release;
+    private AtomicInteger running;
+    private AtomicInteger maxRunning;
+    private WikiPrefetcher<String> prefetcher;
+
+    @BeforeEach
+    void init() {
+        loads = new ConcurrentHashMap<>();
+        release = new CountDownLatch(0);
+        running = new AtomicInteger();
+        maxRunning = new AtomicInteger();
+        prefetcher = new WikiPrefetcher<>(this::load, 2);
+    }
+
+    private Optional<String> load(final JsonObject page) {
+        final String url = page.get("fullurl").getAsString();
+        loads.computeIfAbsent(url, key -> new AtomicInteger()).incrementAndGet();
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+            release.await(5, SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running.decrementAndGet();
+        }
+        return Optional.of("data of " + url);
+    }
+
+    private static JsonObject page(final String url, final long length) {
+        final JsonObject page = new JsonObject();
+        page.addProperty("fullurl", url);
+        page.addProperty("length", length);
+        return page;
+    }
+
+    private static List<JsonObject> pages(final int count, final long length) {
+        final List<JsonObject> pages = new ArrayList<>();
+        for (int i = 0; i < count; ++i) {
+            pages.add(page("page" + i, length));
+        }
+        return pages;
+    }
+
+    private int loadsOf(final String url) {
+        return loads.getOrDefault(url, new AtomicInteger()).get();
+    }
+
+    @Test
+    void testPrefetchedPageIsLoadedOnce() {
+        // setup
+        final List<JsonObject> pages = pages(5, 100);
+        prefetcher.prefetch(pages, 3, 1000);
+
+        // test
+        assertEquals(Optional.of("data of page0"), prefetcher.load(pages.get(0)));
+        assertEquals(1, loadsOf("page0"));
+        assertEquals(Optional.of("data of page4"), prefetcher.load(pages.get(4)));
+        assertEquals(1, loadsOf("page4"));
+    }
+
+    @Test
+    void testOnlyTopCandidatesWithinBudgetAreScheduled() {
+        // setup
+        final List<JsonObject> pages = asList(page("a", 400), page("b", 400), page("c", 400));
+
+        // test
+        assertEquals(asList("a", "b"), prefetcher.prefetch(pages, 3, 1000).getScheduledUrls());
+        assertEquals(asList("a"), prefetcher.prefetch(pages, 1, 1000).getScheduledUrls());
+        assertTrue(prefetcher.prefetch(pages, 3, 100).getScheduledUrls().isEmpty());
+    }
+
+    @Test
+    void testParallelismIsBounded() throws InterruptedException {
+        // setup
+        release = new CountDownLatch(1);
+        final List<JsonObject> pages = pages(4, 10);
+        prefetcher.prefetch(pages, 4, 1000);
+
+        // test
+        Thread.sleep(100);
+        release.countDown();
+        for (final JsonObject page : pages) {
+            prefetcher.load(page);
+        }
+        assertEquals(2, maxRunning.get());
+    }
+
+    @Test
+    void testCancelledPrefetchesAreDropped() {
+        // setup
+        release = new CountDownLatch(1);
+        final List<JsonObject> pages = pages(3, 10);
+        final WikiPrefetcher<String>.Session session = prefetcher.prefetch(pages, 3, 1000);
+
+        // precondition
+        assertEquals(3, prefetcher.getPendingCount());
+
+        // test
+        session.cancelExcept(pages.get(1));
+        release.countDown();
+        assertTrue(session.isCancelled());
+        assertEquals(1, prefetcher.getPendingCount());
+        assertEquals(Optional.of("data of page1"), prefetcher.load(pages.get(1)));
+        assertEquals(1, loadsOf("page1"));
+        assertEquals(0, loadsOf("page2"));
+        assertEquals(0, prefetcher.getPendingCount());
+    }
+
+    @Test
+    void testKeptButUnusedPrefetchesAreBounded() {
+        // setup
+        final List<JsonObject> pages = pages(WikiPrefetcher.MAX_PENDING + 2, 10);
+        for (final JsonObject page : pages) {
+            prefetcher.prefetch(asList(page), 1, 1000).cancelExcept(page);
+        }
+
+        // precondition
+        assertEquals(WikiPrefetcher.MAX_PENDING, prefetcher.getPendingCount());
+
+        // test
+        assertEquals(Optional.of("data of page0"), prefetcher.load(pages.get(0)));
+        final JsonObject newest = pages.get(pages.size() - 1);
+        assertEquals(Optional.of("data of " + newest.get("fullurl").getAsString()), prefetcher.load(newest));
+        assertEquals(1, loadsOf(newest.get("fullurl").getAsString()));
+        assertEquals(WikiPrefetcher.MAX_PENDING - 1, prefetcher.getPendingCount());
+    }
+}
@@ -0,0 +1,125 @@
+package de.wiki;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static de.wiki.WikiScheduler.Priority.BACKGROUND;
+import static de.wiki.WikiScheduler.Priority.USER_VISIBLE;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WikiSchedulerTest {
+    private WikiScheduler scheduler;
+    private CountDownLatch blocker;
+    private List<String> order;
+
+    @BeforeEach
+    void init() {
+        scheduler = new WikiScheduler(1);
+        blocker = new CountDownLatch(1);
+        order = new CopyOnWriteArrayList<>();
+    }
+
+    @AfterEach
+    void tearDown() {
+        blocker.countDown();
+        scheduler.shutdown();
+    }
+
+    private WikiScheduler.Task<String> blockWorker() {
+        return scheduler.submit(BACKGROUND, () -> {
+            blocker.await(5, SECONDS);
+            return "blocker";
+        });
+    }
+
+    private WikiScheduler.Task<String> record(final String channel,
+                                              final WikiScheduler.Priority priority,
+                                              final String name) {
+        return scheduler.submit(channel, priority, () -> name, order::add);
+    }
+
+    private static void awaitDone(final WikiScheduler.Task<?> task) throws InterruptedException {
+        final CountDownLatch done = new CountDownLatch(1);
+        task.whenDone(done::countDown);
+        assertTrue(done.await(5, SECONDS));
+    }
+
+    @Test
+    void testUserVisibleWorkOvertakesBackgroundWork() throws InterruptedException {
+        // setup
+        blockWorker();
+        record(null, BACKGROUND, "prefetch 1");
+        record(null, BACKGROUND, "prefetch 2");
+        final WikiScheduler.Task<String> last = record(null, USER_VISIBLE, "query");
+
+        // precondition
+        assertEquals(3, scheduler.getWaitingCount());
+
+        // test
+        blocker.countDown();
+        awaitDone(record(null, BACKGROUND, "prefetch 3"));
+        awaitDone(last);
+        assertEquals(asList("query", "prefetch 1", "prefetch 2", "prefetch 3"), order);
+    }
+
+    @Test
+    void testSupersededWorkIsNotDelivered() throws InterruptedException {
+        // setup
+        blockWorker();
+        final WikiScheduler.Task<String> first = record("query", USER_VISIBLE, "first");
+        final WikiScheduler.Task<String> other = record("fetch", USER_VISIBLE, "other");
+
+        // test
+        final WikiScheduler.Task<String> second = record("query", USER_VISIBLE, "second");
+        assertTrue(first.isCancelled());
+        blocker.countDown();
+        awaitDone(second);
+        awaitDone(other);
+        assertEquals(asList("other", "second"), order);
+    }
+
+    @Test
+    void testDoneActionsRunForCancelledWork() {
+        // setup
+        blockWorker();
+        final WikiScheduler.Task<String> first = record("query", USER_VISIBLE, "first");
+        final List<String> done = new CopyOnWriteArrayList<>();
+        first.whenDone(() -> done.add("first"));
+
+        // test
+        record("query", USER_VISIBLE, "second");
+        assertEquals(asList("first"), done);
+        first.whenDone(() -> done.add("again"));
+        assertEquals(asList("first", "again"), done);
+    }
+
+    @Test
+    void testFallbackRunsForSupersededAndFailedWork() throws InterruptedException {
+        // setup
+        blockWorker();
+        final WikiScheduler.Task<String> first = scheduler.submit("query", USER_VISIBLE,
+                () -> "first", order::add, () -> order.add("first dropped"));
+
+        // precondition
+        assertTrue(order.isEmpty());
+
+        // test
+        final WikiScheduler.Task<String> failing = scheduler.submit("query", USER_VISIBLE, () -> {
+            throw new IllegalStateException("failed");
+        }, order::add, () -> order.add("second failed"));
+        assertTrue(first.isCancelled());
+        assertEquals(asList("first dropped"), order);
+
+        blocker.countDown();
+        awaitDone(failing);
+        assertEquals(asList("first dropped", "second failed"), order);
+    }
+}
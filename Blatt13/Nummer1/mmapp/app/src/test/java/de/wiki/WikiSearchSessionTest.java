@@ -0,0 +1,85 @@
+package de.wiki;
+
+import com.google.gson.JsonObject;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class WikiSearchSessionTest {
+    private WikiSearchSession session;
+
+    @BeforeEach
+    void init() {
+        session = new WikiSearchSession();
+    }
+
+    private static JsonObject page(final String title) {
+        final JsonObject page = new JsonObject();
+        page.addProperty("title", title);
+        return page;
+    }
+
+    private static List<String> titles(final Optional<List<JsonObject>> pages) {
+        return pages.map(list -> list.stream()
+                .map(page -> page.get("title").getAsString())
+                .collect(toList()))
+                .orElse(null);
+    }
+
+    @Test
+    void testNormalize() {
+        assertEquals("johnny depp", WikiSearchSession.normalize("  Johnny \t DEPP "));
+        assertEquals("", WikiSearchSession.normalize("   "));
+        assertEquals("", WikiSearchSession.normalize(null));
+    }
+
+    @Test
+    void testAnsweredQueryIsReused() {
+        // setup
+        session.store("johnny depp", new PageSearchResult(asList(page("Johnny Depp")), false));
+
+        // test
+        assertEquals(asList("Johnny Depp"), titles(session.lookup(WikiSearchSession.normalize("Johnny  Depp"))));
+    }
+
+    @Test
+    void testLongerQueryIsAnsweredFromCompleteResult() {
+        // setup
+        final List<JsonObject> pages = asList(page("Johnny Depp"), page("Johnny Deep"), page("Johnny Cash"));
+        session.store("johnny", new PageSearchResult(pages, true));
+
+        // test
+        assertEquals(asList("Johnny Depp", "Johnny Deep"), titles(session.lookup("johnny de")));
+        assertEquals(asList("Johnny Depp"), titles(session.lookup("johnny depp")));
+        assertEquals(3, session.count());
+    }
+
+    @Test
+    void testLongerQueryNeedsRequestIfResultWasCutOff() {
+        // setup
+        session.store("johnny", new PageSearchResult(asList(page("Johnny Depp")), false));
+
+        // test
+        assertFalse(session.lookup("johnny d").isPresent());
+        assertFalse(session.lookup("john").isPresent());
+    }
+
+    @Test
+    void testExtendedWordNeedsRequest() {
+        // setup
+        session.store("john", new PageSearchResult(asList(page("John Wick")), true));
+        session.store("johnny d", new PageSearchResult(asList(page("Johnny Dee")), true));
+
+        // test
+        assertFalse(session.lookup("johnny").isPresent());
+        assertFalse(session.lookup("johnny depp").isPresent());
+    }
+}
@@ -0,0 +1,74 @@
+package de.wiki.loader;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import de.wiki.data.Film;
+
+import static de.util.Pair.paired;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FilmLoaderTest {
+    private static final String FILM = "<html><body><div class=\"mw-parser-output\">"
+            + "<table class=\"infobox vevent\"><tbody>"
+            + "<tr><th colspan=\"2\" class=\"summary\">Edward Scissorhands</th></tr>"
+            + "<tr><td colspan=\"2\"><a href=\"/wiki/File:Edward.png\" class=\"image\">"
+            + "<img src=\"//upload.wikimedia.org/edward.png\" srcset=\"//upload.wikimedia.org/edward_2x.png 2x\"></a></td></tr>"
+            + "<tr><th scope=\"row\">Directed by</th><td>Tim Burton</td></tr>"
+            + "<tr><th scope=\"row\">Starring</th><td><div class=\"plainlist\"><ul>"
+            + "<li><a href=\"/wiki/Johnny_Depp\">Johnny Depp</a></li>"
+            + "<li>Winona Ryder (uncredited)</li></ul></div></td></tr>"
+            + "<tr><th scope=\"row\">Release date</th><td><div class=\"plainlist\"><ul>"
+            + "<li>6 December 1990 (1990-12-06) (Westwood)</li>"
+            + "<li>not a date</li></ul></div></td></tr>"
+            + "<tr><th scope=\"row\">Running time</th><td>105 minutes<sup>[1]</sup></td></tr>"
+            + "<tr><th scope=\"row\">Country</th><td>United States[2]</td></tr>"
+            + "<tr><th scope=\"row\">Language</th><td>English</td></tr>"
+            + "</tbody></table>"
+            + "<p><b>Edward Scissorhands</b> is a 1990 film.<sup id=\"cite_ref-2\">[2]</sup></p>"
+            + "<div id=\"toc\" class=\"toc\"></div>"
+            + "<p>Plot.</p>"
+            + "</div></body></html>";
+
+    @Test
+    void testLoadFilm() {
+        // setup
+        final Document doc = Jsoup.parse(FILM, "https://en.wikipedia.org");
+
+        // test
+        final Optional<Film> film = FilmLoader.getInstance().loadDataFromWikiHTML(doc);
+        assertTrue(film.isPresent());
+        assertEquals("Edward Scissorhands", film.get().getTitle());
+        assertEquals("https://upload.wikimedia.org/edward_2x.png", film.get().getImageURL());
+        assertEquals("Edward Scissorhands is a 1990 film.", film.get().getDescription());
+        assertEquals(asList(paired("/wiki/Johnny_Depp", "Johnny Depp"), paired("", "Winona Ryder (uncredited)")),
+                film.get().getStarring());
+        assertEquals(singletonList(paired("6 December 1990", "Westwood")), film.get().getReleaseDates());
+        assertEquals("105 minutes", film.get().getRunningTime());
+        assertEquals(singletonList("United States"), film.get().getCountries());
+        assertEquals(singletonList("English"), film.get().getLanguages());
+    }
+
+    @Test
+    void testMissingInfoboxYieldsEmpty() {
+        // setup
+        final Document doc = Jsoup.parse("<html><body><p>No film.</p></body></html>");
+
+        // test
+        assertFalse(FilmLoader.getInstance().loadDataFromWikiHTML(doc).isPresent());
+    }
+
+    @Test
+    void testTabularAttributesMatchHandlers() {
+        // test
+        assertEquals(asList("country", "running time", "starring", "language", "release date"),
+                Film.TABULAR_ATTRIBUTES);
+    }
+}
@@ -0,0 +1,86 @@
+package de.wiki.loader;
+
+import com.google.gson.JsonObject;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import de.wiki.WikiException;
+import de.wiki.data.Actor;
+import de.wiki.query.LeadSectionQuery;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LeadSectionLoadingTest {
+    private static final String LEAD_CONTENT = "<table class=\"infobox biography vcard\"><tbody>"
+            + "<tr><th colspan=\"2\"><div class=\"fn\">Johnny Depp</div></th></tr>"
+            + "<tr><td colspan=\"2\"><a href=\"/wiki/File:Depp.jpg\" class=\"image\">"
+            + "<img src=\"//upload.wikimedia.org/depp.jpg\"></a></td></tr>"
+            + "<tr><th scope=\"row\">Born</th><td><div class=\"nickname\">John Christopher Depp II</div>"
+            + "<span>(1963-06-09) June 9, 1963</span></td></tr>"
+            + "<tr><th scope=\"row\">Occupation</th><td><div class=\"hlist hlist-separated\">"
+            + "<ul><li>Actor</li><li>Producer</li></ul></div></td></tr>"
+            + "</tbody></table>"
+            + "<p class=\"mw-empty-elt\"></p>"
+            + "<p><b>John Christopher Depp II</b> is an American actor.<sup id=\"cite_ref-1\">[1]</sup></p>"
+            + "<p>He is known for eccentric roles.</p>";
+    private static final String LEAD_SECTION = "<div class=\"mw-parser-output\">" + LEAD_CONTENT + "</div>";
+
+    private static String fullArticle() {
+        final StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 100; ++i) {
+            body.append("<h2>Section ").append(i).append("</h2><p>Paragraph ").append(i).append("</p>");
+        }
+        return "<html><head><title>Johnny Depp - Wikipedia</title></head><body>"
+                + "<div class=\"mw-parser-output\">"
+                + LEAD_CONTENT
+                + "<div id=\"toc\" class=\"toc\"><ul><li>Section 0</li></ul></div>"
+                + body
+                + "</div></body></html>";
+    }
+
+    @Test
+    void testLeadSectionYieldsSameDataAsFullArticle() {
+        // setup
+        final Document full = Jsoup.parse(fullArticle(), "https://en.wikipedia.org");
+        final Document lead = Jsoup.parseBodyFragment(LEAD_SECTION, "https://en.wikipedia.org");
+
+        // test
+        final Optional<Actor> fromFull = ActorLoader.getInstance().loadDataFromWikiHTML(full);
+        final Optional<Actor> fromLead = ActorLoader.getInstance().loadDataFromWikiHTML(lead);
+        assertTrue(fromLead.isPresent());
+        assertEquals(fromFull, fromLead);
+        assertEquals("John Christopher Depp II is an American actor.", fromLead.get().getBiography());
+        assertEquals("09 June 1963", fromLead.get().getDateOfBirth());
+        assertEquals(asList("actor", "producer"), fromLead.get().getOccupations());
+        assertEquals("https://upload.wikimedia.org/depp.jpg", fromLead.get().getImageURL());
+    }
+
+    @Test
+    void testHtmlIsExtractedFromParseResult() {
+        // setup
+        final JsonObject parse = new JsonObject();
+        parse.addProperty("title", "Johnny Depp");
+        parse.addProperty("text", LEAD_SECTION);
+        final JsonObject result = new JsonObject();
+        result.add("parse", parse);
+
+        // test
+        assertEquals(LEAD_SECTION, LeadSectionQuery.extractHtml(result.toString()));
+        assertThrows(WikiException.class, () -> LeadSectionQuery.extractHtml("{\"error\":{}}"));
+    }
+
+    @Test
+    void testQueryURL() {
+        // test
+        final String url = LeadSectionQuery.createQueryURL("en.wikipedia.org", 71870);
+        assertTrue(url.startsWith("https://en.wikipedia.org/w/api.php?action=parse&pageid=71870&section=0&"));
+        assertTrue(url.endsWith("format=json"));
+    }
+}
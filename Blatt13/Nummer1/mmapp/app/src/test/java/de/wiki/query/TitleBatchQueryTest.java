@@ -0,0 +1,131 @@
+package de.wiki.query;
+
+import com.google.gson.JsonObject;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.google.gson.JsonParser.parseString;
+import static de.wiki.query.TitleBatchQuery.MAX_TITLES_PER_QUERY;
+import static de.wiki.query.TitleBatchQuery.MAX_URL_LENGTH;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TitleBatchQueryTest {
+    private static final String WIKI = "en.wikipedia.org";
+
+    @BeforeEach
+    void init() {
+        NameBasedQuery.setEncoding(UTF_8.name());
+    }
+
+    private static List<String> titles(final int count, final int length) {
+        final List<String> titles = new ArrayList<>();
+        for (int i = 0; i < count; ++i) {
+            final String number = String.valueOf(i);
+            titles.add(new String(new char[length - number.length()]).replace('\0', 'x') + number);
+        }
+        return titles;
+    }
+
+    @Test
+    void testTitleOfArticleLink() {
+        // test
+        assertEquals(Optional.of("Johnny_Depp"), TitleBatchQuery.titleOfLink("/wiki/Johnny_Depp"));
+        assertEquals(Optional.of("Pen\u00e9lope_Cruz"), TitleBatchQuery.titleOfLink("/wiki/Pen%C3%A9lope_Cruz#Career"));
+        assertEquals(Optional.empty(), TitleBatchQuery.titleOfLink(""));
+        assertEquals(Optional.empty(), TitleBatchQuery.titleOfLink("/w/index.php?title=Kit&action=edit"));
+    }
+
+    @Test
+    void testTitlesAreSplitByCount() {
+        // setup
+        final List<String> titles = titles(120, 10);
+
+        // test
+        final List<List<String>> batches = TitleBatchQuery.partition(WIKI, titles);
+        assertEquals(3, batches.size());
+        assertEquals(MAX_TITLES_PER_QUERY, batches.get(0).size());
+        assertEquals(MAX_TITLES_PER_QUERY, batches.get(1).size());
+        assertEquals(20, batches.get(2).size());
+    }
+
+    @Test
+    void testTitlesAreSplitByUrlLength() {
+        // setup
+        final List<String> titles = titles(40, 500);
+
+        // test
+        final List<List<String>> batches = TitleBatchQuery.partition(WIKI, titles);
+        assertTrue(batches.size() > 1);
+        for (final List<String> batch : batches) {
+            assertTrue(TitleBatchQuery.createQueryURL(WIKI, batch).length() <= MAX_URL_LENGTH);
+        }
+        assertEquals(40, batches.stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    void testDuplicatesAreRequestedOnce() {
+        // test
+        final List<List<String>> batches = TitleBatchQuery.partition(WIKI, asList("A", "B", "A"));
+        assertEquals(asList(asList("A", "B")), batches);
+    }
+
+    @Test
+    void testQueryURL() {
+        // test
+        final String url = TitleBatchQuery.createQueryURL(WIKI, asList("Johnny Depp", "Orlando Bloom"));
+        assertTrue(url.startsWith("https://en.wikipedia.org/w/api.php?action=query&prop=categories|info&"));
+        assertTrue(url.contains("&titles=Johnny+Depp|Orlando+Bloom&redirects=1&"));
+        assertTrue(url.endsWith("format=json"));
+    }
+
+    @Test
+    void testContinuation() {
+        // setup
+        final JsonObject first = parseString("{\"continue\":{\"clcontinue\":\"1|Actors\",\"continue\":\"||\"},"
+                + "\"query\":{\"pages\":{\"1\":{\"title\":\"A\",\"categories\":[{\"title\":\"x\"}]}}}}")
+                .getAsJsonObject();
+        final JsonObject second = parseString("{\"query\":{\"pages\":{"
+                + "\"1\":{\"title\":\"A\",\"categories\":[{\"title\":\"y\"}]},"
+                + "\"2\":{\"title\":\"B\"}}}}")
+                .getAsJsonObject();
+
+        // test
+        assertEquals("url&clcontinue=1%7CActors&continue=%7C%7C",
+                TitleBatchQuery.createContinuationURL("url", first));
+        assertNull(TitleBatchQuery.createContinuationURL("url", second));
+
+        TitleBatchQuery.mergeContinuedResult(first, second);
+        final JsonObject pages = first.getAsJsonObject("query").getAsJsonObject("pages");
+        assertEquals(2, pages.getAsJsonObject("1").getAsJsonArray("categories").size());
+        assertEquals("B", pages.getAsJsonObject("2").get("title").getAsString());
+    }
+
+    @Test
+    void testPagesAreAssignedToRequestedTitles() {
+        // setup
+        final JsonObject result = parseString("{\"query\":{"
+                + "\"normalized\":[{\"from\":\"johnny depp\",\"to\":\"Johnny depp\"}],"
+                + "\"redirects\":[{\"from\":\"Johnny depp\",\"to\":\"Johnny Depp\"}],"
+                + "\"pages\":{"
+                + "\"-1\":{\"title\":\"Nobody\",\"missing\":\"\"},"
+                + "\"7\":{\"title\":\"Johnny Depp\"},"
+                + "\"8\":{\"title\":\"Orlando Bloom\"}}}}")
+                .getAsJsonObject();
+
+        // test
+        final Map<String, JsonObject> pages = TitleBatchQuery.assignPages(
+                asList("johnny depp", "Orlando Bloom", "Nobody"), result);
+        assertEquals(asList("johnny depp", "Orlando Bloom"), new ArrayList<>(pages.keySet()));
+        assertEquals("Johnny Depp", pages.get("johnny depp").get("title").getAsString());
+    }
+}